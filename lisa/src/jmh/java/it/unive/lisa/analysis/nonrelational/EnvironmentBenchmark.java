@@ -0,0 +1,152 @@
+package it.unive.lisa.analysis.nonrelational;
+
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.impl.numeric.Interval;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.caches.Caches;
+import it.unive.lisa.imp.types.IntType;
+import it.unive.lisa.program.CompilationUnit;
+import it.unive.lisa.program.SourceCodeLocation;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CFGDescriptor;
+import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.program.cfg.statement.NoOp;
+import it.unive.lisa.symbolic.value.BinaryExpression;
+import it.unive.lisa.symbolic.value.BinaryOperator;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.symbolic.value.ValueExpression;
+import it.unive.lisa.symbolic.value.Variable;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the lattice operations and the assignments of {@link Environment}s,
+ * through {@link ValueEnvironment}s of {@link Interval}s. Environments map a
+ * configurable number of variables, and the two environments that are
+ * combined differ on half of them.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnvironmentBenchmark {
+
+	/**
+	 * The number of variables in the environments
+	 */
+	@Param({ "16", "256", "4096" })
+	public int size;
+
+	private ProgramPoint pp;
+
+	private Variable[] variables;
+
+	private ValueEnvironment<Interval> first;
+
+	private ValueEnvironment<Interval> second;
+
+	private ValueExpression constant;
+
+	private ValueExpression increment;
+
+	/**
+	 * Builds the environments.
+	 *
+	 * @throws SemanticException if an assignment fails
+	 */
+	@Setup
+	public void setup() throws SemanticException {
+		SourceCodeLocation location = new SourceCodeLocation("benchmark", 1, 1);
+		CFG cfg = new CFG(new CFGDescriptor(location, new CompilationUnit(location, "benchmark", false), true,
+				"benchmark"));
+		pp = new NoOp(cfg, location);
+
+		variables = new Variable[size];
+		first = new ValueEnvironment<>(new Interval());
+		second = new ValueEnvironment<>(new Interval());
+		for (int i = 0; i < size; i++) {
+			variables[i] = new Variable(Caches.types().mkSingletonSet(IntType.INSTANCE), "x" + i);
+			first = first.assign(variables[i], new Constant(IntType.INSTANCE, i), pp);
+			second = second.assign(variables[i], new Constant(IntType.INSTANCE, i % 2 == 0 ? i : -i), pp);
+		}
+
+		constant = new Constant(IntType.INSTANCE, 42);
+		increment = new BinaryExpression(Caches.types().mkSingletonSet(IntType.INSTANCE), variables[0],
+				new Constant(IntType.INSTANCE, 1), BinaryOperator.NUMERIC_ADD);
+	}
+
+	/**
+	 * Assigns a constant to a variable.
+	 *
+	 * @return the resulting environment
+	 *
+	 * @throws SemanticException if the assignment fails
+	 */
+	@Benchmark
+	public ValueEnvironment<Interval> assignConstant() throws SemanticException {
+		return first.assign(variables[size / 2], constant, pp);
+	}
+
+	/**
+	 * Assigns an expression reading another variable to a variable.
+	 *
+	 * @return the resulting environment
+	 *
+	 * @throws SemanticException if the assignment fails
+	 */
+	@Benchmark
+	public ValueEnvironment<Interval> assignExpression() throws SemanticException {
+		return first.assign(variables[size / 2], increment, pp);
+	}
+
+	/**
+	 * Computes the least upper bound of two environments.
+	 *
+	 * @return the least upper bound
+	 *
+	 * @throws SemanticException if the operation fails
+	 */
+	@Benchmark
+	public ValueEnvironment<Interval> lub() throws SemanticException {
+		return first.lub(second);
+	}
+
+	/**
+	 * Computes the widening of two environments.
+	 *
+	 * @return the widening
+	 *
+	 * @throws SemanticException if the operation fails
+	 */
+	@Benchmark
+	public ValueEnvironment<Interval> widening() throws SemanticException {
+		return first.widening(second);
+	}
+
+	/**
+	 * Checks the ordering between two environments.
+	 *
+	 * @return whether or not the first environment is less or equal than the
+	 *             second one
+	 *
+	 * @throws SemanticException if the operation fails
+	 */
+	@Benchmark
+	public boolean lessOrEqual() throws SemanticException {
+		return first.lessOrEqual(second);
+	}
+}
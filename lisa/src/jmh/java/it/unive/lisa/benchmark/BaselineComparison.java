@@ -0,0 +1,143 @@
+package it.unive.lisa.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+/**
+ * Compares the results of a JMH run, stored in JMH's json format, against the
+ * ones of a previous run used as baseline. A benchmark is considered to have
+ * regressed if its score got worse (that is, higher for time-based modes and
+ * lower for throughput) by more than a given percentage, and if the difference
+ * is larger than the sum of the score errors of the two runs. Benchmarks are
+ * matched by name and parameters: the ones that appear in only one of the two
+ * runs are reported but never considered regressions. This is not a
+ * benchmark: run it through its main method, or through the
+ * {@code jmhCompare} Gradle task.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public final class BaselineComparison {
+
+	private BaselineComparison() {
+		// this class is just a static holder
+	}
+
+	/**
+	 * Runs the comparison, terminating the virtual machine with a non-zero
+	 * exit code if at least one benchmark regressed.
+	 *
+	 * @param args the json file containing the baseline, the json file
+	 *                 containing the results to check and, optionally, the
+	 *                 tolerated slowdown in percentage (defaults to
+	 *                 {@code 10})
+	 *
+	 * @throws IOException if one of the files cannot be read
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: BaselineComparison <baseline.json> <results.json> [threshold%]");
+			System.exit(2);
+		}
+
+		File baselineFile = new File(args[0]);
+		if (!baselineFile.exists()) {
+			System.err.println("No baseline found at " + baselineFile
+					+ ": run the jmhBaseline task to store the current results as baseline");
+			System.exit(2);
+		}
+
+		double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+		Map<String, JsonNode> baseline = read(baselineFile);
+		Map<String, JsonNode> current = read(new File(args[1]));
+
+		int regressions = compare(baseline, current, threshold);
+		if (regressions > 0) {
+			System.err.println(regressions + " benchmark(s) regressed by more than " + threshold + "%");
+			System.exit(1);
+		}
+		System.out.println("No regressions detected");
+	}
+
+	private static Map<String, JsonNode> read(File file) throws IOException {
+		Map<String, JsonNode> results = new TreeMap<>();
+		for (JsonNode result : new ObjectMapper().readTree(file))
+			results.put(key(result), result);
+		return results;
+	}
+
+	private static String key(JsonNode result) {
+		StringBuilder key = new StringBuilder(result.get("benchmark").asText());
+		JsonNode params = result.get("params");
+		if (params != null) {
+			Map<String, String> sorted = new TreeMap<>();
+			Iterator<Entry<String, JsonNode>> it = params.fields();
+			while (it.hasNext()) {
+				Entry<String, JsonNode> param = it.next();
+				sorted.put(param.getKey(), param.getValue().asText());
+			}
+			key.append(sorted);
+		}
+		return key.append(" (").append(result.get("mode").asText()).append(")").toString();
+	}
+
+	private static int compare(Map<String, JsonNode> baseline, Map<String, JsonNode> current, double threshold) {
+		int regressions = 0;
+		for (Entry<String, JsonNode> entry : current.entrySet()) {
+			String key = entry.getKey();
+			JsonNode old = baseline.get(key);
+			if (old == null) {
+				System.out.println("[NEW]        " + key);
+				continue;
+			}
+
+			JsonNode before = old.get("primaryMetric");
+			JsonNode after = entry.getValue().get("primaryMetric");
+			String unit = after.get("scoreUnit").asText();
+			if (!unit.equals(before.get("scoreUnit").asText())) {
+				System.out.println("[SKIPPED]    " + key + ": unit changed from "
+						+ before.get("scoreUnit").asText() + " to " + unit);
+				continue;
+			}
+
+			double oldScore = before.get("score").asDouble();
+			double newScore = after.get("score").asDouble();
+			double noise = error(before) + error(after);
+			// for throughput, higher is better
+			boolean higherIsBetter = "thrpt".equals(entry.getValue().get("mode").asText());
+			double worsening = higherIsBetter ? oldScore - newScore : newScore - oldScore;
+			double change = oldScore == 0 ? 0 : 100 * worsening / oldScore;
+
+			String status;
+			if (change > threshold && worsening > noise) {
+				status = "[REGRESSION] ";
+				regressions++;
+			} else if (change < -threshold && -worsening > noise)
+				status = "[IMPROVED]   ";
+			else
+				status = "[OK]         ";
+
+			System.out.println(String.format("%s%s: %.3f -> %.3f %s (%+.1f%%)", status, key, oldScore, newScore,
+					unit, higherIsBetter ? -change : change));
+		}
+
+		for (String key : baseline.keySet())
+			if (!current.containsKey(key))
+				System.out.println("[MISSING]    " + key);
+
+		return regressions;
+	}
+
+	private static double error(JsonNode metric) {
+		JsonNode error = metric.get("scoreError");
+		if (error == null || !error.isNumber())
+			// jmh writes "NaN" when there are not enough iterations
+			return 0;
+		return error.asDouble();
+	}
+}
@@ -0,0 +1,130 @@
+package it.unive.lisa.benchmark;
+
+import it.unive.lisa.AnalysisException;
+import it.unive.lisa.LiSA;
+import it.unive.lisa.LiSAConfiguration;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.program.Program;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * A generator of synthetic IMP programs of increasing size, used to measure
+ * how the cost of the analyses scales with the size of the input. Programs are
+ * made of a chain of classes, each extending the previous one and declaring
+ * {@link #METHODS_PER_CLASS} methods and overriding one of the methods of its
+ * superclass. Each method contains nested loops and branches over integer
+ * variables, allocates an object, writes its fields and invokes a method
+ * defined earlier in the program on it, so that numeric, heap, dataflow and
+ * call resolution code are all exercised. Generation is deterministic: the
+ * same parameters always yield the same program.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public final class SyntheticPrograms {
+
+	/**
+	 * The number of methods declared by each generated class
+	 */
+	public static final int METHODS_PER_CLASS = 5;
+
+	private SyntheticPrograms() {
+		// this class is just a static holder
+	}
+
+	/**
+	 * Generates the source code of a synthetic IMP program.
+	 *
+	 * @param methods the number of distinct methods of the program, that
+	 *                    does not include the overriding ones
+	 * @param seed    the seed used to choose constants and call targets
+	 *
+	 * @return the IMP source code
+	 */
+	public static String generate(int methods, long seed) {
+		int classes = (methods + METHODS_PER_CLASS - 1) / METHODS_PER_CLASS;
+		StringBuilder code = new StringBuilder();
+		for (int c = 0; c < classes; c++) {
+			code.append("class C").append(c);
+			if (c > 0)
+				code.append(" extends C").append(c - 1);
+			code.append(" {\n");
+			if (c == 0)
+				code.append("\tf;\n\tg;\n");
+
+			int first = c * METHODS_PER_CLASS;
+			for (int m = first; m < Math.min(first + METHODS_PER_CLASS, methods); m++)
+				method(code, m, m, classes, new Random(seed + m));
+			if (c > 0)
+				// the override shares the name, but not the body, of the
+				// first method of the superclass
+				method(code, first - METHODS_PER_CLASS, first, classes, new Random(seed - first));
+			code.append("}\n\n");
+		}
+		return code.toString();
+	}
+
+	private static void method(StringBuilder code, int name, int index, int classes, Random random) {
+		code.append("\n\tm").append(name).append("(a, b) {\n");
+		code.append("\t\tdef x = a;\n");
+		code.append("\t\tdef y = ").append(random.nextInt(100)).append(";\n");
+		code.append("\t\tdef z = 0;\n");
+		code.append("\t\twhile (x < ").append(10 + random.nextInt(90)).append(") {\n");
+		code.append("\t\t\tif (y > b)\n");
+		code.append("\t\t\t\ty = y - x;\n");
+		code.append("\t\t\telse\n");
+		code.append("\t\t\t\ty = y + ").append(1 + random.nextInt(10)).append(";\n");
+		code.append("\t\t\tdef i = 0;\n");
+		code.append("\t\t\twhile (i < x) {\n");
+		code.append("\t\t\t\tz = z + i * ").append(1 + random.nextInt(5)).append(";\n");
+		code.append("\t\t\t\ti = i + 1;\n");
+		code.append("\t\t\t}\n");
+		code.append("\t\t\tx = x + 1;\n");
+		code.append("\t\t}\n");
+
+		if (index > 0) {
+			int callee = random.nextInt(index);
+			int lowest = callee / METHODS_PER_CLASS;
+			int receiver = lowest + random.nextInt(classes - lowest);
+			code.append("\t\tdef o = new C").append(receiver).append("();\n");
+			code.append("\t\to.f = x;\n");
+			// fields are read before the call: the point-based heap currently
+			// fails when reading a field of the receiver of a previous call
+			code.append("\t\tz = z + o.f;\n");
+			code.append("\t\to.g = o.m").append(callee).append("(y, z);\n");
+		}
+
+		code.append("\t\treturn y - z;\n");
+		code.append("\t}\n");
+	}
+
+	/**
+	 * Generates a synthetic IMP program, parses it and runs the type
+	 * inference on it, so that all of its cfgs are ready to be analyzed.
+	 *
+	 * @param methods the number of distinct methods of the program, that
+	 *                    does not include the overriding ones
+	 * @param seed    the seed used to choose constants and call targets
+	 *
+	 * @return the finalized program
+	 *
+	 * @throws ParsingException  if the generated code cannot be parsed
+	 * @throws AnalysisException if the type inference fails
+	 * @throws IOException       if the temporary working directory of the
+	 *                               type inference cannot be handled
+	 */
+	public static Program build(int methods, long seed) throws ParsingException, AnalysisException, IOException {
+		Program program = IMPFrontend.processText(generate(methods, seed));
+		Path workdir = Files.createTempDirectory("lisa-jmh");
+		try {
+			new LiSA(new LiSAConfiguration().setInferTypes(true).setWorkdir(workdir.toString())).run(program);
+		} finally {
+			FileUtils.deleteQuietly(workdir.toFile());
+		}
+		return program;
+	}
+}
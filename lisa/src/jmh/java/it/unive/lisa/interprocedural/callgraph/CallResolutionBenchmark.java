@@ -0,0 +1,148 @@
+package it.unive.lisa.interprocedural.callgraph;
+
+import it.unive.lisa.AnalysisException;
+import it.unive.lisa.benchmark.SyntheticPrograms;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.interprocedural.callgraph.impl.CHACallGraph;
+import it.unive.lisa.interprocedural.callgraph.impl.RTACallGraph;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.program.cfg.statement.UnresolvedCall;
+import it.unive.lisa.util.datastructures.graph.GraphVisitor;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the time needed by {@link BaseCallGraph#resolve(UnresolvedCall)}
+ * to resolve all the calls of a synthetic program generated through
+ * {@link SyntheticPrograms}. Both the resolution on a freshly initialized call
+ * graph and the one on a call graph that already resolved the same calls are
+ * measured.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CallResolutionBenchmark {
+
+	/**
+	 * The number of methods of the program
+	 */
+	@Param({ "10", "100", "1000" })
+	public int size;
+
+	/**
+	 * The call graph algorithm
+	 */
+	@Param({ "CHA", "RTA" })
+	public String algorithm;
+
+	private Program program;
+
+	private Collection<UnresolvedCall> calls;
+
+	private BaseCallGraph warm;
+
+	/**
+	 * Generates the program and collects its calls.
+	 *
+	 * @throws ParsingException               if the program cannot be parsed
+	 * @throws AnalysisException              if the type inference fails
+	 * @throws IOException                    if the working directory of the
+	 *                                            type inference cannot be
+	 *                                            handled
+	 * @throws CallGraphConstructionException if the call graph cannot be
+	 *                                            built
+	 * @throws CallResolutionException        if a call cannot be resolved
+	 */
+	@Setup
+	public void setup() throws ParsingException, AnalysisException, IOException, CallGraphConstructionException,
+			CallResolutionException {
+		program = SyntheticPrograms.build(size, 42);
+		calls = new ArrayList<>();
+		for (CFG cfg : program.getAllCFGs())
+			cfg.accept(new CallCollector(), calls);
+
+		warm = callgraph();
+		warm.init(program);
+		for (UnresolvedCall call : calls)
+			warm.resolve(call);
+	}
+
+	private BaseCallGraph callgraph() {
+		return algorithm.equals("CHA") ? new CHACallGraph() : new RTACallGraph();
+	}
+
+	/**
+	 * Initializes a new call graph and resolves all the calls of the program
+	 * with it.
+	 *
+	 * @param bh the blackhole consuming the results
+	 *
+	 * @throws CallGraphConstructionException if the call graph cannot be
+	 *                                            built
+	 * @throws CallResolutionException        if a call cannot be resolved
+	 */
+	@Benchmark
+	public void resolveCold(Blackhole bh) throws CallGraphConstructionException, CallResolutionException {
+		BaseCallGraph callgraph = callgraph();
+		callgraph.init(program);
+		for (UnresolvedCall call : calls)
+			bh.consume(callgraph.resolve(call));
+	}
+
+	/**
+	 * Resolves all the calls of the program with a call graph that already
+	 * resolved them.
+	 *
+	 * @param bh the blackhole consuming the results
+	 *
+	 * @throws CallResolutionException if a call cannot be resolved
+	 */
+	@Benchmark
+	public void resolveWarm(Blackhole bh) throws CallResolutionException {
+		for (UnresolvedCall call : calls)
+			bh.consume(warm.resolve(call));
+	}
+
+	private static class CallCollector
+			implements GraphVisitor<CFG, Statement, Edge, Collection<UnresolvedCall>> {
+
+		@Override
+		public boolean visit(Collection<UnresolvedCall> tool, CFG graph) {
+			return true;
+		}
+
+		@Override
+		public boolean visit(Collection<UnresolvedCall> tool, CFG graph, Statement node) {
+			if (node instanceof UnresolvedCall)
+				tool.add((UnresolvedCall) node);
+			return true;
+		}
+
+		@Override
+		public boolean visit(Collection<UnresolvedCall> tool, CFG graph, Edge edge) {
+			return true;
+		}
+	}
+}
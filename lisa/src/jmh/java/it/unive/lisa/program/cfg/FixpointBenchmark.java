@@ -0,0 +1,147 @@
+package it.unive.lisa.program.cfg;
+
+import static it.unive.lisa.LiSAFactory.getDefaultFor;
+
+import it.unive.lisa.AnalysisException;
+import it.unive.lisa.AnalysisSetupException;
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.impl.dataflow.AvailableExpressions;
+import it.unive.lisa.analysis.impl.dataflow.ConstantPropagation;
+import it.unive.lisa.analysis.impl.dataflow.ReachingDefinitions;
+import it.unive.lisa.analysis.impl.heap.pointbased.PointBasedHeap;
+import it.unive.lisa.analysis.impl.numeric.Interval;
+import it.unive.lisa.analysis.impl.numeric.Sign;
+import it.unive.lisa.analysis.impl.types.InferredTypes;
+import it.unive.lisa.benchmark.SyntheticPrograms;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.interprocedural.InterproceduralAnalysisException;
+import it.unive.lisa.interprocedural.callgraph.CallGraph;
+import it.unive.lisa.interprocedural.callgraph.CallGraphConstructionException;
+import it.unive.lisa.interprocedural.callgraph.impl.RTACallGraph;
+import it.unive.lisa.interprocedural.impl.ModularWorstCaseAnalysis;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.symbolic.value.Skip;
+import it.unive.lisa.util.datastructures.graph.FixpointException;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the time needed by {@link CFG#fixpoint(AnalysisState,
+ * it.unive.lisa.interprocedural.InterproceduralAnalysis)} to analyze all the
+ * cfgs of a synthetic program under each of the domains shipped with LiSA.
+ * Programs are generated through {@link SyntheticPrograms}, and their size is
+ * a parameter of the benchmark so that scaling curves can be drawn. Calls are
+ * handled by a {@link ModularWorstCaseAnalysis}, so that only intraprocedural
+ * costs are measured.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FixpointBenchmark {
+
+	/**
+	 * The number of methods of the analyzed program
+	 */
+	@Param({ "10", "100", "500" })
+	public int size;
+
+	/**
+	 * The domain used for the analysis
+	 */
+	@Param({ "interval", "sign", "types", "point-based-heap", "reaching-definitions", "available-expressions",
+			"constant-propagation" })
+	public String domain;
+
+	private Collection<CFG> cfgs;
+
+	private ModularWorstCaseAnalysis<?, ?, ?> interprocedural;
+
+	private AnalysisState<?, ?, ?> entryState;
+
+	/**
+	 * Generates the program and prepares the analysis.
+	 *
+	 * @throws ParsingException                 if the program cannot be
+	 *                                              parsed
+	 * @throws AnalysisException                if the type inference fails
+	 * @throws IOException                      if the working directory of
+	 *                                              the type inference cannot
+	 *                                              be handled
+	 * @throws AnalysisSetupException           if the domain cannot be built
+	 * @throws CallGraphConstructionException   if the call graph cannot be
+	 *                                              built
+	 * @throws InterproceduralAnalysisException if the interprocedural
+	 *                                              analysis cannot be built
+	 */
+	@Setup
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void setup() throws ParsingException, AnalysisException, IOException, AnalysisSetupException,
+			CallGraphConstructionException, InterproceduralAnalysisException {
+		Program program = SyntheticPrograms.build(size, 42);
+		cfgs = program.getAllCFGs();
+
+		CallGraph callgraph = new RTACallGraph();
+		callgraph.init(program);
+		interprocedural = new ModularWorstCaseAnalysis<>();
+		interprocedural.init(program, callgraph);
+
+		AbstractState state = state();
+		entryState = new AnalysisState((AbstractState) state.top(), new Skip());
+	}
+
+	private AbstractState<?, ?, ?> state() throws AnalysisSetupException {
+		HeapDomain<?> heap = getDefaultFor(HeapDomain.class);
+		switch (domain) {
+		case "interval":
+			return getDefaultFor(AbstractState.class, heap, new Interval());
+		case "sign":
+			return getDefaultFor(AbstractState.class, heap, new Sign());
+		case "types":
+			return getDefaultFor(AbstractState.class, heap, new InferredTypes());
+		case "point-based-heap":
+			return getDefaultFor(AbstractState.class, new PointBasedHeap(), new Interval());
+		case "reaching-definitions":
+			return getDefaultFor(AbstractState.class, heap, new ReachingDefinitions());
+		case "available-expressions":
+			return getDefaultFor(AbstractState.class, heap, new AvailableExpressions());
+		case "constant-propagation":
+			return getDefaultFor(AbstractState.class, heap, new ConstantPropagation());
+		default:
+			throw new IllegalArgumentException("Unknown domain: " + domain);
+		}
+	}
+
+	/**
+	 * Computes the fixpoint over each cfg of the program.
+	 *
+	 * @param bh the blackhole consuming the results
+	 *
+	 * @throws FixpointException if the fixpoint computation fails
+	 */
+	@Benchmark
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void fixpoint(Blackhole bh) throws FixpointException {
+		for (CFG cfg : cfgs)
+			bh.consume(cfg.fixpoint((AnalysisState) entryState, (ModularWorstCaseAnalysis) interprocedural));
+	}
+}
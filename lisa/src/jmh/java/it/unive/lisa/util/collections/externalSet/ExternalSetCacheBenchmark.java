@@ -0,0 +1,147 @@
+package it.unive.lisa.util.collections.externalSet;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * Measures the throughput of {@link ExternalSet}s sharing the same
+ * {@link ExternalSetCache} when used by an increasing number of threads. Each
+ * invocation builds a set of elements that are already in the cache, checks
+ * the membership of all the elements of the cache in it and iterates over it,
+ * mimicking what analyses do with the shared type cache. The benchmarks differ
+ * only in the number of threads using the cache: comparing their throughput
+ * shows how the cache scales.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExternalSetCacheBenchmark {
+
+	/**
+	 * The number of elements in the cache
+	 */
+	@Param({ "256", "4096" })
+	public int size;
+
+	private ExternalSetCache<Object> cache;
+
+	private Object[] elements;
+
+	/**
+	 * The state of each thread, used to vary the sets built by subsequent
+	 * invocations.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	@State(Scope.Thread)
+	public static class Seed {
+
+		private int next;
+
+		/**
+		 * Initializes the seed with the index of the thread.
+		 *
+		 * @param params the parameters of the thread
+		 */
+		@Setup
+		public void setup(ThreadParams params) {
+			next = params.getThreadIndex();
+		}
+	}
+
+	/**
+	 * Populates the cache.
+	 */
+	@Setup
+	public void setup() {
+		cache = new ExternalSetCache<>();
+		elements = new Object[size];
+		for (int i = 0; i < size; i++) {
+			elements[i] = "element" + i;
+			cache.mkSingletonSet(elements[i]);
+		}
+	}
+
+	private long work(Seed seed) {
+		ExternalSet<Object> set = cache.mkEmptySet();
+		for (int i = seed.next++ % 7; i < elements.length; i += 7)
+			set.add(elements[i]);
+
+		long count = 0;
+		for (Object element : elements)
+			if (set.contains(element))
+				count++;
+		for (Object element : set)
+			count += element.hashCode() & 1;
+		return count;
+	}
+
+	/**
+	 * Uses the cache from a single thread.
+	 *
+	 * @param seed the state of the current thread
+	 *
+	 * @return a value depending on the work done
+	 */
+	@Benchmark
+	@Threads(1)
+	public long oneThread(Seed seed) {
+		return work(seed);
+	}
+
+	/**
+	 * Uses the cache from two threads.
+	 *
+	 * @param seed the state of the current thread
+	 *
+	 * @return a value depending on the work done
+	 */
+	@Benchmark
+	@Threads(2)
+	public long twoThreads(Seed seed) {
+		return work(seed);
+	}
+
+	/**
+	 * Uses the cache from four threads.
+	 *
+	 * @param seed the state of the current thread
+	 *
+	 * @return a value depending on the work done
+	 */
+	@Benchmark
+	@Threads(4)
+	public long fourThreads(Seed seed) {
+		return work(seed);
+	}
+
+	/**
+	 * Uses the cache from as many threads as the available processors.
+	 *
+	 * @param seed the state of the current thread
+	 *
+	 * @return a value depending on the work done
+	 */
+	@Benchmark
+	@Threads(Threads.MAX)
+	public long allThreads(Seed seed) {
+		return work(seed);
+	}
+}
@@ -0,0 +1,145 @@
+package it.unive.lisa.util.collections.externalSet;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the basic operations of {@link ExternalSet}s: creation, addition
+ * of elements, union, intersection, difference, inclusion and membership
+ * checks, and iteration. Sets are built over a cache of a configurable number
+ * of elements, each containing roughly half of them.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExternalSetOperationsBenchmark {
+
+	/**
+	 * The number of elements in the cache
+	 */
+	@Param({ "64", "1024", "16384" })
+	public int size;
+
+	private ExternalSetCache<Object> cache;
+
+	private Object[] elements;
+
+	private ExternalSet<Object> first;
+
+	private ExternalSet<Object> second;
+
+	/**
+	 * Populates the cache and builds the sets.
+	 */
+	@Setup
+	public void setup() {
+		cache = new ExternalSetCache<>();
+		elements = new Object[size];
+		for (int i = 0; i < size; i++) {
+			elements[i] = "element" + i;
+			cache.mkSingletonSet(elements[i]);
+		}
+
+		Random random = new Random(42);
+		first = cache.mkEmptySet();
+		second = cache.mkEmptySet();
+		for (Object element : elements) {
+			if (random.nextBoolean())
+				first.add(element);
+			if (random.nextBoolean())
+				second.add(element);
+		}
+	}
+
+	/**
+	 * Builds a set containing half of the elements of the cache.
+	 *
+	 * @return the set
+	 */
+	@Benchmark
+	public ExternalSet<Object> add() {
+		ExternalSet<Object> set = cache.mkEmptySet();
+		for (int i = 0; i < size; i += 2)
+			set.add(elements[i]);
+		return set;
+	}
+
+	/**
+	 * Computes the union of two sets.
+	 *
+	 * @return the union
+	 */
+	@Benchmark
+	public ExternalSet<Object> union() {
+		return first.union(second);
+	}
+
+	/**
+	 * Computes the intersection of two sets.
+	 *
+	 * @return the intersection
+	 */
+	@Benchmark
+	public ExternalSet<Object> intersection() {
+		return first.intersection(second);
+	}
+
+	/**
+	 * Computes the difference of two sets.
+	 *
+	 * @return the difference
+	 */
+	@Benchmark
+	public ExternalSet<Object> difference() {
+		return first.difference(second);
+	}
+
+	/**
+	 * Checks the inclusion between two sets.
+	 *
+	 * @return whether or not the first set contains the second one
+	 */
+	@Benchmark
+	public boolean inclusion() {
+		return first.contains(second);
+	}
+
+	/**
+	 * Checks the membership of each element of the cache in a set.
+	 *
+	 * @param bh the blackhole consuming the results
+	 */
+	@Benchmark
+	public void contains(Blackhole bh) {
+		for (Object element : elements)
+			bh.consume(first.contains(element));
+	}
+
+	/**
+	 * Iterates over the elements of a set.
+	 *
+	 * @param bh the blackhole consuming the elements
+	 */
+	@Benchmark
+	public void iterate(Blackhole bh) {
+		for (Object element : first)
+			bh.consume(element);
+	}
+}
@@ -0,0 +1,100 @@
+package it.unive.lisa.util.datastructures.graph;
+
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.ProgramValidationException;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the structural queries issued by fixpoint computations
+ * ({@link AdjacencyMatrix#followersOf(Node)},
+ * {@link AdjacencyMatrix#predecessorsOf(Node)} and
+ * {@link AdjacencyMatrix#getEdgeConnecting(Node, Node)}) on a plain
+ * {@link AdjacencyMatrix} and on a compacted one. Each invocation issues the
+ * queries for all the nodes of a cfg made of a configurable number of
+ * sequential loops, each containing a branch.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdjacencyMatrixBenchmark {
+
+	/**
+	 * The number of loops of the cfg
+	 */
+	@Param({ "50", "500" })
+	public int branches;
+
+	/**
+	 * The kind of matrix queried, either {@code plain} or {@code compacted}
+	 */
+	@Param({ "plain", "compacted" })
+	public String matrix;
+
+	private AdjacencyMatrix<Statement, Edge, CFG> adjacency;
+
+	private List<Statement> nodes;
+
+	/**
+	 * Generates the cfg and builds the matrix to query.
+	 *
+	 * @throws ParsingException           if the generated program cannot be
+	 *                                        parsed
+	 * @throws ProgramValidationException if the generated program is not
+	 *                                        valid
+	 */
+	@Setup
+	public void setup() throws ParsingException, ProgramValidationException {
+		StringBuilder code = new StringBuilder("class bench { main(x) { def y = 0;");
+		for (int i = 0; i < branches; i++)
+			code.append(" while (x > ").append(i).append(") { if (y > ").append(i)
+					.append(") y = y - 1; else y = y + 1; x = x - 1; }");
+		code.append(" return y; } }");
+
+		Program p = IMPFrontend.processText(code.toString(), true);
+		p.validateAndFinalize();
+		CFG cfg = p.getAllCFGs().iterator().next();
+		// finalization compacts the matrix of the cfg
+		AdjacencyMatrix<Statement, Edge, CFG> compacted = cfg.getAdjacencyMatrix();
+		adjacency = matrix.equals("compacted") ? compacted : new AdjacencyMatrix<>(compacted);
+		nodes = new ArrayList<>(adjacency.getNodes());
+	}
+
+	/**
+	 * Queries the followers, the predecessors and the outgoing edges of each
+	 * node of the cfg.
+	 *
+	 * @param bh the blackhole consuming the results
+	 */
+	@Benchmark
+	public void visit(Blackhole bh) {
+		for (Statement node : nodes) {
+			for (Statement follower : adjacency.followersOf(node))
+				bh.consume(adjacency.getEdgeConnecting(node, follower));
+			bh.consume(adjacency.predecessorsOf(node).size());
+		}
+	}
+}
@@ -6,7 +6,7 @@ import it.unive.lisa.checks.warnings.Warning;
 import it.unive.lisa.interprocedural.InterproceduralAnalysis;
 import it.unive.lisa.interprocedural.callgraph.CallGraph;
 import it.unive.lisa.logging.TimerLogger;
-import it.unive.lisa.outputs.JsonReport;
+import it.unive.lisa.outputs.JsonReportWriter;
 import it.unive.lisa.program.Program;
 import it.unive.lisa.util.file.FileManager;
 import java.io.IOException;
@@ -14,6 +14,7 @@ import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.function.Consumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -29,6 +30,11 @@ public class LiSA {
 
 	private static final Logger log = LogManager.getLogger(LiSA.class);
 
+	/**
+	 * The name of the json report file
+	 */
+	private static final String REPORT_FILE = "report.json";
+
 	/**
 	 * The collection of warnings that will be filled with the results of all
 	 * the executed checks
@@ -93,23 +99,44 @@ public class LiSA {
 
 		LiSARunner runner = new LiSARunner(conf, interproc, callGraph, conf.getState());
 
+		if (!conf.isJsonOutput()) {
+			warnings.addAll(analyze(runner, program, null));
+			printStats(warnings.size());
+			return;
+		}
+
+		// warnings are streamed to the report as soon as they are generated,
+		// instead of collecting all of them before writing it
+		Writer writer;
 		try {
-			warnings.addAll(TimerLogger.execSupplier(log, "Analysis time", () -> runner.run(program, fileManager)));
-		} catch (AnalysisExecutionException e) {
-			throw new AnalysisException("LiSA has encountered an exception while executing the analysis", e);
+			writer = fileManager.mkOutputFile(REPORT_FILE);
+		} catch (IOException e) {
+			throw new AnalysisException("Unable to create the report file", e);
 		}
 
-		printStats();
-
-		if (conf.isJsonOutput()) {
-			log.info("Dumping reported warnings to 'report.json'");
-			JsonReport report = new JsonReport(warnings, fileManager.createdFiles());
-			try (Writer writer = fileManager.mkOutputFile("report.json")) {
-				report.dump(writer);
-				log.info("Report file dumped to report.json");
-			} catch (IOException e) {
-				log.error("Unable to dump report file", e);
-			}
+		try (writer; JsonReportWriter report = new JsonReportWriter(writer)) {
+			ReportSink sink = new ReportSink(report);
+			analyze(runner, program, sink);
+			if (sink.failure != null)
+				throw sink.failure;
+
+			log.info("Dumping reported warnings to '" + REPORT_FILE + "'");
+			Collection<String> files = new ArrayList<>(fileManager.createdFiles());
+			files.remove(REPORT_FILE);
+			report.finish(files);
+			printStats(report.getWrittenWarnings());
+			log.info("Report file dumped to " + REPORT_FILE);
+		} catch (IOException e) {
+			log.error("Unable to dump report file", e);
+		}
+	}
+
+	private Collection<Warning> analyze(LiSARunner<?, ?, ?> runner, Program program, Consumer<Warning> sink)
+			throws AnalysisException {
+		try {
+			return TimerLogger.execSupplier(log, "Analysis time", () -> runner.run(program, fileManager, sink));
+		} catch (AnalysisExecutionException e) {
+			throw new AnalysisException("LiSA has encountered an exception while executing the analysis", e);
 		}
 	}
 
@@ -117,19 +144,48 @@ public class LiSA {
 		log.info(conf.toString());
 	}
 
-	private void printStats() {
+	private void printStats(int generated) {
 		log.info("LiSA statistics:");
-		log.info("  " + warnings.size() + " warnings generated");
+		log.info("  " + generated + " warnings generated");
 	}
 
 	/**
 	 * Yields an unmodifiable view of the warnings that have been generated
 	 * during the analysis. Invoking this method before invoking
-	 * {@link #run(Program)} will return an empty collection.
+	 * {@link #run(Program)} will return an empty collection. When
+	 * {@link LiSAConfiguration#setJsonOutput(boolean) json output} is enabled,
+	 * warnings are streamed to the report file instead of being kept in
+	 * memory, and the returned collection is empty.
 	 * 
 	 * @return a view of the generated warnings
 	 */
 	public Collection<Warning> getWarnings() {
 		return Collections.unmodifiableCollection(warnings);
 	}
+
+	/**
+	 * A sink adding warnings to a {@link JsonReportWriter}. Since warnings are
+	 * generated while checks are running, the first I/O error is recorded
+	 * instead of being propagated, and following warnings are discarded.
+	 */
+	private static class ReportSink implements Consumer<Warning> {
+
+		private final JsonReportWriter report;
+
+		private IOException failure;
+
+		private ReportSink(JsonReportWriter report) {
+			this.report = report;
+		}
+
+		@Override
+		public synchronized void accept(Warning warning) {
+			if (failure == null)
+				try {
+					report.add(warning);
+				} catch (IOException e) {
+					failure = e;
+				}
+		}
+	}
 }
@@ -1,16 +1,28 @@
 package it.unive.lisa;
 
 import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.Lattice;
+import it.unive.lisa.caches.ResultCache;
+import it.unive.lisa.checks.Check;
 import it.unive.lisa.checks.semantic.SemanticCheck;
 import it.unive.lisa.checks.syntactic.SyntacticCheck;
 import it.unive.lisa.checks.warnings.Warning;
 import it.unive.lisa.interprocedural.InterproceduralAnalysis;
 import it.unive.lisa.interprocedural.callgraph.CallGraph;
+import it.unive.lisa.interprocedural.impl.ContextBasedAnalysis;
+import it.unive.lisa.interprocedural.impl.FixpointResults;
 import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.util.datastructures.graph.FixpointConfiguration;
+import it.unive.lisa.util.datastructures.graph.FixpointGraph;
+import it.unive.lisa.util.datastructures.graph.FixpointMetrics;
+import it.unive.lisa.util.datastructures.graph.IterationStrategy;
+import it.unive.lisa.util.datastructures.graph.WideningPoints;
 import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -80,6 +92,60 @@ public class LiSAConfiguration {
 	 */
 	private String workdir;
 
+	/**
+	 * The {@link IterationStrategy} to use when computing fixpoints over
+	 * individual {@link CFG}s
+	 */
+	private IterationStrategy iterationStrategy;
+
+	/**
+	 * The number of fixpoint iterations after which {@link Lattice#lub(Lattice)}
+	 * gets replaced by {@link Lattice#widening(Lattice)}
+	 */
+	private int wideningThreshold;
+
+	/**
+	 * The nodes where {@link Lattice#widening(Lattice)} can be applied when
+	 * computing fixpoints over individual {@link CFG}s
+	 */
+	private WideningPoints wideningPoints;
+
+	/**
+	 * Whether or not widening should use thresholds harvested from the
+	 * constants appearing in each {@link CFG}
+	 */
+	private boolean wideningWithThresholds;
+
+	/**
+	 * The maximum number of descending iterations performed after each
+	 * fixpoint over individual {@link CFG}s
+	 */
+	private int narrowingIterations;
+
+	/**
+	 * Whether or not the results of fixpoints over individual {@link CFG}s
+	 * should be persisted in, and retrieved from, a {@link ResultCache}
+	 */
+	private boolean useResultCache;
+
+	/**
+	 * Whether or not metrics about the fixpoints computed during the analysis
+	 * should be collected and dumped
+	 */
+	private boolean collectFixpointMetrics;
+
+	/**
+	 * The maximum number of threads used for executing syntactic and semantic
+	 * checks
+	 */
+	private int checksParallelism;
+
+	/**
+	 * The cfgs that have been modified or added since the previous execution
+	 * of the analysis, or {@code null} if the analysis is not incremental
+	 */
+	private Collection<CFG> changedCFGs;
+
 	/**
 	 * Builds a new configuration object, with default settings. By default:
 	 * <ul>
@@ -93,12 +159,26 @@ public class LiSAConfiguration {
 	 * <li>the type inference will not be dumped</li>
 	 * <li>the results of the analysis will not be dumped</li>
 	 * <li>the json report will not be dumped</li>
+	 * <li>fixpoints over {@link CFG}s use
+	 * {@link IterationStrategy#WORKLIST}</li>
+	 * <li>widening is applied after
+	 * {@link FixpointGraph#DEFAULT_WIDENING_THRESHOLD} iterations, on
+	 * {@link WideningPoints#ALL_NODES} and without thresholds</li>
+	 * <li>no descending iteration is performed after fixpoints</li>
+	 * <li>no {@link ResultCache} is used</li>
+	 * <li>no fixpoint metrics are collected</li>
+	 * <li>checks are executed sequentially</li>
+	 * <li>the analysis is not incremental</li>
 	 * </ul>
 	 */
 	public LiSAConfiguration() {
 		this.syntacticChecks = Collections.newSetFromMap(new ConcurrentHashMap<>());
 		this.semanticChecks = Collections.newSetFromMap(new ConcurrentHashMap<>());
 		this.workdir = Paths.get(".").toAbsolutePath().normalize().toString();
+		this.iterationStrategy = IterationStrategy.WORKLIST;
+		this.wideningThreshold = FixpointGraph.DEFAULT_WIDENING_THRESHOLD;
+		this.wideningPoints = WideningPoints.ALL_NODES;
+		this.checksParallelism = 1;
 	}
 
 	/**
@@ -275,7 +355,10 @@ public class LiSAConfiguration {
 	 * Sets whether or not a json report file, named {@code report.json}, should
 	 * be created and dumped in the working directory at the end of the
 	 * analysis. This file will contain all the {@link Warning}s that have been
-	 * generated, as well as a list of produced files.<br>
+	 * generated, as well as a list of produced files. Warnings are streamed to
+	 * the report while they are generated, and are not kept in memory: when
+	 * the report is enabled, {@link LiSA#getWarnings()} yields an empty
+	 * collection.<br>
 	 * <br>
 	 * To customize where the report should be generated, use
 	 * {@link #setWorkdir(String)}.
@@ -290,6 +373,175 @@ public class LiSAConfiguration {
 		return this;
 	}
 
+	/**
+	 * Sets the {@link IterationStrategy} to use when computing fixpoints over
+	 * individual {@link CFG}s, both for the analysis and for the type
+	 * inference.
+	 * 
+	 * @param iterationStrategy the strategy to use
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public LiSAConfiguration setIterationStrategy(IterationStrategy iterationStrategy) {
+		this.iterationStrategy = iterationStrategy;
+		return this;
+	}
+
+	/**
+	 * Sets the number of fixpoint iterations after which
+	 * {@link Lattice#lub(Lattice)} gets replaced by
+	 * {@link Lattice#widening(Lattice)}, both for the analysis and for the
+	 * type inference. Use {@code 0} to <b>always</b> use
+	 * {@link Lattice#lub(Lattice)}. How iterations are counted depends on the
+	 * {@link IterationStrategy} in use.
+	 * 
+	 * @param wideningThreshold the widening threshold
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public LiSAConfiguration setWideningThreshold(int wideningThreshold) {
+		this.wideningThreshold = wideningThreshold;
+		return this;
+	}
+
+	/**
+	 * Sets the {@link WideningPoints} where {@link Lattice#widening(Lattice)}
+	 * can be applied when computing fixpoints over individual {@link CFG}s.
+	 * 
+	 * @param wideningPoints the nodes where widening can be applied
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public LiSAConfiguration setWideningPoints(WideningPoints wideningPoints) {
+		this.wideningPoints = wideningPoints;
+		return this;
+	}
+
+	/**
+	 * Sets whether or not widening should use thresholds harvested from the
+	 * integral constants appearing in each {@link CFG}, for the domains that
+	 * support them.
+	 * 
+	 * @param wideningWithThresholds whether or not thresholds should be used
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public LiSAConfiguration setWideningWithThresholds(boolean wideningWithThresholds) {
+		this.wideningWithThresholds = wideningWithThresholds;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum number of descending iterations to perform after each
+	 * fixpoint over individual {@link CFG}s, to recover the precision lost due
+	 * to widening. Use {@code 0} to disable the descending phase.
+	 * 
+	 * @param narrowingIterations the maximum number of descending iterations
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public LiSAConfiguration setNarrowingIterations(int narrowingIterations) {
+		this.narrowingIterations = narrowingIterations;
+		return this;
+	}
+
+	/**
+	 * Sets whether or not the results of fixpoints over individual
+	 * {@link CFG}s should be stored in a {@link ResultCache}, placed in the
+	 * {@code result-cache} sub-directory of the working directory. Results
+	 * found in the cache are reused instead of being recomputed, as long as
+	 * the cfg, its entry state and the fixpoint parameters did not change.
+	 * Since this requires each cfg to be analyzed in isolation, the cache is
+	 * only used by {@link InterproceduralAnalysis}es that support it.<br>
+	 * <br>
+	 * To customize where the cache should be placed, use
+	 * {@link #setWorkdir(String)}.
+	 * 
+	 * @param useResultCache if {@code true}, fixpoint results will be cached
+	 *                           on disk
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public LiSAConfiguration setUseResultCache(boolean useResultCache) {
+		this.useResultCache = useResultCache;
+		return this;
+	}
+
+	/**
+	 * Sets whether or not metrics about the fixpoints computed during the
+	 * analysis should be collected through a {@link FixpointMetrics}
+	 * instance. Metrics include per-node visit, lub and widening counts, the
+	 * time spent computing entry states, semantics and comparisons, working
+	 * set high-water marks and the duration of each fixpoint. The collected
+	 * metrics are dumped in the {@code fixpoint-metrics.json} file in the
+	 * working directory, and a summary of the hottest {@link CFG}s and
+	 * statements is logged. Metrics are not collected during type
+	 * inference.<br>
+	 * <br>
+	 * To customize where the file should be placed, use
+	 * {@link #setWorkdir(String)}.
+	 * 
+	 * @param collectFixpointMetrics if {@code true}, fixpoint metrics will be
+	 *                                   collected and dumped
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public LiSAConfiguration setCollectFixpointMetrics(boolean collectFixpointMetrics) {
+		this.collectFixpointMetrics = collectFixpointMetrics;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum number of threads used for executing syntactic and
+	 * semantic checks. Cfgs and compilation units are visited in parallel
+	 * only by checks that declare themselves as {@link Check#isThreadSafe()
+	 * thread-safe}, and the generated warnings are the same, and in the same
+	 * order, as the ones of a sequential execution.
+	 * 
+	 * @param checksParallelism the maximum number of threads, where {@code 1}
+	 *                              means sequential execution
+	 * 
+	 * @return the current (modified) configuration
+	 * 
+	 * @throws IllegalArgumentException if {@code checksParallelism} is less
+	 *                                      than {@code 1}
+	 */
+	public LiSAConfiguration setChecksParallelism(int checksParallelism) {
+		if (checksParallelism < 1)
+			throw new IllegalArgumentException(
+					"The parallelism level must be at least 1, got " + checksParallelism);
+		this.checksParallelism = checksParallelism;
+		return this;
+	}
+
+	/**
+	 * Sets the {@link CFG}s that have been modified or added since the
+	 * previous execution of the analysis, making the next one incremental.
+	 * This only has effect if the {@link InterproceduralAnalysis} set through
+	 * {@link #setInterproceduralAnalysis(InterproceduralAnalysis)} is a
+	 * {@link ContextBasedAnalysis} that has already analyzed the program: in
+	 * that case, its {@link ContextBasedAnalysis#getFixpointResults() results}
+	 * are reused for all the cfgs whose results are not affected by the
+	 * changes (see
+	 * {@link ContextBasedAnalysis#fixpoint(AnalysisState, FixpointConfiguration, FixpointResults, Collection)}),
+	 * otherwise the whole program is analyzed. Type inference, if enabled, is
+	 * always executed on the whole program.
+	 * 
+	 * @param changedCFGs the cfgs that have been modified or added, or
+	 *                        {@code null} to analyze the whole program
+	 * 
+	 * @return the current (modified) configuration
+	 * 
+	 * @throws IllegalArgumentException if {@code changedCFGs} contains
+	 *                                      {@code null}
+	 */
+	public LiSAConfiguration setChangedCFGs(Collection<CFG> changedCFGs) {
+		if (changedCFGs != null && changedCFGs.stream().anyMatch(Objects::isNull))
+			throw new IllegalArgumentException("The changed cfgs cannot contain null");
+		this.changedCFGs = changedCFGs;
+		return this;
+	}
+
 	/**
 	 * Sets the working directory for this instance of LiSA, that is, the
 	 * directory files will be created, if any. If files need to be created and
@@ -405,6 +657,98 @@ public class LiSAConfiguration {
 		return jsonOutput;
 	}
 
+	/**
+	 * Yields the {@link IterationStrategy} to use when computing fixpoints over
+	 * individual {@link CFG}s.
+	 * 
+	 * @return the iteration strategy
+	 */
+	public IterationStrategy getIterationStrategy() {
+		return iterationStrategy;
+	}
+
+	/**
+	 * Yields the number of fixpoint iterations after which
+	 * {@link Lattice#lub(Lattice)} gets replaced by
+	 * {@link Lattice#widening(Lattice)}.
+	 * 
+	 * @return the widening threshold
+	 */
+	public int getWideningThreshold() {
+		return wideningThreshold;
+	}
+
+	/**
+	 * Yields the {@link WideningPoints} where {@link Lattice#widening(Lattice)}
+	 * can be applied when computing fixpoints over individual {@link CFG}s.
+	 * 
+	 * @return the nodes where widening can be applied
+	 */
+	public WideningPoints getWideningPoints() {
+		return wideningPoints;
+	}
+
+	/**
+	 * Yields whether or not widening should use thresholds harvested from the
+	 * integral constants appearing in each {@link CFG}.
+	 * 
+	 * @return {@code true} if thresholds should be used
+	 */
+	public boolean isWideningWithThresholds() {
+		return wideningWithThresholds;
+	}
+
+	/**
+	 * Yields the maximum number of descending iterations to perform after each
+	 * fixpoint over individual {@link CFG}s.
+	 * 
+	 * @return the maximum number of descending iterations
+	 */
+	public int getNarrowingIterations() {
+		return narrowingIterations;
+	}
+
+	/**
+	 * Yields whether or not the results of fixpoints over individual
+	 * {@link CFG}s should be stored in a {@link ResultCache}.
+	 * 
+	 * @return {@code true} if the results should be cached
+	 */
+	public boolean isUseResultCache() {
+		return useResultCache;
+	}
+
+	/**
+	 * Yields whether or not metrics about the fixpoints computed during the
+	 * analysis should be collected and dumped.
+	 * 
+	 * @return {@code true} if the metrics should be collected
+	 */
+	public boolean isCollectFixpointMetrics() {
+		return collectFixpointMetrics;
+	}
+
+	/**
+	 * Yields the maximum number of threads used for executing syntactic and
+	 * semantic checks.
+	 * 
+	 * @return the parallelism level of checks execution
+	 */
+	public int getChecksParallelism() {
+		return checksParallelism;
+	}
+
+	/**
+	 * Yields the {@link CFG}s that have been modified or added since the
+	 * previous execution of the analysis. Might be {@code null} if the
+	 * analysis is not incremental.
+	 * 
+	 * @return the changed cfgs
+	 */
+	public Collection<CFG> getChangedCFGs() {
+		return changedCFGs;
+	}
+
 	/**
 	 * Yields the working directory where LiSA will dump all of its outputs.
 	 * 
@@ -424,6 +768,15 @@ public class LiSAConfiguration {
 		result = prime * result + (dumpTypeInference ? 1231 : 1237);
 		result = prime * result + (inferTypes ? 1231 : 1237);
 		result = prime * result + (jsonOutput ? 1231 : 1237);
+		result = prime * result + ((iterationStrategy == null) ? 0 : iterationStrategy.hashCode());
+		result = prime * result + wideningThreshold;
+		result = prime * result + ((wideningPoints == null) ? 0 : wideningPoints.hashCode());
+		result = prime * result + (wideningWithThresholds ? 1231 : 1237);
+		result = prime * result + narrowingIterations;
+		result = prime * result + (useResultCache ? 1231 : 1237);
+		result = prime * result + (collectFixpointMetrics ? 1231 : 1237);
+		result = prime * result + checksParallelism;
+		result = prime * result + ((changedCFGs == null) ? 0 : changedCFGs.hashCode());
 		result = prime * result + ((state == null) ? 0 : state.hashCode());
 		result = prime * result + ((syntacticChecks == null) ? 0 : syntacticChecks.hashCode());
 		result = prime * result + ((semanticChecks == null) ? 0 : semanticChecks.hashCode());
@@ -455,6 +808,27 @@ public class LiSAConfiguration {
 			return false;
 		if (jsonOutput != other.jsonOutput)
 			return false;
+		if (iterationStrategy != other.iterationStrategy)
+			return false;
+		if (wideningThreshold != other.wideningThreshold)
+			return false;
+		if (wideningPoints != other.wideningPoints)
+			return false;
+		if (wideningWithThresholds != other.wideningWithThresholds)
+			return false;
+		if (narrowingIterations != other.narrowingIterations)
+			return false;
+		if (useResultCache != other.useResultCache)
+			return false;
+		if (collectFixpointMetrics != other.collectFixpointMetrics)
+			return false;
+		if (checksParallelism != other.checksParallelism)
+			return false;
+		if (changedCFGs == null) {
+			if (other.changedCFGs != null)
+				return false;
+		} else if (!changedCFGs.equals(other.changedCFGs))
+			return false;
 		if (state == null) {
 			if (other.state != null)
 				return false;
@@ -487,6 +861,16 @@ public class LiSAConfiguration {
 				"\n  dump inferred types: " + dumpTypeInference +
 				"\n  dump analysis results: " + dumpAnalysis +
 				"\n  dump json report: " + jsonOutput +
+				"\n  iteration strategy: " + iterationStrategy +
+				"\n  widening threshold: " + wideningThreshold +
+				"\n  widening points: " + wideningPoints +
+				"\n  widening with thresholds: " + wideningWithThresholds +
+				"\n  narrowing iterations: " + narrowingIterations +
+				"\n  use result cache: " + useResultCache +
+				"\n  collect fixpoint metrics: " + collectFixpointMetrics +
+				"\n  checks parallelism: " + checksParallelism +
+				"\n  incremental analysis: "
+				+ (changedCFGs == null ? "no" : changedCFGs.size() + " changed cfgs") +
 				"\n  " + syntacticChecks.size() + " syntactic checks to execute"
 				+ (syntacticChecks.isEmpty() ? "" : ":");
 		for (SyntacticCheck check : syntacticChecks)
@@ -12,6 +12,7 @@ import it.unive.lisa.analysis.impl.types.InferredTypes;
 import it.unive.lisa.analysis.nonrelational.inference.InferenceSystem;
 import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.caches.Caches;
+import it.unive.lisa.caches.ResultCache;
 import it.unive.lisa.checks.ChecksExecutor;
 import it.unive.lisa.checks.semantic.CheckToolWithAnalysisResults;
 import it.unive.lisa.checks.syntactic.CheckTool;
@@ -20,8 +21,10 @@ import it.unive.lisa.interprocedural.InterproceduralAnalysis;
 import it.unive.lisa.interprocedural.InterproceduralAnalysisException;
 import it.unive.lisa.interprocedural.callgraph.CallGraph;
 import it.unive.lisa.interprocedural.callgraph.CallGraphConstructionException;
+import it.unive.lisa.interprocedural.impl.ContextBasedAnalysis;
 import it.unive.lisa.logging.IterationLogger;
 import it.unive.lisa.logging.TimerLogger;
+import it.unive.lisa.outputs.JsonFixpointMetrics;
 import it.unive.lisa.program.Program;
 import it.unive.lisa.program.ProgramValidationException;
 import it.unive.lisa.program.cfg.CFG;
@@ -31,14 +34,18 @@ import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.symbolic.value.Skip;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.datastructures.graph.FixpointConfiguration;
 import it.unive.lisa.util.datastructures.graph.FixpointException;
+import it.unive.lisa.util.datastructures.graph.FixpointMetrics;
 import it.unive.lisa.util.datastructures.graph.GraphVisitor;
 import it.unive.lisa.util.file.FileManager;
 import java.io.IOException;
 import java.io.Writer;
+import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -61,6 +68,10 @@ public class LiSARunner<A extends AbstractState<A, H, V>,
 
 	private static final Logger log = LogManager.getLogger(LiSARunner.class);
 
+	private static final String METRICS_FILE = "fixpoint-metrics.json";
+
+	private static final int TOP_METRICS = 10;
+
 	private final LiSAConfiguration conf;
 
 	private final InterproceduralAnalysis<A, H, V> interproc;
@@ -69,6 +80,8 @@ public class LiSARunner<A extends AbstractState<A, H, V>,
 
 	private final A state;
 
+	private ResultCache resultCache;
+
 	/**
 	 * Builds the runner.
 	 * 
@@ -90,21 +103,32 @@ public class LiSARunner<A extends AbstractState<A, H, V>,
 	 * 
 	 * @param program     the program to analyze
 	 * @param fileManager the file manager for the analysis
+	 * @param sink        the sink where the warnings generated by the
+	 *                        analysis are forwarded as soon as they are
+	 *                        reported, or {@code null} to collect them
 	 * 
-	 * @return the warnings generated by the analysis
+	 * @return the warnings generated by the analysis, or an empty collection
+	 *             if they have been forwarded to {@code sink}
 	 */
-	Collection<Warning> run(Program program, FileManager fileManager) {
+	Collection<Warning> run(Program program, FileManager fileManager, Consumer<Warning> sink) {
 		finalizeProgram(program);
 
+		if (conf.isUseResultCache())
+			try {
+				resultCache = new ResultCache(Paths.get(conf.getWorkdir(), "result-cache"), program);
+			} catch (IOException e) {
+				log.error("Unable to create the result cache: fixpoint results will not be cached", e);
+			}
+
 		Collection<CFG> allCFGs = program.getAllCFGs();
 
 		if (conf.isDumpCFGs())
 			for (CFG cfg : IterationLogger.iterate(log, allCFGs, "Dumping input CFGs", "cfgs"))
 				dumpCFG(fileManager, "", cfg, st -> "");
 
-		CheckTool tool = new CheckTool();
+		CheckTool tool = new CheckTool(sink);
 		if (!conf.getSyntacticChecks().isEmpty())
-			ChecksExecutor.executeAll(tool, program, conf.getSyntacticChecks());
+			ChecksExecutor.executeAll(tool, program, conf.getSyntacticChecks(), conf.getChecksParallelism());
 		else
 			log.warn("Skipping syntactic checks execution since none have been provided");
 
@@ -138,26 +162,54 @@ public class LiSARunner<A extends AbstractState<A, H, V>,
 				CheckToolWithAnalysisResults<A, H,
 						V> toolWithResults = new CheckToolWithAnalysisResults<>(tool, results);
 				tool = toolWithResults;
-				ChecksExecutor.executeAll(toolWithResults, program, conf.getSemanticChecks());
+				ChecksExecutor.executeAll(toolWithResults, program, conf.getSemanticChecks(),
+						conf.getChecksParallelism());
 			} else
 				log.warn("Skipping semantic checks execution since none have been provided");
 		} else
 			log.warn("Skipping analysis execution since no abstract sate has been provided");
 
+		if (resultCache != null)
+			log.info("Result cache: " + resultCache.getHits() + " hits, " + resultCache.getMisses() + " misses");
+
 		return tool.getWarnings();
 	}
 
+	@SuppressWarnings("unchecked")
+	private void fixpoint(AnalysisState<A, H, V> entryState, FixpointConfiguration fixconf) throws FixpointException {
+		Collection<CFG> changed = conf.getChangedCFGs();
+		if (changed != null) {
+			if (interproc instanceof ContextBasedAnalysis
+					&& ((ContextBasedAnalysis<A, H, V>) interproc).getFixpointResults() != null) {
+				ContextBasedAnalysis<A, H, V> incremental = (ContextBasedAnalysis<A, H, V>) interproc;
+				incremental.fixpoint(entryState, fixconf, incremental.getFixpointResults(), changed);
+				return;
+			}
+
+			log.warn("No previous results of a " + ContextBasedAnalysis.class.getSimpleName()
+					+ " are available: analyzing the whole program");
+		}
+
+		interproc.fixpoint(entryState, fixconf);
+	}
+
 	private void analyze(Collection<CFG> allCFGs, FileManager fileManager) {
 		A state = this.state.top();
+		FixpointMetrics metrics = conf.isCollectFixpointMetrics() ? new FixpointMetrics() : null;
 		TimerLogger.execAction(log, "Computing fixpoint over the whole program",
 				() -> {
 					try {
-						interproc.fixpoint(new AnalysisState<>(state, new Skip()));
+						fixpoint(new AnalysisState<>(state, new Skip()), fixpointConfiguration().setListener(metrics));
 					} catch (FixpointException e) {
 						log.fatal("Exception during fixpoint computation", e);
 						throw new AnalysisExecutionException("Exception during fixpoint computation", e);
 					}
 				});
+		if (metrics != null) {
+			long avoided = metrics.getGraphs().stream().mapToLong(g -> g.getTotals().getAvoidedComparisons()).sum();
+			log.info("Comparisons of fixpoint results avoided by identity: " + avoided);
+			dumpMetrics(fileManager, metrics);
+		}
 
 		if (conf.isDumpAnalysis())
 			for (CFG cfg : IterationLogger.iterate(log, allCFGs, "Dumping analysis results", "cfgs")) {
@@ -168,6 +220,25 @@ public class LiSARunner<A extends AbstractState<A, H, V>,
 			}
 	}
 
+	private void dumpMetrics(FileManager fileManager, FixpointMetrics metrics) {
+		log.info(metrics.summary(TOP_METRICS));
+		try (Writer writer = fileManager.mkOutputFile(METRICS_FILE)) {
+			new JsonFixpointMetrics(metrics, TOP_METRICS).dump(writer);
+			log.info("Fixpoint metrics dumped to " + METRICS_FILE);
+		} catch (IOException e) {
+			log.error("Unable to dump fixpoint metrics", e);
+		}
+	}
+
+	private FixpointConfiguration fixpointConfiguration() {
+		return new FixpointConfiguration().setIterationStrategy(conf.getIterationStrategy())
+				.setWideningThreshold(conf.getWideningThreshold())
+				.setWideningPoints(conf.getWideningPoints())
+				.setWideningWithThresholds(conf.isWideningWithThresholds())
+				.setNarrowingIterations(conf.getNarrowingIterations())
+				.setResultCache(resultCache);
+	}
+
 	@SuppressWarnings("unchecked")
 	private void inferTypes(FileManager fileManager, Program program, Collection<CFG> allCFGs) {
 		SimpleAbstractState<H, InferenceSystem<InferredTypes>> typesState;
@@ -187,7 +258,7 @@ public class LiSARunner<A extends AbstractState<A, H, V>,
 		TimerLogger.execAction(log, "Computing type information",
 				() -> {
 					try {
-						typesInterproc.fixpoint(new AnalysisState<>(typesState, new Skip()));
+						typesInterproc.fixpoint(new AnalysisState<>(typesState, new Skip()), fixpointConfiguration());
 					} catch (FixpointException e) {
 						log.fatal("Exception during fixpoint computation", e);
 						throw new AnalysisExecutionException("Exception during fixpoint computation", e);
@@ -253,6 +324,13 @@ public class LiSARunner<A extends AbstractState<A, H, V>,
 	}
 
 	private void finalizeProgram(Program program) {
+		if (program.getRegisteredTypes() == null) {
+			// finalization clears the registered types: this happens when the
+			// same program is analyzed again, e.g., incrementally
+			log.info("Skipping the finalization of the input program since it has already been finalized");
+			return;
+		}
+
 		// fill up the types cache by side effect on an external set
 		Caches.types().clear();
 		ExternalSet<Type> types = Caches.types().mkEmptySet();
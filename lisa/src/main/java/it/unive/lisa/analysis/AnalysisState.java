@@ -9,6 +9,7 @@ import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
+import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -28,7 +29,7 @@ import java.util.stream.Collectors;
  */
 public class AnalysisState<A extends AbstractState<A, H, V>, H extends HeapDomain<H>, V extends ValueDomain<V>>
 		extends BaseLattice<AnalysisState<A, H, V>> implements
-		SemanticDomain<AnalysisState<A, H, V>, SymbolicExpression, Identifier> {
+		SemanticDomain<AnalysisState<A, H, V>, SymbolicExpression, Identifier>, Serializable {
 
 	/**
 	 * The abstract state of program variables and memory locations
@@ -146,12 +147,29 @@ public class AnalysisState<A extends AbstractState<A, H, V>, H extends HeapDomai
 
 	@Override
 	public AnalysisState<A, H, V> lubAux(AnalysisState<A, H, V> other) throws SemanticException {
-		return new AnalysisState<>(state.lub(other.state), computedExpressions.lub(other.computedExpressions));
+		return join(state.lub(other.state), computedExpressions.lub(other.computedExpressions), other);
 	}
 
 	@Override
 	public AnalysisState<A, H, V> wideningAux(AnalysisState<A, H, V> other) throws SemanticException {
-		return new AnalysisState<>(state.widening(other.state), computedExpressions.lub(other.computedExpressions));
+		return join(state.widening(other.state), computedExpressions.lub(other.computedExpressions), other);
+	}
+
+	@Override
+	protected AnalysisState<A, H, V> wideningAux(AnalysisState<A, H, V> other, WideningThresholds thresholds)
+			throws SemanticException {
+		return join(state.widening(other.state, thresholds), computedExpressions.lub(other.computedExpressions),
+				other);
+	}
+
+	private AnalysisState<A, H, V> join(A state, ExpressionSet<SymbolicExpression> computedExpressions,
+			AnalysisState<A, H, V> other) {
+		// reusing an operand lets comparisons with it be answered by identity
+		if (state == this.state && computedExpressions == this.computedExpressions)
+			return this;
+		if (state == other.state && computedExpressions == other.computedExpressions)
+			return other;
+		return new AnalysisState<>(state, computedExpressions);
 	}
 
 	@Override
@@ -4,7 +4,16 @@ package it.unive.lisa.analysis;
  * A base implementation of the {@link Lattice} interface, handling base cases
  * of the methods exposed by that interface. All implementers of {@link Lattice}
  * should inherit from this class for ensuring a consistent behavior on the base
- * cases, unless explicitly needed.
+ * cases, unless explicitly needed.<br>
+ * <br>
+ * Operations between an element and itself are answered in constant time,
+ * before any other check. Implementers are encouraged to return one of their
+ * operands, instead of a new equal element, whenever the result of
+ * {@link #lubAux(BaseLattice)} or {@link #wideningAux(BaseLattice)} is not
+ * different from it: this lets later comparisons with that operand be
+ * skipped. Fixpoint computations report the comparisons of their results
+ * avoided this way to their
+ * {@link it.unive.lisa.util.datastructures.graph.FixpointListener}.
  *
  * @param <L> the concrete {@link BaseLattice} instance
  *
@@ -15,7 +24,10 @@ public abstract class BaseLattice<L extends BaseLattice<L>> implements Lattice<L
     @Override
     @SuppressWarnings("unchecked")
     public final L lub(L other) throws SemanticException {
-		if (other == null || other.isBottom() || this.isTop() || this == other || this.equals(other)) {
+		if (this == other)
+			return (L) this;
+
+		if (other == null || other.isBottom() || this.isTop() || this.equals(other)) {
 			return (L) this;
 		}
 
@@ -49,7 +61,10 @@ public abstract class BaseLattice<L extends BaseLattice<L>> implements Lattice<L
     @Override
     @SuppressWarnings("unchecked")
     public final L widening(L other) throws SemanticException {
-		if (other == null || other.isBottom() || this.isTop() || this == other || this.equals(other)) {
+		if (this == other)
+			return (L) this;
+
+		if (other == null || other.isBottom() || this.isTop() || this.equals(other)) {
 			return (L) this;
 		}
 
@@ -80,13 +95,52 @@ public abstract class BaseLattice<L extends BaseLattice<L>> implements Lattice<L
      */
     protected abstract L wideningAux(L other) throws SemanticException;
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public final L widening(L other, WideningThresholds thresholds) throws SemanticException {
+		if (thresholds.isEmpty() || this == other)
+			return widening(other);
+
+		if (other == null || other.isBottom() || this.isTop() || this.equals(other)) {
+			return (L) this;
+		}
+
+		if (this.isBottom() || other.isTop()) {
+			return other;
+		}
+
+        return wideningAux(other, thresholds);
+    }
+
+    /**
+     * Performs the widening operation between this lattice element and the
+     * given one using the given thresholds, assuming that base cases have
+     * already been handled. The same guarantees of
+     * {@link #wideningAux(BaseLattice)} hold, and {@code thresholds} is not
+     * empty. The default implementation of this method ignores
+     * {@code thresholds}, delegating to {@link #wideningAux(BaseLattice)}.
+     *
+     * @param other      the other lattice element
+     * @param thresholds the thresholds that can be used by the widening
+     *
+     * @return the widening between this and other
+     *
+     * @throws SemanticException if an error occurs during the computation
+     */
+    protected L wideningAux(L other, WideningThresholds thresholds) throws SemanticException {
+        return wideningAux(other);
+    }
+
     @Override
     public final boolean lessOrEqual(L other) throws SemanticException {
+		if (this == other)
+			return true;
+
 		if (other == null) {
 			return false;
 		}
 
-		if (this == other || this.isBottom() || other.isTop() || this.equals(other)) {
+		if (this.isBottom() || other.isTop() || this.equals(other)) {
 			return true;
 		}
 
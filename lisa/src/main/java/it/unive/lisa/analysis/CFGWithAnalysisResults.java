@@ -2,10 +2,14 @@ package it.unive.lisa.analysis;
 
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.caches.ResultCache;
 import it.unive.lisa.outputs.DotCFG;
 import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.edge.Edge;
 import it.unive.lisa.program.cfg.statement.Statement;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
@@ -85,6 +89,57 @@ public class CFGWithAnalysisResults<A extends AbstractState<A, H, V>, H extends
 		this.entryStates = entryStates;
 	}
 
+	/**
+	 * Writes the results contained in this cfg (that is, its identifier, the
+	 * entry states and the post-states of each statement) to the given
+	 * output. The structure of the cfg is not written: results can be read
+	 * back through {@link #readResults(CFG, ObjectInput)} providing the same
+	 * cfg that produced them. This is used by {@link ResultCache} to persist
+	 * fixpoint results.
+	 * 
+	 * @param out the output where results should be written
+	 * 
+	 * @throws IOException if something goes wrong while writing
+	 */
+	public void writeResults(ObjectOutput out) throws IOException {
+		out.writeObject(id);
+		out.writeObject(entryStates);
+		out.writeObject(results);
+	}
+
+	/**
+	 * Reads the results written by {@link #writeResults(ObjectOutput)},
+	 * binding them to the given cfg.
+	 * 
+	 * @param <A>   the type of {@link AbstractState} contained into the
+	 *                  analysis state
+	 * @param <H>   the type of {@link HeapDomain} contained into the
+	 *                  computed abstract state
+	 * @param <V>   the type of {@link ValueDomain} contained into the
+	 *                  computed abstract state
+	 * @param cfg   the cfg that the results refer to
+	 * @param in    the input to read from
+	 * 
+	 * @return a {@link CFGWithAnalysisResults} built on {@code cfg} and
+	 *             holding the results that have been read
+	 * 
+	 * @throws IOException            if something goes wrong while reading
+	 * @throws ClassNotFoundException if the class of one of the stored
+	 *                                    objects cannot be found
+	 */
+	@SuppressWarnings("unchecked")
+	public static <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> CFGWithAnalysisResults<A, H, V> readResults(CFG cfg, ObjectInput in)
+					throws IOException, ClassNotFoundException {
+		String id = (String) in.readObject();
+		StatementStore<A, H, V> entryStates = (StatementStore<A, H, V>) in.readObject();
+		StatementStore<A, H, V> results = (StatementStore<A, H, V>) in.readObject();
+		CFGWithAnalysisResults<A, H, V> res = new CFGWithAnalysisResults<>(cfg, entryStates, results);
+		res.setId(id);
+		return res;
+	}
+
 	/**
 	 * Yields a string meant to identify this specific result, based on how it
 	 * has been produced. This method might return {@code null}.
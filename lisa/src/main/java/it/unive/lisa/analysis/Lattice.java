@@ -59,6 +59,24 @@ public interface Lattice<L extends Lattice<L>> {
 	 */
 	L widening(L other) throws SemanticException;
 
+	/**
+	 * Performs the widening operation between this lattice element and the
+	 * given one, possibly using the given {@link WideningThresholds} to limit
+	 * the loss of precision on unstable values. This operation is not
+	 * commutative. The default implementation of this method ignores
+	 * {@code thresholds}, delegating to {@link #widening(Lattice)}.
+	 * 
+	 * @param other      the other lattice element
+	 * @param thresholds the thresholds that can be used by the widening
+	 * 
+	 * @return the widening between this and other
+	 * 
+	 * @throws SemanticException if an error occurs during the computation
+	 */
+	default L widening(L other, WideningThresholds thresholds) throws SemanticException {
+		return widening(other);
+	}
+
 	/**
 	 * Yields {@code true} if and only if this lattice element is in relation
 	 * with (usually represented through &le;) the given one. This operation is
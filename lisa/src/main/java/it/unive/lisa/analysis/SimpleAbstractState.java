@@ -11,6 +11,7 @@ import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import java.io.Serializable;
 
 /**
  * An abstract state of the analysis, composed by a heap state modeling the
@@ -25,7 +26,7 @@ import it.unive.lisa.symbolic.value.ValueExpression;
 @DefaultParameters({ MonolithicHeap.class, Interval.class })
 public class SimpleAbstractState<H extends HeapDomain<H>, V extends ValueDomain<V>>
 		extends BaseLattice<SimpleAbstractState<H, V>>
-		implements AbstractState<SimpleAbstractState<H, V>, H, V> {
+		implements AbstractState<SimpleAbstractState<H, V>, H, V>, Serializable {
 
 	/**
 	 * The domain containing information regarding heap structures
@@ -126,12 +127,28 @@ public class SimpleAbstractState<H extends HeapDomain<H>, V extends ValueDomain<
 
 	@Override
 	public SimpleAbstractState<H, V> lubAux(SimpleAbstractState<H, V> other) throws SemanticException {
-		return new SimpleAbstractState<>(heapState.lub(other.heapState), valueState.lub(other.valueState));
+		return join(heapState.lub(other.heapState), valueState.lub(other.valueState), other);
 	}
 
 	@Override
 	public SimpleAbstractState<H, V> wideningAux(SimpleAbstractState<H, V> other) throws SemanticException {
-		return new SimpleAbstractState<>(heapState.widening(other.heapState), valueState.widening(other.valueState));
+		return join(heapState.widening(other.heapState), valueState.widening(other.valueState), other);
+	}
+
+	@Override
+	protected SimpleAbstractState<H, V> wideningAux(SimpleAbstractState<H, V> other, WideningThresholds thresholds)
+			throws SemanticException {
+		return join(heapState.widening(other.heapState, thresholds),
+				valueState.widening(other.valueState, thresholds), other);
+	}
+
+	private SimpleAbstractState<H, V> join(H heap, V value, SimpleAbstractState<H, V> other) {
+		// reusing an operand lets comparisons with it be answered by identity
+		if (heap == heapState && value == valueState)
+			return this;
+		if (heap == other.heapState && value == other.valueState)
+			return other;
+		return new SimpleAbstractState<>(heap, value);
 	}
 
 	@Override
@@ -42,6 +42,13 @@ public class StatementStore<A extends AbstractState<A, H, V>, H extends HeapDoma
 		return function.put(st, state);
 	}
 
+	@Override
+	protected StatementStore<A, H, V> wideningAux(StatementStore<A, H, V> other, WideningThresholds thresholds)
+			throws SemanticException {
+		return functionalLift(other, (f1, f2) -> lubKeys(f1, f2),
+				(o1, o2) -> o1 == null ? o2 : o1.widening(o2, thresholds), true);
+	}
+
 	@Override
 	public StatementStore<A, H, V> top() {
 		return new StatementStore<>(lattice.top());
@@ -0,0 +1,107 @@
+package it.unive.lisa.analysis;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * An immutable set of numeric thresholds to be used by
+ * {@link Lattice#widening(Lattice, WideningThresholds)}. When widening an
+ * unstable bound, domains supporting thresholds can move it to the closest
+ * threshold that still contains the new value, instead of jumping directly to
+ * infinity. Since thresholds are finite, this does not prevent termination.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public final class WideningThresholds {
+
+	/**
+	 * The empty set of thresholds, for which thresholds-aware widenings behave
+	 * exactly as standard ones.
+	 */
+	public static final WideningThresholds NONE = new WideningThresholds(new long[0]);
+
+	/**
+	 * The thresholds, sorted and without duplicates
+	 */
+	private final long[] values;
+
+	private WideningThresholds(long[] values) {
+		this.values = values;
+	}
+
+	/**
+	 * Builds a set of thresholds containing the integral part of the given
+	 * numbers.
+	 *
+	 * @param values the thresholds
+	 *
+	 * @return the set of thresholds
+	 */
+	public static WideningThresholds of(Collection<? extends Number> values) {
+		if (values.isEmpty())
+			return NONE;
+
+		long[] sorted = values.stream().mapToLong(Number::longValue).sorted().distinct().toArray();
+		return new WideningThresholds(sorted);
+	}
+
+	/**
+	 * Yields {@code true} if and only if this set contains no thresholds.
+	 *
+	 * @return whether or not this set is empty
+	 */
+	public boolean isEmpty() {
+		return values.length == 0;
+	}
+
+	/**
+	 * Yields the smallest threshold that is greater than or equal to the given
+	 * value.
+	 *
+	 * @param value the value
+	 *
+	 * @return the threshold, or {@code null} if no such threshold exists
+	 */
+	public Long ceiling(long value) {
+		int pos = Arrays.binarySearch(values, value);
+		if (pos >= 0)
+			return values[pos];
+		pos = -pos - 1;
+		return pos < values.length ? values[pos] : null;
+	}
+
+	/**
+	 * Yields the greatest threshold that is less than or equal to the given
+	 * value.
+	 *
+	 * @param value the value
+	 *
+	 * @return the threshold, or {@code null} if no such threshold exists
+	 */
+	public Long floor(long value) {
+		int pos = Arrays.binarySearch(values, value);
+		if (pos >= 0)
+			return values[pos];
+		pos = -pos - 2;
+		return pos >= 0 ? values[pos] : null;
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(values);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		return Arrays.equals(values, ((WideningThresholds) obj).values);
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(values);
+	}
+}
@@ -10,6 +10,7 @@ import it.unive.lisa.analysis.representation.PairRepresentation;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
+import java.io.Serializable;
 
 /**
  * A generic Cartesian product abstract domain between two non-communicating
@@ -33,7 +34,7 @@ public abstract class CartesianProduct<C extends CartesianProduct<C, T1, T2, E,
 		T1 extends SemanticDomain<T1, E, I> & Lattice<T1>,
 		T2 extends SemanticDomain<T2, E, I> & Lattice<T2>,
 		E extends SymbolicExpression,
-		I extends Identifier> implements SemanticDomain<C, E, I>, Lattice<C> {
+		I extends Identifier> implements SemanticDomain<C, E, I>, Lattice<C>, Serializable {
 
 	/**
 	 * The left-hand side abstract domain.
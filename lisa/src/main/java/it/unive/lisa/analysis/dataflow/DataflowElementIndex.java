@@ -0,0 +1,99 @@
+package it.unive.lisa.analysis.dataflow;
+
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An enumeration of the {@link DataflowElement}s produced during an analysis,
+ * shared by all the instances of a dataflow domain that originate from the
+ * same one. Each element is given a position in a bit vector the first time it
+ * is seen, so that sets of elements become {@link ExternalSet}s over the same
+ * {@link ExternalSetCache} and can be joined, met and compared word-wise. The
+ * index also keeps, for each {@link Identifier}, the <i>kill mask</i> of all
+ * the elements associated with it, so that killing an identifier is a single
+ * set difference instead of a scan of all the elements.<br>
+ * <br>
+ * The index is safe to be shared among threads.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <E> the type of {@link DataflowElement} enumerated by this index
+ */
+final class DataflowElementIndex<E extends DataflowElement<?, E>> {
+
+	private final ExternalSetCache<E> cache = new ExternalSetCache<>();
+
+	private final Map<Identifier, ExternalSet<E>> masks = new ConcurrentHashMap<>();
+
+	private final ExternalSet<E> empty = cache.mkImmutableSet(Collections.emptySet());
+
+	/**
+	 * Yields the empty set of elements. The returned set is shared, and
+	 * cannot be modified.
+	 *
+	 * @return the empty set
+	 */
+	ExternalSet<E> empty() {
+		return empty;
+	}
+
+	/**
+	 * Yields the set containing the given elements, enumerating the ones that
+	 * have never been seen before.
+	 *
+	 * @param elements the elements
+	 *
+	 * @return the set of elements
+	 */
+	ExternalSet<E> set(Iterable<E> elements) {
+		ExternalSet<E> result = cache.mkSet(elements);
+		for (E e : elements)
+			register(e);
+		return result;
+	}
+
+	/**
+	 * Yields {@code true} if and only if the given set of elements has been
+	 * built by this index.
+	 *
+	 * @param elements the set of elements
+	 *
+	 * @return whether or not {@code elements} uses this index
+	 */
+	boolean owns(Iterable<E> elements) {
+		return elements instanceof ExternalSet && ((ExternalSet<E>) elements).getCache() == cache;
+	}
+
+	/**
+	 * Yields the set of all the elements seen so far that are associated with
+	 * the given identifier. The returned set is shared, and cannot be
+	 * modified.
+	 *
+	 * @param id the identifier
+	 *
+	 * @return the kill mask of {@code id}
+	 */
+	ExternalSet<E> killMask(Identifier id) {
+		ExternalSet<E> mask = masks.get(id);
+		return mask == null ? empty : mask;
+	}
+
+	private void register(E e) {
+		Identifier id = e.getIdentifier();
+		if (id == null)
+			// cannot be killed
+			return;
+
+		ExternalSet<E> mask = masks.get(id);
+		if (mask != null && mask.contains(e))
+			return;
+
+		// masks are immutable, since they are read concurrently
+		masks.compute(id, (k, current) -> current == null ? cache.mkSingletonSet(e).immutable()
+				: current.contains(e) ? current : current.union(cache.mkSingletonSet(e)).immutable());
+	}
+}
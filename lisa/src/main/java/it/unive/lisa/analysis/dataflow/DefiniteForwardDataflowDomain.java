@@ -8,9 +8,10 @@ import it.unive.lisa.analysis.representation.SetRepresentation;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -18,6 +19,10 @@ import java.util.Set;
  * analysis. Being definite means that this domain is an instance of
  * {@link InverseSetLattice}, i.e., is a set whose join operation is the set
  * intersection.
+ * <br>
+ * Elements are stored in bit vectors, whose positions are assigned by an index
+ * shared by all the instances derived from the same one through semantic and
+ * lattice operations. Joins, meets and kills are thus performed word-wise.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -33,6 +38,8 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 
 	private final E domain;
 
+	private final DataflowElementIndex<E> index;
+
 	/**
 	 * Builds an empty domain.
 	 * 
@@ -40,12 +47,18 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 	 *                   to perform <i>kill</i> and <i>gen</i> operations
 	 */
 	public DefiniteForwardDataflowDomain(E domain) {
-		this(domain, new HashSet<>(), true, false);
+		this(domain, new DataflowElementIndex<>(), true, false);
+	}
+
+	private DefiniteForwardDataflowDomain(E domain, DataflowElementIndex<E> index, boolean isTop, boolean isBottom) {
+		this(domain, index, index.empty(), isTop, isBottom);
 	}
 
-	private DefiniteForwardDataflowDomain(E domain, Set<E> elements, boolean isTop, boolean isBottom) {
+	private DefiniteForwardDataflowDomain(E domain, DataflowElementIndex<E> index, Set<E> elements, boolean isTop,
+			boolean isBottom) {
 		super(elements);
 		this.domain = domain;
+		this.index = index;
 		this.isTop = isTop;
 		this.isBottom = isBottom;
 	}
@@ -61,10 +74,9 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 		if (!domain.tracksIdentifiers(id) || !domain.canProcess(expression))
 			return this;
 		DefiniteForwardDataflowDomain<E> killed = forgetIdentifiers(domain.kill(id, expression, pp, this));
-		Set<E> updated = new HashSet<>(killed.elements);
-		for (E generated : domain.gen(id, expression, pp, this))
-			updated.add(generated);
-		return new DefiniteForwardDataflowDomain<E>(domain, updated, false, false);
+		ExternalSet<E> generated = index.set(domain.gen(id, expression, pp, this));
+		ExternalSet<E> updated = ((ExternalSet<E>) killed.elements).union(generated);
+		return new DefiniteForwardDataflowDomain<E>(domain, index, updated, false, false);
 	}
 
 	@Override
@@ -85,16 +97,12 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 		if (isTop())
 			return this;
 
-		Collection<E> toRemove = new LinkedList<>();
-		for (E e : elements)
-			if (e.getIdentifier().equals(id))
-				toRemove.add(e);
-
-		if (toRemove.isEmpty())
+		// all elements of id are killed at once through its mask
+		ExternalSet<E> mask = index.killMask(id);
+		ExternalSet<E> current = (ExternalSet<E>) elements;
+		if (!current.intersects(mask))
 			return this;
-		Set<E> updated = new HashSet<>(elements);
-		updated.removeAll(toRemove);
-		return new DefiniteForwardDataflowDomain<E>(domain, updated, false, false);
+		return new DefiniteForwardDataflowDomain<E>(domain, index, current.difference(mask), false, false);
 	}
 
 	@Override
@@ -111,7 +119,12 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 	@Override
 	public int hashCode() {
 		final int prime = 31;
-		int result = super.hashCode();
+		// the bit vectors of equal instances built by different indexes
+		// differ, so the hash is computed on the elements themselves
+		int elementsHash = 0;
+		for (E e : elements)
+			elementsHash += e.hashCode();
+		int result = prime + elementsHash;
 		result = prime * result + (isTop ? 1231 : 1237);
 		return result;
 	}
@@ -121,19 +134,21 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 	public boolean equals(Object obj) {
 		if (this == obj)
 			return true;
-		if (!super.equals(obj))
+		if (obj == null)
 			return false;
 		if (getClass() != obj.getClass())
 			return false;
 		DefiniteForwardDataflowDomain<E> other = (DefiniteForwardDataflowDomain<E>) obj;
 		if (isTop != other.isTop)
 			return false;
-		return true;
+		if (index == other.index)
+			return elements.equals(other.elements);
+		return elements.size() == other.elements.size() && elements.containsAll(other.elements);
 	}
 
 	@Override
 	public DefiniteForwardDataflowDomain<E> top() {
-		return new DefiniteForwardDataflowDomain<>(domain, new HashSet<>(), true, false);
+		return new DefiniteForwardDataflowDomain<>(domain, index, true, false);
 	}
 
 	@Override
@@ -143,7 +158,7 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 
 	@Override
 	public DefiniteForwardDataflowDomain<E> bottom() {
-		return new DefiniteForwardDataflowDomain<>(domain, new HashSet<>(), false, true);
+		return new DefiniteForwardDataflowDomain<>(domain, index, false, true);
 	}
 
 	@Override
@@ -153,7 +168,8 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 
 	@Override
 	protected DefiniteForwardDataflowDomain<E> mk(Set<E> set) {
-		return new DefiniteForwardDataflowDomain<>(domain, set, false, false);
+		// sets built element-wise by the lattice operations are enumerated
+		return new DefiniteForwardDataflowDomain<>(domain, index, index.owns(set) ? set : index.set(set), false, false);
 	}
 
 	@Override
@@ -163,21 +179,21 @@ public class DefiniteForwardDataflowDomain<E extends DataflowElement<DefiniteFor
 
 	@Override
 	public DefiniteForwardDataflowDomain<E> pushScope(ScopeToken scope) throws SemanticException {
-		DefiniteForwardDataflowDomain<E> result = new DefiniteForwardDataflowDomain<>(this.domain);
+		List<E> result = new ArrayList<>(elements.size());
 		E pushed;
 		for (E element : this.elements)
 			if ((pushed = element.pushScope(scope)) != null)
-				result.elements.add(pushed);
-		return result;
+				result.add(pushed);
+		return new DefiniteForwardDataflowDomain<>(domain, index, index.set(result), true, false);
 	}
 
 	@Override
 	public DefiniteForwardDataflowDomain<E> popScope(ScopeToken scope) throws SemanticException {
-		DefiniteForwardDataflowDomain<E> result = new DefiniteForwardDataflowDomain<>(this.domain);
+		List<E> result = new ArrayList<>(elements.size());
 		E popped;
 		for (E element : this.elements)
 			if ((popped = element.popScope(scope)) != null)
-				result.elements.add(popped);
-		return result;
+				result.add(popped);
+		return new DefiniteForwardDataflowDomain<>(domain, index, index.set(result), true, false);
 	}
 }
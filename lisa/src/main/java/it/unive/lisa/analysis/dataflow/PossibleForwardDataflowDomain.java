@@ -8,15 +8,20 @@ import it.unive.lisa.analysis.representation.SetRepresentation;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
 
 /**
  * A {@link DataflowDomain} for <b>forward</b> and <b>possible</b> dataflow
  * analysis. Being possible means that this domain is an instance of
  * {@link SetLattice}, i.e., is a set whose join operation is the set union.
+ * <br>
+ * Elements are stored in bit vectors, whose positions are assigned by an index
+ * shared by all the instances derived from the same one through semantic and
+ * lattice operations. Joins, meets and kills are thus performed word-wise.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -31,6 +36,8 @@ public class PossibleForwardDataflowDomain<E extends DataflowElement<PossibleFor
 
 	private final E domain;
 
+	private final DataflowElementIndex<E> index;
+
 	/**
 	 * Builds an empty domain.
 	 * 
@@ -38,12 +45,18 @@ public class PossibleForwardDataflowDomain<E extends DataflowElement<PossibleFor
 	 *                   to perform <i>kill</i> and <i>gen</i> operations
 	 */
 	public PossibleForwardDataflowDomain(E domain) {
-		this(domain, new HashSet<>(), true, false);
+		this(domain, new DataflowElementIndex<>(), true, false);
+	}
+
+	private PossibleForwardDataflowDomain(E domain, DataflowElementIndex<E> index, boolean isTop, boolean isBottom) {
+		this(domain, index, index.empty(), isTop, isBottom);
 	}
 
-	private PossibleForwardDataflowDomain(E domain, Set<E> elements, boolean isTop, boolean isBottom) {
+	private PossibleForwardDataflowDomain(E domain, DataflowElementIndex<E> index, Set<E> elements, boolean isTop,
+			boolean isBottom) {
 		super(elements);
 		this.domain = domain;
+		this.index = index;
 		this.isTop = isTop;
 		this.isBottom = isBottom;
 	}
@@ -59,10 +72,9 @@ public class PossibleForwardDataflowDomain<E extends DataflowElement<PossibleFor
 		if (!domain.tracksIdentifiers(id) || !domain.canProcess(expression))
 			return this;
 		PossibleForwardDataflowDomain<E> killed = forgetIdentifiers(domain.kill(id, expression, pp, this));
-		Set<E> updated = new HashSet<>(killed.elements);
-		for (E generated : domain.gen(id, expression, pp, this))
-			updated.add(generated);
-		return new PossibleForwardDataflowDomain<E>(domain, updated, false, false);
+		ExternalSet<E> generated = index.set(domain.gen(id, expression, pp, this));
+		ExternalSet<E> updated = ((ExternalSet<E>) killed.elements).union(generated);
+		return new PossibleForwardDataflowDomain<E>(domain, index, updated, false, false);
 	}
 
 	@Override
@@ -83,16 +95,12 @@ public class PossibleForwardDataflowDomain<E extends DataflowElement<PossibleFor
 		if (isTop())
 			return this;
 
-		Collection<E> toRemove = new LinkedList<>();
-		for (E e : elements)
-			if (e.getIdentifier().equals(id))
-				toRemove.add(e);
-
-		if (toRemove.isEmpty())
+		// all elements of id are killed at once through its mask
+		ExternalSet<E> mask = index.killMask(id);
+		ExternalSet<E> current = (ExternalSet<E>) elements;
+		if (!current.intersects(mask))
 			return this;
-		Set<E> updated = new HashSet<>(elements);
-		updated.removeAll(toRemove);
-		return new PossibleForwardDataflowDomain<E>(domain, updated, false, false);
+		return new PossibleForwardDataflowDomain<E>(domain, index, current.difference(mask), false, false);
 	}
 
 	@Override
@@ -104,7 +112,12 @@ public class PossibleForwardDataflowDomain<E extends DataflowElement<PossibleFor
 	@Override
 	public int hashCode() {
 		final int prime = 31;
-		int result = super.hashCode();
+		// the bit vectors of equal instances built by different indexes
+		// differ, so the hash is computed on the elements themselves
+		int elementsHash = 0;
+		for (E e : elements)
+			elementsHash += e.hashCode();
+		int result = prime + elementsHash;
 		result = prime * result + (isTop ? 1231 : 1237);
 		return result;
 	}
@@ -114,14 +127,16 @@ public class PossibleForwardDataflowDomain<E extends DataflowElement<PossibleFor
 	public boolean equals(Object obj) {
 		if (this == obj)
 			return true;
-		if (!super.equals(obj))
+		if (obj == null)
 			return false;
 		if (getClass() != obj.getClass())
 			return false;
 		PossibleForwardDataflowDomain<E> other = (PossibleForwardDataflowDomain<E>) obj;
 		if (isTop != other.isTop)
 			return false;
-		return true;
+		if (index == other.index)
+			return elements.equals(other.elements);
+		return elements.size() == other.elements.size() && elements.containsAll(other.elements);
 	}
 
 	@Override
@@ -131,7 +146,7 @@ public class PossibleForwardDataflowDomain<E extends DataflowElement<PossibleFor
 
 	@Override
 	public PossibleForwardDataflowDomain<E> top() {
-		return new PossibleForwardDataflowDomain<>(domain, new HashSet<>(), true, false);
+		return new PossibleForwardDataflowDomain<>(domain, index, true, false);
 	}
 
 	@Override
@@ -141,7 +156,7 @@ public class PossibleForwardDataflowDomain<E extends DataflowElement<PossibleFor
 
 	@Override
 	public PossibleForwardDataflowDomain<E> bottom() {
-		return new PossibleForwardDataflowDomain<>(domain, new HashSet<>(), false, true);
+		return new PossibleForwardDataflowDomain<>(domain, index, false, true);
 	}
 
 	@Override
@@ -151,7 +166,8 @@ public class PossibleForwardDataflowDomain<E extends DataflowElement<PossibleFor
 
 	@Override
 	protected PossibleForwardDataflowDomain<E> mk(Set<E> set) {
-		return new PossibleForwardDataflowDomain<>(domain, set, false, false);
+		// sets built element-wise by the lattice operations are enumerated
+		return new PossibleForwardDataflowDomain<>(domain, index, index.owns(set) ? set : index.set(set), false, false);
 	}
 
 	@Override
@@ -161,22 +177,22 @@ public class PossibleForwardDataflowDomain<E extends DataflowElement<PossibleFor
 
 	@Override
 	public PossibleForwardDataflowDomain<E> pushScope(ScopeToken scope) throws SemanticException {
-		PossibleForwardDataflowDomain<E> result = new PossibleForwardDataflowDomain<>(this.domain);
+		List<E> result = new ArrayList<>(elements.size());
 		E pushed;
 		for (E element : this.elements)
 			if ((pushed = element.pushScope(scope)) != null)
-				result.elements.add(pushed);
-		return result;
+				result.add(pushed);
+		return new PossibleForwardDataflowDomain<>(domain, index, index.set(result), true, false);
 	}
 
 	@Override
 	public PossibleForwardDataflowDomain<E> popScope(ScopeToken scope) throws SemanticException {
-		PossibleForwardDataflowDomain<E> result = new PossibleForwardDataflowDomain<>(this.domain);
+		List<E> result = new ArrayList<>(elements.size());
 		E popped;
 		for (E element : this.elements)
 			if ((popped = element.popScope(scope)) != null)
-				result.elements.add(popped);
-		return result;
+				result.add(popped);
+		return new PossibleForwardDataflowDomain<>(domain, index, index.set(result), true, false);
 	}
 
 }
@@ -1,6 +1,7 @@
 package it.unive.lisa.analysis.heap;
 
 import it.unive.lisa.symbolic.value.Identifier;
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -38,7 +39,7 @@ public interface HeapSemanticOperation {
 	 * 
 	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
 	 */
-	public static final class HeapReplacement {
+	public static final class HeapReplacement implements Serializable {
 
 		/**
 		 * The set of identifiers that are the sources of the replacement
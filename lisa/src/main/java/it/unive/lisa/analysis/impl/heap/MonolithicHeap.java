@@ -14,6 +14,7 @@ import it.unive.lisa.symbolic.heap.HeapExpression;
 import it.unive.lisa.symbolic.value.HeapLocation;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import java.io.Serializable;
 import java.util.Collections;
 import java.util.List;
 
@@ -23,7 +24,7 @@ import java.util.List;
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
-public class MonolithicHeap extends BaseHeapDomain<MonolithicHeap> {
+public class MonolithicHeap extends BaseHeapDomain<MonolithicHeap> implements Serializable {
 
 	private static final MonolithicHeap TOP = new MonolithicHeap();
 
@@ -17,6 +17,7 @@ import it.unive.lisa.symbolic.value.Skip;
 import it.unive.lisa.symbolic.value.ValueExpression;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import java.io.Serializable;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -30,7 +31,7 @@ import org.apache.commons.collections4.SetUtils;
  *
  * @author <a href="mailto:vincenzo.arceri@unive.it">Vincenzo Arceri</a>
  */
-public class TypeBasedHeap extends BaseHeapDomain<TypeBasedHeap> {
+public class TypeBasedHeap extends BaseHeapDomain<TypeBasedHeap> implements Serializable {
 
 	private static final TypeBasedHeap TOP = new TypeBasedHeap();
 
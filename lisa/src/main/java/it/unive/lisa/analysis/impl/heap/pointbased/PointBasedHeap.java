@@ -21,6 +21,7 @@ import it.unive.lisa.symbolic.value.ValueExpression;
 import it.unive.lisa.symbolic.value.Variable;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -44,7 +45,7 @@ import java.util.stream.Collectors;
  * @see <a href=
  *          "https://mitpress.mit.edu/books/introduction-static-analysis">https://mitpress.mit.edu/books/introduction-static-analysis</a>
  */
-public class PointBasedHeap extends BaseHeapDomain<PointBasedHeap> {
+public class PointBasedHeap extends BaseHeapDomain<PointBasedHeap> implements Serializable {
 
 	/**
 	 * The list of heap replacement
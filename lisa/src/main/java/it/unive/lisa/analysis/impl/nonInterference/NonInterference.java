@@ -17,6 +17,7 @@ import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.TernaryOperator;
 import it.unive.lisa.symbolic.value.UnaryOperator;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import java.io.Serializable;
 import java.util.IdentityHashMap;
 import java.util.Map;
 
@@ -28,7 +29,7 @@ import java.util.Map;
  * @see <a href=
  *          "https://en.wikipedia.org/wiki/Non-interference_(security)">Non-interference</a>
  */
-public class NonInterference extends BaseInferredValue<NonInterference> {
+public class NonInterference extends BaseInferredValue<NonInterference> implements Serializable {
 
 	private static final byte NI_BOTTOM = 0;
 
@@ -10,8 +10,9 @@ import it.unive.lisa.symbolic.value.BinaryOperator;
 import it.unive.lisa.symbolic.value.Constant;
 import it.unive.lisa.symbolic.value.TernaryOperator;
 import it.unive.lisa.symbolic.value.UnaryOperator;
+import java.io.Serializable;
 
-public final class ExtSignDomain extends BaseNonRelationalValueDomain<ExtSignDomain> {
+public final class ExtSignDomain extends BaseNonRelationalValueDomain<ExtSignDomain> implements Serializable {
     enum Sign {
 
         ZERO {
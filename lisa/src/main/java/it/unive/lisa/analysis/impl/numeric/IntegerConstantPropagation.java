@@ -15,6 +15,7 @@ import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.TernaryOperator;
 import it.unive.lisa.symbolic.value.UnaryOperator;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import java.io.Serializable;
 
 /**
  * The basic integer constant propagation abstract domain, tracking if a certain
@@ -28,7 +29,8 @@ import it.unive.lisa.symbolic.value.ValueExpression;
  * 
  * @author <a href="mailto:vincenzo.arceri@unive.it">Vincenzo Arceri</a>
  */
-public class IntegerConstantPropagation extends BaseNonRelationalValueDomain<IntegerConstantPropagation> {
+public class IntegerConstantPropagation extends BaseNonRelationalValueDomain<IntegerConstantPropagation>
+		implements Serializable {
 
 	private static final IntegerConstantPropagation TOP = new IntegerConstantPropagation(true, false);
 	private static final IntegerConstantPropagation BOTTOM = new IntegerConstantPropagation(false, true);
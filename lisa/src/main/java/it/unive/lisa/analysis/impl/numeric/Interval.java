@@ -4,6 +4,7 @@ import it.unive.lisa.analysis.BaseLattice;
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticDomain.Satisfiability;
 import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.WideningThresholds;
 import it.unive.lisa.analysis.nonrelational.value.BaseNonRelationalValueDomain;
 import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
 import it.unive.lisa.analysis.representation.DomainRepresentation;
@@ -15,11 +16,9 @@ import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.TernaryOperator;
 import it.unive.lisa.symbolic.value.UnaryOperator;
 import it.unive.lisa.symbolic.value.ValueExpression;
-import java.util.HashMap;
+import it.unive.lisa.util.collections.HashTrieMap;
+import java.io.Serializable;
 import java.util.Map;
-import java.util.SortedSet;
-import java.util.TreeSet;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * The interval abstract domain, approximating integer values as the minimum
@@ -29,21 +28,58 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * Top and bottom cases for least upper bounds, widening and less or equals
  * operations are handled by {@link BaseLattice} in {@link BaseLattice#lub},
  * {@link BaseLattice#widening} and {@link BaseLattice#lessOrEqual} methods,
- * respectively.
+ * respectively.<br>
+ * <br>
+ * Bounds are stored as primitive {@code long}s, using {@link Long#MIN_VALUE}
+ * and {@link Long#MAX_VALUE} to represent -Inf and +Inf, respectively.
+ * Arithmetic on bounds never allocates, and results that do not fit in a
+ * {@code long} are approximated with the corresponding infinity. Intervals
+ * representing small constants are shared.
  * 
  * @author <a href="mailto:vincenzo.arceri@unive.it">Vincenzo Arceri</a>
  */
-public class Interval extends BaseNonRelationalValueDomain<Interval> {
+public class Interval extends BaseNonRelationalValueDomain<Interval> implements Serializable {
 
-	private static final Interval TOP = new Interval(null, null, true);
-	private static final Interval BOTTOM = new Interval(null, null, false);
+	/**
+	 * The bound representing -Inf
+	 */
+	private static final long MINUS_INF = Long.MIN_VALUE;
+
+	/**
+	 * The bound representing +Inf
+	 */
+	private static final long PLUS_INF = Long.MAX_VALUE;
+
+	private static final Interval TOP = new Interval(MINUS_INF, PLUS_INF, true);
+	private static final Interval BOTTOM = new Interval(MINUS_INF, PLUS_INF, false);
+
+	/**
+	 * The smallest constant whose singleton interval is shared
+	 */
+	private static final int CACHE_LOW = -128;
+
+	/**
+	 * The largest constant whose singleton interval is shared
+	 */
+	private static final int CACHE_HIGH = 1024;
+
+	private static final Interval[] CONSTANTS = new Interval[CACHE_HIGH - CACHE_LOW + 1];
+
+	static {
+		for (int i = CACHE_LOW; i <= CACHE_HIGH; i++)
+			CONSTANTS[i - CACHE_LOW] = new Interval(i, i, false);
+	}
+
+	private static final Interval ZERO = singleton(0);
+	private static final Interval MINUS_ONE = singleton(-1);
+	private static final Interval NON_NEGATIVE = new Interval(0, PLUS_INF, false);
 
 	private final boolean isTop;
 
-	private final Integer low;
-	private final Integer high;
+	private final long low;
+	private final long high;
 
-	private Interval(Integer low, Integer high, boolean isTop) {
+	private Interval(long low, long high, boolean isTop) {
 		this.low = low;
 		this.high = high;
 		this.isTop = isTop;
@@ -55,10 +91,23 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 	 * need to build top or bottom elements, call {@link Interval#top()} and
 	 * {@link Interval#bottom()}, respectively.
 	 * 
-	 * @param low  the low bound
-	 * @param high the high bound
+	 * @param low  the low bound, or {@code null} for -Inf
+	 * @param high the high bound, or {@code null} for +Inf
 	 */
 	public Interval(Integer low, Integer high) {
+		this(low == null ? MINUS_INF : low, high == null ? PLUS_INF : high, false);
+	}
+
+	/**
+	 * Builds an interval from its low bound and high bound. Call this
+	 * constructor iff {@code low} and {@code high} are not both infinite. If
+	 * you need to build top or bottom elements, call {@link Interval#top()}
+	 * and {@link Interval#bottom()}, respectively.
+	 * 
+	 * @param low  the low bound, or {@link Long#MIN_VALUE} for -Inf
+	 * @param high the high bound, or {@link Long#MAX_VALUE} for +Inf
+	 */
+	public Interval(long low, long high) {
 		this(low, high, false);
 	}
 
@@ -66,7 +115,101 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 	 * Builds the top interval.
 	 */
 	public Interval() {
-		this(null, null, true);
+		this(MINUS_INF, PLUS_INF, true);
+	}
+
+	/**
+	 * Yields the interval containing only the given value, sharing the
+	 * instances of small constants.
+	 * 
+	 * @param n the value
+	 * 
+	 * @return the singleton interval
+	 */
+	private static Interval singleton(long n) {
+		if (n >= CACHE_LOW && n <= CACHE_HIGH)
+			return CONSTANTS[(int) n - CACHE_LOW];
+		return new Interval(n, n, false);
+	}
+
+	/**
+	 * Yields the interval between the given bounds, that is top if both are
+	 * infinite. A low bound of +Inf or a high bound of -Inf can only be
+	 * produced by bounds that do not fit in a {@code long}, and they are
+	 * approximated with -Inf and +Inf, respectively.
+	 * 
+	 * @param low  the low bound
+	 * @param high the high bound
+	 * 
+	 * @return the interval
+	 */
+	private static Interval mk(long low, long high) {
+		if (low == PLUS_INF)
+			low = MINUS_INF;
+		if (high == MINUS_INF)
+			high = PLUS_INF;
+		if (low == MINUS_INF && high == PLUS_INF)
+			return TOP;
+		if (low == high)
+			return singleton(low);
+		return new Interval(low, high, false);
+	}
+
+	private static boolean isInfinite(long bound) {
+		return bound == MINUS_INF || bound == PLUS_INF;
+	}
+
+	/**
+	 * Adds two finite bounds, yielding the infinity of the corresponding sign
+	 * if the result does not fit in a {@code long}.
+	 * 
+	 * @param l the first bound
+	 * @param r the second bound
+	 * 
+	 * @return the sum
+	 */
+	private static long add(long l, long r) {
+		long result = l + r;
+		// overflow iff both operands have a sign different from the result
+		if (((l ^ result) & (r ^ result)) < 0)
+			return l < 0 ? MINUS_INF : PLUS_INF;
+		return result;
+	}
+
+	/**
+	 * Subtracts two finite bounds, yielding the infinity of the corresponding
+	 * sign if the result does not fit in a {@code long}.
+	 * 
+	 * @param l the first bound
+	 * @param r the second bound
+	 * 
+	 * @return the difference
+	 */
+	private static long sub(long l, long r) {
+		long result = l - r;
+		// overflow iff the operands have different signs, and the result has
+		// a sign different from the first one
+		if (((l ^ r) & (l ^ result)) < 0)
+			return l < 0 ? MINUS_INF : PLUS_INF;
+		return result;
+	}
+
+	/**
+	 * Multiplies two finite bounds, yielding the infinity of the
+	 * corresponding sign if the result does not fit in a {@code long}.
+	 * 
+	 * @param l the first bound
+	 * @param r the second bound
+	 * 
+	 * @return the product
+	 */
+	private static long mul(long l, long r) {
+		long result = l * r;
+		// the high 64 bits of the full product are just the sign extension
+		// of the low ones iff no overflow happened
+		if (Math.multiplyHigh(l, r) != (result >> 63))
+			return (l < 0) == (r < 0) ? PLUS_INF : MINUS_INF;
+		return result;
 	}
 
 	@Override
@@ -76,7 +219,7 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 
 	@Override
 	public boolean isTop() {
-		return isTop && low == null && low == high;
+		return isTop && low == MINUS_INF && high == PLUS_INF;
 	}
 
 	@Override
@@ -86,24 +229,26 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 
 	@Override
 	public boolean isBottom() {
-		return !isTop && low == null && low == high;
+		return !isTop && low == MINUS_INF && high == PLUS_INF;
 	}
 
 	/**
 	 * Yields the high bound of this interval.
 	 * 
-	 * @return the high bound of this interval.
+	 * @return the high bound of this interval, or {@link Long#MAX_VALUE} if it
+	 *             is +Inf
 	 */
-	public Integer getHigh() {
+	public long getHigh() {
 		return high;
 	}
 
 	/**
 	 * Yields the low bound of this interval.
 	 * 
-	 * @return the low bound of this interval.
+	 * @return the low bound of this interval, or {@link Long#MIN_VALUE} if it
+	 *             is -Inf
 	 */
-	public Integer getLow() {
+	public long getLow() {
 		return low;
 	}
 
@@ -125,10 +270,8 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 
 	@Override
 	protected Interval evalNonNullConstant(Constant constant, ProgramPoint pp) {
-		if (constant.getValue() instanceof Integer) {
-			Integer i = (Integer) constant.getValue();
-			return new Interval(i, i);
-		}
+		if (constant.getValue() instanceof Integer)
+			return singleton((Integer) constant.getValue());
 
 		return top();
 	}
@@ -139,18 +282,15 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 		case NUMERIC_NEG:
 			if (arg.isTop())
 				return top();
-			return arg.mul(new Interval(-1, -1));
+			return arg.mul(MINUS_ONE);
 		case STRING_LENGTH:
-			return new Interval(0, null);
+			return NON_NEGATIVE;
 		default:
 			return top();
 		}
 	}
 
 	private boolean is(int n) {
-		if (low == null || high == null)
-			return false;
-
 		return low == n && high == n;
 	}
 
@@ -167,7 +307,7 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 			return left.diff(right);
 		case NUMERIC_MUL:
 			if (left.is(0) || right.is(0))
-				return new Interval(0, 0);
+				return ZERO;
 
 			if (left.isTop() || right.isTop())
 				return top();
@@ -178,7 +318,7 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 				return bottom();
 
 			if (left.is(0))
-				return new Interval(0, 0);
+				return ZERO;
 
 			if (left.isTop() || right.isTop())
 				return top();
@@ -199,36 +339,57 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 
 	@Override
 	protected Interval lubAux(Interval other) throws SemanticException {
-		Integer newLow = lowIsMinusInfinity() || other.lowIsMinusInfinity() ? null : Math.min(low, other.low);
-		Integer newHigh = highIsPlusInfinity() || other.highIsPlusInfinity() ? null : Math.max(high, other.high);
-		return newLow == null && newLow == newHigh ? top() : new Interval(newLow, newHigh);
+		long newLow = lowIsMinusInfinity() || other.lowIsMinusInfinity() ? MINUS_INF : Math.min(low, other.low);
+		long newHigh = highIsPlusInfinity() || other.highIsPlusInfinity() ? PLUS_INF : Math.max(high, other.high);
+		return mk(newLow, newHigh);
 	}
 
 	@Override
 	public Interval glbAux(Interval other) {
-		Integer newLow = lowIsMinusInfinity() ? other.low : other.lowIsMinusInfinity() ? low : Math.max(low, other.low);
-		Integer newHigh = highIsPlusInfinity() ? other.high
-				: other.highIsPlusInfinity() ? high : Math.min(high, other.high);
+		// infinities are the neutral elements of max and min
+		long newLow = Math.max(low, other.low);
+		long newHigh = Math.min(high, other.high);
 
-		if (newLow != null && newHigh != null && newLow > newHigh)
+		if (newLow > newHigh)
 			return bottom();
-		return newLow == null && newLow == newHigh ? top() : new Interval(newLow, newHigh);
+		return mk(newLow, newHigh);
 	}
 
 	@Override
 	protected Interval wideningAux(Interval other) throws SemanticException {
-		Integer newLow, newHigh;
+		long newLow, newHigh;
 		if (other.highIsPlusInfinity() || (!highIsPlusInfinity() && other.high > high))
-			newHigh = null;
+			newHigh = PLUS_INF;
 		else
 			newHigh = other.high;
 
 		if (other.lowIsMinusInfinity() || (!lowIsMinusInfinity() && other.low < low))
-			newLow = null;
+			newLow = MINUS_INF;
 		else
 			newLow = other.low;
 
-		return newLow == null && newLow == newHigh ? top() : new Interval(newLow, newHigh);
+		return mk(newLow, newHigh);
+	}
+
+	@Override
+	protected Interval wideningAux(Interval other, WideningThresholds thresholds) throws SemanticException {
+		long newLow, newHigh;
+		if (other.highIsPlusInfinity() || (!highIsPlusInfinity() && other.high > high))
+			newHigh = other.highIsPlusInfinity() ? PLUS_INF : toBound(thresholds.ceiling(other.high), PLUS_INF);
+		else
+			newHigh = other.high;
+
+		if (other.lowIsMinusInfinity() || (!lowIsMinusInfinity() && other.low < low))
+			newLow = other.lowIsMinusInfinity() ? MINUS_INF : toBound(thresholds.floor(other.low), MINUS_INF);
+		else
+			newLow = other.low;
+
+		return mk(newLow, newHigh);
+	}
+
+	private static long toBound(Long threshold, long infinity) {
+		// no threshold beyond the bound: the bound is pushed to infinity
+		return threshold == null ? infinity : threshold;
 	}
 
 	@Override
@@ -236,110 +397,98 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 		return geqLow(low, other.low) && leqHigh(high, other.high);
 	}
 
-	private boolean lowIsMinusInfinity() {
-		return low == null;
+	/**
+	 * Yields {@code true} if and only if the low bound of this interval is
+	 * -Inf.
+	 * 
+	 * @return whether or not the low bound is -Inf
+	 */
+	public boolean lowIsMinusInfinity() {
+		return low == MINUS_INF;
 	}
 
-	private boolean highIsPlusInfinity() {
-		return high == null;
+	/**
+	 * Yields {@code true} if and only if the high bound of this interval is
+	 * +Inf.
+	 * 
+	 * @return whether or not the high bound is +Inf
+	 */
+	public boolean highIsPlusInfinity() {
+		return high == PLUS_INF;
 	}
 
 	private Interval plus(Interval other) {
-		Integer newLow, newHigh;
+		long newLow, newHigh;
 
 		if (lowIsMinusInfinity() || other.lowIsMinusInfinity())
-			newLow = null;
+			newLow = MINUS_INF;
 		else
-			newLow = low + other.low;
+			newLow = add(low, other.low);
 
 		if (highIsPlusInfinity() || other.highIsPlusInfinity())
-			newHigh = null;
+			newHigh = PLUS_INF;
 		else
-			newHigh = high + other.high;
+			newHigh = add(high, other.high);
 
-		return newLow == null && newLow == newHigh ? top() : new Interval(newLow, newHigh);
+		return mk(newLow, newHigh);
 	}
 
 	private Interval diff(Interval other) {
-		Integer newLow, newHigh;
+		long newLow, newHigh;
 
 		if (other.highIsPlusInfinity() || lowIsMinusInfinity())
-			newLow = null;
+			newLow = MINUS_INF;
 		else
-			newLow = low - other.high;
+			newLow = sub(low, other.high);
 
 		if (other.lowIsMinusInfinity() || highIsPlusInfinity())
-			newHigh = null;
+			newHigh = PLUS_INF;
 		else
-			newHigh = high - other.low;
+			newHigh = sub(high, other.low);
 
-		return newLow == null && newLow == newHigh ? top() : new Interval(newLow, newHigh);
+		return mk(newLow, newHigh);
 	}
 
 	private Interval mul(Interval other) {
 		// this = [l1, h1]
 		// other = [l2, h2]
+		long l1 = low;
+		long h1 = high;
+		long l2 = other.low;
+		long h2 = other.high;
 
-		SortedSet<Integer> boundSet = new TreeSet<>();
-		Integer l1 = low;
-		Integer h1 = high;
-		Integer l2 = other.low;
-		Integer h2 = other.high;
+		// each product is either a finite bound or an infinity: -Inf can only
+		// lower the minimum, and +Inf can only raise the maximum
+		long p1 = multiplyBounds(l1, l2); // x1 * y1
+		long p2 = multiplyBounds(l1, h2); // x1 * y2
+		long p3 = multiplyBounds(h1, l2); // x2 * y1
+		long p4 = multiplyBounds(h1, h2); // x2 * y2
 
-		AtomicBoolean lowInf = new AtomicBoolean(false), highInf = new AtomicBoolean(false);
-
-		// x1 * y1
-		multiplyBounds(boundSet, l1, l2, lowInf, highInf);
-
-		// x1 * y2
-		multiplyBounds(boundSet, l1, h2, lowInf, highInf);
-
-		// x2 * y1
-		multiplyBounds(boundSet, h1, l2, lowInf, highInf);
-
-		// x2 * y2
-		multiplyBounds(boundSet, h1, h2, lowInf, highInf);
-
-		Interval result = new Interval(lowInf.get() ? null : boundSet.first(), highInf.get() ? null : boundSet.last());
-		if (result.low == null && result.high == result.low)
-			return top();
-		else
-			return result;
+		return mk(Math.min(Math.min(p1, p2), Math.min(p3, p4)), Math.max(Math.max(p1, p2), Math.max(p3, p4)));
 	}
 
 	private Interval div(Interval other) {
 		// this = [l1, h1]
 		// other = [l2, h2]
+		long l1 = low;
+		long h1 = high;
+		long l2 = other.low;
+		long h2 = other.high;
 
-		SortedSet<Integer> boundSet = new TreeSet<>();
-		Integer l1 = low;
-		Integer h1 = high;
-		Integer l2 = other.low;
-		Integer h2 = other.high;
-
-		AtomicBoolean lowInf = new AtomicBoolean(false), highInf = new AtomicBoolean(false);
+		// divisions that yield no bound contribute +Inf to the minimum and
+		// -Inf to the maximum, that are the neutral elements
+		long newLow = Math.min(
+				Math.min(divideLowBound(l1, l2), divideLowBound(l1, h2)), // x1 / y1, x1 / y2
+				Math.min(divideLowBound(h2, l2), divideLowBound(h1, h2))); // x2 / y1, x2 / y2
+		long newHigh = Math.max(
+				Math.max(divideHighBound(l1, l2), divideHighBound(l1, h2)),
+				Math.max(divideHighBound(h2, l2), divideHighBound(h1, h2)));
 
-		// l1 / l2
-		divideBounds(boundSet, l1, l2, lowInf, highInf);
-
-		// x1 / y2
-		divideBounds(boundSet, l1, h2, lowInf, highInf);
-
-		// x2 / y1
-		divideBounds(boundSet, h2, l2, lowInf, highInf);
-
-		// x2 / y2
-		divideBounds(boundSet, h1, h2, lowInf, highInf);
-
-		Interval result = new Interval(lowInf.get() ? null : boundSet.first(), highInf.get() ? null : boundSet.last());
-		if (result.low == null && result.high == result.low)
-			return top();
-		else
-			return result;
+		return mk(newLow, newHigh);
 	}
 
 	private boolean isSingleton() {
-		return low != null && low == high;
+		return !isInfinite(low) && low == high;
 	}
 
 	@Override
@@ -367,8 +516,8 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 		case COMPARISON_GT:
 			return satisfiesBinaryExpression(BinaryOperator.COMPARISON_LT, right, left, pp);
 		case COMPARISON_LE:
-			Interval firstBound = right.high == null ? top() : new Interval(null, right.high);
-			Interval secondBound = left.low == null ? top() : new Interval(left.low, null);
+			Interval firstBound = right.highIsPlusInfinity() ? top() : mk(MINUS_INF, right.high);
+			Interval secondBound = left.lowIsMinusInfinity() ? top() : mk(left.low, PLUS_INF);
 
 			Interval firstCheck = null;
 			Interval secondCheck = null;
@@ -387,8 +536,8 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 				return Satisfiability.SATISFIED;
 			return Satisfiability.UNKNOWN;
 		case COMPARISON_LT:
-			firstBound = right.high == null ? top() : new Interval(null, right.high - 1);
-			secondBound = left.low == null ? top() : new Interval(left.low + 1, null);
+			firstBound = right.highIsPlusInfinity() ? top() : mk(MINUS_INF, sub(right.high, 1));
+			secondBound = left.lowIsMinusInfinity() ? top() : mk(add(left.low, 1), PLUS_INF);
 
 			firstCheck = null;
 			secondCheck = null;
@@ -420,122 +569,144 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 		}
 	}
 
-	private void multiplyBounds(SortedSet<Integer> boundSet, Integer i, Integer j, AtomicBoolean lowInf,
-			AtomicBoolean highInf) {
-		if (i == null) {
-			if (j == null)
+	/**
+	 * Multiplies two bounds. Infinities are treated as in the original
+	 * unsigned representation of bounds, where the sign of the result only
+	 * depends on the finite operand.
+	 * 
+	 * @param i the first bound
+	 * @param j the second bound
+	 * 
+	 * @return the product, as a finite bound or an infinity
+	 */
+	private static long multiplyBounds(long i, long j) {
+		if (isInfinite(i)) {
+			if (isInfinite(j))
 				// -inf * -inf = +inf
-				highInf.set(true);
-			else {
-				if (j > 0)
-					// -inf * positive
-					lowInf.set(true);
-				else if (j < 0)
-					// -inf * negative
-					highInf.set(true);
-				else
-					boundSet.add(0);
-			}
-		} else if (j == null) {
+				return PLUS_INF;
+			else if (j > 0)
+				// -inf * positive
+				return MINUS_INF;
+			else if (j < 0)
+				// -inf * negative
+				return PLUS_INF;
+			else
+				return 0;
+		} else if (isInfinite(j)) {
 			if (i > 0)
 				// -inf * positive
-				lowInf.set(true);
+				return MINUS_INF;
 			else if (i < 0)
 				// -inf * negative
-				highInf.set(true);
+				return PLUS_INF;
 			else
-				boundSet.add(0);
+				return 0;
 		} else
-			boundSet.add(i * j);
+			return mul(i, j);
 	}
 
-	private void divideBounds(SortedSet<Integer> boundSet, Integer i, Integer j, AtomicBoolean lowInf,
-			AtomicBoolean highInf) {
-		if (i == null) {
-			if (j == null)
-				// -inf * -inf = +inf
-				highInf.set(true);
-			else {
-				if (j > 0)
-					// -inf * positive
-					lowInf.set(true);
-				else if (j < 0)
-					// -inf * negative
-					highInf.set(true);
+	/**
+	 * Yields the contribution of the division between two bounds to the low
+	 * bound of the result.
+	 * 
+	 * @param i the dividend
+	 * @param j the divisor
+	 * 
+	 * @return the contribution, that is +Inf if the division yields no bound
+	 */
+	private static long divideLowBound(long i, long j) {
+		if (isInfinite(i) || isInfinite(j))
+			return divideInfiniteBounds(i, j, PLUS_INF);
+		if (j == 0)
+			// division by zero!
+			return PLUS_INF;
+		return Math.floorDiv(i, j);
+	}
 
-				// division by zero!
-			}
-		} else if (j == null) {
-			if (i > 0)
+	/**
+	 * Yields the contribution of the division between two bounds to the high
+	 * bound of the result.
+	 * 
+	 * @param i the dividend
+	 * @param j the divisor
+	 * 
+	 * @return the contribution, that is -Inf if the division yields no bound
+	 */
+	private static long divideHighBound(long i, long j) {
+		if (isInfinite(i) || isInfinite(j))
+			return divideInfiniteBounds(i, j, MINUS_INF);
+		if (j == 0)
+			// division by zero!
+			return MINUS_INF;
+		// ceil(i / j) == -floor(-i / j), and -i cannot overflow on finite i
+		return -Math.floorDiv(-i, j);
+	}
+
+	private static long divideInfiniteBounds(long i, long j, long none) {
+		if (isInfinite(i)) {
+			if (isInfinite(j))
+				// -inf * -inf = +inf
+				return PLUS_INF;
+			else if (j > 0)
 				// -inf * positive
-				lowInf.set(true);
-			else if (i < 0)
+				return MINUS_INF;
+			else if (j < 0)
 				// -inf * negative
-				highInf.set(true);
+				return PLUS_INF;
 			else
-				boundSet.add(0);
-		} else if (j != 0) {
-			boundSet.add((int) Math.ceil(i / (double) j));
-			boundSet.add((int) Math.floor(i / (double) j));
-		}
-		// division by zero!
+				// division by zero!
+				return none;
+		} else if (i > 0)
+			// -inf * positive
+			return MINUS_INF;
+		else if (i < 0)
+			// -inf * negative
+			return PLUS_INF;
+		else
+			return 0;
 	}
 
 	/**
 	 * Given two interval lower bounds, yields {@code true} iff l1 >= l2, taking
-	 * into account -Inf values (i.e., when l1 or l2 is {@code null}.) This
-	 * method is used for the implementation of {@link Interval#lessOrEqualAux}.
+	 * into account -Inf values. This method is used for the implementation of
+	 * {@link Interval#lessOrEqualAux}.
 	 * 
 	 * @param l1 the lower bound of the first interval.
 	 * @param l2 the lower bounds of the second interval.
 	 * 
 	 * @return {@code true} iff iff l1 >= l2, taking into account -Inf values;
 	 */
-	private boolean geqLow(Integer l1, Integer l2) {
-		if (l1 == null) {
-			if (l2 == null)
-				return true;
-			else
-				return false;
-		} else {
-			if (l2 == null)
-				return true;
-			else
-				return l1 >= l2;
-		}
+	private static boolean geqLow(long l1, long l2) {
+		if (l1 == MINUS_INF)
+			return l2 == MINUS_INF;
+		else
+			return l2 == MINUS_INF || l1 >= l2;
 	}
 
 	/**
 	 * Given two interval upper bounds, yields {@code true} iff h1 <= h2, taking
-	 * into account +Inf values (i.e., when h1 or h2 is {@code null}.) This
-	 * method is used for the implementation of {@link Interval#lessOrEqualAux}.
+	 * into account +Inf values. This method is used for the implementation of
+	 * {@link Interval#lessOrEqualAux}.
 	 * 
 	 * @param h1 the upper bound of the first interval.
 	 * @param h2 the upper bounds of the second interval.
 	 * 
 	 * @return {@code true} iff iff h1 <= h2, taking into account +Inf values;
 	 */
-	private boolean leqHigh(Integer h1, Integer h2) {
-		if (h1 == null) {
-			if (h2 == null)
-				return true;
-			else
-				return false;
-		} else {
-			if (h2 == null)
-				return false;
-			else
-				return h1 <= h2;
-		}
+	private static boolean leqHigh(long h1, long h2) {
+		if (h1 == PLUS_INF)
+			return h2 == PLUS_INF;
+		else
+			return h2 != PLUS_INF && h1 <= h2;
 	}
 
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + ((high == null) ? 0 : high.hashCode());
+		result = prime * result + Long.hashCode(high);
 		result = prime * result + (isTop ? 1231 : 1237);
-		result = prime * result + ((low == null) ? 0 : low.hashCode());
+		result = prime * result + Long.hashCode(low);
 		return result;
 	}
 
@@ -548,17 +719,11 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 		if (getClass() != obj.getClass())
 			return false;
 		Interval other = (Interval) obj;
-		if (high == null) {
-			if (other.high != null)
-				return false;
-		} else if (!high.equals(other.high))
+		if (high != other.high)
 			return false;
 		if (isTop != other.isTop)
 			return false;
-		if (low == null) {
-			if (other.low != null)
-				return false;
-		} else if (!low.equals(other.low))
+		if (low != other.low)
 			return false;
 		return true;
 	}
@@ -571,9 +736,10 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 		Map<Identifier, Interval> map = null;
 
 		if (environment.getMap() == null)
-			map = new HashMap<Identifier, Interval>();
+			map = new HashTrieMap<Identifier, Interval>();
 		else
-			map = new HashMap<>(environment.getMap());
+			// the copy shares its structure with the original map
+			map = new HashTrieMap<>(environment.getMap());
 
 		switch (operator) {
 		case COMPARISON_EQ:
@@ -588,12 +754,12 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 				if (rightEval.lowIsMinusInfinity())
 					return environment;
 
-				Interval bound = new Interval(rightEval.low, null);
+				Interval bound = mk(rightEval.low, PLUS_INF);
 				map.put((Identifier) left, bound);
 				return new ValueEnvironment<Interval>(bottom(), map);
 			} else if (right instanceof Identifier) {
 				Interval leftEval = eval(left, environment, pp);
-				Interval bound = leftEval.lowIsMinusInfinity() ? leftEval : new Interval(null, leftEval.low);
+				Interval bound = leftEval.lowIsMinusInfinity() ? leftEval : mk(MINUS_INF, leftEval.low);
 				map.put((Identifier) right, bound);
 				return new ValueEnvironment<Interval>(bottom(), map);
 			} else
@@ -604,12 +770,12 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 				if (rightEval.lowIsMinusInfinity())
 					return environment;
 
-				Interval bound = new Interval(rightEval.low + 1, null);
+				Interval bound = mk(add(rightEval.low, 1), PLUS_INF);
 				map.put((Identifier) left, bound);
 				return new ValueEnvironment<Interval>(bottom(), map);
 			} else if (right instanceof Identifier) {
 				Interval leftEval = eval(left, environment, pp);
-				Interval bound = leftEval.lowIsMinusInfinity() ? leftEval : new Interval(null, leftEval.low - 1);
+				Interval bound = leftEval.lowIsMinusInfinity() ? leftEval : mk(MINUS_INF, sub(leftEval.low, 1));
 				map.put((Identifier) right, bound);
 				return new ValueEnvironment<Interval>(bottom(), map);
 			} else
@@ -617,7 +783,7 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 		case COMPARISON_LE:
 			if (left instanceof Identifier) {
 				Interval rightEval = eval(right, environment, pp);
-				Interval bound = rightEval.lowIsMinusInfinity() ? rightEval : new Interval(null, rightEval.low);
+				Interval bound = rightEval.lowIsMinusInfinity() ? rightEval : mk(MINUS_INF, rightEval.low);
 				map.put((Identifier) left, bound);
 				return new ValueEnvironment<Interval>(bottom(), map);
 			} else if (right instanceof Identifier) {
@@ -625,7 +791,7 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 				if (leftEval.lowIsMinusInfinity())
 					return environment;
 
-				Interval bound = new Interval(leftEval.low, null);
+				Interval bound = mk(leftEval.low, PLUS_INF);
 				map.put((Identifier) right, bound);
 				return new ValueEnvironment<Interval>(bottom(), map);
 			} else
@@ -633,7 +799,7 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 		case COMPARISON_LT:
 			if (left instanceof Identifier) {
 				Interval rightEval = eval(right, environment, pp);
-				Interval bound = rightEval.lowIsMinusInfinity() ? rightEval : new Interval(null, rightEval.low - 1);
+				Interval bound = rightEval.lowIsMinusInfinity() ? rightEval : mk(MINUS_INF, sub(rightEval.low, 1));
 				map.put((Identifier) left, bound);
 				return new ValueEnvironment<Interval>(bottom(), map);
 			} else if (right instanceof Identifier) {
@@ -641,7 +807,7 @@ public class Interval extends BaseNonRelationalValueDomain<Interval> {
 				if (leftEval.lowIsMinusInfinity())
 					return environment;
 
-				Interval bound = new Interval(leftEval.low + 1, null);
+				Interval bound = mk(add(leftEval.low, 1), PLUS_INF);
 				map.put((Identifier) right, bound);
 				return new ValueEnvironment<Interval>(bottom(), map);
 			} else
@@ -13,6 +13,7 @@ import it.unive.lisa.symbolic.value.Constant;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.UnaryOperator;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import java.io.Serializable;
 
 /**
  * The Parity abstract domain, tracking if a numeric value is even or odd,
@@ -25,7 +26,7 @@ import it.unive.lisa.symbolic.value.ValueExpression;
  *
  * @author <a href="mailto:vincenzo.arceri@unive.it">Vincenzo Arceri</a>
  */
-public class Parity extends BaseNonRelationalValueDomain<Parity> {
+public class Parity extends BaseNonRelationalValueDomain<Parity> implements Serializable {
 
     public static final Parity EVEN = new Parity(false, false);
     public static final Parity ODD = new Parity(false, false);
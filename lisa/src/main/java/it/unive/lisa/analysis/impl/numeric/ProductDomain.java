@@ -8,9 +8,10 @@ import it.unive.lisa.analysis.representation.StringRepresentation;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.value.*;
 
+import java.io.Serializable;
 import java.util.Objects;
 
-public class ProductDomain extends BaseNonRelationalValueDomain<ProductDomain> {
+public class ProductDomain extends BaseNonRelationalValueDomain<ProductDomain> implements Serializable {
 
     private ExtSignDomain signDomain;
     private Parity parityDomain;
@@ -15,6 +15,7 @@ import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.TernaryOperator;
 import it.unive.lisa.symbolic.value.UnaryOperator;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import java.io.Serializable;
 
 /**
  * The basic Sign abstract domain, tracking zero, strictly positive and strictly
@@ -28,7 +29,7 @@ import it.unive.lisa.symbolic.value.ValueExpression;
  * 
  * @author <a href="mailto:vincenzo.arceri@unive.it">Vincenzo Arceri</a>
  */
-public class Sign extends BaseNonRelationalValueDomain<Sign> {
+public class Sign extends BaseNonRelationalValueDomain<Sign> implements Serializable {
 
 	private static final Sign POS = new Sign(false, false);
 	private static final Sign NEG = new Sign(false, false);
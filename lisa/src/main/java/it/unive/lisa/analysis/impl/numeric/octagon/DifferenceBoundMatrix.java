@@ -0,0 +1,476 @@
+package it.unive.lisa.analysis.impl.numeric.octagon;
+
+import java.util.Arrays;
+
+/**
+ * A difference bound matrix encoding octagonal constraints over {@code n}
+ * integer variables, following Miné's representation. Each variable
+ * {@code v_k} is split into a positive form {@code V_2k = v_k} and a negative
+ * one {@code V_2k+1 = -v_k}, and the element {@code m[i][j]} of the matrix
+ * bounds {@code V_j - V_i}. Unary constraints are thus stored doubled: for
+ * instance, {@code v_k <= c} is stored as {@code m[2k+1][2k] = 2c}.<br>
+ * <br>
+ * Since the matrix is coherent ({@code m[i][j] == m[j^1][i^1]}), only its lower
+ * half is stored, in a single array of primitive {@code long}s: element
+ * {@code (i, j)} with {@code j <= (i | 1)} lives at index
+ * {@code j + (i + 1) * (i + 1) / 2}. {@link Long#MAX_VALUE} represents the
+ * absence of a constraint, and sums of bounds never overflow into finite
+ * values.<br>
+ * <br>
+ * Instances of this class are mutable, and they are never shared between
+ * different {@link Octagon}s without copying them first.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+final class DifferenceBoundMatrix {
+
+	/**
+	 * The bound representing the absence of a constraint
+	 */
+	static final long INF = Long.MAX_VALUE;
+
+	/**
+	 * The number of variables
+	 */
+	private final int vars;
+
+	/**
+	 * The lower half of the matrix
+	 */
+	private final long[] m;
+
+	/**
+	 * Builds a matrix with no constraints over the given number of variables.
+	 *
+	 * @param vars the number of variables
+	 */
+	DifferenceBoundMatrix(int vars) {
+		this.vars = vars;
+		this.m = new long[2 * vars * (vars + 1)];
+		Arrays.fill(m, INF);
+		for (int i = 0; i < 2 * vars; i++)
+			m[index(i, i)] = 0;
+	}
+
+	private DifferenceBoundMatrix(int vars, long[] m) {
+		this.vars = vars;
+		this.m = m;
+	}
+
+	/**
+	 * Yields a copy of this matrix.
+	 *
+	 * @return the copy
+	 */
+	DifferenceBoundMatrix copy() {
+		return new DifferenceBoundMatrix(vars, m.clone());
+	}
+
+	/**
+	 * Yields the number of variables of this matrix.
+	 *
+	 * @return the number of variables
+	 */
+	int size() {
+		return vars;
+	}
+
+	private static int index(int i, int j) {
+		if (j > (i | 1)) {
+			// use the coherent element in the lower half
+			int tmp = j ^ 1;
+			j = i ^ 1;
+			i = tmp;
+		}
+		return j + ((i + 1) * (i + 1)) / 2;
+	}
+
+	/**
+	 * Yields the bound of {@code V_j - V_i}.
+	 *
+	 * @param i the index of the subtracted form
+	 * @param j the index of the other form
+	 *
+	 * @return the bound, or {@link #INF}
+	 */
+	long get(int i, int j) {
+		return m[index(i, j)];
+	}
+
+	/**
+	 * Refines the bound of {@code V_j - V_i} to {@code c}, if the latter is
+	 * smaller than the current one.
+	 *
+	 * @param i the index of the subtracted form
+	 * @param j the index of the other form
+	 * @param c the new bound
+	 */
+	void refine(int i, int j, long c) {
+		int idx = index(i, j);
+		if (c < m[idx])
+			m[idx] = c;
+	}
+
+	/**
+	 * Adds two bounds, yielding {@link #INF} if any of them is {@link #INF} or
+	 * if the sum overflows upwards. Sums overflowing downwards are
+	 * approximated with the smallest finite bound, that is a weaker
+	 * constraint.
+	 *
+	 * @param a the first bound
+	 * @param b the second bound
+	 *
+	 * @return the sum
+	 */
+	static long add(long a, long b) {
+		if (a == INF || b == INF)
+			return INF;
+		long r = a + b;
+		if (((a ^ r) & (b ^ r)) < 0)
+			return a > 0 ? INF : Long.MIN_VALUE + 1;
+		return r;
+	}
+
+	/**
+	 * Doubles a bound, to store it as a unary constraint.
+	 *
+	 * @param c the bound
+	 *
+	 * @return the doubled bound
+	 */
+	static long twice(long c) {
+		return add(c, c);
+	}
+
+	/**
+	 * Yields {@code true} if this matrix does not hold any constraint.
+	 *
+	 * @return whether or not this matrix is unconstrained
+	 */
+	boolean isTop() {
+		for (int i = 0; i < 2 * vars; i++)
+			for (int j = 0; j <= (i | 1); j++)
+				if (i != j && get(i, j) != INF)
+					return false;
+		return true;
+	}
+
+	/**
+	 * Yields the upper bound of the given variable.
+	 *
+	 * @param v the variable
+	 *
+	 * @return the upper bound, or {@link #INF}
+	 */
+	long upperBound(int v) {
+		long c = get(2 * v + 1, 2 * v);
+		return c == INF ? INF : Math.floorDiv(c, 2);
+	}
+
+	/**
+	 * Yields the negated lower bound of the given variable, that is, the
+	 * upper bound of its opposite.
+	 *
+	 * @param v the variable
+	 *
+	 * @return the negated lower bound, or {@link #INF}
+	 */
+	long negatedLowerBound(int v) {
+		long c = get(2 * v, 2 * v + 1);
+		return c == INF ? INF : Math.floorDiv(c, 2);
+	}
+
+	/**
+	 * Removes all the constraints involving the given variable.
+	 *
+	 * @param v the variable
+	 */
+	void forget(int v) {
+		int p = 2 * v, n = p + 1;
+		for (int i = 0; i < 2 * vars; i++) {
+			if (i == p || i == n)
+				continue;
+			m[index(i, p)] = INF;
+			m[index(i, n)] = INF;
+		}
+		m[index(p, n)] = INF;
+		m[index(n, p)] = INF;
+	}
+
+	/**
+	 * Applies the invertible assignment {@code v = -v + c}, if
+	 * {@code negate} holds, or {@code v = v + c} otherwise. Since the
+	 * assignment only translates (and possibly mirrors) the constraints on
+	 * {@code v}, the matrix stays closed.
+	 *
+	 * @param v      the variable
+	 * @param negate whether or not {@code v} is negated
+	 * @param c      the constant
+	 */
+	void translate(int v, boolean negate, long c) {
+		int p = 2 * v, n = p + 1;
+		if (negate)
+			// swap the positive and negative forms of v
+			for (int i = 0; i < 2 * vars; i++) {
+				if (i == p || i == n)
+					continue;
+				long ip = get(i, p);
+				m[index(i, p)] = get(i, n);
+				m[index(i, n)] = ip;
+			}
+		long pn = get(p, n);
+		m[index(p, n)] = negate ? get(n, p) : pn;
+		m[index(n, p)] = negate ? pn : get(n, p);
+
+		if (c == 0)
+			return;
+		for (int i = 0; i < 2 * vars; i++) {
+			if (i == p || i == n)
+				continue;
+			// V_p - V_i grows by c, V_n - V_i shrinks by c
+			m[index(i, p)] = add(get(i, p), c);
+			m[index(i, n)] = add(get(i, n), -c);
+		}
+		m[index(n, p)] = add(get(n, p), twice(c));
+		m[index(p, n)] = add(get(p, n), twice(-c));
+	}
+
+	/**
+	 * Performs the strong closure of this matrix, through the Floyd-Warshall
+	 * algorithm extended for octagons, followed by integer tightening and
+	 * strengthening. This costs {@code O(n^3)}.
+	 *
+	 * @return {@code false} if and only if the matrix turned out to be empty
+	 */
+	boolean close() {
+		for (int k = 0; k < vars; k++)
+			pivot(k);
+		return strengthen();
+	}
+
+	/**
+	 * Performs the strong closure of this matrix, assuming that only the
+	 * constraints involving the given variable changed since it was last
+	 * closed. This costs {@code O(n^2)}.
+	 *
+	 * @param v the variable whose constraints changed
+	 *
+	 * @return {@code false} if and only if the matrix turned out to be empty
+	 */
+	boolean closeIncrementally(int v) {
+		int p = 2 * v, n = p + 1;
+		// close the rows of v with respect to the other variables: since the
+		// rest of the matrix is closed, one step through each of them is
+		// enough
+		for (int k = 0; k < 2 * vars; k++) {
+			if (k == p || k == n)
+				continue;
+			for (int j = 0; j < 2 * vars; j++)
+				if (j != p && j != n) {
+					refine(p, j, add(get(p, k), get(k, j)));
+					refine(n, j, add(get(n, k), get(k, j)));
+				}
+		}
+		// the constraints between the forms of v can now be derived from the
+		// updated rows, since m[k][n] == m[p][k^1]
+		for (int k = 0; k < 2 * vars; k++) {
+			if (k == p || k == n)
+				continue;
+			refine(p, n, add(get(p, k), get(k, n)));
+			refine(n, p, add(get(n, k), get(k, p)));
+		}
+		// then use v as the pivot for all the other constraints
+		pivot(v);
+		return strengthen();
+	}
+
+	/**
+	 * Adds the constraint {@code V_j - V_i <= c} to this matrix, that must be
+	 * closed, and closes it again. Since any shortest path can cross the new
+	 * constraint (or its coherent twin) at most once in each direction, this
+	 * costs {@code O(n^2)}.
+	 *
+	 * @param i the index of the subtracted form
+	 * @param j the index of the other form
+	 * @param c the bound
+	 *
+	 * @return {@code false} if and only if the matrix turned out to be empty
+	 */
+	boolean addConstraint(int i, int j, long c) {
+		if (c >= get(i, j))
+			return true;
+
+		DifferenceBoundMatrix old = copy();
+		int ni = i ^ 1, nj = j ^ 1;
+		long jnj = old.get(j, nj), nii = old.get(ni, i);
+		for (int a = 0; a < 2 * vars; a++) {
+			long ai = old.get(a, i), anj = old.get(a, nj);
+			if (ai == INF && anj == INF)
+				continue;
+			for (int b = 0; b <= (a | 1); b++) {
+				long jb = old.get(j, b), nib = old.get(ni, b);
+				long best = Math.min(add(add(ai, c), jb), add(add(anj, c), nib));
+				best = Math.min(best, add(add(add(ai, c), add(jnj, c)), nib));
+				best = Math.min(best, add(add(add(anj, c), add(nii, c)), jb));
+				refine(a, b, best);
+			}
+		}
+		return strengthen();
+	}
+
+	private void pivot(int k) {
+		int p = 2 * k, n = p + 1;
+		long pn = get(p, n), np = get(n, p);
+		for (int i = 0; i < 2 * vars; i++) {
+			long ip = get(i, p), in = get(i, n);
+			if (ip == INF && in == INF)
+				continue;
+			for (int j = 0; j <= (i | 1); j++) {
+				long pj = get(p, j), nj = get(n, j);
+				long c = Math.min(add(ip, pj), add(in, nj));
+				c = Math.min(c, add(add(ip, pn), nj));
+				c = Math.min(c, add(add(in, np), pj));
+				refine(i, j, c);
+			}
+		}
+	}
+
+	private boolean strengthen() {
+		int size = 2 * vars;
+		// integer tightening of the unary constraints
+		for (int i = 0; i < size; i++) {
+			long c = get(i, i ^ 1);
+			if (c != INF && (c & 1) != 0)
+				m[index(i, i ^ 1)] = c - 1;
+		}
+		for (int i = 0; i < size; i++) {
+			long ii = get(i, i ^ 1);
+			if (ii == INF)
+				continue;
+			for (int j = 0; j <= (i | 1); j++) {
+				long jj = get(j ^ 1, j);
+				if (jj != INF)
+					refine(i, j, Math.floorDiv(add(ii, jj), 2));
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			if (get(i, i) < 0)
+				return false;
+			long c = get(i, i ^ 1), d = get(i ^ 1, i);
+			if (c != INF && d != INF && add(c, d) < 0)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Yields the matrix restricted to the given variables, in the given order.
+	 * If this matrix is closed, the result is closed as well.
+	 *
+	 * @param mapping the indexes of the variables of this matrix to keep
+	 *
+	 * @return the projected matrix
+	 */
+	DifferenceBoundMatrix project(int[] mapping) {
+		DifferenceBoundMatrix result = new DifferenceBoundMatrix(mapping.length);
+		for (int a = 0; a < mapping.length; a++)
+			for (int b = 0; b < mapping.length; b++)
+				for (int s = 0; s < 2; s++)
+					for (int t = 0; t < 2; t++) {
+						int i = 2 * a + s, j = 2 * b + t;
+						if (j <= (i | 1))
+							result.m[index(i, j)] = get(2 * mapping[a] + s, 2 * mapping[b] + t);
+					}
+		return result;
+	}
+
+	/**
+	 * Yields the matrix over the variables of this one followed by the ones of
+	 * {@code other}, that contains the constraints of both. The result is not
+	 * closed.
+	 *
+	 * @param other the other matrix
+	 *
+	 * @return the concatenated matrix
+	 */
+	DifferenceBoundMatrix concat(DifferenceBoundMatrix other) {
+		DifferenceBoundMatrix result = new DifferenceBoundMatrix(vars + other.vars);
+		int offset = 2 * vars;
+		for (int i = 0; i < 2 * vars; i++)
+			for (int j = 0; j <= (i | 1); j++)
+				result.m[index(i, j)] = get(i, j);
+		for (int i = 0; i < 2 * other.vars; i++)
+			for (int j = 0; j <= (i | 1); j++)
+				result.m[index(i + offset, j + offset)] = other.get(i, j);
+		return result;
+	}
+
+	/**
+	 * Yields the least upper bound between this matrix and another one over
+	 * the same variables. If both are closed, the result is closed as well.
+	 *
+	 * @param other the other matrix
+	 *
+	 * @return the least upper bound
+	 */
+	DifferenceBoundMatrix lub(DifferenceBoundMatrix other) {
+		long[] result = new long[m.length];
+		for (int i = 0; i < m.length; i++)
+			result[i] = Math.max(m[i], other.m[i]);
+		return new DifferenceBoundMatrix(vars, result);
+	}
+
+	/**
+	 * Yields the widening between this matrix and another one over the same
+	 * variables, dropping every constraint of this matrix that is not
+	 * satisfied by {@code other}. The result must not be closed, to guarantee
+	 * termination.
+	 *
+	 * @param other the other matrix
+	 *
+	 * @return the widening
+	 */
+	DifferenceBoundMatrix widening(DifferenceBoundMatrix other) {
+		long[] result = new long[m.length];
+		for (int i = 0; i < m.length; i++)
+			result[i] = other.m[i] <= m[i] ? m[i] : INF;
+		return new DifferenceBoundMatrix(vars, result);
+	}
+
+	/**
+	 * Yields {@code true} if every constraint of {@code other} is implied by
+	 * the corresponding one of this matrix. If this matrix is closed, this
+	 * corresponds to the inclusion of the represented sets.
+	 *
+	 * @param other the other matrix, over the same variables
+	 *
+	 * @return whether or not this matrix is included in {@code other}
+	 */
+	boolean lessOrEqual(DifferenceBoundMatrix other) {
+		for (int i = 0; i < m.length; i++)
+			if (m[i] > other.m[i])
+				return false;
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Arrays.hashCode(m);
+		result = prime * result + vars;
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		DifferenceBoundMatrix other = (DifferenceBoundMatrix) obj;
+		return vars == other.vars && Arrays.equals(m, other.m);
+	}
+}
@@ -0,0 +1,266 @@
+package it.unive.lisa.analysis.impl.numeric.octagon;
+
+import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.value.BinaryExpression;
+import it.unive.lisa.symbolic.value.BinaryOperator;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.UnaryExpression;
+import it.unive.lisa.symbolic.value.UnaryOperator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * An integer linear expression {@code c + a_1 * x_1 + ... + a_n * x_n}, where
+ * all the coefficients {@code a_i} are different from zero. Instances of this
+ * class are immutable.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+final class LinearExpression {
+
+	/**
+	 * The coefficients of the identifiers
+	 */
+	private final Map<Identifier, Long> coefficients;
+
+	/**
+	 * The constant term
+	 */
+	private final long constant;
+
+	private LinearExpression(Map<Identifier, Long> coefficients, long constant) {
+		this.coefficients = coefficients;
+		this.constant = constant;
+	}
+
+	/**
+	 * Yields the linear form of the given expression, if any. Only integer
+	 * constants, identifiers, numeric negations, additions, subtractions and
+	 * multiplications where at least one of the operands is constant are
+	 * considered linear.
+	 *
+	 * @param expression the expression to linearize
+	 *
+	 * @return the linear form of {@code expression}, or {@code null} if
+	 *             {@code expression} is not linear or if its coefficients
+	 *             overflow
+	 */
+	static LinearExpression of(SymbolicExpression expression) {
+		try {
+			return linearize(expression);
+		} catch (ArithmeticException e) {
+			return null;
+		}
+	}
+
+	private static LinearExpression linearize(SymbolicExpression expression) {
+		if (expression instanceof Identifier) {
+			if (expression.getDynamicType().isPointerType())
+				return null;
+			Map<Identifier, Long> coefficients = new LinkedHashMap<>();
+			coefficients.put((Identifier) expression, 1L);
+			return new LinearExpression(coefficients, 0);
+		}
+
+		if (expression instanceof Constant) {
+			Object value = ((Constant) expression).getValue();
+			if (value instanceof Integer || value instanceof Long)
+				return new LinearExpression(new LinkedHashMap<>(), ((Number) value).longValue());
+			return null;
+		}
+
+		if (expression instanceof UnaryExpression) {
+			UnaryExpression unary = (UnaryExpression) expression;
+			if (unary.getOperator() != UnaryOperator.NUMERIC_NEG)
+				return null;
+			LinearExpression arg = linearize(unary.getExpression());
+			return arg == null ? null : arg.scale(-1);
+		}
+
+		if (expression instanceof BinaryExpression) {
+			BinaryExpression binary = (BinaryExpression) expression;
+			BinaryOperator op = binary.getOperator();
+			if (op != BinaryOperator.NUMERIC_ADD && op != BinaryOperator.NUMERIC_SUB
+					&& op != BinaryOperator.NUMERIC_MUL)
+				return null;
+
+			LinearExpression left = linearize(binary.getLeft());
+			if (left == null)
+				return null;
+			LinearExpression right = linearize(binary.getRight());
+			if (right == null)
+				return null;
+
+			switch (op) {
+			case NUMERIC_ADD:
+				return left.add(right, 1);
+			case NUMERIC_SUB:
+				return left.add(right, -1);
+			default:
+				if (left.isConstant())
+					return right.scale(left.constant);
+				if (right.isConstant())
+					return left.scale(right.constant);
+				return null;
+			}
+		}
+
+		return null;
+	}
+
+	private LinearExpression scale(long factor) {
+		Map<Identifier, Long> result = new LinkedHashMap<>();
+		if (factor != 0)
+			for (Entry<Identifier, Long> entry : coefficients.entrySet())
+				result.put(entry.getKey(), Math.multiplyExact(entry.getValue(), factor));
+		return new LinearExpression(result, Math.multiplyExact(constant, factor));
+	}
+
+	private LinearExpression add(LinearExpression other, long sign) {
+		Map<Identifier, Long> result = new LinkedHashMap<>(coefficients);
+		for (Entry<Identifier, Long> entry : other.coefficients.entrySet()) {
+			long coef = Math.multiplyExact(entry.getValue(), sign);
+			Long current = result.get(entry.getKey());
+			if (current != null)
+				coef = Math.addExact(current, coef);
+			if (coef == 0)
+				result.remove(entry.getKey());
+			else
+				result.put(entry.getKey(), coef);
+		}
+		return new LinearExpression(result, Math.addExact(constant, Math.multiplyExact(other.constant, sign)));
+	}
+
+	/**
+	 * Yields the difference between this expression and the given one.
+	 *
+	 * @param other the other expression
+	 *
+	 * @return the difference, or {@code null} if it overflows
+	 */
+	LinearExpression subtract(LinearExpression other) {
+		try {
+			return add(other, -1);
+		} catch (ArithmeticException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Yields the expression {@code -this}.
+	 *
+	 * @return the negated expression, or {@code null} if it overflows
+	 */
+	LinearExpression negate() {
+		try {
+			return scale(-1);
+		} catch (ArithmeticException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Yields the expression {@code this + c}.
+	 *
+	 * @param c the constant to add
+	 *
+	 * @return the resulting expression, or {@code null} if it overflows
+	 */
+	LinearExpression plus(long c) {
+		try {
+			return new LinearExpression(coefficients, Math.addExact(constant, c));
+		} catch (ArithmeticException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Yields {@code true} if this expression does not contain identifiers.
+	 *
+	 * @return whether or not this expression is constant
+	 */
+	boolean isConstant() {
+		return coefficients.isEmpty();
+	}
+
+	/**
+	 * Yields {@code true} if this expression can be used in an octagonal
+	 * constraint, that is, if it has at most two identifiers and all their
+	 * coefficients are either {@code 1} or {@code -1}.
+	 *
+	 * @return whether or not this expression is octagonal
+	 */
+	boolean isOctagonal() {
+		if (coefficients.size() > 2)
+			return false;
+		for (long coef : coefficients.values())
+			if (coef != 1 && coef != -1)
+				return false;
+		return true;
+	}
+
+	/**
+	 * Yields the constant term of this expression.
+	 *
+	 * @return the constant term
+	 */
+	long getConstant() {
+		return constant;
+	}
+
+	/**
+	 * Yields the identifiers of this expression, in order of appearance.
+	 *
+	 * @return the identifiers
+	 */
+	Iterable<Identifier> getIdentifiers() {
+		return coefficients.keySet();
+	}
+
+	/**
+	 * Yields the coefficient of the given identifier.
+	 *
+	 * @param id the identifier
+	 *
+	 * @return the coefficient, or {@code 0} if {@code id} does not appear in
+	 *             this expression
+	 */
+	long getCoefficient(Identifier id) {
+		Long coef = coefficients.get(id);
+		return coef == null ? 0 : coef;
+	}
+
+	/**
+	 * Yields the number of identifiers of this expression.
+	 *
+	 * @return the number of identifiers
+	 */
+	int size() {
+		return coefficients.size();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		Iterator<Entry<Identifier, Long>> it = coefficients.entrySet().iterator();
+		while (it.hasNext()) {
+			Entry<Identifier, Long> entry = it.next();
+			long coef = entry.getValue();
+			if (builder.length() > 0)
+				builder.append(coef < 0 ? " - " : " + ");
+			else if (coef < 0)
+				builder.append("-");
+			if (Math.abs(coef) != 1)
+				builder.append(Math.abs(coef)).append("*");
+			builder.append(entry.getKey().getName());
+		}
+		if (builder.length() == 0)
+			return String.valueOf(constant);
+		if (constant != 0)
+			builder.append(constant < 0 ? " - " : " + ").append(Math.abs(constant));
+		return builder.toString();
+	}
+}
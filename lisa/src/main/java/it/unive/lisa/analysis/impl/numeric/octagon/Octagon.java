@@ -0,0 +1,921 @@
+package it.unive.lisa.analysis.impl.numeric.octagon;
+
+import it.unive.lisa.analysis.BaseLattice;
+import it.unive.lisa.analysis.Lattice;
+import it.unive.lisa.analysis.ScopeToken;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.impl.numeric.Interval;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.analysis.representation.DomainRepresentation;
+import it.unive.lisa.analysis.representation.SetRepresentation;
+import it.unive.lisa.analysis.representation.StringRepresentation;
+import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.caches.Caches;
+import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.symbolic.value.BinaryExpression;
+import it.unive.lisa.symbolic.value.BinaryOperator;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.OutOfScopeIdentifier;
+import it.unive.lisa.symbolic.value.UnaryExpression;
+import it.unive.lisa.symbolic.value.UnaryOperator;
+import it.unive.lisa.symbolic.value.ValueExpression;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The octagon relational numerical domain, tracking constraints of the form
+ * {@code ±x ±y <= c} between integer variables, as defined in: Antoine Miné,
+ * "The octagon abstract domain", Higher-Order and Symbolic Computation,
+ * 2006.<br>
+ * <br>
+ * Since the closure of an octagon over {@code n} variables costs
+ * {@code O(n^3)}, variables are not related all together: they are instead
+ * partitioned in packs of at most {@link #getMaxPackSize()} elements, each one
+ * with its own {@link DifferenceBoundMatrix}. Packs are built during the
+ * analysis, merging the ones of the identifiers that appear together in an
+ * assignment or in a condition. When the merged pack would be too large, the
+ * identifiers are kept apart and only the bounds of the involved identifiers
+ * are updated, as a non-relational domain would do. Assignments of the form
+ * {@code x = ±y + c} and conditions update a closed matrix in quadratic time.
+ * Expressions that are not linear are evaluated through {@link Interval}s.<br>
+ * <br>
+ * Identifiers that are not part of any pack are unconstrained.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class Octagon extends BaseLattice<Octagon> implements ValueDomain<Octagon> {
+
+	/**
+	 * The maximum number of identifiers in a pack used by {@link #Octagon()}
+	 */
+	public static final int DEFAULT_MAX_PACK_SIZE = 8;
+
+	private static final long MINUS_INF = Long.MIN_VALUE;
+
+	private static final long PLUS_INF = Long.MAX_VALUE;
+
+	private static final long INF = DifferenceBoundMatrix.INF;
+
+	/**
+	 * The maximum number of identifiers in a pack
+	 */
+	private final int maxPackSize;
+
+	/**
+	 * The pack of each tracked identifier, or {@code null} for the bottom
+	 * element
+	 */
+	private final Map<Identifier, VariablePack> packs;
+
+	/**
+	 * Builds the top octagon, with packs of at most
+	 * {@link #DEFAULT_MAX_PACK_SIZE} identifiers.
+	 */
+	public Octagon() {
+		this(DEFAULT_MAX_PACK_SIZE);
+	}
+
+	/**
+	 * Builds the top octagon, with packs of at most {@code maxPackSize}
+	 * identifiers.
+	 *
+	 * @param maxPackSize the maximum number of identifiers that can be related
+	 *                        together
+	 *
+	 * @throws IllegalArgumentException if {@code maxPackSize} is not positive
+	 */
+	public Octagon(int maxPackSize) {
+		this(maxPackSize, Collections.emptyMap());
+		if (maxPackSize < 1)
+			throw new IllegalArgumentException("Packs must contain at least one identifier");
+	}
+
+	private Octagon(int maxPackSize, Map<Identifier, VariablePack> packs) {
+		this.maxPackSize = maxPackSize;
+		this.packs = packs;
+	}
+
+	/**
+	 * Yields the maximum number of identifiers that can be related together by
+	 * this octagon.
+	 *
+	 * @return the maximum size of a pack
+	 */
+	public int getMaxPackSize() {
+		return maxPackSize;
+	}
+
+	/**
+	 * Yields the bounds of the given identifier.
+	 *
+	 * @param id the identifier
+	 *
+	 * @return the bounds of {@code id}, or bottom if this octagon is bottom
+	 */
+	public Interval getBounds(Identifier id) {
+		if (isBottom())
+			return new Interval().bottom();
+		return toInterval(bounds(id));
+	}
+
+	/**
+	 * Yields the bounds of the linear expression {@code left - right}, that is
+	 * exact whenever the two identifiers are in the same pack.
+	 *
+	 * @param left  the first identifier
+	 * @param right the second identifier
+	 *
+	 * @return the bounds of the difference, or bottom if this octagon is
+	 *             bottom
+	 */
+	public Interval getDifferenceBounds(Identifier left, Identifier right) {
+		if (isBottom())
+			return new Interval().bottom();
+		return toInterval(bounds(LinearExpression.of(left).subtract(LinearExpression.of(right))));
+	}
+
+	private static Interval toInterval(long[] bounds) {
+		if (bounds[0] == MINUS_INF && bounds[1] == PLUS_INF)
+			return new Interval();
+		return new Interval(bounds[0], bounds[1]);
+	}
+
+	@Override
+	public Octagon assign(Identifier id, ValueExpression expression, ProgramPoint pp) throws SemanticException {
+		if (isBottom())
+			return this;
+
+		if (id.getDynamicType().isPointerType() || expression.getDynamicType().isPointerType())
+			return this;
+
+		Octagon result = assignStrong(id, expression, pp);
+		if (id.isWeak() && packs.containsKey(id))
+			return result.lub(this);
+		return result;
+	}
+
+	private Octagon assignStrong(Identifier id, ValueExpression expression, ProgramPoint pp)
+			throws SemanticException {
+		LinearExpression lin = LinearExpression.of(expression);
+		Map<Identifier, VariablePack> func = new HashMap<>(packs);
+
+		if (lin != null && lin.size() == 1 && lin.isOctagonal() && lin.getConstant() != MINUS_INF) {
+			Identifier other = lin.getIdentifiers().iterator().next();
+			long coef = lin.getCoefficient(other);
+
+			if (other.equals(id)) {
+				// x = ±x + c can be applied in place
+				VariablePack pack = packs.get(id);
+				if (pack == null)
+					return this;
+				DifferenceBoundMatrix matrix = pack.getMatrix().copy();
+				matrix.translate(pack.indexOf(id), coef < 0, lin.getConstant());
+				register(func, variables(pack), matrix);
+				return mk(func);
+			}
+
+			forget(func, id);
+			VariablePack pack = merge(func, Arrays.asList(other, id));
+			if (pack != null) {
+				// x - (±y) <= c and (±y) - x <= -c
+				DifferenceBoundMatrix matrix = pack.getMatrix().copy();
+				int x = pack.indexOf(id);
+				int y = 2 * pack.indexOf(other) + (coef > 0 ? 0 : 1);
+				matrix.refine(y, 2 * x, lin.getConstant());
+				matrix.refine(2 * x, y, -lin.getConstant());
+				if (!matrix.closeIncrementally(x))
+					return bottom();
+				register(func, variables(pack), matrix);
+				return mk(func);
+			}
+		}
+
+		// the bounds must be computed before forgetting id
+		long[] bounds = lin != null ? bounds(lin) : eval(expression, pp);
+		forget(func, id);
+		if (!refineBounds(func, id, bounds[0], bounds[1]))
+			return bottom();
+		return mk(func);
+	}
+
+	private long[] eval(ValueExpression expression, ProgramPoint pp) throws SemanticException {
+		Map<Identifier, Interval> function = new HashMap<>();
+		for (Identifier id : packs.keySet()) {
+			Interval interval = toInterval(bounds(id));
+			if (!interval.isTop())
+				function.put(id, interval);
+		}
+
+		Interval singleton = new Interval();
+		Interval result = singleton.eval(expression, new ValueEnvironment<>(singleton, function), pp);
+		if (result.isTop() || result.isBottom())
+			return new long[] { MINUS_INF, PLUS_INF };
+		return new long[] { result.getLow(), result.getHigh() };
+	}
+
+	@Override
+	public Octagon smallStepSemantics(ValueExpression expression, ProgramPoint pp) throws SemanticException {
+		// the octagon does not change without an assignment
+		return this;
+	}
+
+	@Override
+	public Octagon assume(ValueExpression expression, ProgramPoint pp) throws SemanticException {
+		if (isBottom())
+			return this;
+
+		if (expression instanceof UnaryExpression) {
+			UnaryExpression unary = (UnaryExpression) expression;
+			if (unary.getOperator() != UnaryOperator.LOGICAL_NOT)
+				return this;
+			ValueExpression negated = negate((ValueExpression) unary.getExpression());
+			return negated == null ? this : assume(negated, pp);
+		}
+
+		if (!(expression instanceof BinaryExpression))
+			return this;
+
+		BinaryExpression binary = (BinaryExpression) expression;
+		BinaryOperator op = binary.getOperator();
+		if (op == BinaryOperator.LOGICAL_AND)
+			return assume((ValueExpression) binary.getLeft(), pp).assume((ValueExpression) binary.getRight(), pp);
+		if (op == BinaryOperator.LOGICAL_OR)
+			return assume((ValueExpression) binary.getLeft(), pp)
+					.lub(assume((ValueExpression) binary.getRight(), pp));
+
+		LinearExpression left = LinearExpression.of(binary.getLeft());
+		LinearExpression right = LinearExpression.of(binary.getRight());
+		if (left == null || right == null)
+			return this;
+		LinearExpression diff = left.subtract(right);
+		if (diff == null)
+			return this;
+
+		switch (op) {
+		case COMPARISON_LE:
+			return constrain(diff);
+		case COMPARISON_LT:
+			return constrain(diff.plus(1));
+		case COMPARISON_GE:
+			return constrain(diff.negate());
+		case COMPARISON_GT:
+			LinearExpression neg = diff.negate();
+			return constrain(neg == null ? null : neg.plus(1));
+		case COMPARISON_EQ:
+			return constrain(diff).constrain(diff.negate());
+		case COMPARISON_NE:
+			long[] bounds = bounds(diff);
+			return bounds[0] == 0 && bounds[1] == 0 ? bottom() : this;
+		default:
+			return this;
+		}
+	}
+
+	/**
+	 * Yields the negation of the given condition, pushing it down to the
+	 * comparisons.
+	 *
+	 * @param expression the condition
+	 *
+	 * @return the negated condition, or {@code null} if {@code expression} is
+	 *             not a condition that this domain can negate
+	 */
+	private static ValueExpression negate(ValueExpression expression) {
+		if (expression instanceof UnaryExpression) {
+			UnaryExpression unary = (UnaryExpression) expression;
+			return unary.getOperator() == UnaryOperator.LOGICAL_NOT ? (ValueExpression) unary.getExpression() : null;
+		}
+
+		if (!(expression instanceof BinaryExpression))
+			return null;
+
+		BinaryExpression binary = (BinaryExpression) expression;
+		switch (binary.getOperator()) {
+		case LOGICAL_AND:
+		case LOGICAL_OR:
+			ValueExpression left = negate((ValueExpression) binary.getLeft());
+			ValueExpression right = negate((ValueExpression) binary.getRight());
+			if (left == null || right == null)
+				return null;
+			return new BinaryExpression(binary.getTypes(), left, right,
+					(BinaryOperator) binary.getOperator().opposite());
+		case COMPARISON_EQ:
+		case COMPARISON_NE:
+		case COMPARISON_GE:
+		case COMPARISON_GT:
+		case COMPARISON_LE:
+		case COMPARISON_LT:
+			return new BinaryExpression(binary.getTypes(), binary.getLeft(), binary.getRight(),
+					(BinaryOperator) binary.getOperator().opposite());
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Yields a copy of this octagon where {@code lin <= 0} holds.
+	 *
+	 * @param lin the linear expression, or {@code null} if it could not be
+	 *                computed
+	 *
+	 * @return the constrained octagon
+	 */
+	private Octagon constrain(LinearExpression lin) {
+		if (lin == null || isBottom() || lin.getConstant() == MINUS_INF)
+			return this;
+		if (lin.isConstant())
+			return lin.getConstant() <= 0 ? this : bottom();
+
+		// the variables part of lin must be smaller than k
+		long k = -lin.getConstant();
+		Map<Identifier, VariablePack> func = new HashMap<>(packs);
+
+		if (lin.isOctagonal()) {
+			VariablePack pack = merge(func, lin.getIdentifiers());
+			if (pack != null) {
+				DifferenceBoundMatrix matrix = pack.getMatrix().copy();
+				Iterator<Identifier> ids = lin.getIdentifiers().iterator();
+				int x = form(pack, lin, ids.next());
+				boolean nonEmpty;
+				if (lin.size() == 1)
+					nonEmpty = matrix.addConstraint(x ^ 1, x, DifferenceBoundMatrix.twice(k));
+				else
+					nonEmpty = matrix.addConstraint(form(pack, lin, ids.next()) ^ 1, x, k);
+				if (!nonEmpty)
+					return bottom();
+				register(func, variables(pack), matrix);
+				return mk(func);
+			}
+		}
+
+		// the identifiers cannot be related: refine each of them using the
+		// bounds of the others
+		List<long[]> refinements = new ArrayList<>(lin.size());
+		for (Identifier id : lin.getIdentifiers()) {
+			long rest = k;
+			for (Identifier other : lin.getIdentifiers())
+				if (!other.equals(id)) {
+					long low = lowerBound(lin.getCoefficient(other), bounds(other));
+					rest = low == MINUS_INF ? PLUS_INF : sum(rest, -low, false);
+				}
+
+			long coef = lin.getCoefficient(id);
+			if (rest == PLUS_INF || rest == MINUS_INF)
+				refinements.add(new long[] { MINUS_INF, PLUS_INF });
+			else if (coef > 0)
+				refinements.add(new long[] { MINUS_INF, Math.floorDiv(rest, coef) });
+			else
+				refinements.add(new long[] { -Math.floorDiv(-rest, coef), PLUS_INF });
+		}
+
+		Iterator<long[]> it = refinements.iterator();
+		for (Identifier id : lin.getIdentifiers()) {
+			long[] bounds = it.next();
+			if (!refineBounds(func, id, bounds[0], bounds[1]))
+				return bottom();
+		}
+		return mk(func);
+	}
+
+	private static int form(VariablePack pack, LinearExpression lin, Identifier id) {
+		return 2 * pack.indexOf(id) + (lin.getCoefficient(id) > 0 ? 0 : 1);
+	}
+
+	@Override
+	public Satisfiability satisfies(ValueExpression expression, ProgramPoint pp) throws SemanticException {
+		if (isBottom())
+			return Satisfiability.BOTTOM;
+
+		ValueExpression negated = negate(expression);
+		if (negated == null)
+			return Satisfiability.UNKNOWN;
+		if (assume(expression, pp).isBottom())
+			return Satisfiability.NOT_SATISFIED;
+		if (assume(negated, pp).isBottom())
+			return Satisfiability.SATISFIED;
+		return Satisfiability.UNKNOWN;
+	}
+
+	@Override
+	public Octagon forgetIdentifier(Identifier id) throws SemanticException {
+		if (isTop() || isBottom() || !packs.containsKey(id))
+			return this;
+
+		Map<Identifier, VariablePack> func = new HashMap<>(packs);
+		forget(func, id);
+		return mk(func);
+	}
+
+	@Override
+	public Octagon pushScope(ScopeToken token) throws SemanticException {
+		if (isTop() || isBottom())
+			return this;
+
+		Map<Identifier, Identifier> renaming = new HashMap<>();
+		for (Identifier id : packs.keySet())
+			renaming.put(id, Caches.identifiers().intern(new OutOfScopeIdentifier(id, token)));
+		return rename(renaming);
+	}
+
+	@Override
+	public Octagon popScope(ScopeToken token) throws SemanticException {
+		if (isTop() || isBottom())
+			return this;
+
+		Map<Identifier, Identifier> renaming = new HashMap<>();
+		for (Identifier id : packs.keySet())
+			if (id instanceof OutOfScopeIdentifier) {
+				Identifier popped = ((OutOfScopeIdentifier) id).popScope(token);
+				if (popped != null)
+					renaming.put(id, popped);
+			}
+		return rename(renaming);
+	}
+
+	/**
+	 * Yields a copy of this octagon where each identifier has been replaced
+	 * with the one it is mapped to in {@code renaming}, dropping the ones that
+	 * are not mapped.
+	 */
+	private Octagon rename(Map<Identifier, Identifier> renaming) {
+		Map<Identifier, VariablePack> func = new HashMap<>();
+		for (VariablePack pack : distinct(packs)) {
+			int[] positions = new int[pack.size()];
+			int kept = 0;
+			for (int i = 0; i < pack.size(); i++)
+				if (renaming.containsKey(pack.get(i)))
+					positions[kept++] = i;
+			if (kept == 0)
+				continue;
+
+			VariablePack projected = kept == pack.size() ? pack : pack.project(Arrays.copyOf(positions, kept));
+			Identifier[] renamed = new Identifier[kept];
+			for (int i = 0; i < kept; i++)
+				renamed[i] = renaming.get(projected.get(i));
+			register(func, renamed, projected.getMatrix());
+		}
+		return mk(func);
+	}
+
+	@Override
+	protected Octagon lubAux(Octagon other) throws SemanticException {
+		return combine(other, false);
+	}
+
+	@Override
+	protected Octagon wideningAux(Octagon other) throws SemanticException {
+		return combine(other, true);
+	}
+
+	/**
+	 * Joins or widens this octagon with the given one. Identifiers tracked by
+	 * only one of the operands are unconstrained in the result. The others are
+	 * grouped by joining the partitions of the operands, since the bounds of
+	 * identifiers that are in different packs of one operand might still imply
+	 * a relation that holds in the other. Components that would be too large
+	 * are instead split into the intersections of the packs of the operands.
+	 * Widened matrices are not closed, to ensure termination.
+	 */
+	private Octagon combine(Octagon other, boolean widening) {
+		Map<Identifier, VariablePack> func = new HashMap<>();
+		for (List<Identifier> component : components(other))
+			if (component.size() <= maxPackSize)
+				combine(func, component, other, widening);
+			else {
+				Map<VariablePack, Map<VariablePack, List<Identifier>>> groups = new IdentityHashMap<>();
+				for (Identifier id : component)
+					groups.computeIfAbsent(packs.get(id), p -> new IdentityHashMap<>())
+							.computeIfAbsent(other.packs.get(id), p -> new ArrayList<>()).add(id);
+				for (Map<VariablePack, List<Identifier>> group : groups.values())
+					for (List<Identifier> ids : group.values())
+						combine(func, ids, other, widening);
+			}
+		return mk(func);
+	}
+
+	private void combine(Map<Identifier, VariablePack> func, List<Identifier> ids, Octagon other,
+			boolean widening) {
+		DifferenceBoundMatrix left = gather(ids);
+		DifferenceBoundMatrix right = other.gather(ids);
+		register(func, ids.toArray(new Identifier[ids.size()]), widening ? left.widening(right) : left.lub(right));
+	}
+
+	/**
+	 * Yields the identifiers tracked by both this octagon and the given one,
+	 * partitioned in the connected components of the relation "being in the
+	 * same pack in at least one of the two operands".
+	 */
+	private List<List<Identifier>> components(Octagon other) {
+		Map<Identifier, Identifier> parent = new HashMap<>();
+		for (Identifier id : packs.keySet())
+			if (other.packs.containsKey(id))
+				parent.put(id, id);
+
+		for (Octagon oct : Arrays.asList(this, other))
+			for (VariablePack pack : distinct(oct.packs)) {
+				Identifier first = null;
+				for (int i = 0; i < pack.size(); i++)
+					if (!parent.containsKey(pack.get(i)))
+						continue;
+					else if (first == null)
+						first = pack.get(i);
+					else
+						parent.put(find(parent, pack.get(i)), find(parent, first));
+			}
+
+		Map<Identifier, List<Identifier>> components = new LinkedHashMap<>();
+		for (VariablePack pack : distinct(packs))
+			for (int i = 0; i < pack.size(); i++)
+				if (parent.containsKey(pack.get(i)))
+					components.computeIfAbsent(find(parent, pack.get(i)), r -> new ArrayList<>()).add(pack.get(i));
+		return new ArrayList<>(components.values());
+	}
+
+	private static Identifier find(Map<Identifier, Identifier> parent, Identifier id) {
+		Identifier root = id;
+		while (!parent.get(root).equals(root))
+			root = parent.get(root);
+		return root;
+	}
+
+	/**
+	 * Yields the constraints between the given identifiers, that must be
+	 * tracked by this octagon, in the given order. If they come from different
+	 * packs, the resulting matrix is closed to make the relations implied by
+	 * their bounds explicit.
+	 */
+	private DifferenceBoundMatrix gather(List<Identifier> ids) {
+		List<VariablePack> involved = new ArrayList<>();
+		for (Identifier id : ids) {
+			VariablePack pack = packs.get(id);
+			if (involved.stream().noneMatch(p -> p == pack))
+				involved.add(pack);
+		}
+
+		List<Identifier> order = new ArrayList<>(ids.size());
+		DifferenceBoundMatrix matrix = null;
+		for (VariablePack pack : involved) {
+			int[] positions = new int[ids.size()];
+			int size = 0;
+			for (Identifier id : ids)
+				if (packs.get(id) == pack) {
+					positions[size++] = pack.indexOf(id);
+					order.add(id);
+				}
+			DifferenceBoundMatrix projected = restrict(pack, Arrays.copyOf(positions, size));
+			matrix = matrix == null ? projected : matrix.concat(projected);
+		}
+
+		if (involved.size() == 1)
+			return matrix;
+
+		matrix.close();
+		int[] mapping = new int[ids.size()];
+		for (int i = 0; i < mapping.length; i++)
+			mapping[i] = order.indexOf(ids.get(i));
+		return matrix.project(mapping);
+	}
+
+	private static DifferenceBoundMatrix restrict(VariablePack pack, int[] positions) {
+		if (positions.length == pack.size()) {
+			boolean identity = true;
+			for (int i = 0; i < positions.length && identity; i++)
+				identity = positions[i] == i;
+			if (identity)
+				return pack.getMatrix();
+		}
+		return pack.getMatrix().project(positions);
+	}
+
+	@Override
+	protected boolean lessOrEqualAux(Octagon other) throws SemanticException {
+		for (VariablePack pack : distinct(other.packs)) {
+			DifferenceBoundMatrix matrix = pack.getMatrix();
+			for (int i = 0; i < 2 * pack.size(); i++)
+				for (int j = 0; j <= (i | 1); j++) {
+					if (i == j)
+						continue;
+					long theirs = matrix.get(i, j);
+					if (theirs != INF && bound(pack.get(i / 2), i % 2, pack.get(j / 2), j % 2) > theirs)
+						return false;
+				}
+		}
+		return true;
+	}
+
+	/**
+	 * Yields the bound of {@code V_j - V_i} in this octagon, where {@code V_i}
+	 * is either {@code x} (if {@code fx} is {@code 0}) or {@code -x} (if
+	 * {@code fx} is {@code 1}), and similarly for {@code V_j}.
+	 */
+	private long bound(Identifier x, int fx, Identifier y, int fy) {
+		VariablePack px = packs.get(x);
+		VariablePack py = packs.get(y);
+		if (px == null || py == null)
+			return INF;
+		if (px == py)
+			return px.getMatrix().get(2 * px.indexOf(x) + fx, 2 * py.indexOf(y) + fy);
+
+		// combine the unary bounds of V_j and -V_i
+		long up = halve(py.getMatrix().get(2 * py.indexOf(y) + (fy ^ 1), 2 * py.indexOf(y) + fy));
+		long down = halve(px.getMatrix().get(2 * px.indexOf(x) + fx, 2 * px.indexOf(x) + (fx ^ 1)));
+		return DifferenceBoundMatrix.add(up, down);
+	}
+
+	private static long halve(long c) {
+		return c == INF ? INF : Math.floorDiv(c, 2);
+	}
+
+	@Override
+	public Octagon top() {
+		return isTop() ? this : new Octagon(maxPackSize, Collections.emptyMap());
+	}
+
+	@Override
+	public Octagon bottom() {
+		return isBottom() ? this : new Octagon(maxPackSize, null);
+	}
+
+	@Override
+	public boolean isTop() {
+		return packs != null && packs.isEmpty();
+	}
+
+	@Override
+	public boolean isBottom() {
+		return packs == null;
+	}
+
+	@Override
+	public DomainRepresentation representation() {
+		if (isBottom())
+			return Lattice.BOTTOM_REPR;
+		if (isTop())
+			return Lattice.TOP_REPR;
+
+		Set<String> constraints = new TreeSet<>();
+		for (VariablePack pack : distinct(packs)) {
+			DifferenceBoundMatrix matrix = pack.getMatrix();
+			for (int i = 0; i < 2 * pack.size(); i++)
+				for (int j = 0; j <= (i | 1); j++) {
+					long c = matrix.get(i, j);
+					if (i == j || c == INF)
+						continue;
+
+					String x = pack.get(i / 2).getName();
+					String y = pack.get(j / 2).getName();
+					if (j == i + 1)
+						constraints.add(x + " >= " + -halve(c));
+					else if (j == i - 1 && i % 2 == 1)
+						constraints.add(y + " <= " + halve(c));
+					else
+						constraints.add((j % 2 == 0 ? "" : "-") + y + (i % 2 == 0 ? " - " : " + ") + x + " <= " + c);
+				}
+		}
+		return new SetRepresentation(constraints, StringRepresentation::new);
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + maxPackSize;
+		result = prime * result + ((packs == null) ? 0 : packs.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		Octagon other = (Octagon) obj;
+		if (maxPackSize != other.maxPackSize)
+			return false;
+		if (packs == null) {
+			if (other.packs != null)
+				return false;
+		} else if (!packs.equals(other.packs))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return representation().toString();
+	}
+
+	/**
+	 * Builds an octagon from the given packs, dropping the ones that do not
+	 * hold any constraint.
+	 */
+	private Octagon mk(Map<Identifier, VariablePack> func) {
+		for (VariablePack pack : distinct(func))
+			if (pack.getMatrix().isTop())
+				for (int i = 0; i < pack.size(); i++)
+					func.remove(pack.get(i));
+		return func.isEmpty() ? top() : new Octagon(maxPackSize, func);
+	}
+
+	private static List<VariablePack> distinct(Map<Identifier, VariablePack> packs) {
+		Set<VariablePack> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+		List<VariablePack> result = new ArrayList<>();
+		for (VariablePack pack : packs.values())
+			if (seen.add(pack))
+				result.add(pack);
+		return result;
+	}
+
+	private static Identifier[] variables(VariablePack pack) {
+		Identifier[] vars = new Identifier[pack.size()];
+		for (int i = 0; i < vars.length; i++)
+			vars[i] = pack.get(i);
+		return vars;
+	}
+
+	/**
+	 * Maps the given identifiers to a new pack containing them and the given
+	 * matrix.
+	 */
+	private static void register(Map<Identifier, VariablePack> func, Identifier[] variables,
+			DifferenceBoundMatrix matrix) {
+		VariablePack result = new VariablePack(variables, matrix);
+		for (Identifier id : variables)
+			func.put(id, result);
+	}
+
+	/**
+	 * Removes {@code id} from its pack, if any.
+	 */
+	private static void forget(Map<Identifier, VariablePack> func, Identifier id) {
+		VariablePack pack = func.remove(id);
+		if (pack == null)
+			return;
+		VariablePack rest = pack.remove(id);
+		if (rest != null)
+			for (int i = 0; i < rest.size(); i++)
+				func.put(rest.get(i), rest);
+	}
+
+	/**
+	 * Yields the pack containing all the given identifiers, merging their
+	 * current packs and adding the untracked ones as unconstrained variables.
+	 *
+	 * @return the pack, or {@code null} if it would be larger than
+	 *             {@link #maxPackSize}
+	 */
+	private VariablePack merge(Map<Identifier, VariablePack> func, Iterable<Identifier> ids) {
+		List<VariablePack> involved = new ArrayList<>();
+		List<Identifier> fresh = new ArrayList<>();
+		int size = 0;
+		for (Identifier id : ids) {
+			VariablePack pack = func.get(id);
+			if (pack == null) {
+				if (!fresh.contains(id)) {
+					fresh.add(id);
+					size++;
+				}
+			} else if (involved.stream().noneMatch(p -> p == pack)) {
+				involved.add(pack);
+				size += pack.size();
+			}
+		}
+
+		if (involved.size() == 1 && fresh.isEmpty())
+			return involved.get(0);
+		if (size > maxPackSize)
+			return null;
+
+		Identifier[] vars = new Identifier[size];
+		int k = 0;
+		DifferenceBoundMatrix matrix = null;
+		for (VariablePack pack : involved) {
+			for (int i = 0; i < pack.size(); i++)
+				vars[k++] = pack.get(i);
+			matrix = matrix == null ? pack.getMatrix() : matrix.concat(pack.getMatrix());
+		}
+		for (Identifier id : fresh)
+			vars[k++] = id;
+		if (!fresh.isEmpty())
+			matrix = matrix == null ? new DifferenceBoundMatrix(fresh.size())
+					: matrix.concat(new DifferenceBoundMatrix(fresh.size()));
+		if (involved.size() > 1)
+			// unary bounds of different packs induce binary constraints
+			matrix.close();
+
+		VariablePack result = new VariablePack(vars, matrix);
+		for (Identifier id : vars)
+			func.put(id, result);
+		return result;
+	}
+
+	/**
+	 * Refines the bounds of {@code id} with the given ones, where
+	 * {@link Long#MIN_VALUE} and {@link Long#MAX_VALUE} stand for infinity.
+	 *
+	 * @return {@code false} if and only if the refinement lead to an empty
+	 *             octagon
+	 */
+	private boolean refineBounds(Map<Identifier, VariablePack> func, Identifier id, long low, long high) {
+		if (low == MINUS_INF && high == PLUS_INF)
+			return true;
+
+		VariablePack pack = merge(func, Collections.singleton(id));
+		DifferenceBoundMatrix matrix = pack.getMatrix().copy();
+		int x = 2 * pack.indexOf(id);
+		if (high != PLUS_INF && !matrix.addConstraint(x + 1, x, DifferenceBoundMatrix.twice(high)))
+			return false;
+		if (low != MINUS_INF && !matrix.addConstraint(x, x + 1, DifferenceBoundMatrix.twice(-low)))
+			return false;
+		register(func, variables(pack), matrix);
+		return true;
+	}
+
+	/**
+	 * Yields the bounds of the given identifier, where {@link Long#MIN_VALUE}
+	 * and {@link Long#MAX_VALUE} stand for infinity.
+	 */
+	private long[] bounds(Identifier id) {
+		VariablePack pack = packs.get(id);
+		if (pack == null)
+			return new long[] { MINUS_INF, PLUS_INF };
+		int x = pack.indexOf(id);
+		long high = pack.getMatrix().upperBound(x);
+		long low = pack.getMatrix().negatedLowerBound(x);
+		return new long[] { low == INF ? MINUS_INF : -low, high };
+	}
+
+	/**
+	 * Yields the bounds of the given linear expression, where
+	 * {@link Long#MIN_VALUE} and {@link Long#MAX_VALUE} stand for infinity.
+	 */
+	private long[] bounds(LinearExpression lin) {
+		long low = lin.getConstant(), high = lin.getConstant();
+		for (Identifier id : lin.getIdentifiers()) {
+			long coef = lin.getCoefficient(id);
+			long[] bounds = bounds(id);
+			low = sum(low, lowerBound(coef, bounds), true);
+			high = sum(high, lowerBound(-coef, bounds) == MINUS_INF ? PLUS_INF : -lowerBound(-coef, bounds), false);
+		}
+
+		if (lin.size() == 2 && lin.isOctagonal()) {
+			Iterator<Identifier> ids = lin.getIdentifiers().iterator();
+			Identifier x = ids.next(), y = ids.next();
+			VariablePack pack = packs.get(x);
+			if (pack != null && pack == packs.get(y)) {
+				// the pack directly bounds ±x ±y
+				int fx = form(pack, lin, x), fy = form(pack, lin, y);
+				long up = pack.getMatrix().get(fy ^ 1, fx);
+				long down = pack.getMatrix().get(fy, fx ^ 1);
+				if (up != INF)
+					high = Math.min(high, sum(lin.getConstant(), up, false));
+				if (down != INF)
+					low = Math.max(low, sum(lin.getConstant(), -down, true));
+			}
+		}
+		return new long[] { low, high };
+	}
+
+	/**
+	 * Yields the lower bound of {@code coef * x}, where {@code x} has the given
+	 * bounds.
+	 */
+	private static long lowerBound(long coef, long[] bounds) {
+		long x = coef > 0 ? bounds[0] : bounds[1];
+		if (x == MINUS_INF || x == PLUS_INF)
+			return MINUS_INF;
+		try {
+			return Math.multiplyExact(coef, x);
+		} catch (ArithmeticException e) {
+			return MINUS_INF;
+		}
+	}
+
+	/**
+	 * Sums two bounds, where {@link Long#MIN_VALUE} and {@link Long#MAX_VALUE}
+	 * stand for infinity, yielding infinity (in the direction given by
+	 * {@code lower}) if the sum overflows.
+	 */
+	private static long sum(long a, long b, boolean lower) {
+		long inf = lower ? MINUS_INF : PLUS_INF;
+		if (a == inf || b == inf)
+			return inf;
+		try {
+			return Math.addExact(a, b);
+		} catch (ArithmeticException e) {
+			return inf;
+		}
+	}
+}
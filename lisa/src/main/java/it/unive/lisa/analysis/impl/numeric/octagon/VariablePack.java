@@ -0,0 +1,146 @@
+package it.unive.lisa.analysis.impl.numeric.octagon;
+
+import it.unive.lisa.symbolic.value.Identifier;
+import java.util.Arrays;
+
+/**
+ * A group of {@link Identifier}s that are related by an octagon, together with
+ * the closed {@link DifferenceBoundMatrix} holding their constraints. The
+ * {@code i}-th identifier of the pack is the {@code i}-th variable of the
+ * matrix. Instances of this class are immutable: the matrix is copied before
+ * any modification.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+final class VariablePack {
+
+	/**
+	 * The identifiers in this pack
+	 */
+	private final Identifier[] variables;
+
+	/**
+	 * The constraints between the identifiers
+	 */
+	private final DifferenceBoundMatrix matrix;
+
+	/**
+	 * Builds the pack.
+	 *
+	 * @param variables the identifiers in this pack
+	 * @param matrix    the constraints between the identifiers, that will not
+	 *                      be modified afterwards
+	 */
+	VariablePack(Identifier[] variables, DifferenceBoundMatrix matrix) {
+		this.variables = variables;
+		this.matrix = matrix;
+	}
+
+	/**
+	 * Yields the number of identifiers in this pack.
+	 *
+	 * @return the number of identifiers
+	 */
+	int size() {
+		return variables.length;
+	}
+
+	/**
+	 * Yields the identifier at the given position.
+	 *
+	 * @param i the position
+	 *
+	 * @return the identifier
+	 */
+	Identifier get(int i) {
+		return variables[i];
+	}
+
+	/**
+	 * Yields the position of the given identifier inside this pack.
+	 *
+	 * @param id the identifier
+	 *
+	 * @return the position, or {@code -1} if {@code id} is not part of this
+	 *             pack
+	 */
+	int indexOf(Identifier id) {
+		for (int i = 0; i < variables.length; i++)
+			if (variables[i].equals(id))
+				return i;
+		return -1;
+	}
+
+	/**
+	 * Yields the constraints of this pack. The returned matrix must not be
+	 * modified.
+	 *
+	 * @return the matrix
+	 */
+	DifferenceBoundMatrix getMatrix() {
+		return matrix;
+	}
+
+	/**
+	 * Yields the pack containing the identifiers at the given positions, in
+	 * the given order, and the constraints between them.
+	 *
+	 * @param positions the positions to keep
+	 *
+	 * @return the projected pack
+	 */
+	VariablePack project(int[] positions) {
+		Identifier[] vars = new Identifier[positions.length];
+		for (int i = 0; i < positions.length; i++)
+			vars[i] = variables[positions[i]];
+		return new VariablePack(vars, matrix.project(positions));
+	}
+
+	/**
+	 * Yields a copy of this pack without the given identifier.
+	 *
+	 * @param id the identifier to remove
+	 *
+	 * @return the pack without {@code id}, or {@code null} if {@code id} was
+	 *             the only identifier in this pack
+	 */
+	VariablePack remove(Identifier id) {
+		int pos = indexOf(id);
+		if (pos < 0)
+			return this;
+		if (variables.length == 1)
+			return null;
+
+		int[] positions = new int[variables.length - 1];
+		for (int i = 0, j = 0; i < variables.length; i++)
+			if (i != pos)
+				positions[j++] = i;
+		return project(positions);
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + matrix.hashCode();
+		result = prime * result + Arrays.hashCode(variables);
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		VariablePack other = (VariablePack) obj;
+		return Arrays.equals(variables, other.variables) && matrix.equals(other.matrix);
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(variables);
+	}
+}
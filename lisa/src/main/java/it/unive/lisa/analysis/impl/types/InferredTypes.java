@@ -29,6 +29,7 @@ import it.unive.lisa.type.Type;
 import it.unive.lisa.type.TypeTokenType;
 import it.unive.lisa.type.Untyped;
 import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import java.io.Serializable;
 
 /**
  * An {@link InferredValue} holding a set of {@link Type}s, representing the
@@ -36,7 +37,7 @@ import it.unive.lisa.util.collections.externalSet.ExternalSet;
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
-public class InferredTypes extends BaseInferredValue<InferredTypes> {
+public class InferredTypes extends BaseInferredValue<InferredTypes> implements Serializable {
 
 	private static final InferredTypes TOP = new InferredTypes(Caches.types().mkUniversalSet());
 
@@ -3,9 +3,10 @@ package it.unive.lisa.analysis.lattices;
 import it.unive.lisa.analysis.BaseLattice;
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.util.collections.HashTrieMap;
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
@@ -23,7 +24,7 @@ import java.util.Set;
  * @param <V> the concrete {@link Lattice} type of the values of this function
  */
 public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K, V extends Lattice<V>>
-		extends BaseLattice<F> implements Iterable<Map.Entry<K, V>> {
+		extends BaseLattice<F> implements Iterable<Map.Entry<K, V>>, Serializable {
 
 	/**
 	 * The function implemented by this lattice.
@@ -59,7 +60,10 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	/**
 	 * Creates a new instance of the underlying function. The purpose of this
 	 * method is to provide a common function implementation to every subclass
-	 * that does not have implementation-specific requirements.
+	 * that does not have implementation-specific requirements. The default
+	 * implementation yields a {@link HashTrieMap}, that shares its structure
+	 * with {@code other}: copying a function takes constant time, while
+	 * modifying the copy takes logarithmic time in the size of the function.
 	 * 
 	 * @param other an optional function to copy, can be {@code null}
 	 * 
@@ -68,8 +72,8 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	 */
 	protected Map<K, V> mkNewFunction(Map<K, V> other) {
 		if (other == null)
-			return new HashMap<>();
-		return new HashMap<>(other);
+			return new HashTrieMap<>();
+		return new HashTrieMap<>(other);
 	}
 
 	/**
@@ -102,12 +106,13 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 
 	@Override
 	public F lubAux(F other) throws SemanticException {
-		return functionalLift(other, (f1, f2) -> lubKeys(f1, f2), (o1, o2) -> o1 == null ? o2 : o1.lub(o2));
+		return functionalLift(other, (f1, f2) -> lubKeys(f1, f2), (o1, o2) -> o1 == null ? o2 : o1.lub(o2), true);
 	}
 
 	@Override
 	public F wideningAux(F other) throws SemanticException {
-		return functionalLift(other, (f1, f2) -> lubKeys(f1, f2), (o1, o2) -> o1 == null ? o2 : o1.widening(o2));
+		return functionalLift(other, (f1, f2) -> lubKeys(f1, f2), (o1, o2) -> o1 == null ? o2 : o1.widening(o2),
+				true);
 	}
 
 	/**
@@ -170,18 +175,84 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	 */
 	protected final F functionalLift(F other, KeyFunctionalLift<K> keyLifter, FunctionalLift<V> valueLifter)
 			throws SemanticException {
+		return functionalLift(other, keyLifter, valueLifter, false);
+	}
+
+	/**
+	 * Yields the functional lift between {@code this} and {@code other}. If
+	 * {@code idempotent} holds, {@code valueLifter} must yield {@code v} when
+	 * applied to {@code v} and {@code v}, and {@code keyLifter} must preserve
+	 * the keys that are common to both sets and that are the same object in
+	 * both. When both functions are {@link HashTrieMap}s, this allows to copy
+	 * the entries that they share without visiting them, lifting only the
+	 * remaining ones. Moreover, if the lift does not change the entries of
+	 * {@code this} or {@code other}, that element is returned.
+	 * 
+	 * @param other       the other functional lattice
+	 * @param keyLifter   the key lifter
+	 * @param valueLifter the value lifter
+	 * @param idempotent  whether or not the lifters are idempotent
+	 * 
+	 * @return the result of the lift
+	 * 
+	 * @throws SemanticException if something goes wrong while lifting the
+	 *                               lattice elements
+	 */
+	protected final F functionalLift(F other, KeyFunctionalLift<K> keyLifter, FunctionalLift<V> valueLifter,
+			boolean idempotent) throws SemanticException {
 		F result = bottom();
+		if (idempotent && isTrie(this) && isTrie(other))
+			return sharingLift(result, other, keyLifter, valueLifter);
+
 		result.function = mkNewFunction(null);
 		Set<K> keys = keyLifter.keyLift(this.getKeys(), other.getKeys());
 		for (K key : keys)
-			try {
-				result.function.put(key, valueLifter.lift(getState(key), other.getState(key)));
-			} catch (SemanticException e) {
-				throw new SemanticException("Exception during functional lifting of key '" + key + "'", e);
-			}
+			result.function.put(key, lift(valueLifter, key, other));
 		return result;
 	}
 
+	private V lift(FunctionalLift<V> valueLifter, K key, F other) throws SemanticException {
+		try {
+			return valueLifter.lift(getState(key), other.getState(key));
+		} catch (SemanticException e) {
+			throw new SemanticException("Exception during functional lifting of key '" + key + "'", e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private F sharingLift(F result, F other, KeyFunctionalLift<K> keyLifter, FunctionalLift<V> valueLifter)
+			throws SemanticException {
+		HashTrieMap<K, V> mine = (HashTrieMap<K, V>) function;
+		HashTrieMap<K, V> theirs = (HashTrieMap<K, V>) other.function;
+		Set<K> onlyMine = mine.keysNotSharedWith(theirs);
+		// the shared entries are left untouched by the lift
+		HashTrieMap<K, V> lifted = new HashTrieMap<>(mine);
+		for (K key : onlyMine)
+			lifted.remove(key);
+
+		boolean asMine = true, asTheirs = true;
+		for (K key : keyLifter.keyLift(onlyMine, theirs.keysNotSharedWith(mine))) {
+			V value = lift(valueLifter, key, other);
+			asMine = asMine && value == mine.get(key) && mine.containsKey(key);
+			asTheirs = asTheirs && value == theirs.get(key) && theirs.containsKey(key);
+			lifted.put(key, value);
+		}
+
+		// if the lift did not change the entries of one of the two
+		// functions, that one is returned so that later comparisons with it
+		// can be answered by identity
+		if (asTheirs && lifted.size() == theirs.size())
+			return other;
+		if (asMine && lifted.size() == mine.size())
+			return (F) this;
+		result.function = lifted;
+		return result;
+	}
+
+	private static boolean isTrie(FunctionalLattice<?, ?, ?> lattice) {
+		return lattice.function instanceof HashTrieMap && !lattice.isTop() && !lattice.isBottom();
+	}
+
 	/**
 	 * Yields the union of the keys between {@code k1} and {@code k2}.
 	 * 
@@ -216,8 +287,14 @@ public abstract class FunctionalLattice<F extends FunctionalLattice<F, K, V>, K,
 	}
 
 	@Override
+	@SuppressWarnings("unchecked")
 	public boolean lessOrEqualAux(F other) throws SemanticException {
-		for (K key : function.keySet())
+		Set<K> keys = function.keySet();
+		if (isTrie(this) && isTrie(other))
+			// shared entries are trivially less or equal than themselves
+			keys = ((HashTrieMap<K, V>) function).keysNotSharedWith((HashTrieMap<K, V>) other.function);
+
+		for (K key : keys)
 			if (getState(key) != null && (!getState(key).lessOrEqual(other.getState(key))))
 				return false;
 
@@ -3,6 +3,8 @@ package it.unive.lisa.analysis.lattices;
 import it.unive.lisa.analysis.BaseLattice;
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
@@ -17,7 +19,11 @@ import java.util.Set;
  * Widening on instances of this lattice depends on the cardinality of the
  * domain of the underlying elements. The provided implementation behave as the
  * domain is <b>finite</b>, thus invoking the lub. Inverse set lattices defined
- * on infinite domains must implement a coherent widening logic.
+ * on infinite domains must implement a coherent widening logic.<br>
+ * <br>
+ * When two instances hold {@link ExternalSet}s built by the same cache, lattice
+ * operations are performed word-wise on the underlying bit vectors, without
+ * copying the elements.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -25,7 +31,7 @@ import java.util.Set;
  * @param <E> the type of elements of the domain of this lattice
  */
 public abstract class InverseSetLattice<S extends InverseSetLattice<S, E>, E> extends BaseLattice<S>
-		implements Iterable<E> {
+		implements Iterable<E>, Serializable {
 
 	/**
 	 * The set of elements contained in the lattice.
@@ -57,6 +63,10 @@ public abstract class InverseSetLattice<S extends InverseSetLattice<S, E>, E> ex
 
 	@Override
 	protected final S lubAux(S other) throws SemanticException {
+		ExternalSet<E> mine = external(other);
+		if (mine != null)
+			return mk(mine.intersection((ExternalSet<E>) other.elements));
+
 		Set<E> lub = new HashSet<>(elements);
 		lub.retainAll(other.elements);
 		return mk(lub);
@@ -81,6 +91,10 @@ public abstract class InverseSetLattice<S extends InverseSetLattice<S, E>, E> ex
 		if (other.isBottom() || this.isTop() || other.lessOrEqual((S) this))
 			return (S) other;
 
+		ExternalSet<E> mine = external(other);
+		if (mine != null)
+			return mk(mine.union((ExternalSet<E>) other.elements));
+
 		Set<E> glb = new HashSet<>(elements);
 		glb.addAll(other.elements);
 		return mk(glb);
@@ -98,9 +112,19 @@ public abstract class InverseSetLattice<S extends InverseSetLattice<S, E>, E> ex
 
 	@Override
 	protected final boolean lessOrEqualAux(S other) throws SemanticException {
+		ExternalSet<E> mine = external(other);
+		if (mine != null)
+			return mine.contains((ExternalSet<E>) other.elements);
 		return elements.containsAll(other.elements);
 	}
 
+	private ExternalSet<E> external(S other) {
+		if (!(elements instanceof ExternalSet) || !(other.elements instanceof ExternalSet))
+			return null;
+		ExternalSet<E> mine = (ExternalSet<E>) elements;
+		return mine.getCache() == ((ExternalSet<E>) other.elements).getCache() ? mine : null;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
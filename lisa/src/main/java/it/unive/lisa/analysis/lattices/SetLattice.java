@@ -3,6 +3,8 @@ package it.unive.lisa.analysis.lattices;
 import it.unive.lisa.analysis.BaseLattice;
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
@@ -18,7 +20,11 @@ import java.util.Set;
  * Widening on instances of this lattice depends on the cardinality of the
  * domain of the underlying elements. The provided implementation behave as the
  * domain is <b>finite</b>, thus invoking the lub. Set lattices defined on
- * infinite domains must implement a coherent widening logic.
+ * infinite domains must implement a coherent widening logic.<br>
+ * <br>
+ * When two instances hold {@link ExternalSet}s built by the same cache, lattice
+ * operations are performed word-wise on the underlying bit vectors, without
+ * copying the elements.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -26,7 +32,7 @@ import java.util.Set;
  * @param <E> the type of elements of the domain of this lattice
  */
 public abstract class SetLattice<S extends SetLattice<S, E>, E> extends BaseLattice<S>
-		implements Iterable<E> {
+		implements Iterable<E>, Serializable {
 
 	/**
 	 * The set of elements contained in the lattice.
@@ -57,9 +63,25 @@ public abstract class SetLattice<S extends SetLattice<S, E>, E> extends BaseLatt
 	protected abstract S mk(Set<E> set);
 
 	@Override
+	@SuppressWarnings("unchecked")
 	protected S lubAux(S other) throws SemanticException {
+		ExternalSet<E> mine = external(other);
+		if (mine != null) {
+			ExternalSet<E> others = (ExternalSet<E>) other.elements;
+			if (others.contains(mine))
+				return other;
+			if (mine.contains(others))
+				return (S) this;
+			return mk(mine.union(others));
+		}
+
 		Set<E> lub = new HashSet<>(elements);
 		lub.addAll(other.elements);
+		// the union is equal to an operand if it has the same size
+		if (lub.size() == other.elements.size())
+			return other;
+		if (lub.size() == elements.size())
+			return (S) this;
 		return mk(lub);
 	}
 
@@ -82,6 +104,10 @@ public abstract class SetLattice<S extends SetLattice<S, E>, E> extends BaseLatt
 		if (other.isBottom() || this.isTop() || other.lessOrEqual((S) this))
 			return (S) other;
 
+		ExternalSet<E> mine = external(other);
+		if (mine != null)
+			return mk(mine.intersection((ExternalSet<E>) other.elements));
+
 		Set<E> glb = new HashSet<>(elements);
 		glb.retainAll(other.elements);
 		return mk(glb);
@@ -94,9 +120,19 @@ public abstract class SetLattice<S extends SetLattice<S, E>, E> extends BaseLatt
 
 	@Override
 	protected boolean lessOrEqualAux(S other) throws SemanticException {
+		ExternalSet<E> mine = external(other);
+		if (mine != null)
+			return ((ExternalSet<E>) other.elements).contains(mine);
 		return other.elements.containsAll(elements);
 	}
 
+	private ExternalSet<E> external(S other) {
+		if (!(elements instanceof ExternalSet) || !(other.elements instanceof ExternalSet))
+			return null;
+		ExternalSet<E> mine = (ExternalSet<E>) elements;
+		return mine.getCache() == ((ExternalSet<E>) other.elements).getCache() ? mine : null;
+	}
+
 	/**
 	 * Checks whether an element is contained in this set.
 	 * 
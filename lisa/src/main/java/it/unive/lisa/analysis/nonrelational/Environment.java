@@ -8,6 +8,7 @@ import it.unive.lisa.analysis.lattices.FunctionalLattice;
 import it.unive.lisa.analysis.representation.DomainRepresentation;
 import it.unive.lisa.analysis.representation.MapRepresentation;
 import it.unive.lisa.analysis.representation.StringRepresentation;
+import it.unive.lisa.caches.Caches;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
@@ -191,7 +192,7 @@ public abstract class Environment<M extends Environment<M, E, T, V>,
 		if (other.isBottom() || this.isTop() || other.lessOrEqual((M) this))
 			return glbAux(other.lattice, other.function, other);
 
-		M lift = functionalLift(other, (k1, k2) -> glbKeys(k1, k2), (o1, o2) -> o1 == null ? o2 : o1.glb(o2));
+		M lift = functionalLift(other, (k1, k2) -> glbKeys(k1, k2), (o1, o2) -> o1 == null ? o2 : o1.glb(o2), true);
 		return glbAux(lift.lattice, lift.function, other);
 	}
 
@@ -240,7 +241,7 @@ public abstract class Environment<M extends Environment<M, E, T, V>,
 
 	@Override
 	public M pushScope(ScopeToken scope) throws SemanticException {
-		return liftIdentifiers(id -> new OutOfScopeIdentifier(id, scope));
+		return liftIdentifiers(id -> Caches.identifiers().intern(new OutOfScopeIdentifier(id, scope)));
 	}
 
 	@Override
@@ -8,6 +8,7 @@ import it.unive.lisa.analysis.representation.DomainRepresentation;
 import it.unive.lisa.analysis.representation.PairRepresentation;
 import it.unive.lisa.program.cfg.ProgramPoint;
 import it.unive.lisa.symbolic.value.ValueExpression;
+import java.io.Serializable;
 
 /**
  * A {@link NonRelationalElement} that can be inferred by
@@ -53,7 +54,8 @@ public interface InferredValue<T extends InferredValue<T>>
 	 * 
 	 * @param <T> the type of {@link InferredValue}
 	 */
-	public static class InferredPair<T extends InferredValue<T>> extends BaseLattice<InferredPair<T>> {
+	public static class InferredPair<T extends InferredValue<T>> extends BaseLattice<InferredPair<T>>
+			implements Serializable {
 
 		private final T domain;
 
@@ -1,6 +1,7 @@
 package it.unive.lisa.analysis.nonrelational.value;
 
 import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.WideningThresholds;
 import it.unive.lisa.analysis.lattices.FunctionalLattice;
 import it.unive.lisa.analysis.nonrelational.Environment;
 import it.unive.lisa.analysis.value.ValueDomain;
@@ -86,6 +87,13 @@ public final class ValueEnvironment<T extends NonRelationalValueDomain<T>>
 		return new ValueEnvironment<>(lattice, function);
 	}
 
+	@Override
+	protected ValueEnvironment<T> wideningAux(ValueEnvironment<T> other, WideningThresholds thresholds)
+			throws SemanticException {
+		return functionalLift(other, (f1, f2) -> lubKeys(f1, f2),
+				(o1, o2) -> o1 == null ? o2 : o1.widening(o2, thresholds), true);
+	}
+
 	@Override
 	public ValueEnvironment<T> top() {
 		return isTop() ? this : new ValueEnvironment<T>(lattice.top(), null);
@@ -1,13 +1,20 @@
 package it.unive.lisa.caches;
 
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.OutOfScopeIdentifier;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.util.collections.externalSet.ExternalSet;
 import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
+import java.util.Arrays;
 
 /**
  * A holder of {@link ExternalSetCache}s, to ensure that all
  * {@link ExternalSet}s built to hold a given element type will share the same
- * <i>unique</i> cache.
+ * <i>unique</i> cache, and of {@link Interner}s for objects that are
+ * frequently re-created during the analysis. All caches are thread-safe, and
+ * can thus be shared by analyses that process different {@link CFG}s in
+ * parallel.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
@@ -18,6 +25,11 @@ public class Caches {
 	 */
 	private static final ExternalSetCache<Type> types = new ExternalSetCache<>();
 
+	/**
+	 * The cache of identifiers
+	 */
+	private static final Interner<Identifier> identifiers = new Interner<>(Caches::identifierKey);
+
 	/**
 	 * Yields the globally defined cache for {@link ExternalSet}s containing
 	 * {@link Type}s.
@@ -27,4 +39,41 @@ public class Caches {
 	public static ExternalSetCache<Type> types() {
 		return types;
 	}
+
+	/**
+	 * Yields the globally defined cache of canonical {@link Identifier}s.
+	 * Identifiers are equal according to {@link Identifier#equals(Object)}
+	 * when they have the same name, but the cache shares an instance only
+	 * among identifiers that also have the same runtime types, annotations and
+	 * weakness, and that go out of the same scope, so that interning never
+	 * changes the information carried by an identifier. Interned identifiers
+	 * make lookups in environments succeed on reference equality.<br>
+	 * <br>
+	 * Since canonical identifiers are shared, their runtime types must not
+	 * change after interning: identifiers should be built with an
+	 * {@link ExternalSet#immutable() immutable} copy of the runtime types of
+	 * the expression they refer to, as the latter can be modified in place
+	 * (e.g., during type inference). The keys of the cache hold such a copy
+	 * as well.
+	 * 
+	 * @return the identifiers cache
+	 */
+	public static Interner<Identifier> identifiers() {
+		return identifiers;
+	}
+
+	private static Object[] identifierKey(Identifier id) {
+		if (id instanceof OutOfScopeIdentifier) {
+			OutOfScopeIdentifier out = (OutOfScopeIdentifier) id;
+			return new Object[] { id.getClass(), id.getName(), id.isWeak(), snapshot(id.getTypes()),
+					id.getAnnotations(), out.getScope(), Arrays.asList(identifierKey(out.getId())) };
+		}
+		return new Object[] { id.getClass(), id.getName(), id.isWeak(), snapshot(id.getTypes()), id.getAnnotations() };
+	}
+
+	private static ExternalSet<Type> snapshot(ExternalSet<Type> types) {
+		// immutable sets are returned as-is, so this does not copy the types
+		// of identifiers built with a snapshot of them
+		return types == null ? null : types.immutable();
+	}
 }
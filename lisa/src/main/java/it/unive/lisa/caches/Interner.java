@@ -0,0 +1,142 @@
+package it.unive.lisa.caches;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A thread-safe cache of canonical instances, used for sharing a single object
+ * among all the ones that are structurally equal. Two objects are structurally
+ * equal if the keys produced for them by the function given at construction
+ * are equal: keys are arrays of components, compared element-wise, whose hash
+ * code is computed once when the key is built. The cache does not prevent
+ * canonical instances from being garbage collected: once an instance is no
+ * longer referenced elsewhere, its entry is removed from the cache.<br>
+ * <br>
+ * Since canonical instances are shared, they must not be modified after being
+ * interned.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <T> the type of the elements of this cache
+ */
+public class Interner<T> {
+
+	private final Function<? super T, Object[]> keyOf;
+
+	private final Map<Key, Ref<T>> instances = new ConcurrentHashMap<>();
+
+	private final ReferenceQueue<T> collected = new ReferenceQueue<>();
+
+	/**
+	 * Builds the cache.
+	 *
+	 * @param keyOf the function producing the components that identify an
+	 *                  element, that must include everything that makes two
+	 *                  elements distinguishable
+	 */
+	public Interner(Function<? super T, Object[]> keyOf) {
+		this.keyOf = keyOf;
+	}
+
+	/**
+	 * Yields the canonical instance that is structurally equal to the given
+	 * element. If no such instance exists, {@code element} becomes the
+	 * canonical one.
+	 *
+	 * @param <E>     the concrete type of the element
+	 * @param element the element to intern
+	 *
+	 * @return the canonical instance
+	 */
+	@SuppressWarnings("unchecked")
+	public <E extends T> E intern(E element) {
+		if (element == null)
+			return null;
+
+		expunge();
+		Key key = new Key(keyOf.apply(element));
+		Ref<T> ref = instances.get(key);
+		T existing;
+		if (ref != null && (existing = ref.get()) != null)
+			return (E) existing;
+
+		Ref<T> fresh = new Ref<>(element, key, collected);
+		while (true) {
+			ref = instances.putIfAbsent(key, fresh);
+			if (ref == null)
+				return element;
+			if ((existing = ref.get()) != null)
+				return (E) existing;
+			// the canonical instance has been collected in the meantime
+			if (instances.replace(key, ref, fresh))
+				return element;
+		}
+	}
+
+	/**
+	 * Yields the number of canonical instances currently in this cache.
+	 * Instances that have been collected but not yet removed are included.
+	 *
+	 * @return the number of instances
+	 */
+	public int size() {
+		expunge();
+		return instances.size();
+	}
+
+	/**
+	 * Removes all canonical instances from this cache.
+	 */
+	public void clear() {
+		instances.clear();
+		expunge();
+	}
+
+	@SuppressWarnings("unchecked")
+	private void expunge() {
+		Ref<T> ref;
+		while ((ref = (Ref<T>) collected.poll()) != null)
+			instances.remove(ref.key, ref);
+	}
+
+	private static final class Key {
+
+		private final Object[] components;
+
+		private final int hash;
+
+		private Key(Object[] components) {
+			this.components = components;
+			this.hash = Arrays.hashCode(components);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return hash == other.hash && Arrays.equals(components, other.components);
+		}
+	}
+
+	private static final class Ref<T> extends WeakReference<T> {
+
+		private final Key key;
+
+		private Ref(T referent, Key key, ReferenceQueue<T> queue) {
+			super(referent, queue);
+			this.key = key;
+		}
+	}
+}
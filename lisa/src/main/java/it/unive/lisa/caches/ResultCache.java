@@ -0,0 +1,786 @@
+package it.unive.lisa.caches;
+
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.Lattice;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.interprocedural.InterproceduralAnalysis;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.Expression;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.collections.externalSet.UniversalExternalSet;
+import it.unive.lisa.util.datastructures.graph.FixpointConfiguration;
+import it.unive.lisa.util.datastructures.graph.GraphVisitor;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.CodeSource;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A persistent, on-disk cache of the results of fixpoint computations over
+ * single {@link CFG}s. Results are stored in a directory, one file for each
+ * entry, and are keyed by a digest of:
+ * <ul>
+ * <li>the structure of the cfg (its signature, its statements with their
+ * runtime types and its edges);</li>
+ * <li>the entry state of the fixpoint;</li>
+ * <li>the {@link InterproceduralAnalysis} and the parameters of the
+ * {@link FixpointConfiguration} used;</li>
+ * <li>a digest of the code of LiSA, so that entries written by a different
+ * build are not reused;</li>
+ * <li>a fingerprint of the bytecode of the classes involved in the fixpoint
+ * (the cfg, its statements and edges, the interprocedural analysis and the
+ * classes of the objects in the entry state), together with the ones of
+ * their supertypes, so that entries written by a different version of the
+ * analysis are not reused.</li>
+ * </ul>
+ * Since the key does not depend on the results of other cfgs, this cache is
+ * only sound for {@link InterproceduralAnalysis}es that analyze each cfg in
+ * isolation.<br>
+ * <br>
+ * Results are stored through Java serialization: references to elements of
+ * the analyzed {@link Program} (cfgs, statements, types) are not serialized
+ * but are replaced with symbolic references, that are resolved against the
+ * program when results are read back (results referring to statements that
+ * are not part of the analyzed cfg are thus not cached). Lattice instances
+ * stored in static final fields are written as references to such fields, to
+ * preserve their identity. Any problem while reading an entry (e.g., a
+ * corrupted file, or an entry written by a different version of one of the
+ * domains) causes the entry to be treated as missing, while results that
+ * cannot be serialized are simply not cached. In particular, results are
+ * only cached if the abstract state in use, together with its heap and value
+ * domains, is {@link Serializable}: domains opt into caching by implementing
+ * that interface. When reading entries, only classes of LiSA, of
+ * {@code java.util}, boxed primitives and {@link Lattice}s are accepted:
+ * entries containing other classes are treated as missing. Instances of this
+ * class are thread-safe.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class ResultCache {
+
+	private static final Logger log = LogManager.getLogger(ResultCache.class);
+
+	/**
+	 * The version of the format of the cache entries, included in the keys
+	 */
+	private static final int FORMAT_VERSION = 1;
+
+	/**
+	 * A digest of the whole code of LiSA (the jar or the directory it has been
+	 * loaded from), included in the keys, or {@code null} if it cannot be
+	 * computed
+	 */
+	private static final byte[] BUILD = buildFingerprint();
+
+	/**
+	 * The extension of the files holding cache entries
+	 */
+	private static final String EXTENSION = ".bin";
+
+	/**
+	 * For each lattice class, the lattice instances stored in its static final
+	 * fields (or in the ones of its superclasses), mapped to the name of the
+	 * field holding them
+	 */
+	private static final ClassValue<Map<Object, Field>> CONSTANTS = new ClassValue<>() {
+		@Override
+		protected Map<Object, Field> computeValue(Class<?> type) {
+			Map<Object, Field> constants = new IdentityHashMap<>();
+			for (Class<?> current = type; current != null; current = current.getSuperclass())
+				for (Field field : current.getDeclaredFields())
+					if (Modifier.isStatic(field.getModifiers()) && Modifier.isFinal(field.getModifiers())
+							&& Lattice.class.isAssignableFrom(field.getType()))
+						try {
+							field.setAccessible(true);
+							Object value = field.get(null);
+							if (value != null)
+								constants.putIfAbsent(value, field);
+						} catch (ReflectiveOperationException | RuntimeException e) {
+							// inaccessible fields are ignored
+						}
+			return constants;
+		}
+	};
+
+	/**
+	 * For each class, a digest of its bytecode and of the fingerprints of its
+	 * supertypes, or {@code null} if its bytecode cannot be found (e.g., for
+	 * classes generated at runtime). Classes of the platform have an empty
+	 * fingerprint, since they only change with the jvm.
+	 */
+	private static final ClassValue<byte[]> FINGERPRINTS = new ClassValue<>() {
+		@Override
+		protected byte[] computeValue(Class<?> type) {
+			if (type.getClassLoader() == null)
+				return new byte[0];
+
+			MessageDigest digest;
+			try (InputStream in = type.getResourceAsStream("/" + type.getName().replace('.', '/') + ".class")) {
+				if (in == null)
+					return null;
+				digest = MessageDigest.getInstance("SHA-256");
+				digest.update(type.getName().getBytes(StandardCharsets.UTF_8));
+				digest.update(in.readAllBytes());
+			} catch (IOException | NoSuchAlgorithmException e) {
+				return null;
+			}
+
+			List<Class<?>> supertypes = new ArrayList<>(Arrays.asList(type.getInterfaces()));
+			if (type.getSuperclass() != null)
+				supertypes.add(type.getSuperclass());
+			for (Class<?> supertype : supertypes) {
+				byte[] fingerprint = get(supertype);
+				if (fingerprint == null)
+					return null;
+				digest.update(fingerprint);
+			}
+			return digest.digest();
+		}
+	};
+
+	/**
+	 * The classes of {@code java.lang} that can be read from cache entries
+	 * ({@link Object} can only appear as the component type of arrays)
+	 */
+	private static final Set<String> ALLOWED_LANG_CLASSES = Set.of(Object.class.getName(), Boolean.class.getName(),
+			Byte.class.getName(), Character.class.getName(), Short.class.getName(), Integer.class.getName(),
+			Long.class.getName(), Float.class.getName(), Double.class.getName(), Number.class.getName(),
+			Enum.class.getName());
+
+	/**
+	 * The directory containing the entries of this cache
+	 */
+	private final Path directory;
+
+	/**
+	 * The program whose results are cached
+	 */
+	private final Program program;
+
+	/**
+	 * The cfgs of {@link #program}, indexed by their signature
+	 */
+	private final Map<String, CFG> cfgs;
+
+	/**
+	 * The known types, indexed by their string representation
+	 */
+	private final Map<String, Type> types;
+
+	/**
+	 * The number of successful lookups
+	 */
+	private final AtomicInteger hits;
+
+	/**
+	 * The number of failed lookups
+	 */
+	private final AtomicInteger misses;
+
+	/**
+	 * Builds the cache. The given directory is created if it does not exist.
+	 *
+	 * @param directory the directory where cache entries are stored
+	 * @param program   the program whose results will be cached
+	 *
+	 * @throws IOException if the directory cannot be created
+	 */
+	public ResultCache(Path directory, Program program) throws IOException {
+		this.directory = Files.createDirectories(directory);
+		this.program = program;
+		this.cfgs = new ConcurrentHashMap<>();
+		this.types = new ConcurrentHashMap<>();
+		this.hits = new AtomicInteger();
+		this.misses = new AtomicInteger();
+	}
+
+	/**
+	 * Yields the directory containing the entries of this cache.
+	 *
+	 * @return the directory
+	 */
+	public Path getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Yields the number of lookups that found a valid entry in this cache.
+	 *
+	 * @return the number of hits
+	 */
+	public int getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Yields the number of lookups that did not find a valid entry in this
+	 * cache.
+	 *
+	 * @return the number of misses
+	 */
+	public int getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * Computes the key identifying the results of a fixpoint computation.
+	 *
+	 * @param <A>        the type of {@link AbstractState}
+	 * @param <H>        the type of {@link HeapDomain}
+	 * @param <V>        the type of {@link ValueDomain}
+	 * @param cfg        the cfg whose fixpoint is computed
+	 * @param entryState the entry state of the fixpoint
+	 * @param interproc  the interprocedural analysis computing the fixpoint
+	 * @param conf       the configuration of the fixpoint
+	 *
+	 * @return the key, or {@code null} if the entry state cannot be
+	 *             serialized or if the fingerprint of one of the classes
+	 *             involved cannot be computed, meaning that the results
+	 *             cannot be cached
+	 */
+	public <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> String key(CFG cfg, AnalysisState<A, H, V> entryState,
+					InterproceduralAnalysis<A, H, V> interproc, FixpointConfiguration conf) {
+		if (!isSerializable(entryState)) {
+			log.debug("Results of " + cfg + " cannot be cached: the domains in use are not serializable");
+			return null;
+		}
+
+		if (BUILD == null) {
+			log.debug("Results of " + cfg + " cannot be cached: unable to fingerprint the code of LiSA");
+			return null;
+		}
+
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			log.warn("Unable to compute cache keys", e);
+			return null;
+		}
+
+		SortedMap<Integer, Statement> statements = statementsOf(cfg);
+		try (DataOutputStream out = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(),
+				digest))) {
+			out.writeInt(FORMAT_VERSION);
+			out.write(BUILD);
+			out.writeUTF(interproc.getClass().getName());
+			out.writeUTF(String.valueOf(conf.getIterationStrategy()));
+			out.writeInt(conf.getWideningThreshold());
+			out.writeUTF(String.valueOf(conf.getWideningPoints()));
+			out.writeBoolean(conf.isWideningWithThresholds());
+			out.writeInt(conf.getNarrowingIterations());
+
+			out.writeUTF(cfg.getDescriptor().getFullSignatureWithParNames());
+			out.writeUTF(String.valueOf(cfg.getDescriptor().getLocation()));
+			for (Statement st : statements.values()) {
+				out.writeInt(st.getOffset());
+				out.writeUTF(st.getClass().getName());
+				out.writeUTF(st.toString());
+				out.writeUTF(String.valueOf(st.getLocation()));
+				if (st instanceof Expression)
+					for (String type : sorted(((Expression) st).getRuntimeTypes()))
+						out.writeUTF(type);
+			}
+
+			List<String> edges = new ArrayList<>();
+			for (Edge edge : cfg.getEdges())
+				edges.add(edge.getClass().getName() + ":" + edge.getSource().getOffset() + "->"
+						+ edge.getDestination().getOffset());
+			edges.sort(null);
+			for (String edge : edges)
+				out.writeUTF(edge);
+			for (int entry : cfg.getEntrypoints().stream().mapToInt(Statement::getOffset).sorted().toArray())
+				out.writeInt(entry);
+
+			SortedMap<String, Class<?>> classes = new TreeMap<>();
+			ByteArrayOutputStream state = new ByteArrayOutputStream();
+			try (ObjectOutputStream os = new ReferenceOutputStream(state, cfg, statements, classes)) {
+				os.writeObject(entryState);
+			}
+			out.write(state.toByteArray());
+
+			classes.put(interproc.getClass().getName(), interproc.getClass());
+			classes.put(cfg.getClass().getName(), cfg.getClass());
+			for (Statement st : statements.values())
+				classes.put(st.getClass().getName(), st.getClass());
+			for (Edge edge : cfg.getEdges())
+				classes.put(edge.getClass().getName(), edge.getClass());
+			for (Class<?> type : classes.values()) {
+				byte[] fingerprint = FINGERPRINTS.get(type);
+				if (fingerprint == null) {
+					log.debug("Results of " + cfg + " cannot be cached: unable to fingerprint " + type);
+					return null;
+				}
+				out.writeUTF(type.getName());
+				out.write(fingerprint);
+			}
+		} catch (IOException e) {
+			log.debug("Results of " + cfg + " cannot be cached: the entry state is not serializable", e);
+			return null;
+		}
+
+		StringBuilder key = new StringBuilder();
+		for (byte b : digest.digest())
+			key.append(String.format("%02x", b));
+		return key.toString();
+	}
+
+	/**
+	 * Yields the results stored in this cache with the given key, binding them
+	 * to the given cfg.
+	 *
+	 * @param <A> the type of {@link AbstractState}
+	 * @param <H> the type of {@link HeapDomain}
+	 * @param <V> the type of {@link ValueDomain}
+	 * @param key the key of the entry, computed through
+	 *                {@link #key(CFG, AnalysisState, InterproceduralAnalysis, FixpointConfiguration)}
+	 * @param cfg the cfg that the results refer to
+	 *
+	 * @return the cached results, or {@code null} if no valid entry exists
+	 */
+	public <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> CFGWithAnalysisResults<A, H, V> get(String key, CFG cfg) {
+		Path file = directory.resolve(key + EXTENSION);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+				ObjectInputStream in = new ReferenceInputStream(
+						new GZIPInputStream(new BufferInputStream(
+								channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()))),
+						cfg, statementsOf(cfg))) {
+			CFGWithAnalysisResults<A, H, V> result = CFGWithAnalysisResults.readResults(cfg, in);
+			hits.incrementAndGet();
+			return result;
+		} catch (NoSuchFileException e) {
+			// plain miss
+		} catch (IOException | ClassNotFoundException | ClassCastException e) {
+			log.debug("Discarding invalid cache entry " + file, e);
+		}
+
+		misses.incrementAndGet();
+		return null;
+	}
+
+	/**
+	 * Stores the given results in this cache with the given key. If the
+	 * results cannot be serialized, this method has no effect.
+	 *
+	 * @param <A>    the type of {@link AbstractState}
+	 * @param <H>    the type of {@link HeapDomain}
+	 * @param <V>    the type of {@link ValueDomain}
+	 * @param key    the key of the entry, computed through
+	 *                   {@link #key(CFG, AnalysisState, InterproceduralAnalysis, FixpointConfiguration)}
+	 * @param result the results to store
+	 */
+	public <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> void put(String key, CFGWithAnalysisResults<A, H, V> result) {
+		Path tmp = null;
+		try {
+			tmp = Files.createTempFile(directory, key, ".tmp");
+			try (ObjectOutputStream out = new ReferenceOutputStream(
+					new GZIPOutputStream(Files.newOutputStream(tmp)), result, statementsOf(result), null)) {
+				result.writeResults(out);
+			}
+
+			Path file = directory.resolve(key + EXTENSION);
+			try {
+				Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+			tmp = null;
+		} catch (IOException e) {
+			log.debug("Results of " + result + " cannot be cached", e);
+		} finally {
+			if (tmp != null)
+				try {
+					Files.deleteIfExists(tmp);
+				} catch (IOException e) {
+					log.debug("Unable to delete temporary file " + tmp, e);
+				}
+		}
+	}
+
+	private static byte[] buildFingerprint() {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			String version = ResultCache.class.getPackage().getImplementationVersion();
+			digest.update(String.valueOf(version).getBytes(StandardCharsets.UTF_8));
+
+			CodeSource source = ResultCache.class.getProtectionDomain().getCodeSource();
+			if (source == null || source.getLocation() == null)
+				return version == null ? null : digest.digest();
+
+			Path root = Paths.get(source.getLocation().toURI());
+			if (Files.isRegularFile(root)) {
+				digestFile(digest, root);
+				return digest.digest();
+			}
+
+			// classes loaded from a directory (e.g., while developing)
+			List<Path> files;
+			try (Stream<Path> walk = Files.walk(root)) {
+				files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+			}
+			for (Path file : files) {
+				digest.update(root.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+				digestFile(digest, file);
+			}
+			return digest.digest();
+		} catch (IOException | NoSuchAlgorithmException | URISyntaxException | RuntimeException e) {
+			log.warn("Unable to fingerprint the code of LiSA: fixpoint results will not be cached", e);
+			return null;
+		}
+	}
+
+	private static void digestFile(MessageDigest digest, Path file) throws IOException {
+		try (InputStream in = Files.newInputStream(file)) {
+			byte[] buffer = new byte[8192];
+			for (int read = in.read(buffer); read != -1; read = in.read(buffer))
+				digest.update(buffer, 0, read);
+		}
+	}
+
+	private static boolean isSerializable(AnalysisState<?, ?, ?> state) {
+		AbstractState<?, ?, ?> abs = state.getState();
+		return state instanceof Serializable && abs instanceof Serializable
+				&& abs.getHeapState() instanceof Serializable && abs.getValueState() instanceof Serializable;
+	}
+
+	private static List<String> sorted(Collection<?> elements) {
+		List<String> res = new ArrayList<>(elements.size());
+		for (Object e : elements)
+			res.add(String.valueOf(e));
+		res.sort(null);
+		return res;
+	}
+
+	private static SortedMap<Integer, Statement> statementsOf(CFG cfg) {
+		SortedMap<Integer, Statement> statements = new TreeMap<>();
+		cfg.accept(new StatementCollector(), statements);
+		return statements;
+	}
+
+	private static ObjectInputFilter.Status filter(ObjectInputFilter.FilterInfo info) {
+		Class<?> type = info.serialClass();
+		if (type == null)
+			return ObjectInputFilter.Status.UNDECIDED;
+		while (type.isArray())
+			type = type.getComponentType();
+
+		String name = type.getName();
+		if (type.isPrimitive() || ALLOWED_LANG_CLASSES.contains(name) || name.startsWith("it.unive.lisa.")
+				|| name.startsWith("java.util.") || Lattice.class.isAssignableFrom(type))
+			return ObjectInputFilter.Status.ALLOWED;
+		return ObjectInputFilter.Status.REJECTED;
+	}
+
+	private CFG cfgOf(String signature) throws InvalidObjectException {
+		CFG cfg = cfgs.get(signature);
+		if (cfg == null) {
+			for (CFG c : program.getAllCFGs())
+				cfgs.putIfAbsent(c.getDescriptor().getFullSignatureWithParNames(), c);
+			cfg = cfgs.get(signature);
+		}
+		if (cfg == null)
+			throw new InvalidObjectException("Unknown cfg: " + signature);
+		return cfg;
+	}
+
+	private Type typeOf(String name) throws InvalidObjectException {
+		Type type = types.get(name);
+		if (type == null) {
+			for (Type t : Caches.types().mkUniversalSet())
+				types.putIfAbsent(t.toString(), t);
+			type = types.get(name);
+		}
+		if (type == null)
+			throw new InvalidObjectException("Unknown type: " + name);
+		return type;
+	}
+
+	private static class StatementCollector
+			implements GraphVisitor<CFG, Statement, Edge, SortedMap<Integer, Statement>> {
+
+		@Override
+		public boolean visit(SortedMap<Integer, Statement> tool, CFG graph) {
+			return true;
+		}
+
+		@Override
+		public boolean visit(SortedMap<Integer, Statement> tool, CFG graph, Statement node) {
+			tool.put(node.getOffset(), node);
+			return true;
+		}
+
+		@Override
+		public boolean visit(SortedMap<Integer, Statement> tool, CFG graph, Edge edge) {
+			return true;
+		}
+	}
+
+	/**
+	 * A symbolic reference to an element of the program.
+	 */
+	private static final class Ref implements Serializable {
+
+		private static final byte CFG = 0, STATEMENT = 1, PROGRAM_POINT = 2, TYPE = 3;
+
+		private final byte kind;
+
+		private final String name;
+
+		private final int offset;
+
+		private Ref(byte kind, String name, int offset) {
+			this.kind = kind;
+			this.name = name;
+			this.offset = offset;
+		}
+	}
+
+	/**
+	 * A serializable reference to a lattice instance stored in a static final
+	 * field. Several domains (e.g., the top and bottom elements of most
+	 * lattices, or the abstract values of the sign domain) rely on reference
+	 * equality to distinguish between such instances: since a deserialized
+	 * copy would not be recognized, these are written as references to the
+	 * field holding them, and read back by accessing the same field.
+	 */
+	private static final class Constant implements Serializable {
+
+		private final String type;
+
+		private final String field;
+
+		private Constant(String type, String field) {
+			this.type = type;
+			this.field = field;
+		}
+	}
+
+	/**
+	 * A serializable replacement for {@link ExternalSet}s of {@link Type}s.
+	 */
+	private static final class TypeSet implements Serializable {
+
+		private final boolean universal;
+
+		private final List<String> elements;
+
+		private TypeSet(boolean universal, List<String> elements) {
+			this.universal = universal;
+			this.elements = elements;
+		}
+	}
+
+	private static class ReferenceOutputStream extends ObjectOutputStream {
+
+		private final CFG cfg;
+
+		private final Map<Integer, Statement> statements;
+
+		private final Map<String, Class<?>> classes;
+
+		private ReferenceOutputStream(OutputStream out, CFG cfg, Map<Integer, Statement> statements,
+				Map<String, Class<?>> classes) throws IOException {
+			super(out);
+			this.cfg = cfg;
+			this.statements = statements;
+			this.classes = classes;
+			enableReplaceObject(true);
+		}
+
+		@Override
+		protected Object replaceObject(Object obj) throws IOException {
+			if (classes != null)
+				classes.put(obj.getClass().getName(), obj.getClass());
+
+			if (obj instanceof Statement) {
+				Statement st = (Statement) obj;
+				if (statements.get(st.getOffset()) != st)
+					throw new NotSerializableException("Statement not part of " + cfg + ": " + st);
+				return new Ref(Ref.STATEMENT, null, st.getOffset());
+			}
+
+			if (obj instanceof CFG)
+				return new Ref(Ref.CFG, ((CFG) obj).getDescriptor().getFullSignatureWithParNames(), -1);
+
+			if (obj instanceof ProgramPoint) {
+				CFG target = ((ProgramPoint) obj).getCFG();
+				if (target == null)
+					throw new NotSerializableException("Program point without cfg: " + obj);
+				return new Ref(Ref.PROGRAM_POINT, target.getDescriptor().getFullSignatureWithParNames(), -1);
+			}
+
+			if (obj instanceof Type)
+				return new Ref(Ref.TYPE, obj.toString(), -1);
+
+			if (obj instanceof Lattice) {
+				Field field = CONSTANTS.get(obj.getClass()).get(obj);
+				if (field != null)
+					return new Constant(field.getDeclaringClass().getName(), field.getName());
+			}
+
+			if (obj instanceof ExternalSet) {
+				boolean universal = obj instanceof UniversalExternalSet;
+				if (!universal)
+					for (Object element : (ExternalSet<?>) obj)
+						if (!(element instanceof Type))
+							throw new NotSerializableException("Non-type element in external set: " + element);
+				return new TypeSet(universal, universal ? new ArrayList<>() : sorted((ExternalSet<?>) obj));
+			}
+
+			return obj;
+		}
+	}
+
+	private class ReferenceInputStream extends ObjectInputStream {
+
+		private final CFG cfg;
+
+		private final Map<Integer, Statement> statements;
+
+		private ReferenceInputStream(InputStream in, CFG cfg, Map<Integer, Statement> statements)
+				throws IOException {
+			super(in);
+			this.cfg = cfg;
+			this.statements = statements;
+			setObjectInputFilter(ResultCache::filter);
+			enableResolveObject(true);
+		}
+
+		@Override
+		protected Object resolveObject(Object obj) throws IOException {
+			if (obj instanceof Ref)
+				return resolve((Ref) obj);
+
+			if (obj instanceof TypeSet) {
+				TypeSet set = (TypeSet) obj;
+				if (set.universal)
+					return Caches.types().mkUniversalSet();
+				List<Type> elements = new ArrayList<>(set.elements.size());
+				for (String name : set.elements)
+					elements.add(typeOf(name));
+				return Caches.types().mkSet(elements);
+			}
+
+			if (obj instanceof Constant) {
+				Constant constant = (Constant) obj;
+				try {
+					Field field = Class.forName(constant.type).getDeclaredField(constant.field);
+					field.setAccessible(true);
+					return field.get(null);
+				} catch (ReflectiveOperationException | RuntimeException e) {
+					throw new InvalidObjectException("Unable to read " + constant.type + "." + constant.field + ": "
+							+ e.getMessage());
+				}
+			}
+
+			return obj;
+		}
+
+		private Object resolve(Ref ref) throws InvalidObjectException {
+			switch (ref.kind) {
+			case Ref.STATEMENT:
+				Statement st = statements.get(ref.offset);
+				if (st == null)
+					throw new InvalidObjectException("No statement at offset " + ref.offset + " in " + cfg);
+				return st;
+			case Ref.CFG:
+				return cfgOf(ref.name);
+			case Ref.PROGRAM_POINT:
+				return cfgOf(ref.name).getGenericProgramPoint();
+			case Ref.TYPE:
+				return typeOf(ref.name);
+			default:
+				throw new InvalidObjectException("Unknown reference kind: " + ref.kind);
+			}
+		}
+	}
+
+	/**
+	 * An {@link InputStream} reading from a {@link ByteBuffer}, used to read
+	 * memory-mapped cache entries.
+	 */
+	private static class BufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		private BufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (len == 0)
+				return 0;
+			if (!buffer.hasRemaining())
+				return -1;
+			int n = Math.min(len, buffer.remaining());
+			buffer.get(b, off, n);
+			return n;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+}
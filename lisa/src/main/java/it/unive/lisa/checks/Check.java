@@ -12,10 +12,12 @@ import it.unive.lisa.util.datastructures.graph.GraphVisitor;
  * A check that inspects the syntactic structure of the program to report
  * warnings. The inspection is performed by providing callbacks that will be
  * invoked by LiSA while visiting the program structure. A check is supposed to
- * perform on each syntactic element in isolation, potentially in parallel. This
- * means that implementers of this interface should take care of sharing data
- * between different callback calls <i>only</i> through thread-safe data
- * structures.<br>
+ * perform on each syntactic element in isolation, potentially in parallel. By
+ * default, {@link ChecksExecutor} never invokes the callbacks of the same
+ * check concurrently: checks that share data between different callback calls
+ * <i>only</i> through thread-safe data structures can override
+ * {@link #isThreadSafe()} to allow concurrent visits of different
+ * elements.<br>
  * <br>
  * The check is parametric to the type {@code T} of the tool that will be used
  * during the inspection.
@@ -66,4 +68,17 @@ public interface Check<T> extends GraphVisitor<CFG, Statement, Edge, T> {
 	 *                     compilation unit
 	 */
 	void visitGlobal(T tool, Unit unit, Global global, boolean instance);
+
+	/**
+	 * Yields whether or not the visiting callbacks of this check can be
+	 * invoked concurrently on different elements of the program.
+	 * {@link #beforeExecution(Object)} and {@link #afterExecution(Object)} are
+	 * never invoked concurrently with other callbacks. Defaults to
+	 * {@code false}.
+	 * 
+	 * @return {@code true} if this check is thread-safe
+	 */
+	default boolean isThreadSafe() {
+		return false;
+	}
 }
@@ -2,11 +2,21 @@ package it.unive.lisa.checks;
 
 import static it.unive.lisa.logging.IterationLogger.iterate;
 
+import it.unive.lisa.checks.syntactic.CheckTool;
+import it.unive.lisa.checks.warnings.Warning;
+import it.unive.lisa.logging.Counter;
 import it.unive.lisa.program.CompilationUnit;
 import it.unive.lisa.program.Global;
 import it.unive.lisa.program.Program;
 import it.unive.lisa.program.cfg.CFG;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -30,23 +40,125 @@ public class ChecksExecutor {
 	 */
 	public static <C extends Check<T>, T> void executeAll(T tool, Program program,
 			Collection<C> checks) {
+		executeAll(tool, program, checks, 1);
+	}
+
+	/**
+	 * Executes all the given checks on the given inputs cfgs, visiting the
+	 * cfgs of the program, including the ones defined in its compilation
+	 * units, using at most {@code parallelism} threads.
+	 * {@link Check#beforeExecution(Object)},
+	 * {@link Check#afterExecution(Object)} and the visits of compilation units
+	 * and globals are always executed on the calling thread. Callbacks of
+	 * checks that are not {@link Check#isThreadSafe() thread-safe} are never
+	 * invoked concurrently. If {@code tool} is a {@link CheckTool}, the
+	 * warnings reported during the parallel visits are stored in it in the
+	 * same order of a sequential execution. If a visit fails, the exception
+	 * raised by the first failing one (according to the order of the
+	 * sequential execution) is propagated to the caller.
+	 * 
+	 * @param <C>         the type of the checks to execute
+	 * @param <T>         the type of the auxiliary tool used by the check
+	 * @param tool        the auxiliary tool to be used during the checks
+	 *                        execution
+	 * @param program     the program to analyze
+	 * @param checks      the checks to execute
+	 * @param parallelism the maximum number of threads to use, where {@code 1}
+	 *                        means sequential execution
+	 * 
+	 * @throws IllegalArgumentException if {@code parallelism} is less than
+	 *                                      {@code 1}
+	 */
+	public static <C extends Check<T>, T> void executeAll(T tool, Program program,
+			Collection<C> checks, int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("The parallelism level must be at least 1, got " + parallelism);
+
 		checks.forEach(c -> c.beforeExecution(tool));
 
 		for (Global global : iterate(log, program.getGlobals(), "Analyzing program globals...", "Globals"))
 			checks.forEach(c -> c.visitGlobal(tool, program, global, false));
 
-		for (CFG cfg : iterate(log, program.getCFGs(), "Analyzing program cfgs...", "CFGs"))
-			checks.forEach(c -> cfg.accept(c, tool));
+		Collection<CFG> cfgs = program.getCFGs();
+		Collection<CompilationUnit> units = program.getUnits();
+		if (parallelism == 1 || checks.stream().noneMatch(Check::isThreadSafe)) {
+			for (CFG cfg : iterate(log, cfgs, "Analyzing program cfgs...", "CFGs"))
+				checks.forEach(c -> cfg.accept(c, tool));
 
-		for (CompilationUnit unit : iterate(log, program.getUnits(), "Analyzing compilation units...", "Units"))
-			checks.forEach(c -> visitUnit(tool, unit, c));
+			for (CompilationUnit unit : iterate(log, units, "Analyzing compilation units...", "Units"))
+				checks.forEach(c -> visitUnit(tool, unit, c));
+		} else
+			parallelVisit(tool, cfgs, units, checks, parallelism);
 
 		checks.forEach(c -> c.afterExecution(tool));
 	}
 
-	private static <C extends Check<T>, T> void visitUnit(T tool, CompilationUnit unit, C c) {
+	private static <C extends Check<T>, T> void parallelVisit(T tool, Collection<CFG> cfgs,
+			Collection<CompilationUnit> units, Collection<C> checks, int parallelism) {
+		// each visit buffers its own warnings, that are then reported in the
+		// order of the sequential execution: this makes the order of the
+		// warnings independent from the scheduling of the visits
+		CheckTool sink = tool instanceof CheckTool ? (CheckTool) tool : null;
+		int cap = cfgs.size() + checks.size()
+				* units.stream().mapToInt(u -> u.getCFGs().size() + u.getInstanceCFGs(false).size()).sum();
+		Counter counter = new Counter(log, Level.INFO, "Analyzing program cfgs and compilation units", "visits",
+				cap, 0.025);
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		List<ForkJoinTask<List<Warning>>> segments = new ArrayList<>();
+		counter.on();
+		try {
+			for (CFG cfg : cfgs)
+				segments.add(pool.submit(visit(sink, counter,
+						() -> checks.forEach(c -> guarded(c, () -> cfg.accept(c, tool))))));
+
+			for (CompilationUnit unit : units)
+				for (C c : checks) {
+					// whether or not the members of the unit are visited
+					// depends on the visit of the unit itself, that is thus
+					// executed (and buffered) on this thread
+					boolean[] visitMembers = new boolean[1];
+					ForkJoinTask<List<Warning>> head = ForkJoinTask.adapt(visit(sink, null,
+							() -> guarded(c, () -> visitMembers[0] = visitUnitHead(tool, unit, c))));
+					head.quietlyInvoke();
+					segments.add(head);
+					if (!visitMembers[0])
+						continue;
+
+					for (CFG cfg : unit.getCFGs())
+						segments.add(pool.submit(visit(sink, counter, () -> guarded(c, () -> cfg.accept(c, tool)))));
+
+					for (CFG cfg : unit.getInstanceCFGs(false))
+						segments.add(pool.submit(visit(sink, counter, () -> guarded(c, () -> cfg.accept(c, tool)))));
+				}
+
+			for (ForkJoinTask<List<Warning>> segment : segments) {
+				List<Warning> warnings = segment.join();
+				if (sink != null)
+					sink.report(warnings);
+			}
+		} finally {
+			pool.shutdownNow();
+			counter.off();
+		}
+	}
+
+	private static Callable<List<Warning>> visit(CheckTool sink, Counter counter, Runnable visit) {
+		return () -> {
+			List<Warning> warnings;
+			if (sink == null) {
+				visit.run();
+				warnings = Collections.emptyList();
+			} else
+				warnings = sink.buffer(visit);
+			if (counter != null)
+				counter.count();
+			return warnings;
+		};
+	}
+
+	private static <C extends Check<T>, T> boolean visitUnitHead(T tool, CompilationUnit unit, C c) {
 		if (!c.visitCompilationUnit(tool, unit))
-			return;
+			return false;
 
 		for (Global global : unit.getGlobals())
 			c.visitGlobal(tool, unit, global, false);
@@ -54,6 +166,22 @@ public class ChecksExecutor {
 		for (Global global : unit.getInstanceGlobals(false))
 			c.visitGlobal(tool, unit, global, true);
 
+		return true;
+	}
+
+	private static void guarded(Check<?> check, Runnable action) {
+		if (check.isThreadSafe())
+			action.run();
+		else
+			synchronized (check) {
+				action.run();
+			}
+	}
+
+	private static <C extends Check<T>, T> void visitUnit(T tool, CompilationUnit unit, C c) {
+		if (!visitUnitHead(tool, unit, c))
+			return;
+
 		for (CFG cfg : unit.getCFGs())
 			cfg.accept(c, tool);
 
@@ -9,14 +9,23 @@ import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.CFGDescriptor;
 import it.unive.lisa.program.cfg.statement.Expression;
 import it.unive.lisa.program.cfg.statement.Statement;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * An auxiliary tool that can be used by checks during their execution. It
  * provides reporting capabilities, as well as access to analysis singletons,
- * such as executed semantic analyses.
+ * such as executed semantic analyses. Warnings are kept in the order in which
+ * they have been reported: when checks are executed in parallel, each thread
+ * can {@link #buffer(Runnable) buffer} the warnings it reports, and the
+ * buffers can then be {@link #report(Collection) reported} in a deterministic
+ * order. Warnings can also be forwarded to a sink (e.g., a writer of the
+ * report) as soon as they are reported, instead of being kept in memory by
+ * this tool.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
@@ -27,21 +36,99 @@ public class CheckTool {
 	 */
 	private final Collection<Warning> warnings;
 
+	/**
+	 * The buffers where warnings reported by each thread are redirected, if
+	 * any
+	 */
+	private final ThreadLocal<List<Warning>> buffers;
+
+	/**
+	 * The sink where warnings are forwarded instead of being stored in
+	 * {@link #warnings}, if any
+	 */
+	private final Consumer<Warning> sink;
+
 	/**
 	 * Build the tool.
 	 */
 	public CheckTool() {
-		warnings = Collections.newSetFromMap(new ConcurrentHashMap<>());
+		this((Consumer<Warning>) null);
+	}
+
+	/**
+	 * Build the tool, forwarding the warnings generated through it to the
+	 * given sink instead of storing them. Warnings are forwarded in the same
+	 * order in which they would be stored, and are not deduplicated.
+	 * 
+	 * @param sink the sink receiving the warnings, or {@code null} to store
+	 *                 them in this tool
+	 */
+	public CheckTool(Consumer<Warning> sink) {
+		warnings = Collections.synchronizedSet(new LinkedHashSet<>());
+		buffers = new ThreadLocal<>();
+		this.sink = sink;
 	}
 
 	/**
 	 * Build the tool, shallow-copying the set of warnings from the given one.
+	 * If the given tool forwards its warnings to a sink, the new tool forwards
+	 * them to the same sink.
 	 * 
 	 * @param other the original tool to copy
 	 */
 	protected CheckTool(CheckTool other) {
-		this();
-		warnings.addAll(other.warnings);
+		this(other.sink);
+		synchronized (other.warnings) {
+			warnings.addAll(other.warnings);
+		}
+	}
+
+	private void add(Warning warning) {
+		List<Warning> buffer = buffers.get();
+		if (buffer != null)
+			buffer.add(warning);
+		else if (sink != null)
+			sink.accept(warning);
+		else
+			warnings.add(warning);
+	}
+
+	/**
+	 * Runs the given action, redirecting the warnings that it reports through
+	 * this tool on the current thread to a separate buffer instead of storing
+	 * them in this tool. Warnings reported by other threads are not affected.
+	 * The returned warnings can be later stored in this tool through
+	 * {@link #report(Collection)}.
+	 * 
+	 * @param action the action to run
+	 * 
+	 * @return the warnings reported by {@code action}, in the order in which
+	 *             they have been reported
+	 */
+	public List<Warning> buffer(Runnable action) {
+		List<Warning> previous = buffers.get();
+		List<Warning> buffer = new ArrayList<>();
+		buffers.set(buffer);
+		try {
+			action.run();
+		} finally {
+			if (previous == null)
+				buffers.remove();
+			else
+				buffers.set(previous);
+		}
+		return buffer;
+	}
+
+	/**
+	 * Reports all the given warnings, in iteration order. This is equivalent
+	 * to reporting them one at a time through the other methods of this
+	 * class.
+	 * 
+	 * @param warnings the warnings to report
+	 */
+	public void report(Collection<Warning> warnings) {
+		warnings.forEach(this::add);
 	}
 
 	/**
@@ -53,7 +140,7 @@ public class CheckTool {
 	 * @param message the message of the warning
 	 */
 	public void warn(String message) {
-		warnings.add(new Warning(message));
+		add(new Warning(message));
 	}
 
 	/**
@@ -64,7 +151,7 @@ public class CheckTool {
 	 * @param message the message of the warning
 	 */
 	public void warnOn(CFG cfg, String message) {
-		warnings.add(new CFGWarning(cfg, message));
+		add(new CFGWarning(cfg, message));
 	}
 
 	/**
@@ -75,7 +162,7 @@ public class CheckTool {
 	 * @param message    the message of the warning
 	 */
 	public void warnOn(CFGDescriptor descriptor, String message) {
-		warnings.add(new CFGDescriptorWarning(descriptor, message));
+		add(new CFGDescriptorWarning(descriptor, message));
 	}
 
 	/**
@@ -90,7 +177,7 @@ public class CheckTool {
 		if (statement instanceof Expression)
 			warnOn((Expression) statement, message);
 		else
-			warnings.add(new StatementWarning(statement, message));
+			add(new StatementWarning(statement, message));
 	}
 
 	/**
@@ -100,12 +187,14 @@ public class CheckTool {
 	 * @param message    the message of the warning
 	 */
 	public void warnOn(Expression expression, String message) {
-		warnings.add(new ExpressionWarning(expression, message));
+		add(new ExpressionWarning(expression, message));
 	}
 
 	/**
 	 * Returns an <b>unmodifiable</b> view of the warnings that have been
-	 * generated up to now using this tool.
+	 * generated up to now using this tool, in the order in which they have
+	 * been reported. If this tool forwards its warnings to a sink, the
+	 * returned collection is empty.
 	 * 
 	 * @return a view of the warnings
 	 */
@@ -19,6 +19,7 @@ import it.unive.lisa.program.cfg.statement.OpenCall;
 import it.unive.lisa.program.cfg.statement.UnresolvedCall;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.util.datastructures.graph.FixpointConfiguration;
 import it.unive.lisa.util.datastructures.graph.FixpointException;
 import java.util.Collection;
 
@@ -55,15 +56,38 @@ public interface InterproceduralAnalysis<A extends AbstractState<A, H, V>,
 	 * analysis. Each result is computed with
 	 * {@link CFG#fixpoint(AnalysisState, InterproceduralAnalysis)} or one of
 	 * its overloads. Results of individual cfgs are then available through
+	 * {@link #getAnalysisResultsOf(CFG)}. This is equivalent to invoking
+	 * {@link #fixpoint(AnalysisState, FixpointConfiguration)} with a default
+	 * {@link FixpointConfiguration}.
+	 * 
+	 * @param entryState the entry state for the {@link CFG}s that are the
+	 *                       entrypoints of the computation
+	 *
+	 * @throws FixpointException if something goes wrong while evaluating the
+	 *                               fixpoint
+	 */
+	default void fixpoint(AnalysisState<A, H, V> entryState) throws FixpointException {
+		fixpoint(entryState, new FixpointConfiguration());
+	}
+
+	/**
+	 * Computes a fixpoint over the whole control flow graph, producing a
+	 * {@link CFGWithAnalysisResults} for each {@link CFG} contained in this
+	 * analysis. Each result is computed with
+	 * {@link CFG#fixpoint(AnalysisState, InterproceduralAnalysis, FixpointConfiguration)}
+	 * or one of its overloads, using {@code conf} to tune the computation.
+	 * Results of individual cfgs are then available through
 	 * {@link #getAnalysisResultsOf(CFG)}.
 	 * 
 	 * @param entryState the entry state for the {@link CFG}s that are the
 	 *                       entrypoints of the computation
+	 * @param conf       the {@link FixpointConfiguration} to use for the
+	 *                       fixpoints over individual cfgs
 	 *
 	 * @throws FixpointException if something goes wrong while evaluating the
 	 *                               fixpoint
 	 */
-	void fixpoint(AnalysisState<A, H, V> entryState) throws FixpointException;
+	void fixpoint(AnalysisState<A, H, V> entryState, FixpointConfiguration conf) throws FixpointException;
 
 	/**
 	 * Yields the results of the given analysis, identified by its class, on the
@@ -12,10 +12,19 @@ import it.unive.lisa.program.cfg.statement.Expression;
 import it.unive.lisa.program.cfg.statement.HybridCall;
 import it.unive.lisa.program.cfg.statement.OpenCall;
 import it.unive.lisa.program.cfg.statement.UnresolvedCall;
+import it.unive.lisa.program.cfg.statement.UnresolvedCall.ResolutionStrategy;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.util.datastructures.graph.Graph;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -34,9 +43,52 @@ public abstract class BaseCallGraph extends Graph<BaseCallGraph, CallGraphNode,
 
 	private Program program;
 
+	/**
+	 * The non-instance code members of the program, indexed by name and
+	 * number of parameters
+	 */
+	private MemberIndex staticMembers;
+
+	/**
+	 * The virtual dispatch table of each unit, containing the instance code
+	 * members that are visible from it (either defined in it or inherited
+	 * and not overridden), indexed by name and number of parameters
+	 */
+	private Map<CompilationUnit, MemberIndex> vtables;
+
+	/**
+	 * The targets of the calls resolved so far
+	 */
+	private Map<ResolutionKey, Collection<CodeMember>> resolvedTargets;
+
+	/**
+	 * {@inheritDoc}<br>
+	 * <br>
+	 * The code members of the program are indexed here, so that calls can be
+	 * resolved without scanning the whole program: if the program changes,
+	 * this call graph has to be initialized again.
+	 */
 	@Override
 	public final void init(Program program) throws CallGraphConstructionException {
 		this.program = program;
+		this.staticMembers = new MemberIndex();
+		for (CodeMember cm : program.getAllCodeMembers())
+			if (!cm.getDescriptor().isInstance())
+				staticMembers.add(cm);
+		this.vtables = new ConcurrentHashMap<>();
+		for (CompilationUnit unit : program.getUnits())
+			vtables.put(unit, vtableOf(unit));
+		this.resolvedTargets = new ConcurrentHashMap<>();
+	}
+
+	private static MemberIndex vtableOf(CompilationUnit unit) {
+		MemberIndex vtable = new MemberIndex();
+		// members hidden by an override are not returned when traversing
+		// the hierarchy
+		for (CodeMember cm : unit.getInstanceCodeMembers(true))
+			if (cm.getDescriptor().isInstance())
+				vtable.add(cm);
+		return vtable;
 	}
 
 	@Override
@@ -44,34 +96,11 @@ public abstract class BaseCallGraph extends Graph<BaseCallGraph, CallGraphNode,
 		Collection<CFG> targets = new ArrayList<>();
 		Collection<NativeCFG> nativeTargets = new ArrayList<>();
 
-		if (call.isInstanceCall()) {
-			if (call.getParameters().length == 0)
-				throw new CallResolutionException(
-						"An instance call should have at least one parameter to be used as the receiver of the call");
-			Expression receiver = call.getParameters()[0];
-			for (Type recType : getPossibleTypesOfReceiver(receiver)) {
-				if (!recType.isUnitType())
-					continue;
-
-				CompilationUnit unit = recType.asUnitType().getUnit();
-				Collection<CodeMember> candidates = unit.getInstanceCodeMembersByName(call.getTargetName(), true);
-				for (CodeMember cm : candidates)
-					if (cm.getDescriptor().isInstance()
-							&& call.getStrategy().matches(cm.getDescriptor().getArgs(), call.getParameters()))
-						if (cm instanceof CFG)
-							targets.add((CFG) cm);
-						else
-							nativeTargets.add((NativeCFG) cm);
-			}
-		} else {
-			for (CodeMember cm : program.getAllCodeMembers())
-				if (!cm.getDescriptor().isInstance() && cm.getDescriptor().getName().equals(call.getTargetName())
-						&& call.getStrategy().matches(cm.getDescriptor().getArgs(), call.getParameters()))
-					if (cm instanceof CFG)
-						targets.add((CFG) cm);
-					else
-						nativeTargets.add((NativeCFG) cm);
-		}
+		for (CodeMember cm : targetsOf(call))
+			if (cm instanceof CFG)
+				targets.add((CFG) cm);
+			else
+				nativeTargets.add((NativeCFG) cm);
 
 		Call resolved;
 		if (targets.isEmpty() && nativeTargets.isEmpty())
@@ -107,6 +136,46 @@ public abstract class BaseCallGraph extends Graph<BaseCallGraph, CallGraphNode,
 		return resolved;
 	}
 
+	private Collection<CodeMember> targetsOf(UnresolvedCall call) throws CallResolutionException {
+		Expression[] params = call.getParameters();
+		if (!call.isInstanceCall()) {
+			ResolutionKey key = new ResolutionKey(call, Collections.emptySet());
+			Collection<CodeMember> targets = resolvedTargets.get(key);
+			if (targets == null) {
+				targets = new ArrayList<>();
+				for (CodeMember cm : staticMembers.get(call.getTargetName(), params.length))
+					if (call.getStrategy().matches(cm.getDescriptor().getArgs(), params))
+						targets.add(cm);
+				resolvedTargets.put(key, targets);
+			}
+			return targets;
+		}
+
+		if (params.length == 0)
+			throw new CallResolutionException(
+					"An instance call should have at least one parameter to be used as the receiver of the call");
+
+		Collection<Type> receiverTypes = getPossibleTypesOfReceiver(params[0]);
+		ResolutionKey key = new ResolutionKey(call, new HashSet<>(receiverTypes));
+		Collection<CodeMember> targets = resolvedTargets.get(key);
+		if (targets != null)
+			return targets;
+
+		targets = new ArrayList<>();
+		for (Type recType : receiverTypes) {
+			if (!recType.isUnitType())
+				continue;
+
+			CompilationUnit unit = recType.asUnitType().getUnit();
+			MemberIndex vtable = vtables.computeIfAbsent(unit, BaseCallGraph::vtableOf);
+			for (CodeMember cm : vtable.get(call.getTargetName(), params.length))
+				if (call.getStrategy().matches(cm.getDescriptor().getArgs(), params))
+					targets.add(cm);
+		}
+		resolvedTargets.put(key, targets);
+		return targets;
+	}
+
 	/**
 	 * Returns all the possible types of the given expression, that is a
 	 * receiver of a method call. How we choose this set varies from the call
@@ -120,14 +189,20 @@ public abstract class BaseCallGraph extends Graph<BaseCallGraph, CallGraphNode,
 
 	@Override
 	public Collection<CodeMember> getCallees(CodeMember cm) {
-		return followersOf(new CallGraphNode(this, cm)).stream().map(CallGraphNode::getCodeMember)
-				.collect(Collectors.toList());
+		Collection<CallGraphNode> callees = followersOf(new CallGraphNode(this, cm));
+		if (callees == null)
+			// no call involving cm has been resolved yet
+			return Collections.emptyList();
+		return callees.stream().map(CallGraphNode::getCodeMember).collect(Collectors.toList());
 	}
 
 	@Override
 	public Collection<CodeMember> getCallers(CodeMember cm) {
-		return predecessorsOf(new CallGraphNode(this, cm)).stream().map(CallGraphNode::getCodeMember)
-				.collect(Collectors.toList());
+		Collection<CallGraphNode> callers = predecessorsOf(new CallGraphNode(this, cm));
+		if (callers == null)
+			// no call involving cm has been resolved yet
+			return Collections.emptyList();
+		return callers.stream().map(CallGraphNode::getCodeMember).collect(Collectors.toList());
 	}
 
 	@Override
@@ -135,4 +210,77 @@ public abstract class BaseCallGraph extends Graph<BaseCallGraph, CallGraphNode,
 			Function<CallGraphNode, String> labelGenerator) {
 		throw new UnsupportedOperationException();
 	}
+
+	/**
+	 * An index of code members by name and number of parameters.
+	 */
+	private static final class MemberIndex {
+
+		private final Map<String, Map<Integer, Collection<CodeMember>>> members = new HashMap<>();
+
+		private void add(CodeMember cm) {
+			members.computeIfAbsent(cm.getDescriptor().getName(), name -> new HashMap<>())
+					.computeIfAbsent(cm.getDescriptor().getArgs().length, arity -> new ArrayList<>())
+					.add(cm);
+		}
+
+		private Collection<CodeMember> get(String name, int arity) {
+			Map<Integer, Collection<CodeMember>> byArity = members.get(name);
+			if (byArity == null)
+				return Collections.emptyList();
+			return byArity.getOrDefault(arity, Collections.emptyList());
+		}
+	}
+
+	/**
+	 * The information that determines the targets of a call: the possible
+	 * types of its receiver, the name of its target, and the signature
+	 * provided by its parameters, that is, their static and runtime types
+	 * together with the strategy used for matching them.
+	 */
+	private static final class ResolutionKey {
+
+		private final Set<Type> receiverTypes;
+
+		private final String name;
+
+		private final boolean instance;
+
+		private final ResolutionStrategy strategy;
+
+		private final List<Object> signature;
+
+		private final int hash;
+
+		private ResolutionKey(UnresolvedCall call, Set<Type> receiverTypes) {
+			this.receiverTypes = receiverTypes;
+			this.name = call.getTargetName();
+			this.instance = call.isInstanceCall();
+			this.strategy = call.getStrategy();
+			this.signature = new ArrayList<>(call.getParameters().length * 2);
+			for (Expression param : call.getParameters()) {
+				signature.add(param.getStaticType());
+				// the runtime types of an expression can be modified in place
+				signature.add(param.getRuntimeTypes().immutable());
+			}
+			this.hash = Objects.hash(receiverTypes, name, instance, strategy, signature);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			ResolutionKey other = (ResolutionKey) obj;
+			return hash == other.hash && instance == other.instance && strategy == other.strategy
+					&& name.equals(other.name) && receiverTypes.equals(other.receiverTypes)
+					&& signature.equals(other.signature);
+		}
+	}
 }
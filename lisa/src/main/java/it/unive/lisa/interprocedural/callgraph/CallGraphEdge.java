@@ -39,6 +39,11 @@ public class CallGraphEdge implements Edge<CallGraphNode, CallGraphEdge, BaseCal
 		return equals(other);
 	}
 
+	@Override
+	public int fingerprint() {
+		return hashCode();
+	}
+
 	@Override
 	public boolean canBeSimplified() {
 		return false;
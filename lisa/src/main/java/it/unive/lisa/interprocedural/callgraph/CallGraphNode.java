@@ -53,6 +53,11 @@ public class CallGraphNode implements Node<CallGraphNode, CallGraphEdge, BaseCal
 		return equals(other);
 	}
 
+	@Override
+	public int fingerprint() {
+		return hashCode();
+	}
+
 	@Override
 	public <V> boolean accept(GraphVisitor<BaseCallGraph, CallGraphNode, CallGraphEdge, V> visitor, V tool) {
 		return visitor.visit(tool, graph, this);
@@ -7,6 +7,7 @@ import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.lattices.FunctionalLattice;
 import it.unive.lisa.analysis.value.ValueDomain;
 import java.util.Collection;
+import java.util.Map;
 import org.apache.commons.lang3.tuple.Pair;
 
 /**
@@ -38,6 +39,23 @@ public class CFGResults<A extends AbstractState<A, H, V>,
 		super(lattice);
 	}
 
+	private CFGResults(CFGWithAnalysisResults<A, H, V> lattice,
+			Map<ContextSensitivityToken, CFGWithAnalysisResults<A, H, V>> function) {
+		super(lattice, function);
+	}
+
+	/**
+	 * Yields a copy of this object, mapping each token to the same
+	 * {@link CFGWithAnalysisResults} of this one. Results stored in the copy
+	 * through {@link #putResult(ContextSensitivityToken, CFGWithAnalysisResults)}
+	 * do not affect this object, and vice versa.
+	 * 
+	 * @return the copy
+	 */
+	public CFGResults<A, H, V> copy() {
+		return new CFGResults<>(lattice, mkNewFunction(function));
+	}
+
 	/**
 	 * Stores the result of a fixpoint computation on a cfg, if needed. This
 	 * method returns a pair of a boolean and a {@link CFGWithAnalysisResults},
@@ -94,6 +112,25 @@ public class CFGResults<A extends AbstractState<A, H, V>,
 		}
 	}
 
+	/**
+	 * Stores the result of a fixpoint computation on a cfg, discarding the one
+	 * previously stored for the given {@code token}, if any. Differently from
+	 * {@link #putResult(ContextSensitivityToken, CFGWithAnalysisResults)}, the
+	 * two results are not joined: this is meant to be used when the previous
+	 * result is no longer valid, and {@code result} has been computed starting
+	 * from an entry state that covers the one of the previous result.
+	 * 
+	 * @param token  the {@link ContextSensitivityToken} that identifying the
+	 *                   result
+	 * @param result the {@link CFGWithAnalysisResults} to store
+	 * 
+	 * @return the previous result, or {@code null} if there was none
+	 */
+	public CFGWithAnalysisResults<A, H, V> replaceResult(ContextSensitivityToken token,
+			CFGWithAnalysisResults<A, H, V> result) {
+		return function.put(token, result);
+	}
+
 	/**
 	 * Yields {@code true} if a result exists for the given {@code token}.
 	 * 
@@ -50,7 +50,11 @@ public abstract class CallGraphBasedAnalysis<A extends AbstractState<A, H, V>,
 
 	@Override
 	public final Call resolve(UnresolvedCall unresolvedCall) throws CallResolutionException {
-		return callgraph.resolve(unresolvedCall);
+		// call graphs are built while resolving calls, and they are not
+		// thread-safe: this enables analyses to process cfgs in parallel
+		synchronized (callgraph) {
+			return callgraph.resolve(unresolvedCall);
+		}
 	}
 
 	/**
@@ -70,7 +74,7 @@ public abstract class CallGraphBasedAnalysis<A extends AbstractState<A, H, V>,
 
 		for (Parameter arg : cfg.getDescriptor().getArgs()) {
 			ExternalSet<Type> all = Caches.types().mkSet(arg.getStaticType().allInstances());
-			Variable id = new Variable(all, arg.getName(), arg.getAnnotations());
+			Variable id = Caches.identifiers().intern(new Variable(all, arg.getName(), arg.getAnnotations()));
 			prepared = prepared.assign(id, new PushAny(all), cfg.getGenericProgramPoint());
 		}
 
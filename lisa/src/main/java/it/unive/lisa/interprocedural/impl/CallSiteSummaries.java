@@ -0,0 +1,217 @@
+package it.unive.lisa.interprocedural.impl;
+
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.program.cfg.CFG;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A bounded table of call site summaries, mapping a callee, the
+ * {@link ContextSensitivityToken} it is analyzed with and the entry state
+ * prepared for the call to the exit state that the call yields. Each summary
+ * remembers the {@link CFGWithAnalysisResults} it has been read from, and it
+ * is considered valid only as long as that is still the result stored for the
+ * same callee and token: whenever the results of the callee are updated or
+ * discarded, the summaries computed from them are ignored. When the table is
+ * full, the least recently used summary is evicted.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <A> the type of {@link AbstractState} contained into the analysis
+ *                state
+ * @param <H> the type of {@link HeapDomain} contained into the computed
+ *                abstract state
+ * @param <V> the type of {@link ValueDomain} contained into the computed
+ *                abstract state
+ */
+public class CallSiteSummaries<A extends AbstractState<A, H, V>,
+		H extends HeapDomain<H>,
+		V extends ValueDomain<V>> {
+
+	private final int capacity;
+
+	private final Map<Key, Summary<A, H, V>> table;
+
+	private long hits;
+
+	private long misses;
+
+	/**
+	 * Builds the table.
+	 *
+	 * @param capacity the maximum number of summaries to keep, where {@code 0}
+	 *                     disables the table
+	 *
+	 * @throws IllegalArgumentException if {@code capacity} is negative
+	 */
+	public CallSiteSummaries(int capacity) {
+		if (capacity < 0)
+			throw new IllegalArgumentException("The capacity of the table cannot be negative, got " + capacity);
+		this.capacity = capacity;
+		// access order makes iteration go from the least recently used entry
+		this.table = new LinkedHashMap<>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Summary<A, H, V>> eldest) {
+				return size() > CallSiteSummaries.this.capacity;
+			}
+		};
+	}
+
+	/**
+	 * Yields the maximum number of summaries kept by this table.
+	 *
+	 * @return the capacity
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Yields the exit state of the summary for the given call, if it was
+	 * computed from {@code current}.
+	 *
+	 * @param callee   the target of the call
+	 * @param token    the token used for analyzing {@code callee}
+	 * @param prepared the entry state prepared for the call
+	 * @param current  the results currently stored for {@code callee} and
+	 *                     {@code token}, or {@code null} if no results are
+	 *                     available
+	 *
+	 * @return the exit state, or {@code null} if no valid summary is available
+	 */
+	public AnalysisState<A, H, V> get(CFG callee, ContextSensitivityToken token, AnalysisState<A, H, V> prepared,
+			CFGWithAnalysisResults<A, H, V> current) {
+		if (capacity == 0 || current == null) {
+			misses++;
+			return null;
+		}
+
+		Key key = new Key(callee, token, prepared);
+		Summary<A, H, V> summary = table.get(key);
+		if (summary == null) {
+			misses++;
+			return null;
+		}
+
+		if (summary.origin != current) {
+			// the results of the callee changed
+			table.remove(key);
+			misses++;
+			return null;
+		}
+
+		hits++;
+		return summary.exitState;
+	}
+
+	/**
+	 * Stores the summary for the given call.
+	 *
+	 * @param callee    the target of the call
+	 * @param token     the token used for analyzing {@code callee}
+	 * @param prepared  the entry state prepared for the call
+	 * @param origin    the results stored for {@code callee} and
+	 *                      {@code token} that {@code exitState} comes from
+	 * @param exitState the exit state of the call
+	 */
+	public void put(CFG callee, ContextSensitivityToken token, AnalysisState<A, H, V> prepared,
+			CFGWithAnalysisResults<A, H, V> origin, AnalysisState<A, H, V> exitState) {
+		if (capacity > 0)
+			table.put(new Key(callee, token, prepared), new Summary<>(origin, exitState));
+	}
+
+	/**
+	 * Removes all summaries from this table, and resets its counters.
+	 */
+	public void clear() {
+		table.clear();
+		hits = 0;
+		misses = 0;
+	}
+
+	/**
+	 * Yields the number of summaries currently stored in this table.
+	 *
+	 * @return the number of summaries
+	 */
+	public int size() {
+		return table.size();
+	}
+
+	/**
+	 * Yields the number of lookups that found a valid summary in this table.
+	 *
+	 * @return the number of hits
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Yields the number of lookups that did not find a valid summary in this
+	 * table.
+	 *
+	 * @return the number of misses
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	private static final class Key {
+
+		private final CFG callee;
+
+		private final ContextSensitivityToken token;
+
+		private final AnalysisState<?, ?, ?> prepared;
+
+		private final int hash;
+
+		private Key(CFG callee, ContextSensitivityToken token, AnalysisState<?, ?, ?> prepared) {
+			this.callee = callee;
+			this.token = token;
+			this.prepared = prepared;
+			// cfgs are compared by identity, since their hash code depends
+			// on their structure and is expensive to compute
+			this.hash = Objects.hash(System.identityHashCode(callee), token, prepared);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			Key other = (Key) obj;
+			return callee == other.callee && hash == other.hash && Objects.equals(token, other.token)
+					&& Objects.equals(prepared, other.prepared);
+		}
+	}
+
+	private static final class Summary<A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> {
+
+		private final CFGWithAnalysisResults<A, H, V> origin;
+
+		private final AnalysisState<A, H, V> exitState;
+
+		private Summary(CFGWithAnalysisResults<A, H, V> origin, AnalysisState<A, H, V> exitState) {
+			this.origin = origin;
+			this.exitState = exitState;
+		}
+	}
+}
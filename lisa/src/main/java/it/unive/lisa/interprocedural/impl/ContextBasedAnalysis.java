@@ -11,29 +11,46 @@ import it.unive.lisa.analysis.lattices.ExpressionSet;
 import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.caches.Caches;
 import it.unive.lisa.interprocedural.InterproceduralAnalysisException;
+import it.unive.lisa.interprocedural.callgraph.CallResolutionException;
 import it.unive.lisa.logging.IterationLogger;
 import it.unive.lisa.logging.TimerLogger;
 import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.Parameter;
+import it.unive.lisa.program.cfg.edge.Edge;
 import it.unive.lisa.program.cfg.statement.CFGCall;
+import it.unive.lisa.program.cfg.statement.Call;
+import it.unive.lisa.program.cfg.statement.HybridCall;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.program.cfg.statement.UnresolvedCall;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
 import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.util.datastructures.graph.FixpointConfiguration;
 import it.unive.lisa.util.datastructures.graph.FixpointException;
+import it.unive.lisa.util.datastructures.graph.FixpointListener;
+import it.unive.lisa.util.datastructures.graph.GraphVisitor;
 import it.unive.lisa.util.workset.FIFOWorkingSet;
-import it.unive.lisa.util.workset.VisitOnceWorkingSet;
+import it.unive.lisa.util.workset.WorkingSet;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
  * A context sensitive interprocedural analysis. The context sensitivity is
- * tuned by the kind of {@link ContextSensitivityToken} used.
+ * tuned by the kind of {@link ContextSensitivityToken} used. The exit states
+ * of evaluated calls are kept in a bounded {@link CallSiteSummaries} table, so
+ * that calls reaching the same callee with the same token and entry state do
+ * not need to re-derive their result.
  * 
  * @param <A> the abstract state of the analysis
  * @param <H> the heap domain
@@ -45,6 +62,11 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V>,
 
 	private static final Logger log = LogManager.getLogger(ContextBasedAnalysis.class);
 
+	/**
+	 * The default number of call site summaries kept by the analysis.
+	 */
+	public static final int DEFAULT_SUMMARIES = 1024;
+
 	/**
 	 * The cache of the fixpoints' results. {@link Map#keySet()} will contain
 	 * all the cfgs that have been added. If a key's values's
@@ -55,7 +77,53 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V>,
 
 	private ContextSensitivityToken token;
 
-	private final Collection<CFG> fixpointTriggers;
+	/**
+	 * For each result, identified by its cfg and token, the results whose
+	 * computation consumed it while evaluating a call
+	 */
+	private final Map<ResultKey, Set<ResultKey>> dependents;
+
+	/**
+	 * The results that need to be computed again since one of the results
+	 * they consumed changed
+	 */
+	private WorkingSet<ResultKey> dirty;
+
+	/**
+	 * The results copied from a previous analysis that have not been computed
+	 * again: since their calls have not been evaluated by this analysis, they
+	 * do not appear in {@link #dependents}
+	 */
+	private final Set<ResultKey> stale;
+
+	/**
+	 * For each cfg, the ones with {@link #stale} results containing calls that
+	 * can reach it, lazily computed the first time they are needed
+	 */
+	private Map<CFG, Set<CFG>> staleCallers;
+
+	/**
+	 * The contents of {@link #dirty}, used for avoiding duplicates
+	 */
+	private final Set<ResultKey> pending;
+
+	/**
+	 * The result that is currently being computed
+	 */
+	private ResultKey current;
+
+	/**
+	 * The exit states of the calls that have already been evaluated, reused
+	 * when the same callee is reached with the same token and entry state
+	 */
+	private final CallSiteSummaries<A, H, V> summaries;
+
+	/**
+	 * The configuration of the fixpoints over individual cfgs, set at the
+	 * beginning of each call to
+	 * {@link #fixpoint(AnalysisState, FixpointConfiguration)}
+	 */
+	private FixpointConfiguration conf;
 
 	/**
 	 * Builds the analysis, using {@link SingleScopeToken}s.
@@ -65,73 +133,315 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V>,
 	}
 
 	/**
-	 * Builds the analysis.
+	 * Builds the analysis, keeping at most {@link #DEFAULT_SUMMARIES} call
+	 * site summaries.
 	 *
 	 * @param token an instance of the tokens to be used to partition w.r.t.
 	 *                  context sensitivity
 	 */
 	public ContextBasedAnalysis(ContextSensitivityToken token) {
+		this(token, DEFAULT_SUMMARIES);
+	}
+
+	/**
+	 * Builds the analysis.
+	 *
+	 * @param token     an instance of the tokens to be used to partition
+	 *                      w.r.t. context sensitivity
+	 * @param summaries the maximum number of call site summaries to keep,
+	 *                      where {@code 0} disables them
+	 *
+	 * @throws IllegalArgumentException if {@code summaries} is negative
+	 */
+	public ContextBasedAnalysis(ContextSensitivityToken token, int summaries) {
 		this.token = token.empty();
-		fixpointTriggers = new HashSet<>();
+		dependents = new HashMap<>();
+		pending = new HashSet<>();
+		stale = new HashSet<>();
+		this.summaries = new CallSiteSummaries<>(summaries);
+	}
+
+	/**
+	 * Yields the call site summaries used by this analysis, that can be
+	 * inspected to know how many calls have been evaluated without
+	 * re-deriving their result.
+	 *
+	 * @return the summaries
+	 */
+	public CallSiteSummaries<A, H, V> getCallSiteSummaries() {
+		return summaries;
+	}
+
+	private void logSummaries() {
+		log.info("Call site summaries: " + summaries.getHits() + " hits, " + summaries.getMisses() + " misses");
 	}
 
 	@Override
-	public final void fixpoint(
-			AnalysisState<A, H, V> entryState)
+	public final void fixpoint(AnalysisState<A, H, V> entryState, FixpointConfiguration conf)
 			throws FixpointException {
 		if (program.getEntryPoints().isEmpty())
 			throw new FixpointException("The program contains no entrypoints");
 
-		TimerLogger.execAction(log, "Computing fixpoint over the whole program", () -> this.fixpointAux(entryState));
+		this.conf = conf;
+		summaries.clear();
+
+		TimerLogger.execAction(log, "Computing fixpoint over the whole program",
+				() -> this.fixpointAux(entryState, null, Collections.emptySet()));
+		logSummaries();
 	}
 
-	private static String ordinal(int i) {
-		int n = i % 100;
-		if (n == 11 || n == 12 || n == 13 || n % 10 == 0 || n % 10 > 3)
-			return i + "th";
+	/**
+	 * Incrementally computes a fixpoint over the whole program, reusing the
+	 * results of a previous analysis of the same program. Results of the
+	 * {@code changed} cfgs are computed again first, starting from the entry
+	 * states they have been stored with, and replace the previous ones. Only
+	 * if the exit state of one of them changes, the results that consumed it
+	 * are computed again, and so on: all other results are copied from
+	 * {@code previous}. Cfgs are matched with the ones of {@code previous}
+	 * through their signature: if the program now contains a different
+	 * instance of a cfg, the latter is considered as changed, while results of
+	 * cfgs that are no longer part of the program are discarded. Since callee
+	 * results are only recomputed if they are reached with entry states that
+	 * are not covered by the previous ones, the results of this analysis
+	 * might be less precise (but never unsound) w.r.t. the ones of a full
+	 * re-analysis. For the same reason, {@code entryState} and {@code conf}
+	 * should be the same ones used for producing {@code previous}. Cfgs whose
+	 * calls reached cfgs that have been removed from the program should be
+	 * part of {@code changed}.
+	 * 
+	 * @param entryState the entry state for the {@link CFG}s that are the
+	 *                       entrypoints of the computation
+	 * @param conf       the {@link FixpointConfiguration} to use for the
+	 *                       fixpoints over individual cfgs
+	 * @param previous   the results of the previous analysis of the program,
+	 *                       as returned by {@link #getFixpointResults()}
+	 * @param changed    the cfgs that have been modified or added since
+	 *                       {@code previous} has been computed
+	 * 
+	 * @throws FixpointException        if something goes wrong while
+	 *                                      evaluating the fixpoint
+	 * @throws IllegalArgumentException if {@code previous} or {@code changed}
+	 *                                      are {@code null}, or if one of the
+	 *                                      {@code changed} cfgs is not part
+	 *                                      of the analyzed program
+	 */
+	public final void fixpoint(AnalysisState<A, H, V> entryState, FixpointConfiguration conf,
+			FixpointResults<A, H, V> previous, Collection<CFG> changed) throws FixpointException {
+		if (previous == null)
+			throw new IllegalArgumentException("No previous results to start the incremental analysis from");
+		if (changed == null)
+			throw new IllegalArgumentException("The changed cfgs are required for an incremental analysis");
+		if (program.getEntryPoints().isEmpty())
+			throw new FixpointException("The program contains no entrypoints");
+
+		Map<String, CFG> current = new HashMap<>();
+		for (CFG cfg : program.getAllCFGs())
+			current.put(cfg.getDescriptor().getFullSignature(), cfg);
+
+		// cfgs are compared by identity since changed ones might have a
+		// different hash code w.r.t. the one they had when they were stored
+		Set<CFG> modified = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (CFG cfg : changed)
+			if (cfg == null || current.get(cfg.getDescriptor().getFullSignature()) != cfg)
+				throw new IllegalArgumentException(cfg + " is not part of the analyzed program");
+			else
+				modified.add(cfg);
+		for (CFG cfg : previous.getKeys()) {
+			CFG replacement = current.get(cfg.getDescriptor().getFullSignature());
+			if (replacement != null && replacement != cfg)
+				// previous results refer to the statements of another instance
+				modified.add(replacement);
+		}
+
+		FixpointResults<A, H, V> reused = previous
+				.retain(cfg -> current.get(cfg.getDescriptor().getFullSignature()) == cfg);
+		log.info("Reusing the results of " + reused.getKeys().size() + " cfgs out of " + current.size()
+				+ ", " + modified.size() + " cfgs have been modified");
 
-		if (n % 10 == 1)
-			return i + "st";
+		this.conf = conf;
+		summaries.clear();
 
-		if (n % 10 == 2)
-			return i + "nd";
+		TimerLogger.execAction(log, "Incrementally computing fixpoint over the whole program",
+				() -> this.fixpointAux(entryState, reused, modified));
+		logSummaries();
+	}
 
-		return i + "rd";
+	/**
+	 * Yields the results computed by the last invocation of
+	 * {@link #fixpoint(AnalysisState, FixpointConfiguration)} (or of one of its
+	 * overloads), that can be used as a starting point for an incremental
+	 * analysis through
+	 * {@link #fixpoint(AnalysisState, FixpointConfiguration, FixpointResults, Collection)}.
+	 * 
+	 * @return the results, or {@code null} if no fixpoint has been computed
+	 */
+	public FixpointResults<A, H, V> getFixpointResults() {
+		return results;
 	}
 
-	private void fixpointAux(AnalysisState<A, H, V> entryState) throws AnalysisExecutionException {
-		this.results = null;
-		int iter = 0;
-		do {
-			log.info("Performing " + ordinal(iter + 1) + " fixpoint iteration");
-			fixpointTriggers.clear();
-			for (CFG cfg : IterationLogger.iterate(log, program.getEntryPoints(), "Processing entrypoints", "entries"))
-				try {
-					CFGResults<A, H, V> value = new CFGResults<>(new CFGWithAnalysisResults<>(cfg, entryState));
-					AnalysisState<A, H, V> entryStateCFG = prepareEntryStateOfEntryPoint(entryState, cfg);
-					if (results == null)
-						this.results = new FixpointResults<>(value.top());
-					results.putResult(cfg, token.empty(), cfg.fixpoint(entryStateCFG, this));
-				} catch (SemanticException e) {
-					throw new AnalysisExecutionException("Error while creating the entrystate for " + cfg, e);
-				} catch (FixpointException e) {
-					throw new AnalysisExecutionException("Error while computing fixpoint for entrypoint " + cfg, e);
-				}
+	private void fixpointAux(AnalysisState<A, H, V> entryState, FixpointResults<A, H, V> initial,
+			Collection<CFG> modified) throws AnalysisExecutionException {
+		this.results = initial;
+		dependents.clear();
+		dirty = FIFOWorkingSet.mk();
+		pending.clear();
+		stale.clear();
+		staleCallers = null;
+		ContextSensitivityToken empty = token.empty();
 
-			// starting from the callers of the cfgs that needed a lub,
-			// find out the complete set of cfgs that might need to be
-			// processed again
-			VisitOnceWorkingSet<CFG> ws = VisitOnceWorkingSet.mk(FIFOWorkingSet.mk());
-			fixpointTriggers.forEach(cfg -> callgraph.getCallers(cfg).stream().filter(CFG.class::isInstance)
-					.map(CFG.class::cast).forEach(ws::push));
-			while (!ws.isEmpty())
-				callgraph.getCallers(ws.pop()).stream().filter(CFG.class::isInstance).map(CFG.class::cast)
-						.forEach(ws::push);
+		if (initial != null) {
+			for (CFG cfg : initial.getKeys())
+				for (ContextSensitivityToken t : initial.getState(cfg).getKeys())
+					stale.add(new ResultKey(cfg, t));
 
-			ws.getSeen().forEach(results::forget);
+			// the results of modified cfgs are the first ones to be computed
+			// again, while the ones of their callers only if they change
+			for (CFG cfg : modified)
+				if (initial.contains(cfg))
+					for (ContextSensitivityToken t : initial.getState(cfg).getKeys())
+						markDirty(new ResultKey(cfg, t));
+				else
+					// added cfgs might be reached by existing calls
+					try {
+						staleCallersOf(cfg).forEach(this::markStaleResultsDirty);
+					} catch (SemanticException e) {
+						throw new AnalysisExecutionException("Error while looking for the callers of " + cfg, e);
+					}
+		}
+
+		for (CFG cfg : IterationLogger.iterate(log, program.getEntryPoints(), "Processing entrypoints", "entries"))
+			try {
+				if (stale.contains(new ResultKey(cfg, empty)))
+					// reused from a previous analysis
+					continue;
+
+				CFGResults<A, H, V> value = new CFGResults<>(new CFGWithAnalysisResults<>(cfg, entryState));
+				AnalysisState<A, H, V> entryStateCFG = prepareEntryStateOfEntryPoint(entryState, cfg);
+				if (results == null)
+					this.results = new FixpointResults<>(value.top());
+				current = new ResultKey(cfg, empty);
+				store(cfg, empty, fixpoint(cfg, empty, entryStateCFG), null);
+			} catch (SemanticException e) {
+				throw new AnalysisExecutionException("Error while creating the entrystate for " + cfg, e);
+			} catch (FixpointException e) {
+				throw new AnalysisExecutionException("Error while computing fixpoint for entrypoint " + cfg, e);
+			}
+
+		// only the results that consumed the result of a cfg that later
+		// needed a lub have to be computed again, starting from the entry
+		// state they have been stored with
+		int reanalyzed = 0;
+		while (!dirty.isEmpty()) {
+			ResultKey key = dirty.pop();
+			pending.remove(key);
+			CFGWithAnalysisResults<A, H, V> stored = getStoredResult(key.cfg, key.token);
+			if (stored == null)
+				continue;
+
+			token = key.token;
+			current = key;
+			try {
+				if (stale.contains(key))
+					refresh(key, stored, stored.getEntryState());
+				else
+					store(key.cfg, key.token, fixpoint(key.cfg, key.token, stored.getEntryState()), stored.getId());
+			} catch (SemanticException | FixpointException e) {
+				throw new AnalysisExecutionException("Error while computing fixpoint for " + key.cfg, e);
+			} finally {
+				token = empty;
+			}
+			reanalyzed++;
+		}
+		current = null;
 
-			iter++;
-		} while (!fixpointTriggers.isEmpty());
+		log.info(reanalyzed + " cfgs have been analyzed again since the results of their callees changed");
+	}
+
+	private CFGWithAnalysisResults<A, H, V> store(CFG cfg, ContextSensitivityToken localToken,
+			CFGWithAnalysisResults<A, H, V> result, String id) throws SemanticException {
+		result.setId(id);
+		Pair<Boolean, CFGWithAnalysisResults<A, H, V>> res = results.putResult(cfg, localToken, result);
+		if (res.getLeft())
+			changed(new ResultKey(cfg, localToken));
+		return res.getRight();
+	}
+
+	private CFGWithAnalysisResults<A, H, V> refresh(ResultKey key, CFGWithAnalysisResults<A, H, V> previous,
+			AnalysisState<A, H, V> entryState) throws FixpointException, SemanticException {
+		// a result copied from a previous analysis might refer to a different
+		// version of its cfg: it is replaced instead of being joined
+		stale.remove(key);
+		CFGWithAnalysisResults<A, H, V> result = fixpoint(key.cfg, key.token, entryState);
+		result.setId(previous.getId());
+		results.replaceResult(key.cfg, key.token, result);
+
+		// callers only consume the exit state
+		AnalysisState<A, H, V> before = previous.getExitState(), after = result.getExitState();
+		if (!before.lessOrEqual(after) || !after.lessOrEqual(before))
+			changed(key);
+		return result;
+	}
+
+	private void changed(ResultKey key) throws SemanticException {
+		Set<ResultKey> consumers = dependents.get(key);
+		if (consumers != null)
+			consumers.forEach(this::markDirty);
+
+		// results copied from a previous analysis consumed this one without
+		// being recorded as its dependents
+		if (!stale.isEmpty())
+			staleCallersOf(key.cfg).forEach(this::markStaleResultsDirty);
+	}
+
+	private void markDirty(ResultKey key) {
+		if (pending.add(key))
+			dirty.push(key);
+	}
+
+	private void markStaleResultsDirty(CFG cfg) {
+		for (ContextSensitivityToken t : results.getState(cfg).getKeys()) {
+			ResultKey key = new ResultKey(cfg, t);
+			if (stale.contains(key))
+				markDirty(key);
+		}
+	}
+
+	private Set<CFG> staleCallersOf(CFG cfg) throws SemanticException {
+		if (staleCallers == null) {
+			// the calls are resolved against the current program, since
+			// they might reach cfgs that were not called before
+			staleCallers = new IdentityHashMap<>();
+			Set<CFG> callers = Collections.newSetFromMap(new IdentityHashMap<>());
+			for (ResultKey key : stale)
+				callers.add(key.cfg);
+
+			for (CFG caller : callers) {
+				Collection<UnresolvedCall> calls = new ArrayList<>();
+				caller.accept(new CallsCollector(), calls);
+				for (UnresolvedCall call : calls)
+					for (CFG target : targetsOf(call))
+						staleCallers.computeIfAbsent(target, t -> Collections.newSetFromMap(new IdentityHashMap<>()))
+								.add(caller);
+			}
+		}
+
+		return staleCallers.getOrDefault(cfg, Collections.emptySet());
+	}
+
+	private Collection<CFG> targetsOf(UnresolvedCall call) throws SemanticException {
+		Call resolved;
+		try {
+			resolved = resolve(call);
+		} catch (CallResolutionException e) {
+			throw new SemanticException("Unable to resolve " + call + " while looking for the callers of a cfg", e);
+		}
+
+		if (resolved instanceof CFGCall)
+			return ((CFGCall) resolved).getTargets();
+		else if (resolved instanceof HybridCall)
+			return ((HybridCall) resolved).getTargets();
+		else
+			return Collections.emptySet();
 	}
 
 	@Override
@@ -142,15 +452,13 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V>,
 			return Collections.emptySet();
 	}
 
-	private Pair<AnalysisState<A, H, V>, AnalysisState<A, H, V>> getEntryAndExit(CFG cfg)
-			throws SemanticException {
+	private CFGWithAnalysisResults<A, H, V> getStoredResult(CFG cfg, ContextSensitivityToken localToken) {
 		if (!results.contains(cfg))
 			return null;
 		CFGResults<A, H, V> cfgresult = results.getState(cfg);
-		if (!cfgresult.contains(token))
+		if (!cfgresult.contains(localToken))
 			return null;
-		CFGWithAnalysisResults<A, H, V> analysisresult = cfgresult.getState(token);
-		return Pair.of(analysisresult.getEntryState(), analysisresult.getExitState());
+		return cfgresult.getState(localToken);
 	}
 
 	@Override
@@ -162,7 +470,11 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V>,
 		AnalysisState<A, H, V> result = entryState.bottom();
 
 		for (CFG cfg : call.getTargets()) {
-			Pair<AnalysisState<A, H, V>, AnalysisState<A, H, V>> states = getEntryAndExit(cfg);
+			CFGWithAnalysisResults<A, H, V> stored = getStoredResult(cfg, token);
+			if (current != null)
+				// the result being computed will need to be updated if the
+				// one of the callee changes
+				dependents.computeIfAbsent(new ResultKey(cfg, token), k -> new HashSet<>()).add(current);
 
 			// prepare the state for the call: hide the visible variables
 			AnalysisState<A, H, V> callState = entryState.pushScope(scope);
@@ -172,29 +484,31 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V>,
 			for (int i = 0; i < parameters.length; i++) {
 				AnalysisState<A, H, V> temp = prepared.bottom();
 				Parameter parameter = cfg.getDescriptor().getArgs()[i];
-				Identifier parid = new Variable(
+				Identifier parid = Caches.identifiers().intern(new Variable(
 						Caches.types().mkSet(parameter.getStaticType().allInstances()),
-						parameter.getName(), parameter.getAnnotations());
+						parameter.getName(), parameter.getAnnotations()));
 				for (SymbolicExpression exp : parameters[i])
 					temp = temp.lub(prepared.assign(parid, exp.pushScope(scope), cfg.getGenericProgramPoint()));
 				prepared = temp;
 			}
 
-			AnalysisState<A, H, V> exitState;
-			if (states != null && prepared.lessOrEqual(states.getLeft()))
-				// no need to compute the fixpoint: we already have an
-				// approximation
-				exitState = states.getRight();
-			else {
-				// compute the result
-				CFGWithAnalysisResults<A, H, V> fixpointResult = null;
-				try {
-					fixpointResult = computeFixpoint(cfg, token, prepared);
-				} catch (FixpointException | InterproceduralAnalysisException e) {
-					throw new SemanticException("Exception during the interprocedural analysis", e);
-				}
-
-				exitState = fixpointResult.getExitState();
+			AnalysisState<A, H, V> exitState = summaries.get(cfg, token, prepared, stored);
+			if (exitState == null) {
+				CFGWithAnalysisResults<A, H, V> origin;
+				if (stored != null && prepared.lessOrEqual(stored.getEntryState()))
+					// no need to compute the fixpoint: we already have an
+					// approximation
+					origin = stored;
+				else
+					// compute the result
+					try {
+						origin = computeFixpoint(cfg, token, prepared);
+					} catch (FixpointException | InterproceduralAnalysisException e) {
+						throw new SemanticException("Exception during the interprocedural analysis", e);
+					}
+
+				exitState = origin.getExitState();
+				summaries.put(cfg, token, prepared, origin, exitState);
 			}
 
 			// store the return value of the call inside the meta variable
@@ -215,12 +529,89 @@ public class ContextBasedAnalysis<A extends AbstractState<A, H, V>,
 	private CFGWithAnalysisResults<A, H, V> computeFixpoint(CFG cfg, ContextSensitivityToken localToken,
 			AnalysisState<A, H, V> computedEntryState)
 			throws FixpointException, InterproceduralAnalysisException, SemanticException {
-		CFGWithAnalysisResults<A, H, V> fixpointResult = cfg.fixpoint(computedEntryState, this);
-		fixpointResult.setId(localToken.toString());
-		Pair<Boolean, CFGWithAnalysisResults<A, H, V>> res = results.putResult(cfg, localToken, fixpointResult);
-		if (res.getLeft())
-			fixpointTriggers.add(cfg);
-		return res.getRight();
+		ResultKey caller = current;
+		current = new ResultKey(cfg, localToken);
+		try {
+			if (stale.contains(current)) {
+				// the new result has to cover also the previous entry state
+				CFGWithAnalysisResults<A, H, V> previous = getStoredResult(cfg, localToken);
+				return refresh(current, previous, previous.getEntryState().lub(computedEntryState));
+			}
+			return store(cfg, localToken, fixpoint(cfg, localToken, computedEntryState), localToken.toString());
+		} finally {
+			current = caller;
+		}
+	}
+
+	private CFGWithAnalysisResults<A, H, V> fixpoint(CFG cfg, ContextSensitivityToken localToken,
+			AnalysisState<A, H, V> computedEntryState) throws FixpointException {
+		FixpointListener listener = conf.getListener();
+		if (listener == null)
+			return cfg.fixpoint(computedEntryState, this, conf);
+
+		long start = System.nanoTime();
+		CFGWithAnalysisResults<A, H, V> result = cfg.fixpoint(computedEntryState, this, conf);
+		listener.analysisCompleted(cfg, localToken, System.nanoTime() - start);
+		return result;
+	}
+
+	/**
+	 * A {@link GraphVisitor} collecting the {@link UnresolvedCall}s of a cfg,
+	 * including the ones nested in other expressions.
+	 */
+	private static final class CallsCollector
+			implements GraphVisitor<CFG, Statement, Edge, Collection<UnresolvedCall>> {
+
+		@Override
+		public boolean visit(Collection<UnresolvedCall> tool, CFG graph) {
+			return true;
+		}
+
+		@Override
+		public boolean visit(Collection<UnresolvedCall> tool, CFG graph, Statement node) {
+			if (node instanceof UnresolvedCall)
+				tool.add((UnresolvedCall) node);
+			return true;
+		}
+
+		@Override
+		public boolean visit(Collection<UnresolvedCall> tool, CFG graph, Edge edge) {
+			return true;
+		}
+	}
+
+	private static final class ResultKey {
+
+		private final CFG cfg;
+
+		private final ContextSensitivityToken token;
+
+		private ResultKey(CFG cfg, ContextSensitivityToken token) {
+			this.cfg = cfg;
+			this.token = token;
+		}
+
+		@Override
+		public int hashCode() {
+			// cfgs are compared by identity, since their hash code depends
+			// on their structure and is expensive to compute
+			return 31 * System.identityHashCode(cfg) + Objects.hashCode(token);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			ResultKey other = (ResultKey) obj;
+			return cfg == other.cfg && Objects.equals(token, other.token);
+		}
+
+		@Override
+		public String toString() {
+			return cfg + " (" + token + ")";
+		}
 	}
 
 }
@@ -7,6 +7,8 @@ import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.lattices.FunctionalLattice;
 import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.program.cfg.CFG;
+import java.util.Map.Entry;
+import java.util.function.Predicate;
 import org.apache.commons.lang3.tuple.Pair;
 
 /**
@@ -60,6 +62,27 @@ public class FixpointResults<A extends AbstractState<A, H, V>,
 		return res.putResult(token, result);
 	}
 
+	/**
+	 * Stores the result of a fixpoint computation on a cfg, replacing the one
+	 * previously stored for the given token. This method returns the result of
+	 * calling
+	 * {@link CFGResults#replaceResult(ContextSensitivityToken, CFGWithAnalysisResults)}
+	 * with the given {@code token} and {@code result} on the {@link CFGResults}
+	 * instance corresponding to {@code cfg}.
+	 * 
+	 * @param cfg    the {@link CFG} on which the result has been computed
+	 * @param token  the {@link ContextSensitivityToken} that identifying the
+	 *                   result
+	 * @param result the {@link CFGWithAnalysisResults} to store
+	 * 
+	 * @return the previous result, or {@code null} if there was none
+	 */
+	public CFGWithAnalysisResults<A, H, V> replaceResult(CFG cfg, ContextSensitivityToken token,
+			CFGWithAnalysisResults<A, H, V> result) {
+		CFGResults<A, H, V> res = function.computeIfAbsent(cfg, c -> new CFGResults<>(result.top()));
+		return res.replaceResult(token, result);
+	}
+
 	/**
 	 * Yields {@code true} if a result exists for the given {@code cfg}.
 	 * 
@@ -91,6 +114,28 @@ public class FixpointResults<A extends AbstractState<A, H, V>,
 		return lattice.isBottom() && (function == null || function.isEmpty());
 	}
 
+	/**
+	 * Yields a new instance of this class that contains only the results of
+	 * the {@link CFG}s satisfying the given {@code filter}. The
+	 * {@link CFGResults} of the retained cfgs are copied (see
+	 * {@link CFGResults#copy()}), so that storing new results in the returned
+	 * object does not modify this one. Since keys are re-inserted in the returned object,
+	 * this method can be safely used also when some of the cfgs have been
+	 * modified (thus changing their hash code) after being stored here.
+	 * 
+	 * @param filter the predicate that cfgs must satisfy to be retained
+	 * 
+	 * @return the new results
+	 */
+	public FixpointResults<A, H, V> retain(Predicate<CFG> filter) {
+		FixpointResults<A, H, V> res = new FixpointResults<>(lattice);
+		if (function != null)
+			for (Entry<CFG, CFGResults<A, H, V>> entry : function.entrySet())
+				if (filter.test(entry.getKey()))
+					res.function.put(entry.getKey(), entry.getValue().copy());
+		return res;
+	}
+
 	/**
 	 * Forgets all results about the given {@link CFG}.
 	 * 
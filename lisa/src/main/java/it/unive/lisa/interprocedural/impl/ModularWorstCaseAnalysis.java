@@ -8,10 +8,12 @@ import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
 import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.caches.Caches;
+import it.unive.lisa.caches.ResultCache;
 import it.unive.lisa.interprocedural.InterproceduralAnalysis;
 import it.unive.lisa.interprocedural.InterproceduralAnalysisException;
 import it.unive.lisa.interprocedural.callgraph.CallGraph;
 import it.unive.lisa.interprocedural.callgraph.CallResolutionException;
+import it.unive.lisa.logging.Counter;
 import it.unive.lisa.logging.IterationLogger;
 import it.unive.lisa.program.Program;
 import it.unive.lisa.program.cfg.CFG;
@@ -25,17 +27,32 @@ import it.unive.lisa.symbolic.value.PushAny;
 import it.unive.lisa.symbolic.value.Variable;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.datastructures.graph.FixpointConfiguration;
 import it.unive.lisa.util.datastructures.graph.FixpointException;
+import it.unive.lisa.util.datastructures.graph.FixpointListener;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
- * A worst case modular analysis were all method calls return top.
+ * A worst case modular analysis were all method calls return top. Since each
+ * {@link CFG} is analyzed in isolation, the fixpoints of different cfgs can be
+ * computed in parallel by building this analysis through
+ * {@link #ModularWorstCaseAnalysis(int)}. For the same reason, the results of
+ * each cfg can be stored in and retrieved from the {@link ResultCache} of the
+ * {@link FixpointConfiguration} used, if any.
  * 
  * @param <A> the abstract state of the analysis
  * @param <H> the heap domain
@@ -62,29 +79,127 @@ public class ModularWorstCaseAnalysis<A extends AbstractState<A, H, V>,
 	private final Map<CFG, Optional<CFGWithAnalysisResults<A, H, V>>> results;
 
 	/**
-	 * Builds the call graph.
+	 * The maximum number of threads used for computing fixpoints over
+	 * individual cfgs. A value of {@code 1} means that cfgs are analyzed
+	 * sequentially, in the calling thread.
+	 */
+	private final int parallelism;
+
+	/**
+	 * Builds the analysis, that will compute the fixpoints of all cfgs
+	 * sequentially.
 	 */
 	public ModularWorstCaseAnalysis() {
+		this(1);
+	}
+
+	/**
+	 * Builds the analysis, that will compute the fixpoints of all cfgs using at
+	 * most {@code parallelism} threads. Results are independent from the order
+	 * in which cfgs are processed. If the fixpoint over one or more cfgs fails,
+	 * the exception raised by the first of them (according to the order of
+	 * {@link Program#getAllCFGs()}) is propagated to the caller.
+	 * 
+	 * @param parallelism the maximum number of threads to use, where {@code 1}
+	 *                        means sequential execution
+	 * 
+	 * @throws IllegalArgumentException if {@code parallelism} is less than
+	 *                                      {@code 1}
+	 */
+	public ModularWorstCaseAnalysis(int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("The parallelism level must be at least 1, got " + parallelism);
 		this.results = new ConcurrentHashMap<>();
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Yields the maximum number of threads used for computing fixpoints over
+	 * individual cfgs.
+	 * 
+	 * @return the parallelism level of this analysis
+	 */
+	public int getParallelism() {
+		return parallelism;
 	}
 
 	@Override
-	public final void fixpoint(AnalysisState<A, H, V> entryState) throws FixpointException {
-		for (CFG cfg : IterationLogger.iterate(log, program.getAllCFGs(), "Computing fixpoint over the whole program",
-				"cfgs"))
-			try {
-				AnalysisState<A, H, V> prepared = entryState;
-
-				for (Parameter arg : cfg.getDescriptor().getArgs()) {
-					ExternalSet<Type> all = Caches.types().mkSet(arg.getStaticType().allInstances());
-					Variable id = new Variable(all, arg.getName(), arg.getAnnotations());
-					prepared = prepared.assign(id, new PushAny(all), cfg.getGenericProgramPoint());
+	public final void fixpoint(AnalysisState<A, H, V> entryState, FixpointConfiguration conf)
+			throws FixpointException {
+		Collection<CFG> all = program.getAllCFGs();
+		if (parallelism == 1 || all.size() < 2)
+			for (CFG cfg : IterationLogger.iterate(log, all, "Computing fixpoint over the whole program", "cfgs"))
+				analyze(cfg, entryState, conf);
+		else
+			parallelFixpoint(all, entryState, conf);
+	}
+
+	private void parallelFixpoint(Collection<CFG> all, AnalysisState<A, H, V> entryState,
+			FixpointConfiguration conf) throws FixpointException {
+		Counter counter = new Counter(log, Level.INFO, "Computing fixpoint over the whole program", "cfgs",
+				all.size(), 0.025);
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, all.size()));
+		List<Pair<CFG, Future<Void>>> tasks = new ArrayList<>(all.size());
+		counter.on();
+		try {
+			for (CFG cfg : all)
+				tasks.add(Pair.of(cfg, executor.submit(() -> {
+					analyze(cfg, entryState, conf);
+					counter.count();
+					return null;
+				})));
+
+			// we wait for the tasks in submission order: this ensures that, if
+			// more than one fails, the reported exception is always the same
+			for (int i = 0; i < tasks.size(); i++)
+				try {
+					tasks.get(i).getRight().get();
+				} catch (ExecutionException e) {
+					for (int j = i + 1; j < tasks.size(); j++)
+						tasks.get(j).getRight().cancel(true);
+					Throwable cause = e.getCause();
+					if (cause instanceof FixpointException)
+						throw (FixpointException) cause;
+					throw new FixpointException("Error while computing fixpoint for " + tasks.get(i).getLeft(), cause);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new FixpointException("Interrupted while waiting for the fixpoint of "
+							+ tasks.get(i).getLeft(), e);
 				}
+		} finally {
+			executor.shutdownNow();
+			counter.off();
+		}
+	}
 
-				results.put(cfg, Optional.of(cfg.fixpoint(prepared, this)));
-			} catch (SemanticException e) {
-				throw new FixpointException("Error while creating the entrystate for " + cfg, e);
+	private void analyze(CFG cfg, AnalysisState<A, H, V> entryState, FixpointConfiguration conf)
+			throws FixpointException {
+		FixpointListener listener = conf.getListener();
+		long start = listener == null ? 0 : System.nanoTime();
+		try {
+			AnalysisState<A, H, V> prepared = entryState;
+
+			for (Parameter arg : cfg.getDescriptor().getArgs()) {
+				ExternalSet<Type> all = Caches.types().mkSet(arg.getStaticType().allInstances());
+				Variable id = new Variable(all, arg.getName(), arg.getAnnotations());
+				prepared = prepared.assign(id, new PushAny(all), cfg.getGenericProgramPoint());
+			}
+
+			ResultCache cache = conf.getResultCache();
+			String key = cache == null ? null : cache.key(cfg, prepared, this, conf);
+			CFGWithAnalysisResults<A, H, V> result = key == null ? null : cache.get(key, cfg);
+			if (result == null) {
+				result = cfg.fixpoint(prepared, this, conf);
+				if (key != null)
+					cache.put(key, result);
 			}
+
+			results.put(cfg, Optional.of(result));
+			if (listener != null)
+				listener.analysisCompleted(cfg, null, System.nanoTime() - start);
+		} catch (SemanticException e) {
+			throw new FixpointException("Error while creating the entrystate for " + cfg, e);
+		}
 	}
 
 	@Override
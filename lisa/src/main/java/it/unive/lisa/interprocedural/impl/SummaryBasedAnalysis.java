@@ -0,0 +1,425 @@
+package it.unive.lisa.interprocedural.impl;
+
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.ScopeToken;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.interprocedural.callgraph.BaseCallGraph;
+import it.unive.lisa.interprocedural.callgraph.CallGraphEdge;
+import it.unive.lisa.interprocedural.callgraph.CallGraphNode;
+import it.unive.lisa.interprocedural.callgraph.CallResolutionException;
+import it.unive.lisa.logging.Counter;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CodeMember;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.CFGCall;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.program.cfg.statement.UnresolvedCall;
+import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.util.datastructures.graph.FixpointConfiguration;
+import it.unive.lisa.util.datastructures.graph.FixpointException;
+import it.unive.lisa.util.datastructures.graph.FixpointListener;
+import it.unive.lisa.util.datastructures.graph.GraphVisitor;
+import it.unive.lisa.util.datastructures.graph.algorithms.StronglyConnectedComponents;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A bottom-up, summary-based interprocedural analysis. Before computing any
+ * fixpoint, all calls of the program are resolved to populate the call graph,
+ * that is then partitioned in strongly connected components. Components are
+ * processed in reverse topological order, so that each {@link CFG} is analyzed
+ * after all of its callees (excluding the ones that are part of the same
+ * recursion). Each cfg is analyzed exactly once (or until its results
+ * stabilize, if it is recursive) starting from the same entry state used for
+ * the entrypoints of the program, producing a context-insensitive summary that
+ * is then applied at each {@link CFGCall} targeting it. Components that do not
+ * depend on each other can be processed in parallel by building this analysis
+ * through {@link #SummaryBasedAnalysis(int)}.<br>
+ * <br>
+ * This analysis requires a {@link BaseCallGraph}.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <A> the abstract state of the analysis
+ * @param <H> the heap domain
+ * @param <V> the value domain
+ */
+public class SummaryBasedAnalysis<A extends AbstractState<A, H, V>,
+		H extends HeapDomain<H>,
+		V extends ValueDomain<V>> extends CallGraphBasedAnalysis<A, H, V> {
+
+	private static final Logger log = LogManager.getLogger(SummaryBasedAnalysis.class);
+
+	/**
+	 * The summary of each cfg, that is, the results of its fixpoint
+	 */
+	private final Map<CFG, CFGWithAnalysisResults<A, H, V>> summaries;
+
+	/**
+	 * The index of the strongly connected component containing each cfg
+	 */
+	private final Map<CFG, Integer> components;
+
+	/**
+	 * The maximum number of threads used for processing strongly connected
+	 * components. A value of {@code 1} means that components are processed
+	 * sequentially, in the calling thread.
+	 */
+	private final int parallelism;
+
+	/**
+	 * The configuration of the fixpoints over individual cfgs, set at the
+	 * beginning of each call to
+	 * {@link #fixpoint(AnalysisState, FixpointConfiguration)}
+	 */
+	private FixpointConfiguration conf;
+
+	/**
+	 * Builds the analysis, that will process all strongly connected components
+	 * sequentially.
+	 */
+	public SummaryBasedAnalysis() {
+		this(1);
+	}
+
+	/**
+	 * Builds the analysis, that will process independent strongly connected
+	 * components using at most {@code parallelism} threads. Results are
+	 * independent from the order in which components are processed.
+	 *
+	 * @param parallelism the maximum number of threads to use, where {@code 1}
+	 *                        means sequential execution
+	 *
+	 * @throws IllegalArgumentException if {@code parallelism} is less than
+	 *                                      {@code 1}
+	 */
+	public SummaryBasedAnalysis(int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("The parallelism level must be at least 1, got " + parallelism);
+		this.summaries = new ConcurrentHashMap<>();
+		this.components = new IdentityHashMap<>();
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Yields the maximum number of threads used for processing strongly
+	 * connected components.
+	 *
+	 * @return the parallelism level of this analysis
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	@Override
+	public final void fixpoint(AnalysisState<A, H, V> entryState, FixpointConfiguration conf)
+			throws FixpointException {
+		if (!(callgraph instanceof BaseCallGraph))
+			throw new FixpointException(getClass().getSimpleName() + " requires a " + BaseCallGraph.class.getName());
+
+		this.conf = conf;
+		summaries.clear();
+		components.clear();
+
+		resolveCalls();
+		List<List<CFG>> sccs = computeComponents((BaseCallGraph) callgraph);
+		log.info("The call graph contains " + sccs.size() + " strongly connected components");
+
+		Counter counter = new Counter(log, Level.INFO, "Computing fixpoint over the whole program", "cfgs",
+				components.size(), 0.025);
+		counter.on();
+		try {
+			if (parallelism == 1 || sccs.size() < 2)
+				for (List<CFG> scc : sccs)
+					analyze(scc, entryState, counter);
+			else
+				parallelFixpoint(sccs, entryState, counter);
+		} finally {
+			counter.off();
+		}
+	}
+
+	private void resolveCalls() throws FixpointException {
+		Collection<UnresolvedCall> calls = new ArrayList<>();
+		for (CFG cfg : program.getAllCFGs())
+			cfg.accept(new CallCollector(), calls);
+
+		for (UnresolvedCall call : calls)
+			try {
+				resolve(call);
+			} catch (CallResolutionException e) {
+				throw new FixpointException("Unable to resolve " + call, e);
+			}
+	}
+
+	private List<List<CFG>> computeComponents(BaseCallGraph graph) {
+		List<List<CFG>> sccs = new ArrayList<>();
+
+		// cfgs that are not part of the call graph neither call nor are
+		// called by other cfgs
+		Set<CodeMember> inGraph = Collections.newSetFromMap(new IdentityHashMap<>());
+		graph.getNodes().forEach(node -> inGraph.add(node.getCodeMember()));
+		for (CFG cfg : program.getAllCFGs())
+			if (!inGraph.contains(cfg))
+				sccs.add(Collections.singletonList(cfg));
+
+		for (Collection<CallGraphNode> scc : new StronglyConnectedComponents<BaseCallGraph, CallGraphNode,
+				CallGraphEdge>().build(graph)) {
+			List<CFG> cfgs = new ArrayList<>(scc.size());
+			for (CallGraphNode node : scc)
+				if (node.getCodeMember() instanceof CFG)
+					cfgs.add((CFG) node.getCodeMember());
+			if (!cfgs.isEmpty())
+				sccs.add(cfgs);
+		}
+
+		for (int i = 0; i < sccs.size(); i++)
+			for (CFG cfg : sccs.get(i))
+				components.put(cfg, i);
+
+		return sccs;
+	}
+
+	private List<Set<Integer>> dependenciesOf(List<List<CFG>> sccs) {
+		List<Set<Integer>> dependencies = new ArrayList<>(sccs.size());
+		for (int i = 0; i < sccs.size(); i++) {
+			Set<Integer> deps = new HashSet<>();
+			for (CFG cfg : sccs.get(i))
+				for (CodeMember callee : callgraph.getCallees(cfg)) {
+					Integer c = components.get(callee);
+					if (c != null && c != i)
+						deps.add(c);
+				}
+			dependencies.add(deps);
+		}
+		return dependencies;
+	}
+
+	private void parallelFixpoint(List<List<CFG>> sccs, AnalysisState<A, H, V> entryState, Counter counter)
+			throws FixpointException {
+		List<Set<Integer>> dependencies = dependenciesOf(sccs);
+		int[] pending = new int[sccs.size()];
+		List<List<Integer>> dependents = new ArrayList<>(sccs.size());
+		for (int i = 0; i < sccs.size(); i++)
+			dependents.add(new ArrayList<>());
+		for (int i = 0; i < sccs.size(); i++) {
+			pending[i] = dependencies.get(i).size();
+			for (int dep : dependencies.get(i))
+				dependents.get(dep).add(i);
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, sccs.size()));
+		CompletionService<Integer> completion = new ExecutorCompletionService<>(executor);
+		int running = 0;
+		try {
+			for (int i = 0; i < sccs.size(); i++)
+				if (pending[i] == 0) {
+					submit(completion, i, sccs.get(i), entryState, counter);
+					running++;
+				}
+
+			// components are submitted only when all the ones containing
+			// their callees have been processed
+			while (running > 0) {
+				Future<Integer> done = completion.take();
+				running--;
+				int finished;
+				try {
+					finished = done.get();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof FixpointException)
+						throw (FixpointException) cause;
+					throw new FixpointException("Error while computing fixpoint", cause);
+				}
+
+				for (int dependent : dependents.get(finished))
+					if (--pending[dependent] == 0) {
+						submit(completion, dependent, sccs.get(dependent), entryState, counter);
+						running++;
+					}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new FixpointException("Interrupted while computing fixpoint", e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void submit(CompletionService<Integer> completion, int index, List<CFG> scc,
+			AnalysisState<A, H, V> entryState, Counter counter) {
+		completion.submit(() -> {
+			analyze(scc, entryState, counter);
+			return index;
+		});
+	}
+
+	private void analyze(List<CFG> scc, AnalysisState<A, H, V> entryState, Counter counter)
+			throws FixpointException {
+		Map<CFG, AnalysisState<A, H, V>> entries = new IdentityHashMap<>();
+		try {
+			for (CFG cfg : scc)
+				entries.put(cfg, prepareEntryStateOfEntryPoint(entryState, cfg));
+		} catch (SemanticException e) {
+			throw new FixpointException("Error while creating the entrystate for " + scc, e);
+		}
+
+		if (!isRecursive(scc)) {
+			CFG cfg = scc.iterator().next();
+			summaries.put(cfg, fixpoint(cfg, entries.get(cfg)));
+			counter.count();
+			return;
+		}
+
+		// summaries of recursive cfgs are computed iteratively, starting
+		// from bottom: calls to cfgs of this component whose summary has not
+		// been computed yet do not return
+		int iter = 0;
+		boolean changed;
+		do {
+			changed = false;
+			for (CFG cfg : scc) {
+				CFGWithAnalysisResults<A, H, V> result = fixpoint(cfg, entries.get(cfg));
+				CFGWithAnalysisResults<A, H, V> previous = summaries.get(cfg);
+				try {
+					if (previous == null)
+						summaries.put(cfg, result);
+					else if (!result.lessOrEqual(previous))
+						if (conf.getWideningThreshold() == 0 || iter < conf.getWideningThreshold())
+							summaries.put(cfg, previous.lub(result));
+						else
+							summaries.put(cfg, previous.widening(result));
+					else
+						continue;
+				} catch (SemanticException e) {
+					throw new FixpointException("Error while updating the summary of " + cfg, e);
+				}
+				changed = true;
+			}
+			iter++;
+		} while (changed);
+
+		scc.forEach(cfg -> counter.count());
+	}
+
+	private CFGWithAnalysisResults<A, H, V> fixpoint(CFG cfg, AnalysisState<A, H, V> entryState)
+			throws FixpointException {
+		FixpointListener listener = conf.getListener();
+		if (listener == null)
+			return cfg.fixpoint(entryState, this, conf);
+
+		long start = System.nanoTime();
+		CFGWithAnalysisResults<A, H, V> result = cfg.fixpoint(entryState, this, conf);
+		listener.analysisCompleted(cfg, null, System.nanoTime() - start);
+		return result;
+	}
+
+	private boolean isRecursive(List<CFG> scc) {
+		if (scc.size() > 1)
+			return true;
+		CFG cfg = scc.iterator().next();
+		return callgraph.getCallees(cfg).contains(cfg);
+	}
+
+	@Override
+	public final Collection<CFGWithAnalysisResults<A, H, V>> getAnalysisResultsOf(CFG cfg) {
+		CFGWithAnalysisResults<A, H, V> summary = summaries.get(cfg);
+		return summary == null ? Collections.emptySet() : Collections.singleton(summary);
+	}
+
+	@Override
+	public final AnalysisState<A, H, V> getAbstractResultOf(CFGCall call, AnalysisState<A, H, V> entryState,
+			ExpressionSet<SymbolicExpression>[] parameters)
+			throws SemanticException {
+		ScopeToken scope = new ScopeToken(call);
+		AnalysisState<A, H, V> callState = entryState.pushScope(scope);
+		AnalysisState<A, H, V> result = entryState.bottom();
+
+		for (CFG cfg : call.getTargets()) {
+			CFGWithAnalysisResults<A, H, V> summary = summaries.get(cfg);
+			if (summary == null) {
+				Integer caller = components.get(call.getCFG());
+				if (caller == null || !caller.equals(components.get(cfg)))
+					// the target was not known when components were built
+					result = result.lub(worstCase(call, entryState));
+				// otherwise, the target is a recursive cfg whose summary is
+				// not yet available
+				continue;
+			}
+
+			AnalysisState<A, H, V> exitState = summary.getExitState();
+			if (exitState == null)
+				// the target never returns
+				continue;
+
+			// the callee cannot access the variables of the caller, that
+			// are hidden by the scope: its effects are those of the summary
+			AnalysisState<A, H, V> applied = new AnalysisState<>(callState.getState().lub(exitState.getState()),
+					exitState.getComputedExpressions());
+
+			// store the return value of the call inside the meta variable
+			AnalysisState<A, H, V> tmp = callState.bottom();
+			Identifier meta = (Identifier) call.getMetaVariable().pushScope(scope);
+			for (SymbolicExpression ret : exitState.getComputedExpressions())
+				tmp = tmp.lub(applied.assign(meta, ret, call));
+
+			// save the resulting state
+			result = result.lub(tmp.popScope(scope));
+		}
+
+		return result;
+	}
+
+	private AnalysisState<A, H, V> worstCase(CFGCall call, AnalysisState<A, H, V> entryState)
+			throws SemanticException {
+		if (call.getStaticType().isVoidType())
+			return entryState.top();
+
+		return entryState.top().smallStepSemantics(new Variable(call.getRuntimeTypes(), "ret_value"), call);
+	}
+
+	private static class CallCollector
+			implements GraphVisitor<CFG, Statement, Edge, Collection<UnresolvedCall>> {
+
+		@Override
+		public boolean visit(Collection<UnresolvedCall> tool, CFG graph) {
+			return true;
+		}
+
+		@Override
+		public boolean visit(Collection<UnresolvedCall> tool, CFG graph, Statement node) {
+			if (node instanceof UnresolvedCall)
+				tool.add((UnresolvedCall) node);
+			return true;
+		}
+
+		@Override
+		public boolean visit(Collection<UnresolvedCall> tool, CFG graph, Edge edge) {
+			return true;
+		}
+	}
+}
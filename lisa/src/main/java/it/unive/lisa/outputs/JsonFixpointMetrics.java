@@ -0,0 +1,533 @@
+package it.unive.lisa.outputs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import it.unive.lisa.util.datastructures.graph.FixpointMetrics;
+import it.unive.lisa.util.datastructures.graph.FixpointMetrics.GraphMetrics;
+import it.unive.lisa.util.datastructures.graph.FixpointMetrics.NodeMetrics;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link FixpointMetrics} collected during an analysis, in a form that
+ * can be dumped in json format and read back from a json file. Graphs are
+ * sorted by decreasing fixpoint time, and nodes by decreasing processing time,
+ * so that the hottest ones come first. The names of the {@code n} hottest
+ * graphs and nodes are also reported separately, as a quick summary.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class JsonFixpointMetrics {
+
+	private List<JsonGraphMetrics> graphs;
+
+	private List<String> hottestGraphs;
+
+	private List<String> hottestNodes;
+
+	/**
+	 * Builds an empty object, with no metrics.
+	 */
+	public JsonFixpointMetrics() {
+		this.graphs = new ArrayList<>();
+		this.hottestGraphs = new ArrayList<>();
+		this.hottestNodes = new ArrayList<>();
+	}
+
+	/**
+	 * Builds the object, containing the given metrics.
+	 *
+	 * @param metrics the metrics to map
+	 * @param n       the number of graphs and nodes to include in the
+	 *                    summaries
+	 */
+	public JsonFixpointMetrics(FixpointMetrics metrics, int n) {
+		this.graphs = metrics.getGraphs().stream()
+				.sorted(Comparator.comparingLong(GraphMetrics::getFixpointNanos).reversed())
+				.map(JsonGraphMetrics::new)
+				.collect(Collectors.toList());
+		this.hottestGraphs = metrics.hottestGraphs(n).stream().map(GraphMetrics::getName)
+				.collect(Collectors.toList());
+		this.hottestNodes = metrics.hottestNodes(n).stream().map(NodeMetrics::getName)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Yields the metrics of each graph.
+	 *
+	 * @return the metrics of the graphs
+	 */
+	public List<JsonGraphMetrics> getGraphs() {
+		return graphs;
+	}
+
+	/**
+	 * Sets the metrics of each graph.
+	 *
+	 * @param graphs the metrics of the graphs
+	 */
+	public void setGraphs(List<JsonGraphMetrics> graphs) {
+		this.graphs = graphs;
+	}
+
+	/**
+	 * Yields the names of the graphs whose fixpoints took the most time.
+	 *
+	 * @return the names of the hottest graphs
+	 */
+	public List<String> getHottestGraphs() {
+		return hottestGraphs;
+	}
+
+	/**
+	 * Sets the names of the graphs whose fixpoints took the most time.
+	 *
+	 * @param hottestGraphs the names of the hottest graphs
+	 */
+	public void setHottestGraphs(List<String> hottestGraphs) {
+		this.hottestGraphs = hottestGraphs;
+	}
+
+	/**
+	 * Yields the names of the nodes whose processing took the most time.
+	 *
+	 * @return the names of the hottest nodes
+	 */
+	public List<String> getHottestNodes() {
+		return hottestNodes;
+	}
+
+	/**
+	 * Sets the names of the nodes whose processing took the most time.
+	 *
+	 * @param hottestNodes the names of the hottest nodes
+	 */
+	public void setHottestNodes(List<String> hottestNodes) {
+		this.hottestNodes = hottestNodes;
+	}
+
+	/**
+	 * Dumps these metrics to the given {@link Writer} instance, serializing
+	 * them as a json object.
+	 *
+	 * @param writer the writer to write to
+	 *
+	 * @throws IOException if some I/O error happens while writing to the writer
+	 */
+	public void dump(Writer writer) throws IOException {
+		ObjectMapper mapper = new ObjectMapper();
+		mapper.configure(SerializationFeature.INDENT_OUTPUT, true);
+		mapper.writeValue(writer, this);
+	}
+
+	/**
+	 * Reads a {@link JsonFixpointMetrics} from a {@link Reader} instance,
+	 * deserializing it as a json object.
+	 *
+	 * @param reader the reader to read from
+	 *
+	 * @return the read metrics
+	 *
+	 * @throws IOException if some I/O error happens while reading from the
+	 *                         reader
+	 */
+	public static JsonFixpointMetrics read(Reader reader) throws IOException {
+		ObjectMapper mapper = new ObjectMapper();
+		return mapper.readValue(reader, JsonFixpointMetrics.class);
+	}
+
+	@Override
+	public String toString() {
+		return "JsonFixpointMetrics [graphs=" + graphs + ", hottestGraphs=" + hottestGraphs + ", hottestNodes="
+				+ hottestNodes + "]";
+	}
+
+	/**
+	 * The counters and timings of a node, or of all the nodes of a graph,
+	 * that are ready to dump into a {@link JsonFixpointMetrics}.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	public static class JsonNodeMetrics {
+
+		private String name;
+
+		private long visits;
+
+		private long lubs;
+
+		private long widenings;
+
+		private long entryStateNanos;
+
+		private long semanticsNanos;
+
+		private long comparisonNanos;
+
+		private long avoidedComparisons;
+
+		/**
+		 * Builds an empty object, with no name and all counters set to
+		 * {@code 0}.
+		 */
+		public JsonNodeMetrics() {
+		}
+
+		/**
+		 * Builds the object, cloning the information from the given
+		 * {@link NodeMetrics}.
+		 *
+		 * @param metrics the metrics to clone
+		 */
+		public JsonNodeMetrics(NodeMetrics metrics) {
+			this.name = metrics.getName();
+			this.visits = metrics.getVisits();
+			this.lubs = metrics.getLubs();
+			this.widenings = metrics.getWidenings();
+			this.entryStateNanos = metrics.getEntryStateNanos();
+			this.semanticsNanos = metrics.getSemanticsNanos();
+			this.comparisonNanos = metrics.getComparisonNanos();
+			this.avoidedComparisons = metrics.getAvoidedComparisons();
+		}
+
+		/**
+		 * Yields the name of the node.
+		 *
+		 * @return the name
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Sets the name of the node.
+		 *
+		 * @param name the name
+		 */
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Yields the number of visits of the node.
+		 *
+		 * @return the number of visits
+		 */
+		public long getVisits() {
+			return visits;
+		}
+
+		/**
+		 * Sets the number of visits of the node.
+		 *
+		 * @param visits the number of visits
+		 */
+		public void setVisits(long visits) {
+			this.visits = visits;
+		}
+
+		/**
+		 * Yields the number of lubs applied on the node.
+		 *
+		 * @return the number of lubs
+		 */
+		public long getLubs() {
+			return lubs;
+		}
+
+		/**
+		 * Sets the number of lubs applied on the node.
+		 *
+		 * @param lubs the number of lubs
+		 */
+		public void setLubs(long lubs) {
+			this.lubs = lubs;
+		}
+
+		/**
+		 * Yields the number of widenings applied on the node.
+		 *
+		 * @return the number of widenings
+		 */
+		public long getWidenings() {
+			return widenings;
+		}
+
+		/**
+		 * Sets the number of widenings applied on the node.
+		 *
+		 * @param widenings the number of widenings
+		 */
+		public void setWidenings(long widenings) {
+			this.widenings = widenings;
+		}
+
+		/**
+		 * Yields the time spent computing the entry states of the node.
+		 *
+		 * @return the time, in nanoseconds
+		 */
+		public long getEntryStateNanos() {
+			return entryStateNanos;
+		}
+
+		/**
+		 * Sets the time spent computing the entry states of the node.
+		 *
+		 * @param entryStateNanos the time, in nanoseconds
+		 */
+		public void setEntryStateNanos(long entryStateNanos) {
+			this.entryStateNanos = entryStateNanos;
+		}
+
+		/**
+		 * Yields the time spent computing the semantics of the node.
+		 *
+		 * @return the time, in nanoseconds
+		 */
+		public long getSemanticsNanos() {
+			return semanticsNanos;
+		}
+
+		/**
+		 * Sets the time spent computing the semantics of the node.
+		 *
+		 * @param semanticsNanos the time, in nanoseconds
+		 */
+		public void setSemanticsNanos(long semanticsNanos) {
+			this.semanticsNanos = semanticsNanos;
+		}
+
+		/**
+		 * Yields the time spent comparing the results of the node.
+		 *
+		 * @return the time, in nanoseconds
+		 */
+		public long getComparisonNanos() {
+			return comparisonNanos;
+		}
+
+		/**
+		 * Sets the time spent comparing the results of the node.
+		 *
+		 * @param comparisonNanos the time, in nanoseconds
+		 */
+		public void setComparisonNanos(long comparisonNanos) {
+			this.comparisonNanos = comparisonNanos;
+		}
+
+		/**
+		 * Yields the number of comparisons of the results of the node that
+		 * have been avoided since the results were the same objects.
+		 *
+		 * @return the number of avoided comparisons
+		 */
+		public long getAvoidedComparisons() {
+			return avoidedComparisons;
+		}
+
+		/**
+		 * Sets the number of comparisons of the results of the node that
+		 * have been avoided since the results were the same objects.
+		 *
+		 * @param avoidedComparisons the number of avoided comparisons
+		 */
+		public void setAvoidedComparisons(long avoidedComparisons) {
+			this.avoidedComparisons = avoidedComparisons;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	/**
+	 * The metrics of a graph that are ready to dump into a
+	 * {@link JsonFixpointMetrics}.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	public static class JsonGraphMetrics {
+
+		private String name;
+
+		private long fixpoints;
+
+		private long fixpointNanos;
+
+		private int maxWorkingSet;
+
+		private JsonNodeMetrics totals;
+
+		private Map<String, Long> contexts;
+
+		private List<JsonNodeMetrics> nodes;
+
+		/**
+		 * Builds an empty object, with no name and no metrics.
+		 */
+		public JsonGraphMetrics() {
+			this.contexts = new LinkedHashMap<>();
+			this.nodes = new ArrayList<>();
+		}
+
+		/**
+		 * Builds the object, cloning the information from the given
+		 * {@link GraphMetrics}.
+		 *
+		 * @param metrics the metrics to clone
+		 */
+		public JsonGraphMetrics(GraphMetrics metrics) {
+			this.name = metrics.getName();
+			this.fixpoints = metrics.getFixpoints();
+			this.fixpointNanos = metrics.getFixpointNanos();
+			this.maxWorkingSet = metrics.getMaxWorkingSet();
+			this.totals = new JsonNodeMetrics(metrics.getTotals());
+			this.contexts = new LinkedHashMap<>(metrics.getContexts());
+			this.nodes = metrics.getNodes().stream()
+					.sorted(Comparator.comparingLong(NodeMetrics::getTotalNanos).reversed())
+					.map(JsonNodeMetrics::new)
+					.collect(Collectors.toList());
+		}
+
+		/**
+		 * Yields the name of the graph.
+		 *
+		 * @return the name
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Sets the name of the graph.
+		 *
+		 * @param name the name
+		 */
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Yields the number of fixpoints computed over the graph.
+		 *
+		 * @return the number of fixpoints
+		 */
+		public long getFixpoints() {
+			return fixpoints;
+		}
+
+		/**
+		 * Sets the number of fixpoints computed over the graph.
+		 *
+		 * @param fixpoints the number of fixpoints
+		 */
+		public void setFixpoints(long fixpoints) {
+			this.fixpoints = fixpoints;
+		}
+
+		/**
+		 * Yields the overall duration of the fixpoints over the graph.
+		 *
+		 * @return the time, in nanoseconds
+		 */
+		public long getFixpointNanos() {
+			return fixpointNanos;
+		}
+
+		/**
+		 * Sets the overall duration of the fixpoints over the graph.
+		 *
+		 * @param fixpointNanos the time, in nanoseconds
+		 */
+		public void setFixpointNanos(long fixpointNanos) {
+			this.fixpointNanos = fixpointNanos;
+		}
+
+		/**
+		 * Yields the high-water mark of the working set.
+		 *
+		 * @return the maximum size of the working set
+		 */
+		public int getMaxWorkingSet() {
+			return maxWorkingSet;
+		}
+
+		/**
+		 * Sets the high-water mark of the working set.
+		 *
+		 * @param maxWorkingSet the maximum size of the working set
+		 */
+		public void setMaxWorkingSet(int maxWorkingSet) {
+			this.maxWorkingSet = maxWorkingSet;
+		}
+
+		/**
+		 * Yields the metrics of all the nodes of the graph, summed together.
+		 *
+		 * @return the aggregated metrics
+		 */
+		public JsonNodeMetrics getTotals() {
+			return totals;
+		}
+
+		/**
+		 * Sets the metrics of all the nodes of the graph, summed together.
+		 *
+		 * @param totals the aggregated metrics
+		 */
+		public void setTotals(JsonNodeMetrics totals) {
+			this.totals = totals;
+		}
+
+		/**
+		 * Yields the duration of the analysis of the graph in each context.
+		 *
+		 * @return the mapping from contexts to durations, in nanoseconds
+		 */
+		public Map<String, Long> getContexts() {
+			return contexts;
+		}
+
+		/**
+		 * Sets the duration of the analysis of the graph in each context.
+		 *
+		 * @param contexts the mapping from contexts to durations, in
+		 *                     nanoseconds
+		 */
+		public void setContexts(Map<String, Long> contexts) {
+			this.contexts = contexts;
+		}
+
+		/**
+		 * Yields the metrics of each node of the graph.
+		 *
+		 * @return the metrics of the nodes
+		 */
+		public List<JsonNodeMetrics> getNodes() {
+			return nodes;
+		}
+
+		/**
+		 * Sets the metrics of each node of the graph.
+		 *
+		 * @param nodes the metrics of the nodes
+		 */
+		public void setNodes(List<JsonNodeMetrics> nodes) {
+			this.nodes = nodes;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package it.unive.lisa.outputs;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import it.unive.lisa.outputs.JsonReport.JsonWarning;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.TreeSet;
+
+/**
+ * A reader that reads a {@link JsonReport} in json format without loading all
+ * of its warnings in memory. Warnings are returned one at a time, in the order
+ * in which they appear in the report, through {@link #nextWarning()}. Since
+ * reports dumped by {@link JsonReport} and {@link JsonReportWriter} are
+ * sorted, this reader requires warnings to be sorted without duplicates: this
+ * enables comparing two reports by scanning them side by side (see
+ * {@link it.unive.lisa.outputs.compare.JsonReportComparer}).
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class JsonReportReader implements Closeable {
+
+	private final JsonParser parser;
+
+	private final Collection<String> files;
+
+	private boolean inWarnings;
+
+	private String last;
+
+	/**
+	 * Builds the reader, reading the beginning of the report from the given
+	 * {@link Reader}. The given reader is closed when this object is closed.
+	 * 
+	 * @param reader the reader to read from
+	 * 
+	 * @throws IOException if some I/O error happens while reading from the
+	 *                         reader, or if its content is not a report
+	 */
+	public JsonReportReader(Reader reader) throws IOException {
+		this.parser = new JsonFactory().createParser(reader);
+		this.files = new TreeSet<>();
+		if (parser.nextToken() != JsonToken.START_OBJECT)
+			throw new IOException("Malformed report: expected a json object at " + parser.getCurrentLocation());
+		readFields();
+	}
+
+	/**
+	 * Reads fields of the report object until the start of the warnings array
+	 * or the end of the object is found.
+	 */
+	private void readFields() throws IOException {
+		JsonToken token;
+		while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			token = parser.nextToken();
+			if ("warnings".equals(field)) {
+				expect(token, JsonToken.START_ARRAY);
+				inWarnings = true;
+				return;
+			} else if ("files".equals(field)) {
+				expect(token, JsonToken.START_ARRAY);
+				while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+					expect(token, JsonToken.VALUE_STRING);
+					files.add(parser.getText());
+				}
+			} else
+				parser.skipChildren();
+		}
+		expect(token, JsonToken.END_OBJECT);
+	}
+
+	private void expect(JsonToken actual, JsonToken expected) throws IOException {
+		if (actual != expected)
+			throw new IOException("Malformed report: expected " + expected + " but found " + actual + " at "
+					+ parser.getCurrentLocation());
+	}
+
+	/**
+	 * Reads the next warning of the report.
+	 * 
+	 * @return the next warning, or {@code null} if all the warnings have been
+	 *             read
+	 * 
+	 * @throws IOException if some I/O error happens while reading, or if the
+	 *                         warnings of the report are not sorted or contain
+	 *                         duplicates
+	 */
+	public JsonWarning nextWarning() throws IOException {
+		if (!inWarnings)
+			return null;
+
+		JsonToken token = parser.nextToken();
+		if (token == JsonToken.END_ARRAY) {
+			inWarnings = false;
+			readFields();
+			return null;
+		}
+
+		expect(token, JsonToken.START_OBJECT);
+		JsonWarning warning = new JsonWarning();
+		while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			token = parser.nextToken();
+			if ("message".equals(field)) {
+				expect(token, JsonToken.VALUE_STRING);
+				warning.setMessage(parser.getText());
+			} else
+				parser.skipChildren();
+		}
+		expect(token, JsonToken.END_OBJECT);
+
+		if (warning.getMessage() == null)
+			throw new IOException("Malformed report: warning without message at " + parser.getCurrentLocation());
+		if (last != null && last.compareTo(warning.getMessage()) >= 0)
+			throw new IOException("Warnings are not sorted or contain duplicates: '" + warning.getMessage()
+					+ "' found after '" + last + "'");
+		last = warning.getMessage();
+		return warning;
+	}
+
+	/**
+	 * Yields the names of the files contained into the report. If not all
+	 * warnings have been read yet, the remaining ones are skipped.
+	 * 
+	 * @return the names of the files, sorted
+	 * 
+	 * @throws IOException if some I/O error happens while reading
+	 */
+	public Collection<String> getFiles() throws IOException {
+		while (inWarnings)
+			nextWarning();
+		return Collections.unmodifiableCollection(files);
+	}
+
+	@Override
+	public void close() throws IOException {
+		parser.close();
+	}
+}
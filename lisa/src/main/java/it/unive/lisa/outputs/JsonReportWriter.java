@@ -0,0 +1,376 @@
+package it.unive.lisa.outputs;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import it.unive.lisa.checks.warnings.Warning;
+import it.unive.lisa.outputs.JsonReport.JsonWarning;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * A writer that dumps a {@link JsonReport} in json format without keeping all
+ * of its warnings in memory. Warnings are added one at a time while they are
+ * produced, and are sorted through an external merge sort: at most
+ * {@code runSize} of them are kept in memory, while the others are spilled to
+ * sorted temporary files that are merged when the report is
+ * {@link #finish(Collection) finished}. The produced json is the same as the
+ * one produced by {@link JsonReport#dump(Writer)} on the same warnings and
+ * files, and can thus be read either through {@link JsonReport#read} or
+ * through a {@link JsonReportReader}.<br>
+ * <br>
+ * Temporary files are deleted when the writer is closed.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class JsonReportWriter implements Closeable {
+
+	/**
+	 * The default maximum number of warnings kept in memory.
+	 */
+	public static final int DEFAULT_RUN_SIZE = 10_000;
+
+	/**
+	 * The maximum number of temporary files that are merged at once.
+	 */
+	private static final int MAX_FAN_IN = 64;
+
+	private static final JsonFactory FACTORY = new JsonFactory();
+
+	private final Writer writer;
+
+	private final Path tmpdir;
+
+	private final int runSize;
+
+	private final TreeSet<String> buffer;
+
+	private final List<Path> runs;
+
+	private boolean finished;
+
+	private int written;
+
+	/**
+	 * Builds the writer, keeping at most {@link #DEFAULT_RUN_SIZE} warnings in
+	 * memory and spilling the other ones in the default temporary-file
+	 * directory.
+	 * 
+	 * @param writer the writer where the report will be dumped
+	 */
+	public JsonReportWriter(Writer writer) {
+		this(writer, null, DEFAULT_RUN_SIZE);
+	}
+
+	/**
+	 * Builds the writer.
+	 * 
+	 * @param writer  the writer where the report will be dumped
+	 * @param tmpdir  the directory where temporary files will be created, or
+	 *                    {@code null} to use the default temporary-file
+	 *                    directory
+	 * @param runSize the maximum number of warnings kept in memory
+	 * 
+	 * @throws IllegalArgumentException if {@code runSize} is less than
+	 *                                      {@code 1}
+	 */
+	public JsonReportWriter(Writer writer, Path tmpdir, int runSize) {
+		if (runSize < 1)
+			throw new IllegalArgumentException("The run size must be at least 1, got " + runSize);
+		this.writer = writer;
+		this.tmpdir = tmpdir;
+		this.runSize = runSize;
+		this.buffer = new TreeSet<>();
+		this.runs = new ArrayList<>();
+	}
+
+	/**
+	 * Adds the given warning to the report.
+	 * 
+	 * @param warning the warning to add
+	 * 
+	 * @throws IOException if some I/O error happens while spilling warnings
+	 *                         to temporary files
+	 */
+	public void add(Warning warning) throws IOException {
+		add(new JsonWarning(warning));
+	}
+
+	/**
+	 * Adds the given warning to the report. Warnings that are equal to ones
+	 * already added are ignored.
+	 * 
+	 * @param warning the warning to add
+	 * 
+	 * @throws IOException           if some I/O error happens while spilling
+	 *                                   warnings to temporary files
+	 * @throws IllegalStateException if the report has already been finished
+	 */
+	public void add(JsonWarning warning) throws IOException {
+		if (finished)
+			throw new IllegalStateException("The report has already been finished");
+		buffer.add(warning.getMessage());
+		if (buffer.size() >= runSize)
+			spill();
+	}
+
+	/**
+	 * Yields the number of temporary files that currently hold spilled
+	 * warnings.
+	 * 
+	 * @return the number of temporary files
+	 */
+	public int getSpilledRuns() {
+		return runs.size();
+	}
+
+	/**
+	 * Yields the number of warnings written to the report by
+	 * {@link #finish(Collection)}. Since warnings that are equal to ones
+	 * already added are ignored, this might be less than the number of
+	 * warnings added.
+	 * 
+	 * @return the number of warnings in the report
+	 */
+	public int getWrittenWarnings() {
+		return written;
+	}
+
+	private void spill() throws IOException {
+		runs.add(writeRun(buffer.iterator()));
+		buffer.clear();
+
+		if (runs.size() >= MAX_FAN_IN) {
+			// we merge the runs into a single one to bound the number of
+			// files that have to be kept open at the same time
+			List<Path> merged = new ArrayList<>(runs);
+			runs.clear();
+			runs.add(mergeRuns(merged));
+		}
+	}
+
+	private Path writeRun(Iterator<String> messages) throws IOException {
+		Path run = tmpdir == null ? Files.createTempFile("lisa-report", ".run")
+				: Files.createTempFile(tmpdir, "lisa-report", ".run");
+		try (BufferedWriter out = Files.newBufferedWriter(run, StandardCharsets.UTF_8);
+				JsonGenerator generator = FACTORY.createGenerator(out)) {
+			while (messages.hasNext())
+				generator.writeString(messages.next());
+		} catch (UncheckedIOException e) {
+			Files.deleteIfExists(run);
+			throw e.getCause();
+		} catch (IOException e) {
+			Files.deleteIfExists(run);
+			throw e;
+		}
+		return run;
+	}
+
+	private Path mergeRuns(List<Path> toMerge) throws IOException {
+		List<RunIterator> iterators = new ArrayList<>(toMerge.size());
+		try {
+			for (Path run : toMerge)
+				iterators.add(new RunIterator(run));
+			return writeRun(new MergingIterator(new ArrayList<>(iterators)));
+		} finally {
+			for (RunIterator it : iterators)
+				it.close();
+			for (Path run : toMerge)
+				Files.deleteIfExists(run);
+		}
+	}
+
+	/**
+	 * Writes the report, containing all the warnings added to this writer and
+	 * the given files, to the writer used to build this object. The writer is
+	 * flushed, but not closed. After this call, no more warnings can be
+	 * added.
+	 * 
+	 * @param files the names of the files to include in the report
+	 * 
+	 * @throws IOException           if some I/O error happens while reading
+	 *                                   the temporary files or writing the
+	 *                                   report
+	 * @throws IllegalStateException if the report has already been finished
+	 */
+	public void finish(Collection<String> files) throws IOException {
+		if (finished)
+			throw new IllegalStateException("The report has already been finished");
+		finished = true;
+
+		List<RunIterator> iterators = new ArrayList<>(runs.size());
+		try (JsonGenerator generator = FACTORY.createGenerator(writer)) {
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			generator.useDefaultPrettyPrinter();
+
+			for (Path run : runs)
+				iterators.add(new RunIterator(run));
+			List<Iterator<String>> all = new ArrayList<>(iterators);
+			all.add(buffer.iterator());
+
+			generator.writeStartObject();
+			generator.writeArrayFieldStart("warnings");
+			for (Iterator<String> it = new MergingIterator(all); it.hasNext(); written++) {
+				generator.writeStartObject();
+				generator.writeStringField("message", it.next());
+				generator.writeEndObject();
+			}
+			generator.writeEndArray();
+
+			generator.writeArrayFieldStart("files");
+			for (String file : new TreeSet<>(files))
+				generator.writeString(file);
+			generator.writeEndArray();
+			generator.writeEndObject();
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		} finally {
+			for (RunIterator it : iterators)
+				it.close();
+			buffer.clear();
+		}
+	}
+
+	/**
+	 * Deletes all the temporary files created by this writer. This does not
+	 * close the writer used to build this object.
+	 * 
+	 * @throws IOException if some I/O error happens while deleting the files
+	 */
+	@Override
+	public void close() throws IOException {
+		for (Path run : runs)
+			Files.deleteIfExists(run);
+		runs.clear();
+	}
+
+	/**
+	 * An iterator over the messages stored in a temporary file.
+	 */
+	private static class RunIterator implements Iterator<String>, Closeable {
+
+		private final JsonParser parser;
+
+		private String next;
+
+		private RunIterator(Path run) throws IOException {
+			BufferedReader reader = Files.newBufferedReader(run, StandardCharsets.UTF_8);
+			try {
+				this.parser = FACTORY.createParser(reader);
+			} catch (IOException e) {
+				reader.close();
+				throw e;
+			}
+			advance();
+		}
+
+		private void advance() throws IOException {
+			JsonToken token = parser.nextToken();
+			if (token == null)
+				next = null;
+			else if (token == JsonToken.VALUE_STRING)
+				next = parser.getText();
+			else
+				throw new IOException("Malformed temporary report file: unexpected " + token);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public String next() {
+			if (next == null)
+				throw new NoSuchElementException();
+			String current = next;
+			try {
+				advance();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return current;
+		}
+
+		@Override
+		public void close() throws IOException {
+			parser.close();
+		}
+	}
+
+	/**
+	 * An iterator that merges sorted iterators into a single sorted one,
+	 * removing duplicates.
+	 */
+	private static class MergingIterator implements Iterator<String> {
+
+		private final PriorityQueue<Head> heads;
+
+		private String last;
+
+		private MergingIterator(List<Iterator<String>> sources) {
+			heads = new PriorityQueue<>(Math.max(1, sources.size()), Comparator.comparing(h -> h.current));
+			for (Iterator<String> source : sources)
+				if (source.hasNext())
+					heads.add(new Head(source));
+			skipDuplicates();
+		}
+
+		private void skipDuplicates() {
+			while (!heads.isEmpty() && last != null && heads.peek().current.equals(last))
+				pop();
+		}
+
+		private String pop() {
+			Head head = heads.poll();
+			String current = head.current;
+			if (head.source.hasNext()) {
+				head.current = head.source.next();
+				heads.add(head);
+			}
+			return current;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !heads.isEmpty();
+		}
+
+		@Override
+		public String next() {
+			if (heads.isEmpty())
+				throw new NoSuchElementException();
+			last = pop();
+			skipDuplicates();
+			return last;
+		}
+
+		private static class Head {
+
+			private final Iterator<String> source;
+
+			private String current;
+
+			private Head(Iterator<String> source) {
+				this.source = source;
+				this.current = source.next();
+			}
+		}
+	}
+}
@@ -3,6 +3,7 @@ package it.unive.lisa.outputs.compare;
 import it.unive.lisa.outputs.DotGraph;
 import it.unive.lisa.outputs.JsonReport;
 import it.unive.lisa.outputs.JsonReport.JsonWarning;
+import it.unive.lisa.outputs.JsonReportReader;
 import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.edge.Edge;
 import it.unive.lisa.program.cfg.statement.Statement;
@@ -11,7 +12,9 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import org.apache.commons.lang3.tuple.Pair;
 
 /**
@@ -22,6 +25,13 @@ import org.apache.commons.lang3.tuple.Pair;
  */
 public class JsonReportComparer {
 
+	/**
+	 * The maximum number of warnings passed to a single
+	 * {@link DiffReporter#report(REPORTED_COMPONENT, REPORT_TYPE, Collection)}
+	 * call when comparing reports through {@link JsonReportReader}s.
+	 */
+	public static final int STREAMING_CHUNK_SIZE = 1000;
+
 	/**
 	 * An enumeration defining the different type of reports that can be issued.
 	 * 
@@ -160,8 +170,115 @@ public class JsonReportComparer {
 		if (!warnings.getOnlySecond().isEmpty())
 			reporter.report(REPORTED_COMPONENT.WARNINGS, REPORT_TYPE.ONLY_SECOND, warnings.getOnlySecond());
 
-		CollectionsDiffBuilder<String> files = new CollectionsDiffBuilder<>(String.class, first.getFiles(),
-				second.getFiles());
+		return compareFiles(first.getFiles(), second.getFiles(), warnings.sameContent(), firstFileRoot,
+				secondFileRoot, reporter);
+	}
+
+	/**
+	 * Compares the two reports without loading their warnings in memory.
+	 * Warnings are compared by scanning the two (sorted) reports side by
+	 * side. The {@link DiffReporter} used during the comparison will dump the
+	 * differences to {@link System#err}.
+	 * 
+	 * @param first          the reader of the first report
+	 * @param second         the reader of the second report
+	 * @param firstFileRoot  the root folder for the resolution of the file
+	 *                           names in the first report (this should be
+	 *                           either the workdir of that analysis or the
+	 *                           folder where {@code first} lies)
+	 * @param secondFileRoot the root folder for the resolution of the file
+	 *                           names in the second report (this should be
+	 *                           either the workdir of that analysis or the
+	 *                           folder where {@code second} lies)
+	 * 
+	 * @return {@code true} if and only the two reports are equal
+	 * 
+	 * @throws IOException if errors happen while reading the reports, or
+	 *                         while opening or reading the files contained
+	 *                         in them
+	 */
+	public static boolean compare(JsonReportReader first, JsonReportReader second, File firstFileRoot,
+			File secondFileRoot) throws IOException {
+		return compare(first, second, firstFileRoot, secondFileRoot, new BaseDiffReporter());
+	}
+
+	/**
+	 * Compares the two reports without loading their warnings in memory.
+	 * Warnings are compared by scanning the two (sorted) reports side by
+	 * side, and differences among them are passed to {@code reporter} in
+	 * chunks of at most {@link #STREAMING_CHUNK_SIZE} elements: the reporter
+	 * might thus be invoked more than once for the same component and type.
+	 * 
+	 * @param first          the reader of the first report
+	 * @param second         the reader of the second report
+	 * @param firstFileRoot  the root folder for the resolution of the file
+	 *                           names in the first report (this should be
+	 *                           either the workdir of that analysis or the
+	 *                           folder where {@code first} lies)
+	 * @param secondFileRoot the root folder for the resolution of the file
+	 *                           names in the second report (this should be
+	 *                           either the workdir of that analysis or the
+	 *                           folder where {@code second} lies)
+	 * @param reporter       the {@link DiffReporter} that will be used for
+	 *                           dumping the differences found in the two
+	 *                           reports
+	 * 
+	 * @return {@code true} if and only the two reports are equal
+	 * 
+	 * @throws IOException if errors happen while reading the reports, or
+	 *                         while opening or reading the files contained
+	 *                         in them
+	 */
+	public static boolean compare(JsonReportReader first, JsonReportReader second, File firstFileRoot,
+			File secondFileRoot, DiffReporter reporter) throws IOException {
+		List<Pair<JsonWarning, JsonWarning>> commons = new ArrayList<>();
+		List<JsonWarning> onlyFirst = new ArrayList<>();
+		List<JsonWarning> onlySecond = new ArrayList<>();
+		boolean sameWarnings = true;
+
+		JsonWarning left = first.nextWarning();
+		JsonWarning right = second.nextWarning();
+		while (left != null || right != null) {
+			int cmp = left == null ? 1 : right == null ? -1 : left.compareTo(right);
+			if (cmp == 0) {
+				commons.add(Pair.of(left, right));
+				left = first.nextWarning();
+				right = second.nextWarning();
+			} else if (cmp < 0) {
+				onlyFirst.add(left);
+				sameWarnings = false;
+				left = first.nextWarning();
+			} else {
+				onlySecond.add(right);
+				sameWarnings = false;
+				right = second.nextWarning();
+			}
+
+			flush(reporter, REPORT_TYPE.COMMON, commons, STREAMING_CHUNK_SIZE);
+			flush(reporter, REPORT_TYPE.ONLY_FIRST, onlyFirst, STREAMING_CHUNK_SIZE);
+			flush(reporter, REPORT_TYPE.ONLY_SECOND, onlySecond, STREAMING_CHUNK_SIZE);
+		}
+
+		flush(reporter, REPORT_TYPE.COMMON, commons, 1);
+		flush(reporter, REPORT_TYPE.ONLY_FIRST, onlyFirst, 1);
+		flush(reporter, REPORT_TYPE.ONLY_SECOND, onlySecond, 1);
+
+		return compareFiles(first.getFiles(), second.getFiles(), sameWarnings, firstFileRoot, secondFileRoot,
+				reporter);
+	}
+
+	private static void flush(DiffReporter reporter, REPORT_TYPE type, List<?> chunk, int threshold) {
+		if (chunk.size() >= threshold) {
+			reporter.report(REPORTED_COMPONENT.WARNINGS, type, new ArrayList<>(chunk));
+			chunk.clear();
+		}
+	}
+
+	private static boolean compareFiles(Collection<String> firstFiles, Collection<String> secondFiles,
+			boolean sameWarnings, File firstFileRoot, File secondFileRoot, DiffReporter reporter)
+			throws IOException {
+		CollectionsDiffBuilder<String> files = new CollectionsDiffBuilder<>(String.class, firstFiles,
+				secondFiles);
 		files.compute(String::compareTo);
 
 		if (!files.getCommons().isEmpty())
@@ -171,7 +288,7 @@ public class JsonReportComparer {
 		if (!files.getOnlySecond().isEmpty())
 			reporter.report(REPORTED_COMPONENT.FILES, REPORT_TYPE.ONLY_SECOND, files.getOnlySecond());
 
-		if (!warnings.sameContent() || !files.sameContent())
+		if (!sameWarnings || !files.sameContent())
 			return false;
 
 		boolean diffFound = false;
@@ -4,6 +4,7 @@ import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.CFGDescriptor;
 import it.unive.lisa.program.cfg.CodeMember;
 import it.unive.lisa.program.cfg.NativeCFG;
+import it.unive.lisa.util.datastructures.graph.AdjacencyMatrix;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
@@ -350,7 +351,9 @@ public abstract class Unit {
 	 * code members exist in this unit whose signatures matches one another,
 	 * according to {@link CFGDescriptor#matchesSignature(CFGDescriptor)}. This
 	 * avoids ambiguous call resolution. Moreover, this ensures that all
-	 * {@link CFG}s are valid, according to {@link CFG#validate()}.
+	 * {@link CFG}s are valid, according to {@link CFG#validate()}, and
+	 * compacts their adjacency matrices through
+	 * {@link AdjacencyMatrix#compact()}.
 	 * 
 	 * @throws ProgramValidationException if the program has an invalid
 	 *                                        structure
@@ -363,7 +366,10 @@ public abstract class Unit {
 						cfg.getDescriptor().getSignature() + " is duplicated within unit " + this);
 		}
 
-		for (CFG cfg : getAllCFGs())
+		for (CFG cfg : getAllCFGs()) {
 			cfg.validate();
+			// the structure of the cfg is now final
+			cfg.getAdjacencyMatrix().compact();
+		}
 	}
 }
@@ -1,5 +1,6 @@
 package it.unive.lisa.program.annotations;
 
+import java.io.Serializable;
 import java.util.Collections;
 import java.util.List;
 
@@ -8,7 +9,7 @@ import java.util.List;
  * 
  * @author <a href="mailto:vincenzo.arceri@unive.it">Vincenzo Arceri</a>
  */
-public class Annotation {
+public class Annotation implements Serializable {
 
 	private final String annotationName;
 
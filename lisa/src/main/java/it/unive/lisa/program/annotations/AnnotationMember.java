@@ -1,13 +1,14 @@
 package it.unive.lisa.program.annotations;
 
 import it.unive.lisa.program.annotations.values.AnnotationValue;
+import java.io.Serializable;
 
 /**
  * A member of an annotation.
  * 
  * @author <a href="mailto:vincenzo.arceri@unive.it">Vincenzo Arceri</a>
  */
-public class AnnotationMember {
+public class AnnotationMember implements Serializable {
 
 	private final String id;
 
@@ -6,6 +6,7 @@ import it.unive.lisa.analysis.CFGWithAnalysisResults;
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.StatementStore;
+import it.unive.lisa.analysis.WideningThresholds;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.lattices.FunctionalLattice;
 import it.unive.lisa.analysis.value.ValueDomain;
@@ -19,24 +20,32 @@ import it.unive.lisa.program.cfg.controlFlow.Loop;
 import it.unive.lisa.program.cfg.edge.Edge;
 import it.unive.lisa.program.cfg.edge.SequentialEdge;
 import it.unive.lisa.program.cfg.statement.Expression;
+import it.unive.lisa.program.cfg.statement.Literal;
 import it.unive.lisa.program.cfg.statement.NoOp;
 import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.symbolic.value.Variable;
 import it.unive.lisa.util.collections.externalSet.ExternalSet;
 import it.unive.lisa.util.datastructures.graph.AdjacencyMatrix;
+import it.unive.lisa.util.datastructures.graph.FixpointConfiguration;
 import it.unive.lisa.util.datastructures.graph.FixpointException;
 import it.unive.lisa.util.datastructures.graph.FixpointGraph;
+import it.unive.lisa.util.datastructures.graph.GraphVisitor;
+import it.unive.lisa.util.datastructures.graph.IterationStrategy;
 import it.unive.lisa.util.workset.FIFOWorkingSet;
 import it.unive.lisa.util.workset.WorkingSet;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -70,6 +79,20 @@ public class CFG extends FixpointGraph<CFG, Statement, Edge> implements CodeMemb
 	 */
 	private boolean cfsExtracted;
 
+	/**
+	 * The variables going out of scope after each statement, lazily built from
+	 * the variable table of {@link #descriptor} and rebuilt after each
+	 * simplification, whenever the variable table grows or whenever the scope
+	 * of one of its variables is changed through {@link VariableTableEntry}'s
+	 * setters
+	 */
+	private volatile ScopeEnds scopeEnds;
+
+	/**
+	 * The scope index used while simplifying this cfg, {@code null} otherwise
+	 */
+	private VariableScopes simplifying;
+
 	/**
 	 * Builds the control flow graph.
 	 * 
@@ -109,6 +132,7 @@ public class CFG extends FixpointGraph<CFG, Statement, Edge> implements CodeMemb
 		this.descriptor = other.descriptor;
 		this.cfStructs = other.cfStructs;
 		this.cfsExtracted = other.cfsExtracted;
+		this.scopeEnds = other.scopeEnds;
 	}
 
 	/**
@@ -210,7 +234,13 @@ public class CFG extends FixpointGraph<CFG, Statement, Edge> implements CodeMemb
 	 *                                           non-sequential edge.
 	 */
 	public void simplify() {
-		super.simplify(NoOp.class, new LinkedList<>(), new HashMap<>());
+		simplifying = new VariableScopes(descriptor.getVariables());
+		try {
+			super.simplify(NoOp.class, new LinkedList<>(), new HashMap<>());
+			scopeEnds = new ScopeEnds(this, descriptor.scopeChanges(), simplifying.ending);
+		} finally {
+			simplifying = null;
+		}
 		cfStructs.forEach(ControlFlowStructure::simplify);
 	}
 
@@ -417,6 +447,52 @@ public class CFG extends FixpointGraph<CFG, Statement, Edge> implements CodeMemb
 		return fixpoint(entryState, start, interprocedural, ws, widenAfter);
 	}
 
+	/**
+	 * Computes a fixpoint over this control flow graph. This method returns a
+	 * {@link CFGWithAnalysisResults} instance mapping each {@link Statement} to
+	 * the {@link AnalysisState} computed by this method. The order in which
+	 * statements are processed and the way results obtained at different
+	 * iterations are composed are determined by {@code conf} (see
+	 * {@link IterationStrategy}). The computation starts at the statements
+	 * returned by {@link #getEntrypoints()}, using {@code entryState} as entry
+	 * state for all of them. {@code interprocedural} will be invoked to get the
+	 * approximation of all invoked cfgs.
+	 * 
+	 * @param <A>             the type of {@link AbstractState} contained into
+	 *                            the analysis state
+	 * @param <H>             the type of {@link HeapDomain} contained into the
+	 *                            computed abstract state
+	 * @param <V>             the type of {@link ValueDomain} contained into the
+	 *                            computed abstract state
+	 * @param entryState      the entry states to apply to each
+	 *                            {@link Statement} returned by
+	 *                            {@link #getEntrypoints()}
+	 * @param interprocedural the interprocedural analysis that can be queried
+	 *                            when a call towards an other cfg is
+	 *                            encountered
+	 * @param conf            the {@link FixpointConfiguration} tuning the
+	 *                            computation
+	 * 
+	 * @return a {@link CFGWithAnalysisResults} instance that is equivalent to
+	 *             this control flow graph, and that stores for each
+	 *             {@link Statement} the result of the fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a statement, or if some
+	 *                               unknown/invalid statement ends up in the
+	 *                               working set
+	 */
+	public final <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> CFGWithAnalysisResults<A, H, V> fixpoint(
+					AnalysisState<A, H, V> entryState, InterproceduralAnalysis<A, H, V> interprocedural,
+					FixpointConfiguration conf)
+					throws FixpointException {
+		Map<Statement, AnalysisState<A, H, V>> start = new HashMap<>();
+		entrypoints.forEach(e -> start.put(e, entryState));
+		return fixpoint(entryState, start, interprocedural, conf);
+	}
+
 	/**
 	 * Computes a fixpoint over this control flow graph. This method returns a
 	 * {@link CFGWithAnalysisResults} instance mapping each {@link Statement} to
@@ -844,7 +920,69 @@ public class CFG extends FixpointGraph<CFG, Statement, Edge> implements CodeMemb
 					int widenAfter)
 					throws FixpointException {
 		return new CFGWithAnalysisResults<A, H, V>(this, singleton, startingPoints,
-				super.fixpoint(startingPoints, interprocedural, ws, widenAfter,
+				super.fixpoint(startingPoints, interprocedural, ws,
+						new FixpointConfiguration().setWideningThreshold(widenAfter),
+						(st, entryState, callGraph, expressions) -> st.semantics(entryState, callGraph,
+								(StatementStore) expressions)));
+	}
+
+	/**
+	 * Computes a fixpoint over this control flow graph. This method returns a
+	 * {@link CFGWithAnalysisResults} instance mapping each {@link Statement} to
+	 * the {@link AnalysisState} computed by this method. The order in which
+	 * statements are processed and the way results obtained at different
+	 * iterations are composed are determined by {@code conf} (see
+	 * {@link IterationStrategy}). The computation starts at the statements in
+	 * {@code startingPoints}, using as its entry state their respective value.
+	 * {@code interprocedural} will be invoked to get the approximation of all
+	 * invoked cfgs. If {@link IterationStrategy#WORKLIST} is used, a fresh
+	 * instance of {@link FIFOWorkingSet} is used as working set for the
+	 * statements to process.
+	 * 
+	 * @param <A>             the type of {@link AbstractState} contained into
+	 *                            the analysis state
+	 * @param <H>             the type of {@link HeapDomain} contained into the
+	 *                            computed abstract state
+	 * @param <V>             the type of {@link ValueDomain} contained into the
+	 *                            computed abstract state
+	 * @param singleton       an instance of the {@link AnalysisState}
+	 *                            containing the abstract state of the analysis
+	 *                            to run, used to retrieve top and bottom values
+	 * @param startingPoints  a map between {@link Statement}s that to use as a
+	 *                            starting point of the computation (that must
+	 *                            be nodes of this cfg) and the entry states to
+	 *                            apply on it
+	 * @param interprocedural the callgraph that can be queried when a call
+	 *                            towards an other cfg is encountered
+	 * @param conf            the {@link FixpointConfiguration} tuning the
+	 *                            computation
+	 * 
+	 * @return a {@link CFGWithAnalysisResults} instance that is equivalent to
+	 *             this control flow graph, and that stores for each
+	 *             {@link Statement} the result of the fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a statement, or if some
+	 *                               unknown/invalid statement ends up in the
+	 *                               working set
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> CFGWithAnalysisResults<A, H, V> fixpoint(
+					AnalysisState<A, H, V> singleton,
+					Map<Statement, AnalysisState<A, H, V>> startingPoints,
+					InterproceduralAnalysis<A, H, V> interprocedural,
+					FixpointConfiguration conf)
+					throws FixpointException {
+		if (conf.getIterationStrategy() == IterationStrategy.WORKLIST)
+			return new CFGWithAnalysisResults<A, H, V>(this, singleton, startingPoints,
+					super.fixpoint(startingPoints, interprocedural, FIFOWorkingSet.mk(), conf,
+							(st, entryState, callGraph, expressions) -> st.semantics(entryState, callGraph,
+									(StatementStore) expressions)));
+
+		return new CFGWithAnalysisResults<A, H, V>(this, singleton, startingPoints,
+				super.wtoFixpoint(startingPoints, interprocedural, conf,
 						(st, entryState, callGraph, expressions) -> st.semantics(entryState, callGraph,
 								(StatementStore) expressions)));
 	}
@@ -862,17 +1000,14 @@ public class CFG extends FixpointGraph<CFG, Statement, Edge> implements CodeMemb
 			H extends HeapDomain<H>,
 			V extends ValueDomain<V>> AnalysisState<A, H, V> cleanUpPostState(Statement node,
 					AnalysisState<A, H, V> computedState) throws SemanticException {
-		List<VariableTableEntry> toRemove = new LinkedList<>();
-		for (VariableTableEntry entry : descriptor.getVariables())
-			if (entry.getScopeEnd() == node)
-				toRemove.add(entry);
+		Collection<Variable> ending = scopeEnds().at(node);
+		if (ending.isEmpty())
+			return computedState;
 
 		Collection<Identifier> ids = new LinkedList<>();
-		for (VariableTableEntry entry : toRemove) {
-			SymbolicExpression v = entry.createReference(this).getVariable();
+		for (Variable v : ending)
 			for (SymbolicExpression expr : computedState.smallStepSemantics(v, node).getComputedExpressions())
 				ids.add((Identifier) expr);
-		}
 
 		if (!ids.isEmpty())
 			return computedState.forgetIdentifiers(ids);
@@ -880,6 +1015,49 @@ public class CFG extends FixpointGraph<CFG, Statement, Edge> implements CodeMemb
 		return computedState;
 	}
 
+	/**
+	 * {@inheritDoc}<br>
+	 * <br>
+	 * The loop heads of a cfg are the conditions of the {@link Loop}s returned
+	 * by {@link #getControlFlowStructures()}, together with the heads of the
+	 * cycles that do not traverse any of them (e.g., the ones introduced by
+	 * unstructured control flow).
+	 */
+	@Override
+	protected Set<Statement> getLoopHeads() {
+		Set<Statement> heads = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (ControlFlowStructure cfs : getControlFlowStructures())
+			if (cfs instanceof Loop)
+				heads.add(cfs.getCondition());
+		heads.addAll(findCycleHeads(heads));
+		return heads;
+	}
+
+	/**
+	 * {@inheritDoc}<br>
+	 * <br>
+	 * The thresholds of a cfg are the integral {@link Literal}s appearing in
+	 * it, each together with its predecessor and successor, so that both
+	 * strict and non-strict comparisons against them yield stable bounds.
+	 */
+	@Override
+	protected WideningThresholds getWideningThresholds() {
+		Collection<Long> constants = new HashSet<>();
+		accept(new ThresholdsHarvester(), constants);
+		return WideningThresholds.of(constants);
+	}
+
+	private ScopeEnds scopeEnds() {
+		ScopeEnds index = scopeEnds;
+		List<VariableTableEntry> variables = descriptor.getVariables();
+		// the version is read before scanning the variables: a concurrent
+		// change of some scope leaves the new index stale, and thus rebuilt
+		long version = descriptor.scopeChanges();
+		if (index == null || index.variables != variables.size() || index.version != version)
+			scopeEnds = index = new ScopeEnds(this, version, new VariableScopes(variables).ending);
+		return index;
+	}
+
 	@Override
 	protected DotCFG toDot(Function<Statement, String> labelGenerator) {
 		return DotCFG.fromCFG(this, null, labelGenerator);
@@ -925,11 +1103,13 @@ public class CFG extends FixpointGraph<CFG, Statement, Edge> implements CodeMemb
 	}
 
 	private void shiftVariableScopes(Statement node) {
-		Collection<
-				VariableTableEntry> starting = descriptor.getVariables().stream().filter(v -> v.getScopeStart() == node)
-						.collect(Collectors.toList());
-		Collection<VariableTableEntry> ending = descriptor.getVariables().stream().filter(v -> v.getScopeEnd() == node)
-				.collect(Collectors.toList());
+		VariableScopes scopes = simplifying != null ? simplifying : new VariableScopes(descriptor.getVariables());
+		List<VariableTableEntry> starting = scopes.starting.remove(node);
+		List<VariableTableEntry> ending = scopes.ending.remove(node);
+		if (starting == null)
+			starting = Collections.emptyList();
+		if (ending == null)
+			ending = Collections.emptyList();
 		if (ending.isEmpty() && starting.isEmpty())
 			return;
 
@@ -939,8 +1119,8 @@ public class CFG extends FixpointGraph<CFG, Statement, Edge> implements CodeMemb
 		if (predecessors.isEmpty() && followers.isEmpty()) {
 			log.warn("Simplifying the only statement of '" + this
 					+ "': all variables will be made visible for the entire cfg");
-			starting.forEach(v -> v.setScopeStart(null));
-			ending.forEach(v -> v.setScopeEnd(null));
+			scopes.moveStart(starting, null);
+			scopes.moveEnd(ending, null);
 			return;
 		}
 
@@ -956,7 +1136,7 @@ public class CFG extends FixpointGraph<CFG, Statement, Edge> implements CodeMemb
 					follow = null;
 				} else
 					follow = followers.iterator().next();
-				starting.forEach(v -> v.setScopeStart(follow));
+				scopes.moveStart(starting, follow);
 			} else {
 				// move the starting scope backward
 				Statement pred;
@@ -965,7 +1145,7 @@ public class CFG extends FixpointGraph<CFG, Statement, Edge> implements CodeMemb
 					pred = null;
 				} else
 					pred = predecessors.iterator().next();
-				starting.forEach(v -> v.setScopeStart(pred));
+				scopes.moveStart(starting, pred);
 			}
 
 		if (!ending.isEmpty())
@@ -978,7 +1158,7 @@ public class CFG extends FixpointGraph<CFG, Statement, Edge> implements CodeMemb
 					pred = null;
 				} else
 					pred = predecessors.iterator().next();
-				ending.forEach(v -> v.setScopeEnd(pred));
+				scopes.moveEnd(ending, pred);
 			} else {
 				// move the ending scope forward
 				Statement follow;
@@ -987,7 +1167,7 @@ public class CFG extends FixpointGraph<CFG, Statement, Edge> implements CodeMemb
 					follow = null;
 				} else
 					follow = followers.iterator().next();
-				ending.forEach(v -> v.setScopeEnd(follow));
+				scopes.moveEnd(ending, follow);
 			}
 	}
 
@@ -1267,4 +1447,107 @@ public class CFG extends FixpointGraph<CFG, Statement, Edge> implements CodeMemb
 	public Statement getMostRecentIfThenElseGuard(ProgramPoint pp) {
 		return getRecent(pp, IfThenElse.class::isInstance);
 	}
+
+	/**
+	 * An index of the variables of a cfg by the statements where their scope
+	 * starts and ends. Statements are compared by identity, and variables
+	 * without a starting or ending statement are not indexed.
+	 */
+	private static final class VariableScopes {
+
+		private final Map<Statement, List<VariableTableEntry>> starting = new IdentityHashMap<>();
+
+		private final Map<Statement, List<VariableTableEntry>> ending = new IdentityHashMap<>();
+
+		private VariableScopes(Collection<VariableTableEntry> variables) {
+			for (VariableTableEntry entry : variables) {
+				add(starting, entry.getScopeStart(), entry);
+				add(ending, entry.getScopeEnd(), entry);
+			}
+		}
+
+		private static void add(Map<Statement, List<VariableTableEntry>> index, Statement st,
+				VariableTableEntry entry) {
+			if (st != null)
+				index.computeIfAbsent(st, k -> new LinkedList<>()).add(entry);
+		}
+
+		private void moveStart(Collection<VariableTableEntry> entries, Statement target) {
+			for (VariableTableEntry entry : entries) {
+				entry.setScopeStart(target);
+				add(starting, target, entry);
+			}
+		}
+
+		private void moveEnd(Collection<VariableTableEntry> entries, Statement target) {
+			for (VariableTableEntry entry : entries) {
+				entry.setScopeEnd(target);
+				add(ending, target, entry);
+			}
+		}
+	}
+
+	/**
+	 * The variables going out of scope after each statement of a cfg, already
+	 * converted to the {@link Variable}s to forget. Instances are never
+	 * modified after being built, and can thus be shared among fixpoints
+	 * running in parallel.
+	 */
+	private static final class ScopeEnds {
+
+		private final int variables;
+
+		private final long version;
+
+		private final Map<Statement, Collection<Variable>> forgotten = new IdentityHashMap<>();
+
+		private ScopeEnds(CFG cfg, long version, Map<Statement, List<VariableTableEntry>> ending) {
+			this.variables = cfg.descriptor.getVariables().size();
+			this.version = version;
+			for (Entry<Statement, List<VariableTableEntry>> entry : ending.entrySet()) {
+				Collection<Variable> vars = new ArrayList<>(entry.getValue().size());
+				for (VariableTableEntry variable : entry.getValue())
+					vars.add(variable.createReference(cfg).getVariable());
+				forgotten.put(entry.getKey(), vars);
+			}
+		}
+
+		private Collection<Variable> at(Statement st) {
+			return forgotten.getOrDefault(st, Collections.emptyList());
+		}
+	}
+
+	/**
+	 * A {@link GraphVisitor} collecting the integral literals of a cfg,
+	 * together with their predecessors and successors.
+	 */
+	private static final class ThresholdsHarvester implements GraphVisitor<CFG, Statement, Edge, Collection<Long>> {
+
+		@Override
+		public boolean visit(Collection<Long> tool, CFG graph) {
+			return true;
+		}
+
+		@Override
+		public boolean visit(Collection<Long> tool, CFG graph, Statement node) {
+			if (node instanceof Literal) {
+				Object value = ((Literal) node).getValue();
+				if (value instanceof Integer || value instanceof Long || value instanceof Short
+						|| value instanceof Byte) {
+					long v = ((Number) value).longValue();
+					tool.add(v);
+					if (v != Long.MIN_VALUE)
+						tool.add(v - 1);
+					if (v != Long.MAX_VALUE)
+						tool.add(v + 1);
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public boolean visit(Collection<Long> tool, CFG graph, Edge edge) {
+			return true;
+		}
+	}
 }
@@ -12,6 +12,7 @@ import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -47,6 +48,12 @@ public class CFGDescriptor implements CodeElement {
 	 */
 	private final List<VariableTableEntry> variables;
 
+	/**
+	 * The number of times the scope of a variable in {@link #variables} has
+	 * been changed, used by the cfg to detect a stale scope index
+	 */
+	private final AtomicLong scopeChanges;
+
 	/**
 	 * Whether or not the cfg is an instance cfg
 	 */
@@ -145,6 +152,7 @@ public class CFGDescriptor implements CodeElement {
 		overrides = new HashSet<>();
 
 		this.variables = new LinkedList<>();
+		this.scopeChanges = new AtomicLong();
 		int i = 0;
 		for (Parameter arg : args)
 			addVariable(new VariableTableEntry(arg.getLocation(), i++, null, null,
@@ -257,7 +265,8 @@ public class CFGDescriptor implements CodeElement {
 	/**
 	 * Adds a {@link VariableTableEntry} at the end of the variable table. The
 	 * index of the variable gets overwritten with the first free index for this
-	 * descriptor.
+	 * descriptor. Changes to the scope of the variable made after this call
+	 * are notified to this descriptor.
 	 * 
 	 * @param variable the entry to add
 	 */
@@ -265,6 +274,25 @@ public class CFGDescriptor implements CodeElement {
 		if (variable.getIndex() != variables.size())
 			variable.setIndex(variables.size());
 		variables.add(variable);
+		variable.setDescriptor(this);
+	}
+
+	/**
+	 * Records that the scope of a variable of this descriptor has changed.
+	 */
+	void scopeChanged() {
+		scopeChanges.incrementAndGet();
+	}
+
+	/**
+	 * Yields the number of times the scope of a variable of this descriptor
+	 * has changed. Scope indexes built when this method returned a different
+	 * value might be stale.
+	 * 
+	 * @return the number of scope changes
+	 */
+	long scopeChanges() {
+		return scopeChanges.get();
 	}
 
 	/**
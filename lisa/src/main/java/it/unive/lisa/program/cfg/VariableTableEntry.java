@@ -52,6 +52,13 @@ public class VariableTableEntry implements CodeElement {
 
 	private Annotations annotations;
 
+	/**
+	 * The descriptor whose variable table contains this entry, notified of
+	 * scope changes. {@code null} if this entry has not been added to a
+	 * descriptor.
+	 */
+	private CFGDescriptor descriptor;
+
 	/**
 	 * Builds an untyped variable table entry, identified by its index. Its type
 	 * is unknown (i.e. it is {#link Untyped#INSTANCE}).
@@ -176,6 +183,8 @@ public class VariableTableEntry implements CodeElement {
 	 */
 	public void setScopeStart(Statement scopeStart) {
 		this.scopeStart = scopeStart;
+		if (descriptor != null)
+			descriptor.scopeChanged();
 	}
 
 	/**
@@ -198,6 +207,17 @@ public class VariableTableEntry implements CodeElement {
 	 */
 	public void setScopeEnd(Statement scopeEnd) {
 		this.scopeEnd = scopeEnd;
+		if (descriptor != null)
+			descriptor.scopeChanged();
+	}
+
+	/**
+	 * Sets the descriptor whose variable table contains this entry.
+	 * 
+	 * @param descriptor the descriptor
+	 */
+	void setDescriptor(CFGDescriptor descriptor) {
+		this.descriptor = descriptor;
 	}
 
 	/**
@@ -28,6 +28,12 @@ public abstract class Edge implements SemanticEdge<Statement, Edge, CFG> {
 	 */
 	private final Statement destination;
 
+	/**
+	 * The fingerprint of this edge, lazily computed by
+	 * {@link #fingerprint()}, or {@code 0} if it has not been computed yet.
+	 */
+	private int fingerprint;
+
 	/**
 	 * Builds the edge.
 	 * 
@@ -104,6 +110,27 @@ public abstract class Edge implements SemanticEdge<Statement, Edge, CFG> {
 		return true;
 	}
 
+	/**
+	 * {@inheritDoc}<br>
+	 * <br>
+	 * The fingerprint of an edge combines its class with the fingerprints of
+	 * its source and destination. Since both are fixed at construction, the
+	 * fingerprint is computed only once.
+	 */
+	@Override
+	public final int fingerprint() {
+		int result = fingerprint;
+		if (result == 0) {
+			final int prime = 31;
+			result = getClass().getName().hashCode();
+			result = prime * result + source.fingerprint();
+			result = prime * result + destination.fingerprint();
+			// 0 is reserved for fingerprints not computed yet
+			fingerprint = result = result == 0 ? 1 : result;
+		}
+		return result;
+	}
+
 	@Override
 	public abstract String toString();
 
@@ -72,6 +72,15 @@ public abstract class BinaryExpression extends Expression {
 		return right.setOffset(left.setOffset(offset + 1) + 1);
 	}
 
+	@Override
+	protected int computeFingerprint() {
+		final int prime = 31;
+		int result = super.computeFingerprint();
+		result = prime * result + ((left == null) ? 0 : left.fingerprint());
+		result = prime * result + ((right == null) ? 0 : right.fingerprint());
+		return result;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -6,6 +6,7 @@ import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
 import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.caches.Caches;
 import it.unive.lisa.interprocedural.InterproceduralAnalysis;
 import it.unive.lisa.program.annotations.Annotation;
 import it.unive.lisa.program.cfg.CFG;
@@ -114,6 +115,15 @@ public class CFGCall extends Call implements MetaVariableCreator {
 		return qualifiedName;
 	}
 
+	@Override
+	protected int computeFingerprint() {
+		// targets are compared by identity, and are thus not considered
+		final int prime = 31;
+		int result = super.computeFingerprint();
+		result = prime * result + ((qualifiedName == null) ? 0 : qualifiedName.hashCode());
+		return result;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -152,7 +162,8 @@ public class CFGCall extends Call implements MetaVariableCreator {
 
 	@Override
 	public final Identifier getMetaVariable() {
-		return new Variable(getRuntimeTypes(), "call_ret_value@" + getLocation());
+		return Caches.identifiers()
+				.intern(new Variable(getRuntimeTypes().immutable(), "call_ret_value@" + getLocation()));
 	}
 
 	@Override
@@ -187,17 +198,19 @@ public class CFGCall extends Call implements MetaVariableCreator {
 			// the stack
 			return returned.smallStepSemantics(new Skip(), this);
 
-		Identifier meta = getMetaVariable();
 		for (SymbolicExpression expr : returned.getComputedExpressions())
 			// if(! (expr instanceof Skip)) //It might be the case it chose a
 			// target with void return type
 			getMetaVariables().add((Identifier) expr);
 
 		// propagates the annotations of the targets
-		// to the metavariable of this cfg call
+		// to the metavariable of this cfg call: this happens before interning
+		// it, since canonical instances are shared and must not be modified
+		Variable annotated = new Variable(getRuntimeTypes().immutable(), "call_ret_value@" + getLocation());
 		for (CFG target : targets)
 			for (Annotation ann : target.getDescriptor().getAnnotations())
-				meta.addAnnotation(ann);
+				annotated.addAnnotation(ann);
+		Identifier meta = Caches.identifiers().intern(annotated);
 
 		getMetaVariables().add(meta);
 
@@ -69,6 +69,15 @@ public abstract class Call extends Expression {
 		return off;
 	}
 
+	@Override
+	protected int computeFingerprint() {
+		final int prime = 31;
+		int result = super.computeFingerprint();
+		for (Expression param : parameters)
+			result = prime * result + ((param == null) ? 0 : param.fingerprint());
+		return result;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -144,6 +144,14 @@ public abstract class Expression extends Statement {
 		return metaVariables;
 	}
 
+	@Override
+	protected int computeFingerprint() {
+		final int prime = 31;
+		int result = super.computeFingerprint();
+		result = prime * result + ((staticType == null) ? 0 : staticType.hashCode());
+		return result;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -113,6 +113,15 @@ public class HybridCall extends Call {
 		return qualifiedName;
 	}
 
+	@Override
+	protected int computeFingerprint() {
+		// targets are compared by identity, and are thus not considered
+		final int prime = 31;
+		int result = super.computeFingerprint();
+		result = prime * result + ((qualifiedName == null) ? 0 : qualifiedName.hashCode());
+		return result;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
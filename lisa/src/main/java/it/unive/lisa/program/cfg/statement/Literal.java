@@ -57,6 +57,14 @@ public class Literal extends Expression {
 		return this.offset = offset;
 	}
 
+	@Override
+	protected int computeFingerprint() {
+		final int prime = 31;
+		int result = super.computeFingerprint();
+		result = prime * result + ((value == null) ? 0 : value.hashCode());
+		return result;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
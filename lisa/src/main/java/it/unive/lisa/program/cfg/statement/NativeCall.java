@@ -91,6 +91,14 @@ public abstract class NativeCall extends Call {
 		return constructName;
 	}
 
+	@Override
+	protected final int computeFingerprint() {
+		final int prime = 31;
+		int result = super.computeFingerprint();
+		result = prime * result + ((constructName == null) ? 0 : constructName.hashCode());
+		return result;
+	}
+
 	@Override
 	public final int hashCode() {
 		final int prime = 31;
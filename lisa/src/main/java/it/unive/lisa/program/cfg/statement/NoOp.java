@@ -37,6 +37,12 @@ public class NoOp extends Statement {
 		return this.offset = offset;
 	}
 
+	@Override
+	protected int computeFingerprint() {
+		// the location is not compared by isEqualTo
+		return getClass().getName().hashCode();
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -6,6 +6,7 @@ import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.lattices.ExpressionSet;
 import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.caches.Caches;
 import it.unive.lisa.interprocedural.InterproceduralAnalysis;
 import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.CodeLocation;
@@ -55,6 +56,14 @@ public class OpenCall extends Call implements MetaVariableCreator {
 		return targetName;
 	}
 
+	@Override
+	protected int computeFingerprint() {
+		final int prime = 31;
+		int result = super.computeFingerprint();
+		result = prime * result + ((targetName == null) ? 0 : targetName.hashCode());
+		return result;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -87,7 +96,8 @@ public class OpenCall extends Call implements MetaVariableCreator {
 
 	@Override
 	public final Identifier getMetaVariable() {
-		return new Variable(getRuntimeTypes(), "open_call_ret_value@" + getLocation());
+		return Caches.identifiers()
+				.intern(new Variable(getRuntimeTypes().immutable(), "open_call_ret_value@" + getLocation()));
 	}
 
 	@Override
@@ -6,6 +6,7 @@ import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.StatementStore;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.caches.Caches;
 import it.unive.lisa.interprocedural.InterproceduralAnalysis;
 import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.CodeLocation;
@@ -47,8 +48,8 @@ public class Return extends UnaryStatement implements MetaVariableCreator {
 
 	@Override
 	public final Identifier getMetaVariable() {
-		return new Variable(getExpression().getRuntimeTypes(),
-				"ret_value@" + getCFG().getDescriptor().getName());
+		return Caches.identifiers().intern(new Variable(getExpression().getRuntimeTypes().immutable(),
+				"ret_value@" + getCFG().getDescriptor().getName()));
 	}
 
 	@Override
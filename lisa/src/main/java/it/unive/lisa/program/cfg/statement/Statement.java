@@ -33,6 +33,12 @@ public abstract class Statement implements Node<Statement, Edge, CFG>, ProgramPo
 
 	private final CodeLocation location;
 
+	/**
+	 * The fingerprint of this statement, lazily computed by
+	 * {@link #fingerprint()}, or {@code 0} if it has not been computed yet.
+	 */
+	private int fingerprint;
+
 	/**
 	 * Builds a statement happening at the given source location.
 	 * 
@@ -123,6 +129,41 @@ public abstract class Statement implements Node<Statement, Edge, CFG>, ProgramPo
 		return true;
 	}
 
+	/**
+	 * {@inheritDoc}<br>
+	 * <br>
+	 * The fingerprint is computed through {@link #computeFingerprint()} the
+	 * first time this method is invoked, and it is cached afterwards.
+	 */
+	@Override
+	public final int fingerprint() {
+		int result = fingerprint;
+		if (result == 0) {
+			result = computeFingerprint();
+			// 0 is reserved for fingerprints not computed yet
+			fingerprint = result = result == 0 ? 1 : result;
+		}
+		return result;
+	}
+
+	/**
+	 * Computes the fingerprint of this statement (see {@link #fingerprint()}).
+	 * Subclasses that redefine {@link #isEqualTo(Statement)} must redefine
+	 * this method accordingly, only using information that is compared by
+	 * {@link #isEqualTo(Statement)}, and combining the
+	 * {@link #fingerprint()} of nested statements instead of their whole
+	 * structure. The information used must not change after the statement has
+	 * been built, since the result of this method is cached.
+	 * 
+	 * @return the fingerprint of this statement
+	 */
+	protected int computeFingerprint() {
+		final int prime = 31;
+		int result = getClass().getName().hashCode();
+		result = prime * result + location.hashCode();
+		return result;
+	}
+
 	@Override
 	public abstract String toString();
 
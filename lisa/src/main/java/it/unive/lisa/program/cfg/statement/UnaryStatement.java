@@ -57,6 +57,15 @@ public abstract class UnaryStatement extends Statement {
 		return expression.setOffset(offset + 1);
 	}
 
+	@Override
+	protected int computeFingerprint() {
+		// the location is not compared by isEqualTo
+		final int prime = 31;
+		int result = getClass().getName().hashCode();
+		result = prime * result + ((expression == null) ? 0 : expression.fingerprint());
+		return result;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -185,6 +185,14 @@ public class UnresolvedCall extends Call {
 		return instanceCall;
 	}
 
+	@Override
+	protected int computeFingerprint() {
+		final int prime = 31;
+		int result = super.computeFingerprint();
+		result = prime * result + ((targetName == null) ? 0 : targetName.hashCode());
+		return result;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -6,6 +6,7 @@ import it.unive.lisa.analysis.SemanticException;
 import it.unive.lisa.analysis.StatementStore;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.caches.Caches;
 import it.unive.lisa.interprocedural.InterproceduralAnalysis;
 import it.unive.lisa.program.annotations.Annotation;
 import it.unive.lisa.program.annotations.Annotations;
@@ -74,6 +75,14 @@ public class VariableRef extends Expression {
 		return name;
 	}
 
+	@Override
+	protected int computeFingerprint() {
+		final int prime = 31;
+		int result = super.computeFingerprint();
+		result = prime * result + ((name == null) ? 0 : name.hashCode());
+		return result;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -110,10 +119,10 @@ public class VariableRef extends Expression {
 	 * @return the expression representing the variable
 	 */
 	public Variable getVariable() {
-		Variable v = new Variable(getRuntimeTypes(), getName());
+		Variable v = new Variable(getRuntimeTypes().immutable(), getName());
 		for (Annotation ann : getAnnotations())
 			v.addAnnotation(ann);
-		return v;
+		return Caches.identifiers().intern(v);
 	}
 
 	@Override
@@ -7,13 +7,14 @@ import it.unive.lisa.symbolic.value.OutOfScopeIdentifier;
 import it.unive.lisa.symbolic.value.Variable;
 import it.unive.lisa.type.Type;
 import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import java.io.Serializable;
 
 /**
  * A symbolic expression that can be evaluated by {@link SemanticDomain}s.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  */
-public abstract class SymbolicExpression {
+public abstract class SymbolicExpression implements Serializable {
 
 	/**
 	 * The runtime types of this expression
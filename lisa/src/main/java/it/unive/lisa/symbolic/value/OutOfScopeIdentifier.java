@@ -2,6 +2,7 @@ package it.unive.lisa.symbolic.value;
 
 import it.unive.lisa.analysis.ScopeToken;
 import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.caches.Caches;
 import it.unive.lisa.symbolic.ExpressionVisitor;
 import it.unive.lisa.symbolic.SymbolicExpression;
 import java.util.Objects;
@@ -13,8 +14,14 @@ import java.util.Objects;
  * @author <a href="mailto:pietro.ferrara@unive.it">Pietro Ferrara</a>
  */
 public class OutOfScopeIdentifier extends Identifier {
-	private ScopeToken scope;
-	private Identifier id;
+	private final ScopeToken scope;
+	private final Identifier id;
+
+	/**
+	 * The hash code of this identifier, computed on first use since the one of
+	 * the scope can be expensive
+	 */
+	private transient int hash;
 
 	/**
 	 * Builds the identifier outside the scope.
@@ -23,7 +30,9 @@ public class OutOfScopeIdentifier extends Identifier {
 	 * @param scope the method call that caused the identifier to exit the scope
 	 */
 	public OutOfScopeIdentifier(Identifier id, ScopeToken scope) {
-		super(id.getTypes(), scope.toString() + ":" + id.getName(), id.isWeak());
+		// canonical identifiers must not share the types of the ones they hide
+		super(id.getTypes() == null ? null : id.getTypes().immutable(), scope.toString() + ":" + id.getName(),
+				id.isWeak());
 		this.id = id;
 		this.scope = scope;
 	}
@@ -42,7 +51,7 @@ public class OutOfScopeIdentifier extends Identifier {
 
 	@Override
 	public SymbolicExpression pushScope(ScopeToken token) {
-		return new OutOfScopeIdentifier(this, token);
+		return Caches.identifiers().intern(new OutOfScopeIdentifier(this, token));
 	}
 
 	@Override
@@ -63,9 +72,21 @@ public class OutOfScopeIdentifier extends Identifier {
 		return this.scope;
 	}
 
+	/**
+	 * Returns the identifier that went out of scope.
+	 * 
+	 * @return the identifier that went out of scope
+	 */
+	public Identifier getId() {
+		return this.id;
+	}
+
 	@Override
 	public int hashCode() {
-		return Objects.hash(super.hashCode(), scope);
+		int h = hash;
+		if (h == 0)
+			hash = h = Objects.hash(super.hashCode(), scope);
+		return h;
 	}
 
 	@Override
@@ -2,6 +2,7 @@ package it.unive.lisa.symbolic.value;
 
 import it.unive.lisa.analysis.ScopeToken;
 import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.caches.Caches;
 import it.unive.lisa.program.annotations.Annotations;
 import it.unive.lisa.symbolic.ExpressionVisitor;
 import it.unive.lisa.symbolic.SymbolicExpression;
@@ -38,7 +39,7 @@ public class Variable extends Identifier {
 
 	@Override
 	public SymbolicExpression pushScope(ScopeToken token) {
-		return new OutOfScopeIdentifier(this, token);
+		return Caches.identifiers().intern(new OutOfScopeIdentifier(this, token));
 	}
 
 	@Override
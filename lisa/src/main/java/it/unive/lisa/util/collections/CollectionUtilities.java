@@ -2,9 +2,16 @@ package it.unive.lisa.util.collections;
 
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.function.BiPredicate;
+import java.util.function.ToIntFunction;
 
 /**
  * Utility methods for operations on {@link Collection}s.
@@ -85,6 +92,63 @@ public class CollectionUtilities {
 		return true;
 	}
 
+	/**
+	 * Tests if two collections contain the same elements, using a custom
+	 * equality test to determine if two elements are to be considered equals,
+	 * exactly as {@link #equals(Collection, Collection, BiPredicate)}. The
+	 * elements of {@code second} are indexed through the given
+	 * {@code hasher}, and each element of {@code first} is tested only against
+	 * the ones with the same hash: this makes the comparison linear in the size
+	 * of the collections, instead of quadratic, if hashes are well distributed.
+	 * The given {@code hasher} must be consistent with {@code equalityTest},
+	 * that is, elements that are equal according to {@code equalityTest} must
+	 * have the same hash.
+	 * 
+	 * @param <T>          the type of elements in the collections
+	 * @param <C>          the type of the collections to test
+	 * @param first        the first collection
+	 * @param second       the second collection
+	 * @param hasher       the function computing the hashes of the elements
+	 * @param equalityTest the tester for equality of the objects within the
+	 *                         collections
+	 * 
+	 * @return {@code true} only if the collections contain exactly the same set
+	 *             of elements (order-insensitive)
+	 */
+	public static <T, C extends Collection<T>> boolean equals(C first, C second, ToIntFunction<T> hasher,
+			BiPredicate<T, T> equalityTest) {
+		// the following keeps track of the unmatched nodes in second,
+		// indexed by hash
+		Map<Integer, List<T>> unmatched = new HashMap<>();
+		for (T t2 : new LinkedHashSet<>(second))
+			unmatched.computeIfAbsent(hasher.applyAsInt(t2), h -> new LinkedList<>()).add(t2);
+
+		for (T t1 : first) {
+			int hash = hasher.applyAsInt(t1);
+			List<T> candidates = unmatched.get(hash);
+			if (candidates == null)
+				// no match found
+				return false;
+
+			boolean found = false;
+			for (Iterator<T> it = candidates.iterator(); it.hasNext();)
+				if (equalityTest.test(t1, it.next())) {
+					it.remove();
+					found = true;
+					break;
+				}
+
+			if (!found)
+				// no match found
+				return false;
+			if (candidates.isEmpty())
+				unmatched.remove(hash);
+		}
+
+		// unmatched in other
+		return unmatched.isEmpty();
+	}
+
 	/**
 	 * Joins (union) two collections, using a custom equality test to determine
 	 * if two elements are to be considered equals and thus joined together
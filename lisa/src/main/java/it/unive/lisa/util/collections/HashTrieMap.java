@@ -0,0 +1,655 @@
+package it.unive.lisa.util.collections;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A {@link Map} implemented as a hash array mapped trie. Each level of the
+ * trie consumes five bits of the hash of the keys, and stores in an array only
+ * the entries and sub-tries for the hash fragments actually used, selected
+ * through a bitmap. Nodes of the trie are shared between maps: copying a map
+ * through {@link #HashTrieMap(Map)} takes constant time, and later
+ * modifications to any of the two maps copy only the nodes on the path to the
+ * modified entry, making {@link #put(Object, Object)} and
+ * {@link #remove(Object)} logarithmic in the size of the map. Nodes that are
+ * not shared with other maps are instead modified in place, so that a map
+ * that is filled without being copied does not create unnecessary garbage.<br>
+ * <br>
+ * Since equal keys are always stored at the same position in the trie, a node
+ * that is shared by two maps holds the same entries in both of them.
+ * {@link #keysNotSharedWith(HashTrieMap)} exploits this to yield the keys that
+ * might be mapped differently in two maps without visiting the shared nodes,
+ * and {@link #equals(Object)} uses it to compare maps derived from each other.
+ * <br>
+ * <br>
+ * This map does not support {@code null} keys, while {@code null} values are
+ * permitted. Like {@link java.util.HashMap}, it is not thread safe. When
+ * serialized, only the entries of the map are written, and the sharing of the
+ * nodes is lost.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class HashTrieMap<K, V> extends AbstractMap<K, V> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int BITS = 5;
+
+	private static final int MASK = (1 << BITS) - 1;
+
+	private static final Object NOT_FOUND = new Object();
+
+	/**
+	 * The root of the trie, {@code null} if this map is empty
+	 */
+	private transient Node root;
+
+	/**
+	 * The number of entries in this map
+	 */
+	private transient int size;
+
+	/**
+	 * The token identifying the nodes that can be modified in place, since
+	 * they are not shared with other maps
+	 */
+	private transient Object owner;
+
+	/**
+	 * Builds an empty map.
+	 */
+	public HashTrieMap() {
+		owner = new Object();
+	}
+
+	/**
+	 * Builds a map containing the same mappings of the given one. If
+	 * {@code other} is a {@link HashTrieMap}, this takes constant time since
+	 * the two maps will share their nodes.
+	 *
+	 * @param other the map to copy
+	 */
+	@SuppressWarnings("unchecked")
+	public HashTrieMap(Map<? extends K, ? extends V> other) {
+		owner = new Object();
+		if (other instanceof HashTrieMap) {
+			HashTrieMap<K, V> trie = (HashTrieMap<K, V>) other;
+			root = trie.root;
+			size = trie.size;
+			// the nodes are now shared, so the other map cannot modify
+			// them in place anymore
+			trie.owner = new Object();
+		} else
+			putAll(other);
+	}
+
+	private static int hash(Object key) {
+		int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return key != null && root != null && root.find(0, hash(key), key) != NOT_FOUND;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(Object key) {
+		if (key == null || root == null)
+			return null;
+		Object result = root.find(0, hash(key), key);
+		return result == NOT_FOUND ? null : (V) result;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V put(K key, V value) {
+		Objects.requireNonNull(key, "Null keys are not supported");
+		int hash = hash(key);
+		Change change = new Change();
+		if (root == null)
+			root = new BitmapNode(owner, 0, new Object[0]).put(owner, 0, hash, key, value, change);
+		else
+			root = root.put(owner, 0, hash, key, value, change);
+		if (change.added)
+			size++;
+		return (V) change.previous;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V remove(Object key) {
+		if (key == null || root == null)
+			return null;
+		Change change = new Change();
+		root = root.remove(owner, 0, hash(key), key, change);
+		if (!change.removed)
+			return null;
+		size--;
+		return (V) change.previous;
+	}
+
+	@Override
+	public void clear() {
+		root = null;
+		size = 0;
+	}
+
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		return new EntrySet();
+	}
+
+	/**
+	 * Yields the keys of this map that are not stored in nodes shared with
+	 * {@code other}. All the keys of this map that are not returned are mapped
+	 * to the same value (by identity) in {@code other}. This visits only the
+	 * parts of the two tries that are different.
+	 *
+	 * @param other the other map
+	 *
+	 * @return the keys that might have a different mapping in {@code other}
+	 */
+	@SuppressWarnings("unchecked")
+	public Set<K> keysNotSharedWith(HashTrieMap<K, ?> other) {
+		Set<Object> keys = new HashSet<>();
+		diff(root, other.root, keys);
+		return (Set<K>) keys;
+	}
+
+	private static void diff(Node mine, Node theirs, Set<Object> keys) {
+		if (mine == theirs || mine == null)
+			return;
+
+		if (!(mine instanceof BitmapNode) || !(theirs instanceof BitmapNode)) {
+			collect(mine, keys);
+			return;
+		}
+
+		BitmapNode x = (BitmapNode) mine, y = (BitmapNode) theirs;
+		for (int i = 0, bits = x.bitmap; bits != 0; i++, bits &= bits - 1) {
+			int bit = Integer.lowestOneBit(bits);
+			Object key = x.array[2 * i], value = x.array[2 * i + 1];
+			if ((y.bitmap & bit) == 0) {
+				if (key == null)
+					collect((Node) value, keys);
+				else
+					keys.add(key);
+				continue;
+			}
+
+			int j = y.index(bit);
+			Object otherKey = y.array[2 * j], otherValue = y.array[2 * j + 1];
+			if (key == null && otherKey == null)
+				diff((Node) value, (Node) otherValue, keys);
+			else if (key == null)
+				collect((Node) value, keys);
+			else if (key != otherKey || value != otherValue)
+				keys.add(key);
+		}
+	}
+
+	private static void collect(Node node, Set<Object> keys) {
+		for (int i = 0; i < node.pairs(); i++) {
+			Object key = node.array[2 * i];
+			if (key == null)
+				collect((Node) node.array[2 * i + 1], keys);
+			else
+				keys.add(key);
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+		if (!(o instanceof HashTrieMap))
+			return super.equals(o);
+
+		HashTrieMap<?, ?> other = (HashTrieMap<?, ?>) o;
+		if (root == other.root)
+			return true;
+		if (size != other.size)
+			return false;
+
+		// since the sizes are equal, it is enough to check that the entries
+		// of this map are also in the other one
+		Set<Object> keys = new HashSet<>();
+		diff(root, other.root, keys);
+		for (Object key : keys) {
+			Object value = other.root.find(0, hash(key), key);
+			if (value == NOT_FOUND || !Objects.equals(value, root.find(0, hash(key), key)))
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		return super.hashCode();
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(size);
+		for (Entry<K, V> entry : entrySet()) {
+			out.writeObject(entry.getKey());
+			out.writeObject(entry.getValue());
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		owner = new Object();
+		int entries = in.readInt();
+		for (int i = 0; i < entries; i++)
+			put((K) in.readObject(), (V) in.readObject());
+	}
+
+	/**
+	 * The result of a modification of the trie.
+	 */
+	private static final class Change {
+
+		private boolean added;
+
+		private boolean removed;
+
+		private Object previous;
+	}
+
+	/**
+	 * A node of the trie. Its array contains pairs of elements: if the first
+	 * element of a pair is {@code null}, the second one is a child node,
+	 * otherwise the two elements are a key and its value.
+	 */
+	private abstract static class Node {
+
+		protected final Object owner;
+
+		protected Object[] array;
+
+		private Node(Object owner, Object[] array) {
+			this.owner = owner;
+			this.array = array;
+		}
+
+		protected final int pairs() {
+			return array.length / 2;
+		}
+
+		protected abstract Object find(int shift, int hash, Object key);
+
+		protected abstract Node put(Object owner, int shift, int hash, Object key, Object value, Change change);
+
+		protected abstract Node remove(Object owner, int shift, int hash, Object key, Change change);
+
+		protected final boolean isSingleEntry() {
+			return array.length == 2 && array[0] != null;
+		}
+	}
+
+	private static final class BitmapNode extends Node {
+
+		private int bitmap;
+
+		private BitmapNode(Object owner, int bitmap, Object[] array) {
+			super(owner, array);
+			this.bitmap = bitmap;
+		}
+
+		private int index(int bit) {
+			return Integer.bitCount(bitmap & (bit - 1));
+		}
+
+		@Override
+		protected Object find(int shift, int hash, Object key) {
+			BitmapNode node = this;
+			while (true) {
+				int bit = 1 << ((hash >>> shift) & MASK);
+				if ((node.bitmap & bit) == 0)
+					return NOT_FOUND;
+				int i = node.index(bit);
+				Object k = node.array[2 * i];
+				Object v = node.array[2 * i + 1];
+				if (k == null) {
+					if (!(v instanceof BitmapNode))
+						return ((Node) v).find(shift + BITS, hash, key);
+					node = (BitmapNode) v;
+					shift += BITS;
+				} else
+					return key.equals(k) ? v : NOT_FOUND;
+			}
+		}
+
+		private BitmapNode set(Object owner, int position, Object element) {
+			if (this.owner == owner) {
+				array[position] = element;
+				return this;
+			}
+			Object[] copy = array.clone();
+			copy[position] = element;
+			return new BitmapNode(owner, bitmap, copy);
+		}
+
+		private BitmapNode set(Object owner, int i, Object key, Object value) {
+			BitmapNode node = this.owner == owner ? this : new BitmapNode(owner, bitmap, array.clone());
+			node.array[2 * i] = key;
+			node.array[2 * i + 1] = value;
+			return node;
+		}
+
+		private BitmapNode resize(Object owner, int bitmap, Object[] array) {
+			if (this.owner != owner)
+				return new BitmapNode(owner, bitmap, array);
+			this.bitmap = bitmap;
+			this.array = array;
+			return this;
+		}
+
+		@Override
+		protected Node put(Object owner, int shift, int hash, Object key, Object value, Change change) {
+			int bit = 1 << ((hash >>> shift) & MASK);
+			int i = index(bit);
+			if ((bitmap & bit) == 0) {
+				change.added = true;
+				Object[] grown = new Object[array.length + 2];
+				System.arraycopy(array, 0, grown, 0, 2 * i);
+				grown[2 * i] = key;
+				grown[2 * i + 1] = value;
+				System.arraycopy(array, 2 * i, grown, 2 * i + 2, array.length - 2 * i);
+				return resize(owner, bitmap | bit, grown);
+			}
+
+			Object k = array[2 * i];
+			Object v = array[2 * i + 1];
+			if (k == null) {
+				Node child = (Node) v;
+				Node updated = child.put(owner, shift + BITS, hash, key, value, change);
+				return updated == child ? this : set(owner, 2 * i + 1, updated);
+			}
+
+			if (key.equals(k)) {
+				change.previous = v;
+				return v == value ? this : set(owner, 2 * i + 1, value);
+			}
+
+			change.added = true;
+			return set(owner, i, null, pair(owner, shift + BITS, hash(k), k, v, hash, key, value));
+		}
+
+		@Override
+		protected Node remove(Object owner, int shift, int hash, Object key, Change change) {
+			int bit = 1 << ((hash >>> shift) & MASK);
+			if ((bitmap & bit) == 0)
+				return this;
+
+			int i = index(bit);
+			Object k = array[2 * i];
+			Object v = array[2 * i + 1];
+			if (k == null) {
+				Node child = (Node) v;
+				Node updated = child.remove(owner, shift + BITS, hash, key, change);
+				if (updated == child)
+					return this;
+				if (updated == null)
+					return without(owner, bit, i);
+				if (updated.isSingleEntry())
+					// the entry can be moved up
+					return set(owner, i, updated.array[0], updated.array[1]);
+				return set(owner, 2 * i + 1, updated);
+			}
+
+			if (!key.equals(k))
+				return this;
+
+			change.removed = true;
+			change.previous = v;
+			return without(owner, bit, i);
+		}
+
+		private BitmapNode without(Object owner, int bit, int i) {
+			if (bitmap == bit)
+				return null;
+			Object[] shrunk = new Object[array.length - 2];
+			System.arraycopy(array, 0, shrunk, 0, 2 * i);
+			System.arraycopy(array, 2 * i + 2, shrunk, 2 * i, shrunk.length - 2 * i);
+			return resize(owner, bitmap ^ bit, shrunk);
+		}
+	}
+
+	private static Node pair(Object owner, int shift, int hash1, Object key1, Object value1, int hash2, Object key2,
+			Object value2) {
+		if (hash1 == hash2)
+			return new CollisionNode(owner, hash1, new Object[] { key1, value1, key2, value2 });
+
+		int frag1 = (hash1 >>> shift) & MASK, frag2 = (hash2 >>> shift) & MASK;
+		if (frag1 == frag2)
+			return new BitmapNode(owner, 1 << frag1,
+					new Object[] { null, pair(owner, shift + BITS, hash1, key1, value1, hash2, key2, value2) });
+		if (frag1 < frag2)
+			return new BitmapNode(owner, (1 << frag1) | (1 << frag2), new Object[] { key1, value1, key2, value2 });
+		return new BitmapNode(owner, (1 << frag1) | (1 << frag2), new Object[] { key2, value2, key1, value1 });
+	}
+
+	/**
+	 * A node holding entries whose keys have the same hash.
+	 */
+	private static final class CollisionNode extends Node {
+
+		private final int hash;
+
+		private CollisionNode(Object owner, int hash, Object[] array) {
+			super(owner, array);
+			this.hash = hash;
+		}
+
+		private int indexOf(Object key) {
+			for (int i = 0; i < array.length; i += 2)
+				if (key.equals(array[i]))
+					return i;
+			return -1;
+		}
+
+		@Override
+		protected Object find(int shift, int hash, Object key) {
+			if (hash != this.hash)
+				return NOT_FOUND;
+			int i = indexOf(key);
+			return i < 0 ? NOT_FOUND : array[i + 1];
+		}
+
+		@Override
+		protected Node put(Object owner, int shift, int hash, Object key, Object value, Change change) {
+			if (hash != this.hash)
+				// the new key shares only a prefix of the hash: this node
+				// is pushed one level down
+				return new BitmapNode(owner, 1 << ((this.hash >>> shift) & MASK), new Object[] { null, this })
+						.put(owner, shift, hash, key, value, change);
+
+			int i = indexOf(key);
+			Object[] copy;
+			if (i >= 0) {
+				change.previous = array[i + 1];
+				if (array[i + 1] == value)
+					return this;
+				copy = this.owner == owner ? array : array.clone();
+				copy[i + 1] = value;
+			} else {
+				change.added = true;
+				copy = new Object[array.length + 2];
+				System.arraycopy(array, 0, copy, 0, array.length);
+				copy[array.length] = key;
+				copy[array.length + 1] = value;
+			}
+
+			if (this.owner != owner)
+				return new CollisionNode(owner, hash, copy);
+			array = copy;
+			return this;
+		}
+
+		@Override
+		protected Node remove(Object owner, int shift, int hash, Object key, Change change) {
+			int i = hash == this.hash ? indexOf(key) : -1;
+			if (i < 0)
+				return this;
+
+			change.removed = true;
+			change.previous = array[i + 1];
+			if (array.length == 2)
+				return null;
+			Object[] shrunk = new Object[array.length - 2];
+			System.arraycopy(array, 0, shrunk, 0, i);
+			System.arraycopy(array, i + 2, shrunk, i, shrunk.length - i);
+			if (this.owner != owner)
+				return new CollisionNode(owner, hash, shrunk);
+			array = shrunk;
+			return this;
+		}
+	}
+
+	private final class EntrySet extends AbstractSet<Entry<K, V>> {
+
+		@Override
+		public Iterator<Entry<K, V>> iterator() {
+			return new EntryIterator();
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof Entry))
+				return false;
+			Entry<?, ?> e = (Entry<?, ?>) o;
+			return containsKey(e.getKey()) && Objects.equals(get(e.getKey()), e.getValue());
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			if (!contains(o))
+				return false;
+			HashTrieMap.this.remove(((Entry<?, ?>) o).getKey());
+			return true;
+		}
+
+		@Override
+		public void clear() {
+			HashTrieMap.this.clear();
+		}
+	}
+
+	private final class EntryIterator implements Iterator<Entry<K, V>> {
+
+		private final Deque<Node> nodes = new ArrayDeque<>();
+
+		private final Deque<Integer> positions = new ArrayDeque<>();
+
+		private Entry<K, V> next;
+
+		private Entry<K, V> last;
+
+		private EntryIterator() {
+			if (root != null) {
+				nodes.push(root);
+				positions.push(0);
+			}
+			advance();
+		}
+
+		@SuppressWarnings("unchecked")
+		private void advance() {
+			next = null;
+			while (!nodes.isEmpty()) {
+				Node node = nodes.peek();
+				int i = positions.pop();
+				if (i == node.pairs()) {
+					nodes.pop();
+					continue;
+				}
+				positions.push(i + 1);
+				Object key = node.array[2 * i];
+				Object value = node.array[2 * i + 1];
+				if (key == null) {
+					nodes.push((Node) value);
+					positions.push(0);
+				} else {
+					next = new TrieEntry((K) key, (V) value);
+					return;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public Entry<K, V> next() {
+			if (next == null)
+				throw new NoSuchElementException();
+			last = next;
+			advance();
+			return last;
+		}
+
+		@Override
+		public void remove() {
+			if (last == null)
+				throw new IllegalStateException();
+			// the nodes being visited must not be modified in place
+			owner = new Object();
+			HashTrieMap.this.remove(last.getKey());
+			last = null;
+		}
+	}
+
+	private final class TrieEntry extends SimpleEntry<K, V> {
+
+		private static final long serialVersionUID = 1L;
+
+		private TrieEntry(K key, V value) {
+			super(key, value);
+		}
+
+		@Override
+		public V setValue(V value) {
+			// the nodes being visited must not be modified in place
+			owner = new Object();
+			put(getKey(), value);
+			return super.setValue(value);
+		}
+	}
+}
@@ -4,11 +4,18 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 import org.apache.commons.lang3.StringUtils;
 
 /**
  * An {@link ExternalSet} where the indexes of the elements included in the set
- * are stored through bit vectors, enabling better memory efficiency.
+ * are stored through bit vectors, enabling better memory efficiency.<br>
+ * <br>
+ * The bit vectors are always kept without trailing zero words (except for the
+ * first one), so that read-only operations never modify the set. The
+ * cardinality of the set is computed lazily through population counts and
+ * cached until the set is modified. Use {@link #immutable()} to obtain a copy
+ * that can be freely shared.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -96,6 +103,12 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 	 */
 	private final ExternalSetCache<T> cache;
 
+	/**
+	 * The number of elements in this set, or {@code -1} if it has to be
+	 * recomputed
+	 */
+	private int cardinality = -1;
+
 	/**
 	 * Builds an empty set connected to the given cache.
 	 * 
@@ -125,6 +138,7 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 	BitExternalSet(BitExternalSet<T> other) {
 		this.bits = other.bits.clone();
 		this.cache = other.cache;
+		this.cardinality = other.cardinality;
 	}
 
 	/**
@@ -182,11 +196,13 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 			// of the element that we are adding
 			expand(1 + bitvector);
 			set(bits, pos);
+			cardinality = -1;
 			return true;
 		} else if (isset(localbits, pos))
 			return false;
 
 		set(localbits, pos);
+		cardinality = -1;
 		return true;
 	}
 
@@ -211,6 +227,7 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 
 			for (--otherlength; otherlength >= 0; otherlength--)
 				bits[otherlength] |= otherbits[otherlength];
+			cardinality = -1;
 		}
 	}
 
@@ -229,27 +246,23 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 			return false;
 
 		long[] localbits = this.bits;
-		if (bitvector_index(pos) >= localbits.length)
+		if (bitvector_index(pos) >= localbits.length || !isset(localbits, pos))
 			return false;
 
 		unset(localbits, pos);
 		removeTrailingZeros();
+		cardinality = -1;
 		return true;
 	}
 
 	@Override
 	public int size() {
-		long bitvector;
-		int count = 0;
-		long[] localbits = this.bits;
-
-		for (int pos = localbits.length - 1; pos >= 0; pos--) {
-			bitvector = localbits[pos];
-			if (bitvector != 0L)
-				for (int i = 0; i < 64; i++)
-					// we iterate over all possible bits of the bitvector
-					if (isset(localbits, 64 * pos + i))
-						count++;
+		int count = cardinality;
+		if (count < 0) {
+			count = 0;
+			for (long bitvector : bits)
+				count += Long.bitCount(bitvector);
+			cardinality = count;
 		}
 
 		return count;
@@ -257,23 +270,52 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 
 	@Override
 	public boolean isEmpty() {
-		removeTrailingZeros();
-		return bits.length == 1 && bits[0] == 0L;
+		if (cardinality >= 0)
+			return cardinality == 0;
+		// trailing zeros are always removed, so only the first bitvector can
+		// be zero in a non-empty set
+		long[] localbits = bits;
+		return localbits.length == 1 && localbits[0] == 0L;
 	}
 
 	private void removeTrailingZeros() {
 		long[] localbits = bits;
-		int length = localbits.length;
+		int length = trimmedLength(localbits);
+		if (length != localbits.length)
+			// if we decreased at least once, we can shrink the bits
+			shrink(length);
+	}
 
+	/**
+	 * Yields the length of the given bitvector once its trailing zero words
+	 * are removed.
+	 * 
+	 * @param bits the bitvector
+	 * 
+	 * @return the length without trailing zeros, always at least {@code 1}
+	 */
+	private static int trimmedLength(long[] bits) {
+		int length = bits.length;
 		// we search for the right-most bitvector that has at least one
 		// bit set to 1, excluding the first one since if even if it is
 		// zero we have to leave it as it is (at least one bitvector is needed)
-		while (length > 1 && localbits[length - 1] == 0L)
+		while (length > 1 && bits[length - 1] == 0L)
 			length--;
+		return length;
+	}
 
-		if (length != localbits.length)
-			// if we decreased at least once, we can shrink the bits
-			shrink(length);
+	/**
+	 * Yields an immutable copy of this set, that can be shared without
+	 * copying it. Every attempt to modify the returned set will raise an
+	 * {@link UnsupportedOperationException}.
+	 * 
+	 * @return the immutable copy
+	 */
+	@Override
+	public BitExternalSet<T> immutable() {
+		BitExternalSet<T> result = new ImmutableBitExternalSet<>(bits.clone(), cache);
+		result.cardinality = cardinality;
+		return result;
 	}
 
 	@Override
@@ -302,7 +344,8 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 			return false;
 		if (this == obj)
 			return true;
-		if (obj.getClass() != getClass())
+		if (!(obj instanceof BitExternalSet))
+			// immutable copies are equal to mutable ones
 			return false;
 		BitExternalSet<?> other = (BitExternalSet<?>) obj;
 		if (cache != other.cache)
@@ -320,6 +363,7 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 	@Override
 	public void clear() {
 		this.bits = new long[1];
+		this.cardinality = 0;
 	}
 
 	@Override
@@ -391,28 +435,15 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 
 		BitExternalSet<T> o = (BitExternalSet<T>) other;
 
-		int index;
-		long[] otherbits;
-		BitExternalSet<T> result;
-
-		// copy the shortest one, then perform bitwise and with the longest one
-		// on
-		// common bits
-		if (this.bits.length > o.bits.length) {
-			otherbits = this.bits;
-			index = o.bits.length;
-			result = new BitExternalSet<>(o);
-		} else {
-			otherbits = o.bits;
-			index = bits.length;
-			result = new BitExternalSet<>(this);
-		}
+		// only the common bitvectors can have bits set in both
+		long[] localbits = this.bits, otherbits = o.bits;
+		int length = Math.min(localbits.length, otherbits.length);
+		long[] res = new long[length];
+		for (int i = 0; i < length; i++)
+			res[i] = localbits[i] & otherbits[i];
 
-		long[] res = result.bits;
-		while (index > 0)
-			res[--index] &= otherbits[index];
-		result.removeTrailingZeros();
-		return result;
+		length = trimmedLength(res);
+		return new BitExternalSet<>(length == res.length ? res : Arrays.copyOf(res, length), cache);
 	}
 
 	@Override
@@ -429,19 +460,14 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 
 		BitExternalSet<T> o = (BitExternalSet<T>) other;
 
-		long[] localbits = this.bits;
-		int pos = localbits.length;
-		BitExternalSet<T> result = new BitExternalSet<>(this);
-		long[] otherbits = o.bits, res = result.bits;
-
-		if (otherbits.length < pos)
-			pos = otherbits.length;
-
+		long[] localbits = this.bits, otherbits = o.bits;
+		long[] res = localbits.clone();
+		int pos = Math.min(localbits.length, otherbits.length);
 		while (--pos >= 0)
 			res[pos] &= ~otherbits[pos];
 
-		result.removeTrailingZeros();
-		return result;
+		int length = trimmedLength(res);
+		return new BitExternalSet<>(length == res.length ? res : Arrays.copyOf(res, length), cache);
 	}
 
 	@Override
@@ -459,102 +485,79 @@ public class BitExternalSet<T> implements ExternalSet<T> {
 		BitExternalSet<T> o = (BitExternalSet<T>) other;
 
 		long[] localbits = this.bits, otherbits = o.bits;
-		int thislength = localbits.length, otherlength = otherbits.length;
-		BitExternalSet<T> result;
-
-		if (thislength < otherlength) {
-			result = new BitExternalSet<>(o);
-			long[] res = result.bits;
-			for (--thislength; thislength >= 0; thislength--)
-				res[thislength] |= localbits[thislength];
-		} else {
-			result = new BitExternalSet<>(this);
-			long[] res = result.bits;
-			while (--otherlength >= 0)
-				res[otherlength] |= otherbits[otherlength];
+		long[] longest = localbits, shortest = otherbits;
+		if (localbits.length < otherbits.length) {
+			longest = otherbits;
+			shortest = localbits;
 		}
 
-		return result;
+		// the union of two trimmed bitvectors is trimmed as well
+		long[] res = longest.clone();
+		for (int i = shortest.length - 1; i >= 0; i--)
+			res[i] |= shortest[i];
+		return new BitExternalSet<>(res, cache);
 	}
 
 	/**
-	 * An iterator over the elements of a {@link BitExternalSet}.
+	 * An iterator over the elements of a {@link BitExternalSet}. The iterator
+	 * works one word at a time, jumping directly to the next set bit through
+	 * {@link Long#numberOfTrailingZeros(long)}.
 	 * 
 	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
 	 */
 	private class BitSetIterator implements Iterator<T> {
 
 		/**
-		 * The next bit to look at
+		 * The bits to iterate over
 		 */
-		private int next;
+		private final long[] bits;
 
 		/**
-		 * The bits to iterate over
+		 * The index of the bitvector currently being visited
 		 */
-		private final long[] bits;
+		private int word;
 
 		/**
-		 * The total number of bits to iterate over
+		 * The bits of the current bitvector that have not been visited yet
 		 */
-		private final int totalBits;
+		private long remaining;
 
 		/**
 		 * Builds an iterator from the given bits and elements.
 		 */
 		private BitSetIterator() {
 			this.bits = BitExternalSet.this.bits;
-			this.totalBits = bits.length << 6; // we go back to the integer
-												// representation
-			this.next = findNextBit();
+			this.word = 0;
+			this.remaining = bits[0];
+			skipEmptyWords();
 		}
 
 		/**
-		 * Yields the next non-ZERO bit in the set.
-		 * 
-		 * @return the position of the next non-zero bit in the set, starting at
-		 *             {@code start} non-inclusive, or {@code -1}
+		 * Moves to the first bitvector, starting from the current one, that
+		 * still has bits to visit.
 		 */
-		private int findNextBit() {
+		private void skipEmptyWords() {
 			long[] localbits = this.bits;
-			int start = next;
-			int l = this.totalBits;
-
-			while (start < l) {
-				int pos = bitvector_index(start);
-				long bitvector = localbits[pos];
-
-				while (bitvector == 0L) {
-					// we can skip to the next vector
-					if ((start += 64) >= l)
-						return -1;
-					bitvector = localbits[++pos];
-				}
-
-				long bit = bitmask(start);
-				do {
-					if ((bitvector & bit) != 0L)
-						return start;
-
-					bit <<= 1;
-					start++;
-				} while (bit != 0);
-			}
-
-			return -1;
+			while (remaining == 0L && word < localbits.length - 1)
+				remaining = localbits[++word];
 		}
 
 		@Override
 		public boolean hasNext() {
-			return next >= 0;
+			return remaining != 0L;
 		}
 
 		@Override
 		public T next() {
-			int nb = next++;
-			next = findNextBit();
-
-			return cache.get(nb);
+			long current = remaining;
+			if (current == 0L)
+				throw new NoSuchElementException();
+
+			int pos = (word << 6) + Long.numberOfTrailingZeros(current);
+			// clear the lowest bit set
+			remaining = current & (current - 1);
+			skipEmptyWords();
+			return cache.get(pos);
 		}
 
 		/**
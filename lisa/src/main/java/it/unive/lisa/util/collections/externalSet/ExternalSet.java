@@ -70,6 +70,18 @@ public interface ExternalSet<T> extends Set<T> {
 	 */
 	ExternalSet<T> copy();
 
+	/**
+	 * Yields an immutable copy of this set, defined over the same cache and
+	 * containing the same elements. Immutable sets can be shared without
+	 * copying them, and every attempt to modify them will raise an
+	 * {@link UnsupportedOperationException}.
+	 * 
+	 * @return the immutable copy
+	 */
+	default ExternalSet<T> immutable() {
+		return getCache().mkImmutableSet(this);
+	}
+
 	/**
 	 * Determines if this set contains all elements of another if they share the
 	 * same cache. This method is faster than {@link #containsAll(Collection)}
@@ -1,15 +1,24 @@
 package it.unive.lisa.util.collections.externalSet;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A cache for creating {@link ExternalSet}s of the elements contained in this
- * cache.
+ * cache.<br>
+ * <br>
+ * The cache is safe to be shared among threads. Looking up an element that
+ * has already been added ({@link #indexOf(Object)},
+ * {@link #indexOfOrAdd(Object)} on a known element and {@link #get(int)})
+ * never blocks: indexes are stored in a {@link ConcurrentHashMap}, while
+ * elements are stored in fixed-size chunks that are never moved once
+ * allocated. Only the addition of new elements is serialized, and it makes
+ * each element visible before publishing its index.
  * 
  * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
  * 
@@ -18,24 +27,46 @@ import java.util.Map;
 public class ExternalSetCache<T> {
 
 	/**
-	 * The collection of elements in this cache
+	 * The key used in {@link #indexes} for the {@code null} element
 	 */
-	private final List<T> elements = new ArrayList<>(16);
+	private static final Object NULL = new Object();
+
+	/**
+	 * The number of bits used to address an element inside a chunk
+	 */
+	private static final int CHUNK_BITS = 10;
+
+	/**
+	 * The number of elements in each chunk
+	 */
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+	/**
+	 * The mask selecting the position of an element inside its chunk
+	 */
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	/**
+	 * The chunks holding the elements in this cache. Only the directory is
+	 * copied when it needs to grow: chunks are shared between copies
+	 */
+	private volatile Object[][] chunks = new Object[1][CHUNK_SIZE];
 
 	/**
 	 * A map from the elements to their index
 	 */
-	private final Map<T, Integer> indexes = new HashMap<>(16);
+	private final Map<Object, Integer> indexes = new ConcurrentHashMap<>(16);
 
 	/**
-	 * The next index available for new elements
+	 * The number of elements in this cache, that is also the next index
+	 * available for new elements
 	 */
-	private int nextIndex;
+	private volatile int size;
 
 	/**
-	 * The index assigned to the {@code null} key, if any.
+	 * The lock guarding the addition of new elements
 	 */
-	private int indexOfNull = -1;
+	private final Object lock = new Object();
 
 	/**
 	 * Builds an empty {@link ExternalSet} that uses this cache.
@@ -70,6 +101,19 @@ public class ExternalSetCache<T> {
 		return new BitExternalSet<T>(this, element);
 	}
 
+	/**
+	 * Builds an immutable {@link ExternalSet} that uses this cache and contains
+	 * the elements of the given iterable. The returned set can be shared
+	 * without copying it.
+	 *
+	 * @param iterable the iterable
+	 * 
+	 * @return the set
+	 */
+	public ExternalSet<T> mkImmutableSet(Iterable<T> iterable) {
+		return new BitExternalSet<T>(this, iterable).immutable();
+	}
+
 	/**
 	 * Builds an {@link ExternalSet} that uses this cache and contains all of
 	 * its elements. The returned set will stay up to date with this cache.
@@ -87,12 +131,9 @@ public class ExternalSetCache<T> {
 	 * 
 	 * @return the index of {@code e}, or {@code -1}
 	 */
-	protected synchronized final int indexOf(T e) {
-		if (e == null)
-			return indexOfNull;
-
+	protected final int indexOf(T e) {
 		Integer result;
-		return (result = indexes.get(e)) == null ? -1 : result;
+		return (result = indexes.get(e == null ? NULL : e)) == null ? -1 : result;
 	}
 
 	/**
@@ -103,23 +144,32 @@ public class ExternalSetCache<T> {
 	 * 
 	 * @return the index of {@code e}
 	 */
-	protected synchronized final int indexOfOrAdd(T e) {
-		if (e == null) {
-			if (indexOfNull == -1) {
-				elements.add(null);
-				indexOfNull = nextIndex++;
+	protected final int indexOfOrAdd(T e) {
+		Object key = e == null ? NULL : e;
+		Integer result = indexes.get(key);
+		if (result != null)
+			return result;
+
+		synchronized (lock) {
+			result = indexes.get(key);
+			if (result != null)
+				return result;
+
+			int index = size;
+			Object[][] current = chunks;
+			int chunk = index >>> CHUNK_BITS;
+			if (chunk == current.length) {
+				current = Arrays.copyOf(current, current.length * 2);
+				for (int i = chunk; i < current.length; i++)
+					current[i] = new Object[CHUNK_SIZE];
 			}
-			return indexOfNull;
+			current[chunk][index & CHUNK_MASK] = e;
+			// the volatile writes publish the element before its index
+			chunks = current;
+			size = index + 1;
+			indexes.put(key, index);
+			return index;
 		}
-
-		Integer result = indexes.get(e);
-		if (result == null)
-			return indexes.computeIfAbsent(e, el -> {
-				elements.add(e);
-				return nextIndex++;
-			});
-
-		return result;
 	}
 
 	/**
@@ -128,19 +178,28 @@ public class ExternalSetCache<T> {
 	 * @param pos the position
 	 * 
 	 * @return the element
+	 * 
+	 * @throws IndexOutOfBoundsException if {@code pos} is not the index of an
+	 *                                       element of this cache
 	 */
-	protected final synchronized T get(int pos) {
-		return elements.get(pos);
+	@SuppressWarnings("unchecked")
+	protected final T get(int pos) {
+		if (pos < 0 || pos >= size)
+			throw new IndexOutOfBoundsException("Index " + pos + " out of bounds for length " + size);
+		return (T) chunks[pos >>> CHUNK_BITS][pos & CHUNK_MASK];
 	}
 
 	/**
-	 * Cleans the cache, removing all elements.
+	 * Cleans the cache, removing all elements. This should not happen while
+	 * other threads are using the cache, as sets built before the cleaning
+	 * would be connected to different elements.
 	 */
-	public final synchronized void clear() {
-		elements.clear();
-		indexes.clear();
-		indexOfNull = -1;
-		nextIndex = 0;
+	public final void clear() {
+		synchronized (lock) {
+			indexes.clear();
+			chunks = new Object[1][CHUNK_SIZE];
+			size = 0;
+		}
 	}
 
 	/**
@@ -148,22 +207,31 @@ public class ExternalSetCache<T> {
 	 * 
 	 * @return the number of elements
 	 */
-	public final synchronized int size() {
-		return elements.size();
+	public final int size() {
+		return size;
 	}
 
 	@Override
-	public final synchronized String toString() {
-		return elements.toString();
+	public final String toString() {
+		return getAllElements().toString();
 	}
 
 	/**
-	 * Yields an unmodifiable view of all the elements currently in the cache.
+	 * Yields an unmodifiable snapshot of all the elements currently in the
+	 * cache. Since the snapshot is not affected by further additions to this
+	 * cache, it can be safely iterated while other threads are using the cache.
 	 * For a view that always stays up-to-date, use {@link #mkUniversalSet()}.
 	 * 
-	 * @return a view of the elements inside this cache
+	 * @return a snapshot of the elements inside this cache
 	 */
-	synchronized Collection<T> getAllElements() {
-		return Collections.unmodifiableCollection(elements);
+	@SuppressWarnings("unchecked")
+	Collection<T> getAllElements() {
+		// size is read first, so that all the elements below it are visible
+		int count = size;
+		Object[][] current = chunks;
+		List<T> elements = new ArrayList<>(count);
+		for (int i = 0; i < count; i++)
+			elements.add((T) current[i >>> CHUNK_BITS][i & CHUNK_MASK]);
+		return Collections.unmodifiableList(elements);
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package it.unive.lisa.util.collections.externalSet;
+
+import java.util.Collection;
+
+/**
+ * A {@link BitExternalSet} that cannot be modified. Since its bits never
+ * change, instances of this class can be shared among different owners and
+ * threads without copying them. Operations producing new sets (e.g.,
+ * {@link #union(ExternalSet)}) are still available, and yield modifiable
+ * sets.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ * 
+ * @param <T> the type of elements inside this set
+ */
+final class ImmutableBitExternalSet<T> extends BitExternalSet<T> {
+
+	/**
+	 * Builds a set with the given bits and cache. The bits must not be
+	 * modified after this call.
+	 * 
+	 * @param bits  the bits
+	 * @param cache the cache
+	 */
+	ImmutableBitExternalSet(long[] bits, ExternalSetCache<T> cache) {
+		super(bits, cache);
+	}
+
+	@Override
+	public BitExternalSet<T> immutable() {
+		return this;
+	}
+
+	@Override
+	public boolean add(T e) {
+		throw new UnsupportedOperationException("Cannot modify an immutable set");
+	}
+
+	@Override
+	public void addAll(ExternalSet<T> other) {
+		throw new UnsupportedOperationException("Cannot modify an immutable set");
+	}
+
+	@Override
+	public boolean remove(Object e) {
+		throw new UnsupportedOperationException("Cannot modify an immutable set");
+	}
+
+	@Override
+	public void clear() {
+		throw new UnsupportedOperationException("Cannot modify an immutable set");
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends T> c) {
+		throw new UnsupportedOperationException("Cannot modify an immutable set");
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		throw new UnsupportedOperationException("Cannot modify an immutable set");
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		throw new UnsupportedOperationException("Cannot modify an immutable set");
+	}
+}
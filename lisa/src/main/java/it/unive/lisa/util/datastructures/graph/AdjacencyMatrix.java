@@ -7,12 +7,14 @@ import it.unive.lisa.util.collections.externalSet.ExternalSetCache;
 import it.unive.lisa.util.workset.LIFOWorkingSet;
 import it.unive.lisa.util.workset.VisitOnceWorkingSet;
 import it.unive.lisa.util.workset.WorkingSet;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -55,6 +57,13 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 	 */
 	private int nextOffset;
 
+	/**
+	 * A compact snapshot of this matrix used for answering queries about its
+	 * structure, if this matrix has been compacted through {@link #compact()}
+	 * and has not been modified since then
+	 */
+	private volatile CompactAdjacencyMatrix<N, E, G> compact;
+
 	/**
 	 * Builds a new matrix.
 	 */
@@ -106,6 +115,7 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 	 * @param node the node to add
 	 */
 	public void addNode(N node) {
+		compact = null;
 		if (matrix.putIfAbsent(node, Pair.of(edgeFactory.mkEmptySet(), edgeFactory.mkEmptySet())) == null)
 			nextOffset = node.setOffset(nextOffset) + 1;
 	}
@@ -120,6 +130,7 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 		if (!containsNode(node, false))
 			return;
 
+		compact = null;
 		Pair<ExternalSet<E>, ExternalSet<E>> edges = matrix.get(node);
 		edges.getLeft().forEach(this::removeEdge);
 		edges.getRight().forEach(this::removeEdge);
@@ -145,6 +156,7 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 	 *                                           this matrix
 	 */
 	public void addEdge(E e) {
+		compact = null;
 		if (!matrix.containsKey(e.getSource()))
 			throw new UnsupportedOperationException("The source node is not in the graph");
 
@@ -161,6 +173,7 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 	 * @param e the edge to remove
 	 */
 	public void removeEdge(E e) {
+		compact = null;
 		if (!matrix.containsKey(e.getSource()) || !matrix.containsKey(e.getDestination()))
 			return;
 
@@ -180,6 +193,10 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 	 *             {@code null}
 	 */
 	public final E getEdgeConnecting(N source, N destination) {
+		CompactAdjacencyMatrix<N, E, G> compact = this.compact;
+		if (compact != null)
+			return compact.getEdgeConnecting(source, destination);
+
 		if (!matrix.containsKey(source))
 			return null;
 
@@ -190,6 +207,31 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 		return null;
 	}
 
+	/**
+	 * Builds a {@link CompactAdjacencyMatrix} snapshot of this matrix, that
+	 * will be used for answering {@link #followersOf(Node)},
+	 * {@link #predecessorsOf(Node)} and {@link #getEdgeConnecting(Node, Node)}
+	 * until this matrix is modified again. This is meant to be invoked once
+	 * the graph is finalized, and its structure will no longer change. Note
+	 * that edges added or removed directly to the sets returned by
+	 * {@link #getIngoingEdges(Node)} and {@link #getOutgoingEdges(Node)} are
+	 * not detected.
+	 */
+	public void compact() {
+		compact = new CompactAdjacencyMatrix<>(this);
+	}
+
+	/**
+	 * Yields the compact snapshot of this matrix built by {@link #compact()},
+	 * if this matrix has not been modified since then.
+	 * 
+	 * @return the snapshot, or {@code null} if this matrix has not been
+	 *             compacted
+	 */
+	public CompactAdjacencyMatrix<N, E, G> getCompact() {
+		return compact;
+	}
+
 	/**
 	 * Yields the ingoing edges to the given node.
 	 * 
@@ -235,6 +277,10 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 	 * @return the collection of followers, or {@code null}
 	 */
 	public final Collection<N> followersOf(N node) {
+		CompactAdjacencyMatrix<N, E, G> compact = this.compact;
+		if (compact != null)
+			return compact.followersOf(node);
+
 		if (!matrix.containsKey(node))
 			return null;
 
@@ -252,6 +298,10 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 	 * @return the collection of predecessors, or {@code null}
 	 */
 	public final Collection<N> predecessorsOf(N node) {
+		CompactAdjacencyMatrix<N, E, G> compact = this.compact;
+		if (compact != null)
+			return compact.predecessorsOf(node);
+
 		if (!matrix.containsKey(node))
 			return null;
 
@@ -286,6 +336,7 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 	 */
 	public synchronized void simplify(Set<N> targets, Collection<N> entrypoints, Collection<E> removedEdges,
 			Map<Pair<E, E>, E> replacedEdges) {
+		compact = null;
 		removedEdges.clear();
 		replacedEdges.clear();
 
@@ -358,14 +409,35 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 	 * @return {@code true} if the node is in this matrix
 	 */
 	public boolean containsNode(N node, boolean weakEquality) {
-		if (!weakEquality)
-			return matrix.containsKey(node);
+		if (matrix.containsKey(node))
+			return true;
 
-		for (N n : matrix.keySet())
-			if (n == node || n.equals(node) || n.isEqualTo(node))
-				return true;
+		return weakEquality && !nodesEqualTo(node).isEmpty();
+	}
 
-		return false;
+	/**
+	 * Yields the nodes of this matrix that are effectively equal to the given
+	 * one, according to {@link Node#isEqualTo(Node)}. If this matrix has been
+	 * compacted, the search is performed through the fingerprint index of the
+	 * snapshot. Otherwise, all nodes are scanned, but
+	 * {@link Node#isEqualTo(Node)} is invoked only on the ones with the same
+	 * {@link Node#fingerprint()} of {@code node}.
+	 * 
+	 * @param node the node
+	 * 
+	 * @return the nodes that are effectively equal to {@code node}
+	 */
+	public Collection<N> nodesEqualTo(N node) {
+		CompactAdjacencyMatrix<N, E, G> compact = this.compact;
+		if (compact != null)
+			return compact.nodesEqualTo(node);
+
+		int fingerprint = node.fingerprint();
+		List<N> result = new ArrayList<>(1);
+		for (N n : matrix.keySet())
+			if (n == node || (n.fingerprint() == fingerprint && n.isEqualTo(node)))
+				result.add(n);
+		return result;
 	}
 
 	/**
@@ -379,9 +451,21 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 	 * @return {@code true} if the edge is in this matrix
 	 */
 	public boolean containsEdge(E edge, boolean weakEquality) {
-		for (Pair<ExternalSet<E>, ExternalSet<E>> pair : matrix.values())
-			for (E e : pair.getRight())
-				if (e == edge || e.equals(edge) || (weakEquality && e.isEqualTo(edge)))
+		// edges are stored in the outgoing set of their source
+		Pair<ExternalSet<E>, ExternalSet<E>> edges = matrix.get(edge.getSource());
+		if (edges != null)
+			for (E e : edges.getRight())
+				if (e == edge || e.equals(edge))
+					return true;
+
+		if (!weakEquality)
+			return false;
+
+		// effectively equal edges have effectively equal sources
+		int fingerprint = edge.fingerprint();
+		for (N source : nodesEqualTo(edge.getSource()))
+			for (E e : matrix.get(source).getRight())
+				if (e.fingerprint() == fingerprint && e.isEqualTo(edge))
 					return true;
 
 		return false;
@@ -434,21 +518,73 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 		if (matrix == null) {
 			if (other.matrix != null)
 				return false;
-		} else if (!areEqual(matrix, other.matrix))
+		} else if (matrix.size() != other.matrix.size() || fingerprint() != other.fingerprint())
+			// cheap rejection: effectively equal matrices have the same
+			// fingerprint
+			return false;
+		else if (!areEqual(matrix, other.matrix))
 			return false;
 		return true;
 	}
 
 	private boolean areEqual(Map<N, Pair<ExternalSet<E>, ExternalSet<E>>> first,
 			Map<N, Pair<ExternalSet<E>, ExternalSet<E>>> second) {
-		return CollectionUtilities.equals(first.entrySet(), second.entrySet(),
+		return CollectionUtilities.equals(first.entrySet(), second.entrySet(), e -> e.getKey().fingerprint(),
 				(e1, e2) -> e1.getKey().isEqualTo(e2.getKey())
 						&& areEqual(e1.getValue().getLeft(), e2.getValue().getLeft())
 						&& areEqual(e1.getValue().getRight(), e2.getValue().getRight()));
 	}
 
 	private boolean areEqual(ExternalSet<E> first, ExternalSet<E> second) {
-		return CollectionUtilities.equals(first, second, (e, ee) -> e.isEqualTo(ee));
+		return first.size() == second.size()
+				&& CollectionUtilities.equals(first, second, E::fingerprint, (e, ee) -> e.isEqualTo(ee));
+	}
+
+	/**
+	 * Yields a structural fingerprint of this matrix, that is, a hash code that
+	 * is consistent with {@link #isEqualTo(AdjacencyMatrix)}: effectively equal
+	 * matrices have the same fingerprint, while matrices with different
+	 * fingerprints are guaranteed not to be effectively equal. The fingerprint
+	 * is an order-insensitive combination of the {@link Node#fingerprint()} of
+	 * all nodes and of the {@link Edge#fingerprint()} of all edges, and can
+	 * thus be used to detect changes in the structure of the graph. If this
+	 * matrix has been compacted through {@link #compact()}, the fingerprint is
+	 * the one cached in the snapshot, and it is returned in constant time.
+	 * 
+	 * @return the fingerprint of this matrix
+	 */
+	public int fingerprint() {
+		CompactAdjacencyMatrix<N, E, G> compact = this.compact;
+		if (compact != null)
+			return compact.fingerprint();
+
+		int result = 0;
+		for (Entry<N, Pair<ExternalSet<E>, ExternalSet<E>>> entry : matrix.entrySet()) {
+			result += spread(entry.getKey().fingerprint());
+			for (E edge : entry.getValue().getRight())
+				result += spread(~edge.fingerprint());
+		}
+		return result;
+	}
+
+	/**
+	 * Scrambles the bits of the given hash, so that summing the results
+	 * yields an order-insensitive combination of hashes that is less prone to
+	 * collisions than the sum of the original ones.
+	 * 
+	 * @param hash the hash to scramble
+	 * 
+	 * @return the scrambled hash
+	 */
+	static int spread(int hash) {
+		// finalization step of murmur3
+		int h = hash;
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		return h;
 	}
 
 	@Override
@@ -471,18 +607,15 @@ public class AdjacencyMatrix<N extends Node<N, E, G>, E extends Edge<N, E, G>, G
 	 * @param root the node to use as root for the removal
 	 */
 	public void removeFrom(N root) {
-		if (!containsNode(root, true))
-			return;
-
 		Set<N> add = new HashSet<>(), remove = new HashSet<>(), check = new HashSet<>();
 
 		if (containsNode(root, false))
 			add.add(root);
-		else {
-			for (N n : matrix.keySet())
-				if (n.isEqualTo(root))
-					add.add(n);
-		}
+		else
+			add.addAll(nodesEqualTo(root));
+
+		if (add.isEmpty())
+			return;
 
 		do {
 			// add the ones that were computed at last iteration
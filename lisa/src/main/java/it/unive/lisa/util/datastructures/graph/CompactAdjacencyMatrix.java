@@ -0,0 +1,368 @@
+package it.unive.lisa.util.datastructures.graph;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * An immutable, compact snapshot of an {@link AdjacencyMatrix}, stored in
+ * compressed sparse row format. Each node is assigned a dense index, and the
+ * followers and predecessors of all nodes are stored as indexes in two
+ * primitive arrays, where the ones of the {@code i}-th node are the elements
+ * between {@code start[i]} (included) and {@code start[i + 1]} (excluded).
+ * This makes the iteration over the neighbors of a node free of allocations,
+ * if done through {@link #indexOf(Node)}, {@link #followersCount(int)},
+ * {@link #follower(int, int)} and {@link #getNode(int)}, while
+ * {@link #followersOf(Node)} and {@link #predecessorsOf(Node)} return
+ * lightweight views over the arrays. Edges connecting two nodes are retrieved
+ * in constant time through an open addressing table keyed by the indexes of
+ * their endpoints.<br>
+ * <br>
+ * The snapshot also caches the {@link AdjacencyMatrix#fingerprint()} of the
+ * originating matrix, and indexes its nodes by {@link Node#fingerprint()}, so
+ * that searches through {@link Node#isEqualTo(Node)} only need to test the
+ * nodes with the same fingerprint.<br>
+ * <br>
+ * Neighbors are stored in the same order in which the originating matrix
+ * returns them, so that algorithms visiting the graph behave the same on both
+ * representations.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <N> the type of the {@link Node}s in this matrix
+ * @param <E> the type of the {@link Edge}s in this matrix
+ * @param <G> the type of the {@link Graph}s this matrix can be used in
+ */
+public final class CompactAdjacencyMatrix<N extends Node<N, E, G>,
+		E extends Edge<N, E, G>,
+		G extends Graph<G, N, E>> {
+
+	private static final long EMPTY = -1L;
+
+	private final Map<N, Integer> indexes;
+
+	private final Object[] nodes;
+
+	private final int[] succStart;
+
+	private final int[] succ;
+
+	private final int[] predStart;
+
+	private final int[] pred;
+
+	private final long[] edgeKeys;
+
+	private final Object[] edgeValues;
+
+	private final int mask;
+
+	private final Map<Integer, List<N>> fingerprints;
+
+	private final int fingerprint;
+
+	/**
+	 * Builds a compact snapshot of the given matrix. Later modifications to
+	 * {@code matrix} are not reflected in the snapshot.
+	 *
+	 * @param matrix the matrix to compact
+	 */
+	public CompactAdjacencyMatrix(AdjacencyMatrix<N, E, G> matrix) {
+		Collection<N> all = matrix.getNodes();
+		int size = all.size();
+		indexes = new HashMap<>(size * 2);
+		nodes = new Object[size];
+		for (N node : all) {
+			indexes.put(node, indexes.size());
+			nodes[indexes.size() - 1] = node;
+		}
+
+		int edges = 0;
+		for (Object node : nodes)
+			edges += matrix.getOutgoingEdges(cast(node)).size();
+
+		int capacity = Integer.highestOneBit(Math.max(edges, 1) * 2 - 1) << 1;
+		mask = capacity - 1;
+		edgeKeys = new long[capacity];
+		edgeValues = new Object[capacity];
+		Arrays.fill(edgeKeys, EMPTY);
+
+		fingerprints = new HashMap<>(size * 2);
+		int hash = 0;
+		for (Object node : nodes) {
+			N n = cast(node);
+			int fp = n.fingerprint();
+			fingerprints.computeIfAbsent(fp, k -> new ArrayList<>(1)).add(n);
+			hash += AdjacencyMatrix.spread(fp);
+			for (E edge : matrix.getOutgoingEdges(n))
+				hash += AdjacencyMatrix.spread(~edge.fingerprint());
+		}
+		fingerprint = hash;
+
+		succStart = new int[size + 1];
+		predStart = new int[size + 1];
+		int[] succBuffer = new int[edges];
+		int[] predBuffer = new int[edges];
+		int succCount = 0, predCount = 0;
+		for (int i = 0; i < size; i++) {
+			N node = cast(nodes[i]);
+			succStart[i] = succCount;
+			// duplicates are removed in the same way the matrix does
+			for (N follower : neighbors(matrix.getOutgoingEdges(node), true))
+				succBuffer[succCount++] = indexes.get(follower);
+			predStart[i] = predCount;
+			for (N predecessor : neighbors(matrix.getIngoingEdges(node), false))
+				predBuffer[predCount++] = indexes.get(predecessor);
+			for (E edge : matrix.getOutgoingEdges(node))
+				putEdge(key(i, indexes.get(edge.getDestination())), edge);
+		}
+		succStart[size] = succCount;
+		predStart[size] = predCount;
+		succ = Arrays.copyOf(succBuffer, succCount);
+		pred = Arrays.copyOf(predBuffer, predCount);
+	}
+
+	private Set<N> neighbors(Collection<E> edges, boolean followers) {
+		return edges.stream().map(e -> followers ? e.getDestination() : e.getSource()).collect(Collectors.toSet());
+	}
+
+	@SuppressWarnings("unchecked")
+	private N cast(Object node) {
+		return (N) node;
+	}
+
+	private static long key(int source, int destination) {
+		return ((long) source << 32) | (destination & 0xffffffffL);
+	}
+
+	private static int slot(long key, int mask) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mask;
+	}
+
+	private void putEdge(long key, E edge) {
+		int i = slot(key, mask);
+		while (edgeKeys[i] != EMPTY) {
+			if (edgeKeys[i] == key)
+				// keep the first edge, as the matrix does
+				return;
+			i = (i + 1) & mask;
+		}
+		edgeKeys[i] = key;
+		edgeValues[i] = edge;
+	}
+
+	/**
+	 * Yields the number of nodes in this matrix.
+	 *
+	 * @return the number of nodes
+	 */
+	public int size() {
+		return nodes.length;
+	}
+
+	/**
+	 * Yields the fingerprint of the originating matrix, computed when this
+	 * snapshot was built (see {@link AdjacencyMatrix#fingerprint()}).
+	 *
+	 * @return the fingerprint
+	 */
+	public int fingerprint() {
+		return fingerprint;
+	}
+
+	/**
+	 * Yields the nodes of this matrix that are effectively equal to the given
+	 * one, according to {@link Node#isEqualTo(Node)}. Only the nodes with the
+	 * same {@link Node#fingerprint()} of {@code node} are tested.
+	 *
+	 * @param node the node
+	 *
+	 * @return the nodes that are effectively equal to {@code node}
+	 */
+	public Collection<N> nodesEqualTo(N node) {
+		List<N> candidates = fingerprints.get(node.fingerprint());
+		if (candidates == null)
+			return Collections.emptyList();
+
+		List<N> result = new ArrayList<>(1);
+		for (N candidate : candidates)
+			if (candidate == node || candidate.isEqualTo(node))
+				result.add(candidate);
+		return result;
+	}
+
+	/**
+	 * Yields the dense index assigned to the given node.
+	 *
+	 * @param node the node
+	 *
+	 * @return the index of the node, or {@code -1} if the node is not part of
+	 *             this matrix
+	 */
+	public int indexOf(N node) {
+		Integer index = indexes.get(node);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Yields the node with the given index.
+	 *
+	 * @param index the index of the node
+	 *
+	 * @return the node
+	 */
+	public N getNode(int index) {
+		return cast(nodes[index]);
+	}
+
+	/**
+	 * Yields the number of distinct followers of the node with the given
+	 * index.
+	 *
+	 * @param index the index of the node
+	 *
+	 * @return the number of followers
+	 */
+	public int followersCount(int index) {
+		return succStart[index + 1] - succStart[index];
+	}
+
+	/**
+	 * Yields the index of the {@code i}-th follower of the node with the given
+	 * index.
+	 *
+	 * @param index the index of the node
+	 * @param i     the position of the follower, between {@code 0} and
+	 *                  {@link #followersCount(int)} (excluded)
+	 *
+	 * @return the index of the follower
+	 */
+	public int follower(int index, int i) {
+		return succ[succStart[index] + i];
+	}
+
+	/**
+	 * Yields the number of distinct predecessors of the node with the given
+	 * index.
+	 *
+	 * @param index the index of the node
+	 *
+	 * @return the number of predecessors
+	 */
+	public int predecessorsCount(int index) {
+		return predStart[index + 1] - predStart[index];
+	}
+
+	/**
+	 * Yields the index of the {@code i}-th predecessor of the node with the
+	 * given index.
+	 *
+	 * @param index the index of the node
+	 * @param i     the position of the predecessor, between {@code 0} and
+	 *                  {@link #predecessorsCount(int)} (excluded)
+	 *
+	 * @return the index of the predecessor
+	 */
+	public int predecessor(int index, int i) {
+		return pred[predStart[index] + i];
+	}
+
+	/**
+	 * Yields the collection of the nodes that are followers of the given one.
+	 * The returned collection is an unmodifiable view over this matrix.
+	 *
+	 * @param node the node
+	 *
+	 * @return the collection of followers, or {@code null} if the node is not
+	 *             part of this matrix
+	 */
+	public Collection<N> followersOf(N node) {
+		int index = indexOf(node);
+		return index < 0 ? null : new Neighbors(succ, succStart[index], succStart[index + 1]);
+	}
+
+	/**
+	 * Yields the collection of the nodes that are predecessors of the given
+	 * one. The returned collection is an unmodifiable view over this matrix.
+	 *
+	 * @param node the node
+	 *
+	 * @return the collection of predecessors, or {@code null} if the node is
+	 *             not part of this matrix
+	 */
+	public Collection<N> predecessorsOf(N node) {
+		int index = indexOf(node);
+		return index < 0 ? null : new Neighbors(pred, predStart[index], predStart[index + 1]);
+	}
+
+	/**
+	 * Yields the edge connecting the two given nodes, if any.
+	 *
+	 * @param source      the source node
+	 * @param destination the destination node
+	 *
+	 * @return the edge connecting {@code source} to {@code destination}, or
+	 *             {@code null} if no such edge exists or if one of the two
+	 *             nodes is not part of this matrix
+	 */
+	public E getEdgeConnecting(N source, N destination) {
+		int src = indexOf(source), dest = indexOf(destination);
+		if (src < 0 || dest < 0)
+			return null;
+		return getEdgeConnecting(src, dest);
+	}
+
+	/**
+	 * Yields the edge connecting the nodes with the two given indexes, if any.
+	 *
+	 * @param source      the index of the source node
+	 * @param destination the index of the destination node
+	 *
+	 * @return the edge connecting {@code source} to {@code destination}, or
+	 *             {@code null} if no such edge exists
+	 */
+	@SuppressWarnings("unchecked")
+	public E getEdgeConnecting(int source, int destination) {
+		long key = key(source, destination);
+		int i = slot(key, mask);
+		while (edgeKeys[i] != EMPTY) {
+			if (edgeKeys[i] == key)
+				return (E) edgeValues[i];
+			i = (i + 1) & mask;
+		}
+		return null;
+	}
+
+	private final class Neighbors extends AbstractList<N> {
+
+		private final int[] array;
+
+		private final int from;
+
+		private final int to;
+
+		private Neighbors(int[] array, int from, int to) {
+			this.array = array;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public N get(int index) {
+			return cast(nodes[array[from + index]]);
+		}
+
+		@Override
+		public int size() {
+			return to - from;
+		}
+	}
+}
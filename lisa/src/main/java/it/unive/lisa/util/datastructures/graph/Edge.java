@@ -39,6 +39,18 @@ public interface Edge<N extends Node<N, E, G>, E extends Edge<N, E, G>, G extend
 	 */
 	boolean isEqualTo(E other);
 
+	/**
+	 * Yields a structural fingerprint of this edge, that is, a hash code that
+	 * is consistent with {@link #isEqualTo(Edge)}: edges that are effectively
+	 * equal must have the same fingerprint, while edges with different
+	 * fingerprints are guaranteed not to be effectively equal. This usually
+	 * combines the {@link Node#fingerprint()} of the source and destination
+	 * nodes.
+	 * 
+	 * @return the fingerprint of this edge
+	 */
+	int fingerprint();
+
 	/**
 	 * Yields {@code true} if and only if this edge could be simplified if one
 	 * of the nodes connected to it is simplified (i.e., removed from the
@@ -0,0 +1,288 @@
+package it.unive.lisa.util.datastructures.graph;
+
+import it.unive.lisa.analysis.Lattice;
+import it.unive.lisa.analysis.WideningThresholds;
+import it.unive.lisa.caches.ResultCache;
+
+/**
+ * A holder for the parameters that tune fixpoint computations over
+ * {@link FixpointGraph}s.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class FixpointConfiguration {
+
+	/**
+	 * The strategy used to choose the order in which nodes are processed
+	 */
+	private IterationStrategy iterationStrategy;
+
+	/**
+	 * The number of iterations after which {@link Lattice#lub(Lattice)} gets
+	 * replaced by {@link Lattice#widening(Lattice)}
+	 */
+	private int widenAfter;
+
+	/**
+	 * The nodes where {@link Lattice#widening(Lattice)} can be applied
+	 */
+	private WideningPoints wideningPoints;
+
+	/**
+	 * Whether or not widening should use thresholds harvested from the
+	 * constants appearing in the graph
+	 */
+	private boolean wideningWithThresholds;
+
+	/**
+	 * The maximum number of descending iterations performed after the fixpoint
+	 * has been reached
+	 */
+	private int narrowingIterations;
+
+	/**
+	 * The cache used to store and retrieve fixpoint results, if any
+	 */
+	private ResultCache resultCache;
+
+	/**
+	 * The listener notified of the events of fixpoint computations, if any
+	 */
+	private FixpointListener listener;
+
+	/**
+	 * Builds a new configuration object, with default settings. By default:
+	 * <ul>
+	 * <li>the {@link IterationStrategy#WORKLIST} strategy is used</li>
+	 * <li>the widening threshold is
+	 * {@link FixpointGraph#DEFAULT_WIDENING_THRESHOLD}</li>
+	 * <li>widening can be applied on {@link WideningPoints#ALL_NODES}</li>
+	 * <li>widening does not use thresholds</li>
+	 * <li>no descending iteration is performed</li>
+	 * <li>no {@link ResultCache} is used</li>
+	 * <li>no {@link FixpointListener} is notified</li>
+	 * </ul>
+	 */
+	public FixpointConfiguration() {
+		this.iterationStrategy = IterationStrategy.WORKLIST;
+		this.widenAfter = FixpointGraph.DEFAULT_WIDENING_THRESHOLD;
+		this.wideningPoints = WideningPoints.ALL_NODES;
+	}
+
+	/**
+	 * Sets the {@link IterationStrategy} to use for fixpoint computations. Any
+	 * existing value is overwritten.
+	 * 
+	 * @param iterationStrategy the strategy to use
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public FixpointConfiguration setIterationStrategy(IterationStrategy iterationStrategy) {
+		this.iterationStrategy = iterationStrategy;
+		return this;
+	}
+
+	/**
+	 * Sets the number of iterations after which {@link Lattice#lub(Lattice)}
+	 * gets replaced by {@link Lattice#widening(Lattice)}. Use {@code 0} to
+	 * <b>always</b> use {@link Lattice#lub(Lattice)}. How iterations are
+	 * counted depends on the {@link IterationStrategy} in use.
+	 * 
+	 * @param widenAfter the widening threshold
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public FixpointConfiguration setWideningThreshold(int widenAfter) {
+		this.widenAfter = widenAfter;
+		return this;
+	}
+
+	/**
+	 * Sets the {@link WideningPoints} where {@link Lattice#widening(Lattice)}
+	 * can be applied. Any existing value is overwritten.
+	 * 
+	 * @param wideningPoints the nodes where widening can be applied
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public FixpointConfiguration setWideningPoints(WideningPoints wideningPoints) {
+		this.wideningPoints = wideningPoints;
+		return this;
+	}
+
+	/**
+	 * Sets whether or not {@link Lattice#widening(Lattice, WideningThresholds)}
+	 * should be used in place of {@link Lattice#widening(Lattice)}, with
+	 * thresholds harvested from the constants appearing in the graph (see
+	 * {@link FixpointGraph#getWideningThresholds()}).
+	 * 
+	 * @param wideningWithThresholds whether or not thresholds should be used
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public FixpointConfiguration setWideningWithThresholds(boolean wideningWithThresholds) {
+		this.wideningWithThresholds = wideningWithThresholds;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum number of descending iterations to perform once the
+	 * fixpoint has been reached. Each descending iteration recomputes the
+	 * results of all nodes starting from the current ones, without composing
+	 * them with previous results: since it starts from a post-fixpoint, this
+	 * can only refine results, recovering precision lost due to widening. Use
+	 * {@code 0} to disable the descending phase.
+	 * 
+	 * @param narrowingIterations the maximum number of descending iterations
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public FixpointConfiguration setNarrowingIterations(int narrowingIterations) {
+		this.narrowingIterations = narrowingIterations;
+		return this;
+	}
+
+	/**
+	 * Sets the {@link ResultCache} to use for storing and retrieving the
+	 * results of fixpoint computations. Use {@code null} to disable caching.
+	 * Any existing value is overwritten.
+	 * 
+	 * @param resultCache the cache to use
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public FixpointConfiguration setResultCache(ResultCache resultCache) {
+		this.resultCache = resultCache;
+		return this;
+	}
+
+	/**
+	 * Sets the {@link FixpointListener} to notify of the events happening
+	 * during fixpoint computations. Use {@code null} to disable the
+	 * instrumentation of fixpoints. Any existing value is overwritten.
+	 * 
+	 * @param listener the listener to notify
+	 * 
+	 * @return the current (modified) configuration
+	 */
+	public FixpointConfiguration setListener(FixpointListener listener) {
+		this.listener = listener;
+		return this;
+	}
+
+	/**
+	 * Yields the {@link IterationStrategy} to use for fixpoint computations.
+	 * 
+	 * @return the iteration strategy
+	 */
+	public IterationStrategy getIterationStrategy() {
+		return iterationStrategy;
+	}
+
+	/**
+	 * Yields the number of iterations after which {@link Lattice#lub(Lattice)}
+	 * gets replaced by {@link Lattice#widening(Lattice)}.
+	 * 
+	 * @return the widening threshold
+	 */
+	public int getWideningThreshold() {
+		return widenAfter;
+	}
+
+	/**
+	 * Yields the {@link WideningPoints} where {@link Lattice#widening(Lattice)}
+	 * can be applied.
+	 * 
+	 * @return the nodes where widening can be applied
+	 */
+	public WideningPoints getWideningPoints() {
+		return wideningPoints;
+	}
+
+	/**
+	 * Yields whether or not widening should use thresholds harvested from the
+	 * constants appearing in the graph.
+	 * 
+	 * @return {@code true} if thresholds should be used
+	 */
+	public boolean isWideningWithThresholds() {
+		return wideningWithThresholds;
+	}
+
+	/**
+	 * Yields the maximum number of descending iterations to perform once the
+	 * fixpoint has been reached.
+	 * 
+	 * @return the maximum number of descending iterations
+	 */
+	public int getNarrowingIterations() {
+		return narrowingIterations;
+	}
+
+	/**
+	 * Yields the {@link ResultCache} to use for storing and retrieving the
+	 * results of fixpoint computations, if any.
+	 * 
+	 * @return the result cache, or {@code null} if caching is disabled
+	 */
+	public ResultCache getResultCache() {
+		return resultCache;
+	}
+
+	/**
+	 * Yields the {@link FixpointListener} to notify of the events happening
+	 * during fixpoint computations, if any.
+	 * 
+	 * @return the listener, or {@code null} if fixpoints are not instrumented
+	 */
+	public FixpointListener getListener() {
+		return listener;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((iterationStrategy == null) ? 0 : iterationStrategy.hashCode());
+		result = prime * result + widenAfter;
+		result = prime * result + ((wideningPoints == null) ? 0 : wideningPoints.hashCode());
+		result = prime * result + (wideningWithThresholds ? 1231 : 1237);
+		result = prime * result + narrowingIterations;
+		result = prime * result + ((resultCache == null) ? 0 : resultCache.hashCode());
+		result = prime * result + ((listener == null) ? 0 : listener.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		FixpointConfiguration other = (FixpointConfiguration) obj;
+		if (iterationStrategy != other.iterationStrategy)
+			return false;
+		if (widenAfter != other.widenAfter)
+			return false;
+		if (wideningPoints != other.wideningPoints)
+			return false;
+		if (wideningWithThresholds != other.wideningWithThresholds)
+			return false;
+		if (narrowingIterations != other.narrowingIterations)
+			return false;
+		if (resultCache != other.resultCache)
+			return false;
+		if (listener != other.listener)
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "iteration strategy: " + iterationStrategy + ", widening threshold: " + widenAfter
+				+ ", widening points: " + wideningPoints + ", widening with thresholds: " + wideningWithThresholds
+				+ ", narrowing iterations: " + narrowingIterations;
+	}
+}
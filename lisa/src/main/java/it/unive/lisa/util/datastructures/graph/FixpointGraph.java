@@ -4,17 +4,26 @@ import it.unive.lisa.analysis.AbstractState;
 import it.unive.lisa.analysis.AnalysisState;
 import it.unive.lisa.analysis.Lattice;
 import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.WideningThresholds;
 import it.unive.lisa.analysis.heap.HeapDomain;
 import it.unive.lisa.analysis.lattices.FunctionalLattice;
 import it.unive.lisa.analysis.value.ValueDomain;
 import it.unive.lisa.interprocedural.InterproceduralAnalysis;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder.Element;
 import it.unive.lisa.util.workset.WorkingSet;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
@@ -135,11 +144,14 @@ public abstract class FixpointGraph<G extends FixpointGraph<G, N, E>,
 	 * iterations, up to {@code widenAfter * predecessors_number} times, where
 	 * {@code predecessors_number} is the number of expressions that are
 	 * predecessors of the one being processed. After overcoming that threshold,
-	 * {@link Lattice#widening(Lattice)} is used. The computation starts at the
-	 * nodes in {@code startingPoints}, using as its entry state their
-	 * respective value. {@code cg} will be invoked to get the approximation of
-	 * all invoked graphs, while {@code ws} is used as working set for the nodes
-	 * to process.
+	 * {@link Lattice#widening(Lattice)} is used, on the nodes selected by
+	 * {@link FixpointConfiguration#getWideningPoints()}. Once the fixpoint has
+	 * been reached, up to {@link FixpointConfiguration#getNarrowingIterations()}
+	 * descending iterations are performed to refine the results. The
+	 * computation starts at the nodes in {@code startingPoints}, using as its
+	 * entry state their respective value. {@code cg} will be invoked to get the
+	 * approximation of all invoked graphs, while {@code ws} is used as working
+	 * set for the nodes to process.
 	 * 
 	 * @param <A>             the type of {@link AbstractState}
 	 * @param <H>             the type of {@link HeapDomain} contained into the
@@ -158,12 +170,8 @@ public abstract class FixpointGraph<G extends FixpointGraph<G, N, E>,
 	 *                            encountered
 	 * @param ws              the {@link WorkingSet} instance to use for this
 	 *                            computation
-	 * @param widenAfter      the number of times after which the
-	 *                            {@link Lattice#lub(Lattice)} invocation gets
-	 *                            replaced by the
-	 *                            {@link Lattice#widening(Lattice)} call. Use
-	 *                            {@code 0} to <b>always</b> use
-	 *                            {@link Lattice#lub(Lattice)}
+	 * @param conf            the {@link FixpointConfiguration} tuning the
+	 *                            widening and narrowing operations
 	 * @param semantics       the {@link SemanticFunction} that will be used for
 	 *                            computing the abstract post-state of nodes
 	 * 
@@ -181,12 +189,20 @@ public abstract class FixpointGraph<G extends FixpointGraph<G, N, E>,
 			V extends ValueDomain<V>,
 			F extends FunctionalLattice<F, N, AnalysisState<A, H, V>>> Map<N, AnalysisState<A, H, V>> fixpoint(
 					Map<N, AnalysisState<A, H, V>> startingPoints, InterproceduralAnalysis<A, H, V> interprocedural,
-					WorkingSet<N> ws, int widenAfter, SemanticFunction<N, E, G, A, H, V, F> semantics)
+					WorkingSet<N> ws, FixpointConfiguration conf, SemanticFunction<N, E, G, A, H, V, F> semantics)
 					throws FixpointException {
+		FixpointListener listener = conf.getListener();
+		long start = clock(listener);
+		int widenAfter = conf.getWideningThreshold();
+		WideningThresholds thresholds = thresholds(conf);
+		Set<N> wideningPoints = conf.getWideningPoints() == WideningPoints.LOOP_HEADS ? getLoopHeads() : null;
 		int size = adjacencyMatrix.getNodes().size();
 		Map<N, AtomicInteger> lubs = new HashMap<>(size);
 		Map<N, Pair<AnalysisState<A, H, V>, F>> result = new HashMap<>(size);
+		Map<E, Pair<AnalysisState<A, H, V>, AnalysisState<A, H, V>>> traversals = new IdentityHashMap<>();
 		startingPoints.keySet().forEach(ws::push);
+		if (listener != null)
+			listener.workingSetGrown(this, ws.size());
 
 		AnalysisState<A, H, V> oldApprox = null, newApprox;
 		F oldIntermediate = null, newIntermediate;
@@ -202,12 +218,15 @@ public abstract class FixpointGraph<G extends FixpointGraph<G, N, E>,
 							+ "' is not part of this graph, and cannot be analyzed in this fixpoint computation");
 
 				AnalysisState<A, H, V> entrystate;
+				long time = clock(listener);
 				try {
-					entrystate = getEntryState(current, startingPoints, result);
+					entrystate = getEntryState(current, startingPoints, result, traversals);
 				} catch (SemanticException e) {
 					throw new FixpointException(
 							"Exception while computing the entry state for '" + current + "' in " + this, e);
 				}
+				if (listener != null)
+					listener.entryStateComputed(this, current, System.nanoTime() - time);
 
 				if (entrystate == null)
 					throw new FixpointException(current + " does not have an entry state");
@@ -222,7 +241,10 @@ public abstract class FixpointGraph<G extends FixpointGraph<G, N, E>,
 
 				try {
 					newIntermediate = (F) mkInternalStore(entrystate);
+					time = clock(listener);
 					newApprox = semantics.compute(current, entrystate, interprocedural, newIntermediate);
+					if (listener != null)
+						listener.semanticsComputed(this, current, System.nanoTime() - time);
 				} catch (SemanticException e) {
 					log.error("Evaluation of the semantics of '" + current + "' in " + this
 							+ " led to an exception: " + e);
@@ -231,9 +253,11 @@ public abstract class FixpointGraph<G extends FixpointGraph<G, N, E>,
 
 				if (oldApprox != null && oldIntermediate != null)
 					try {
-						if (widenAfter == 0) {
+						if (widenAfter == 0 || (wideningPoints != null && !wideningPoints.contains(current))) {
 							newApprox = newApprox.lub(oldApprox);
 							newIntermediate = newIntermediate.lub(oldIntermediate);
+							if (listener != null)
+								listener.lubApplied(this, current);
 						} else {
 							// we multiply by the number of predecessors since
 							// if we have more than one
@@ -245,9 +269,13 @@ public abstract class FixpointGraph<G extends FixpointGraph<G, N, E>,
 							if (lub > 0) {
 								newApprox = newApprox.lub(oldApprox);
 								newIntermediate = newIntermediate.lub(oldIntermediate);
+								if (listener != null)
+									listener.lubApplied(this, current);
 							} else {
-								newApprox = oldApprox.widening(newApprox);
-								newIntermediate = oldIntermediate.widening(newIntermediate);
+								newApprox = oldApprox.widening(newApprox, thresholds);
+								newIntermediate = oldIntermediate.widening(newIntermediate, thresholds);
+								if (listener != null)
+									listener.wideningApplied(this, current);
 							}
 						}
 					} catch (SemanticException e) {
@@ -256,28 +284,388 @@ public abstract class FixpointGraph<G extends FixpointGraph<G, N, E>,
 								e);
 					}
 
-				if ((oldApprox == null && oldIntermediate == null) || !newApprox.lessOrEqual(oldApprox)
-						|| !newIntermediate.lessOrEqual(oldIntermediate)) {
+				time = clock(listener);
+				boolean changed = (oldApprox == null && oldIntermediate == null) || !newApprox.lessOrEqual(oldApprox)
+						|| !newIntermediate.lessOrEqual(oldIntermediate);
+				if (listener != null && oldApprox != null) {
+					listener.resultsCompared(this, current, System.nanoTime() - time);
+					if (newApprox == oldApprox && newIntermediate == oldIntermediate)
+						listener.comparisonAvoided(this, current);
+				}
+
+				if (changed) {
 					result.put(current, Pair.of(newApprox, newIntermediate));
 					for (N instr : followersOf(current))
 						ws.push(instr);
+					if (listener != null)
+						listener.workingSetGrown(this, ws.size());
 				}
 			}
 
-			HashMap<N, AnalysisState<A, H, V>> finalResults = new HashMap<>(result.size());
-			for (Entry<N, Pair<AnalysisState<A, H, V>, F>> e : result.entrySet()) {
-				finalResults.put(e.getKey(), e.getValue().getLeft());
-				for (Entry<N, AnalysisState<A, H, V>> ee : e.getValue().getRight())
-					finalResults.put(ee.getKey(), ee.getValue());
-			}
+			if (conf.getNarrowingIterations() > 0)
+				narrow(wto(startingPoints), startingPoints, interprocedural, conf.getNarrowingIterations(), semantics,
+						result, traversals, listener);
+			return completed(flatten(result), listener, start);
+		} catch (Exception e) {
+			log.fatal("Unexpected exception during fixpoint computation of '" + this + "': " + e);
+			throw new FixpointException("Unexpected exception during fixpoint computation", e);
+		}
+	}
+
+	/**
+	 * Computes a fixpoint over this graph using Bourdoncle's recursive
+	 * iteration strategy. This method returns a
+	 * {@code Map<N, AnalysisState<A, H, V>>} instance mapping each {@link Node}
+	 * to the {@link AnalysisState} computed by this method. Note that the
+	 * returned map has entries also for inner nodes. Nodes are processed
+	 * following a {@link WeakTopologicalOrder} of the nodes reachable from
+	 * {@code startingPoints}: each component of the ordering is iterated until
+	 * the result of its head stabilizes, recursively stabilizing its nested
+	 * components at each iteration. Results on the heads of components are
+	 * composed with {@link Lattice#lub(Lattice)} for the first
+	 * {@code widenAfter} iterations of the component, and with
+	 * {@link Lattice#widening(Lattice)} afterwards. All other nodes are simply
+	 * recomputed each time they are visited. Once the fixpoint has been
+	 * reached, up to {@link FixpointConfiguration#getNarrowingIterations()}
+	 * descending iterations are performed to refine the results, following the
+	 * same ordering. The computation starts at the
+	 * nodes in {@code startingPoints}, using as its entry state their
+	 * respective value. {@code interprocedural} will be invoked to get the
+	 * approximation of all invoked graphs.
+	 * 
+	 * @param <A>             the type of {@link AbstractState}
+	 * @param <H>             the type of {@link HeapDomain} contained into the
+	 *                            computed abstract state
+	 * @param <V>             the type of {@link ValueDomain} contained into the
+	 *                            computed abstract state
+	 * @param <F>             the type of {@link FunctionalLattice} that will
+	 *                            hold analysis states computed on intermediate
+	 *                            nodes
+	 * @param startingPoints  a map between {@link Node}s that to use as a
+	 *                            starting point of the computation (that must
+	 *                            be nodes of this graph) and the entry states
+	 *                            to apply on it
+	 * @param interprocedural the interprocedural analysis that can be queried
+	 *                            when a call towards an other graph is
+	 *                            encountered
+	 * @param conf            the {@link FixpointConfiguration} tuning the
+	 *                            widening and narrowing operations, where the
+	 *                            widening threshold is the number of iterations
+	 *                            of a component after which the
+	 *                            {@link Lattice#lub(Lattice)} invocation on its
+	 *                            head gets replaced by the
+	 *                            {@link Lattice#widening(Lattice)} call
+	 * @param semantics       the {@link SemanticFunction} that will be used for
+	 *                            computing the abstract post-state of nodes
+	 * 
+	 * @return a map that stores for each {@link Node} the result of the
+	 *             fixpoint computation
+	 * 
+	 * @throws FixpointException if an error occurs during the semantic
+	 *                               computation of a node, or if some
+	 *                               unknown/invalid node is used as starting
+	 *                               point
+	 */
+	protected <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			F extends FunctionalLattice<F, N, AnalysisState<A, H, V>>> Map<N, AnalysisState<A, H, V>> wtoFixpoint(
+					Map<N, AnalysisState<A, H, V>> startingPoints, InterproceduralAnalysis<A, H, V> interprocedural,
+					FixpointConfiguration conf, SemanticFunction<N, E, G, A, H, V, F> semantics)
+					throws FixpointException {
+		for (N start : startingPoints.keySet())
+			if (!adjacencyMatrix.getNodes().contains(start))
+				throw new FixpointException("'" + start
+						+ "' is not part of this graph, and cannot be analyzed in this fixpoint computation");
 
-			return finalResults;
+		FixpointListener listener = conf.getListener();
+		long start = clock(listener);
+		List<Element<N>> wto = wto(startingPoints);
+		int widenAfter = conf.getWideningThreshold();
+		WideningThresholds thresholds = thresholds(conf);
+		Map<N, Pair<AnalysisState<A, H, V>, F>> result = new HashMap<>(adjacencyMatrix.getNodes().size());
+		Map<E, Pair<AnalysisState<A, H, V>, AnalysisState<A, H, V>>> traversals = new IdentityHashMap<>();
+		try {
+			for (Element<N> element : wto)
+				stabilize(element, startingPoints, interprocedural, widenAfter, thresholds, semantics, result,
+						traversals, listener);
+			if (conf.getNarrowingIterations() > 0)
+				narrow(wto, startingPoints, interprocedural, conf.getNarrowingIterations(), semantics, result,
+						traversals, listener);
+			return completed(flatten(result), listener, start);
 		} catch (Exception e) {
 			log.fatal("Unexpected exception during fixpoint computation of '" + this + "': " + e);
 			throw new FixpointException("Unexpected exception during fixpoint computation", e);
 		}
 	}
 
+	private <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			F extends FunctionalLattice<F, N, AnalysisState<A, H, V>>> void stabilize(Element<N> element,
+					Map<N, AnalysisState<A, H, V>> startingPoints, InterproceduralAnalysis<A, H, V> interprocedural,
+					int widenAfter, WideningThresholds thresholds, SemanticFunction<N, E, G, A, H, V, F> semantics,
+					Map<N, Pair<AnalysisState<A, H, V>, F>> result,
+					Map<E, Pair<AnalysisState<A, H, V>, AnalysisState<A, H, V>>> traversals,
+					FixpointListener listener)
+					throws FixpointException {
+		N head = element.getHead();
+		if (!element.isComponent()) {
+			result.put(head,
+					computeNode(head, startingPoints, interprocedural, semantics, result, traversals, listener));
+			return;
+		}
+
+		for (int iteration = 0;; iteration++) {
+			Pair<AnalysisState<A, H, V>, F> computed = computeNode(head, startingPoints, interprocedural, semantics,
+					result, traversals, listener);
+			AnalysisState<A, H, V> newApprox = computed.getLeft();
+			F newIntermediate = computed.getRight();
+			Pair<AnalysisState<A, H, V>, F> old = result.get(head);
+
+			if (old != null)
+				try {
+					// the body has to be visited at least once each time the
+					// component is entered
+					if (iteration > 0) {
+						long time = clock(listener);
+						boolean stable = newApprox.lessOrEqual(old.getLeft())
+								&& newIntermediate.lessOrEqual(old.getRight());
+						if (listener != null) {
+							listener.resultsCompared(this, head, System.nanoTime() - time);
+							if (newApprox == old.getLeft() && newIntermediate == old.getRight())
+								listener.comparisonAvoided(this, head);
+						}
+						if (stable)
+							return;
+					}
+
+					if (widenAfter == 0 || iteration < widenAfter) {
+						newApprox = newApprox.lub(old.getLeft());
+						newIntermediate = newIntermediate.lub(old.getRight());
+						if (listener != null)
+							listener.lubApplied(this, head);
+					} else {
+						newApprox = old.getLeft().widening(newApprox, thresholds);
+						newIntermediate = old.getRight().widening(newIntermediate, thresholds);
+						if (listener != null)
+							listener.wideningApplied(this, head);
+					}
+				} catch (SemanticException e) {
+					throw new FixpointException(
+							"Exception while updating the analysis results of '" + head + "' in " + this, e);
+				}
+
+			result.put(head, Pair.of(newApprox, newIntermediate));
+			for (Element<N> nested : element.getBody())
+				stabilize(nested, startingPoints, interprocedural, widenAfter, thresholds, semantics, result,
+						traversals, listener);
+		}
+	}
+
+	private <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			F extends FunctionalLattice<F, N, AnalysisState<A, H, V>>> void narrow(List<Element<N>> wto,
+					Map<N, AnalysisState<A, H, V>> startingPoints, InterproceduralAnalysis<A, H, V> interprocedural,
+					int iterations, SemanticFunction<N, E, G, A, H, V, F> semantics,
+					Map<N, Pair<AnalysisState<A, H, V>, F>> result,
+					Map<E, Pair<AnalysisState<A, H, V>, AnalysisState<A, H, V>>> traversals,
+					FixpointListener listener)
+					throws FixpointException {
+		List<N> order = new ArrayList<>(result.size());
+		flattenOrder(wto, order);
+
+		for (int i = 0; i < iterations; i++) {
+			boolean changed = false;
+			for (N node : order) {
+				Pair<AnalysisState<A, H, V>, F> old = result.get(node);
+				Pair<AnalysisState<A, H, V>, F> computed = computeNode(node, startingPoints, interprocedural,
+						semantics, result, traversals, listener);
+				try {
+					long time = clock(listener);
+					boolean refined = old == null || !old.getLeft().lessOrEqual(computed.getLeft())
+							|| !old.getRight().lessOrEqual(computed.getRight());
+					if (listener != null && old != null) {
+						listener.resultsCompared(this, node, System.nanoTime() - time);
+						if (old.getLeft() == computed.getLeft() && old.getRight() == computed.getRight())
+							listener.comparisonAvoided(this, node);
+					}
+
+					// starting from a post-fixpoint, recomputed results are
+					// sound even if they are not composed with the old ones
+					if (refined) {
+						result.put(node, computed);
+						changed = true;
+					}
+				} catch (SemanticException e) {
+					throw new FixpointException(
+							"Exception while refining the analysis results of '" + node + "' in " + this, e);
+				}
+			}
+
+			if (!changed)
+				return;
+		}
+	}
+
+	private static <N> void flattenOrder(List<Element<N>> elements, List<N> order) {
+		for (Element<N> element : elements) {
+			order.add(element.getHead());
+			flattenOrder(element.getBody(), order);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Element<N>> wto(Map<N, ?> startingPoints) {
+		return new WeakTopologicalOrder<G, N, E>().build((G) this, startingPoints.keySet());
+	}
+
+	/**
+	 * Yields the current time, in nanoseconds, if {@code listener} has to be
+	 * notified, and {@code 0} otherwise, so that fixpoints without listeners
+	 * do not pay for reading the clock.
+	 */
+	private static long clock(FixpointListener listener) {
+		return listener == null ? 0 : System.nanoTime();
+	}
+
+	private <T> T completed(T results, FixpointListener listener, long start) {
+		if (listener != null)
+			listener.fixpointCompleted(this, System.nanoTime() - start);
+		return results;
+	}
+
+	private WideningThresholds thresholds(FixpointConfiguration conf) {
+		return conf.isWideningWithThresholds() ? getWideningThresholds() : WideningThresholds.NONE;
+	}
+
+	/**
+	 * Yields the loop heads of this graph, where widening is applied if
+	 * {@link WideningPoints#LOOP_HEADS} is used. Every cycle of this graph must
+	 * contain at least one of the returned nodes, or fixpoint computations
+	 * might not terminate. The default implementation of this method returns
+	 * {@link #findCycleHeads(Set)} without excluding any node.
+	 * 
+	 * @return the loop heads
+	 */
+	protected Set<N> getLoopHeads() {
+		return findCycleHeads(Collections.emptySet());
+	}
+
+	/**
+	 * Yields a set of nodes such that every cycle of this graph that does not
+	 * traverse any node in {@code excluded} contains at least one of them.
+	 * These are the targets of the back edges found by a depth-first visit of
+	 * this graph where nodes in {@code excluded} are removed, starting from
+	 * the entrypoints.
+	 * 
+	 * @param excluded the nodes to exclude from the visit
+	 * 
+	 * @return the heads of the cycles not traversing {@code excluded}
+	 */
+	protected final Set<N> findCycleHeads(Set<N> excluded) {
+		Set<N> heads = Collections.newSetFromMap(new IdentityHashMap<>());
+		// true while the node is on the stack, false once it has been left
+		Map<N, Boolean> onStack = new IdentityHashMap<>();
+		Deque<Pair<N, Iterator<N>>> stack = new ArrayDeque<>();
+		Collection<N> roots = new ArrayList<>(entrypoints);
+		roots.addAll(adjacencyMatrix.getNodes());
+
+		for (N root : roots) {
+			if (excluded.contains(root) || onStack.containsKey(root))
+				continue;
+
+			onStack.put(root, true);
+			stack.push(Pair.of(root, followersOf(root).iterator()));
+			while (!stack.isEmpty()) {
+				Iterator<N> followers = stack.peek().getRight();
+				if (!followers.hasNext()) {
+					onStack.put(stack.pop().getLeft(), false);
+					continue;
+				}
+
+				N next = followers.next();
+				if (excluded.contains(next))
+					continue;
+				Boolean active = onStack.get(next);
+				if (active == null) {
+					onStack.put(next, true);
+					stack.push(Pair.of(next, followersOf(next).iterator()));
+				} else if (active)
+					heads.add(next);
+			}
+		}
+
+		return heads;
+	}
+
+	/**
+	 * Yields the thresholds to use when widening with thresholds is enabled
+	 * through {@link FixpointConfiguration#setWideningWithThresholds(boolean)}.
+	 * The default implementation of this method returns
+	 * {@link WideningThresholds#NONE}.
+	 * 
+	 * @return the thresholds
+	 */
+	protected WideningThresholds getWideningThresholds() {
+		return WideningThresholds.NONE;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			F extends FunctionalLattice<F, N, AnalysisState<A, H, V>>> Pair<AnalysisState<A, H, V>, F> computeNode(
+					N current, Map<N, AnalysisState<A, H, V>> startingPoints,
+					InterproceduralAnalysis<A, H, V> interprocedural, SemanticFunction<N, E, G, A, H, V, F> semantics,
+					Map<N, Pair<AnalysisState<A, H, V>, F>> result,
+					Map<E, Pair<AnalysisState<A, H, V>, AnalysisState<A, H, V>>> traversals,
+					FixpointListener listener)
+					throws FixpointException {
+		AnalysisState<A, H, V> entrystate;
+		long time = clock(listener);
+		try {
+			entrystate = getEntryState(current, startingPoints, result, traversals);
+		} catch (SemanticException e) {
+			throw new FixpointException(
+					"Exception while computing the entry state for '" + current + "' in " + this, e);
+		}
+		if (listener != null)
+			listener.entryStateComputed(this, current, System.nanoTime() - time);
+
+		if (entrystate == null)
+			throw new FixpointException(current + " does not have an entry state");
+
+		try {
+			F intermediate = (F) mkInternalStore(entrystate);
+			time = clock(listener);
+			AnalysisState<A, H, V> post = semantics.compute(current, entrystate, interprocedural, intermediate);
+			if (listener != null)
+				listener.semanticsComputed(this, current, System.nanoTime() - time);
+			return Pair.of(post, intermediate);
+		} catch (SemanticException e) {
+			log.error("Evaluation of the semantics of '" + current + "' in " + this
+					+ " led to an exception: " + e);
+			throw new FixpointException("Semantic exception during fixpoint computation", e);
+		}
+	}
+
+	private <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>,
+			F extends FunctionalLattice<F, N, AnalysisState<A, H, V>>> Map<N, AnalysisState<A, H, V>> flatten(
+					Map<N, Pair<AnalysisState<A, H, V>, F>> result) {
+		HashMap<N, AnalysisState<A, H, V>> finalResults = new HashMap<>(result.size());
+		for (Entry<N, Pair<AnalysisState<A, H, V>, F>> e : result.entrySet()) {
+			finalResults.put(e.getKey(), e.getValue().getLeft());
+			for (Entry<N, AnalysisState<A, H, V>> ee : e.getValue().getRight())
+				finalResults.put(ee.getKey(), ee.getValue());
+		}
+
+		return finalResults;
+	}
+
 	/**
 	 * Builds a new instance of the {@link FunctionalLattice} that is used to
 	 * store the fixpoint results on internal nodes, that is, node that are
@@ -298,26 +686,48 @@ public abstract class FixpointGraph<G extends FixpointGraph<G, N, E>,
 			V extends ValueDomain<V>> FunctionalLattice<?, N, AnalysisState<A, H, V>> mkInternalStore(
 					AnalysisState<A, H, V> entrystate);
 
+	/**
+	 * Yields the entry state of {@code current}, that is, the lub of the
+	 * post-states of its predecessors, each traversed through the edge
+	 * connecting it to {@code current} and cleaned up through
+	 * {@link #cleanUpPostState(Node, AnalysisState)}. The state traversing an
+	 * edge is cached in {@code traversals}, together with the post-state of
+	 * the edge's source it has been computed from: since post-states are never
+	 * modified, the cached value is reused as long as the source's result in
+	 * {@code result} has not been replaced.
+	 */
 	private <A extends AbstractState<A, H, V>,
 			H extends HeapDomain<H>,
 			V extends ValueDomain<V>,
 			F extends FunctionalLattice<F, N, AnalysisState<A, H, V>>> AnalysisState<A, H, V> getEntryState(
 					N current,
 					Map<N, AnalysisState<A, H, V>> startingPoints,
-					Map<N, Pair<AnalysisState<A, H, V>, F>> result)
+					Map<N, Pair<AnalysisState<A, H, V>, F>> result,
+					Map<E, Pair<AnalysisState<A, H, V>, AnalysisState<A, H, V>>> traversals)
 					throws SemanticException {
 		AnalysisState<A, H, V> entrystate = startingPoints.get(current);
 		Collection<N> preds = predecessorsOf(current);
 		List<AnalysisState<A, H, V>> states = new ArrayList<>(preds.size());
 
-		for (N pred : preds)
-			if (result.containsKey(pred)) {
+		for (N pred : preds) {
+			Pair<AnalysisState<A, H, V>, F> predResult = result.get(pred);
+			if (predResult == null)
 				// this might not have been computed yet
-				E edge = adjacencyMatrix.getEdgeConnecting(pred, current);
-				AnalysisState<A, H, V> traversed = edge.traverse(result.get(pred).getLeft());
+				continue;
+
+			E edge = adjacencyMatrix.getEdgeConnecting(pred, current);
+			AnalysisState<A, H, V> post = predResult.getLeft();
+			Pair<AnalysisState<A, H, V>, AnalysisState<A, H, V>> cached = traversals.get(edge);
+			if (cached != null && cached.getLeft() == post)
+				states.add(cached.getRight());
+			else {
+				AnalysisState<A, H, V> traversed = edge.traverse(post);
 				// we clean it from out-of-scope variables
-				states.add(cleanUpPostState(pred, traversed));
+				AnalysisState<A, H, V> cleaned = cleanUpPostState(pred, traversed);
+				traversals.put(edge, Pair.of(post, cleaned));
+				states.add(cleaned);
 			}
+		}
 
 		for (AnalysisState<A, H, V> s : states)
 			if (entrystate == null)
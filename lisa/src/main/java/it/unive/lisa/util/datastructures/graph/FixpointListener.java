@@ -0,0 +1,121 @@
+package it.unive.lisa.util.datastructures.graph;
+
+import it.unive.lisa.analysis.Lattice;
+import it.unive.lisa.interprocedural.InterproceduralAnalysis;
+
+/**
+ * A listener that is notified of the events happening during fixpoint
+ * computations over {@link FixpointGraph}s, that can be used to collect
+ * metrics about where the time of an analysis is spent. Listeners are set
+ * through {@link FixpointConfiguration#setListener(FixpointListener)}: if no
+ * listener is set, fixpoints are not instrumented at all. All methods have an
+ * empty default implementation, so that implementers only need to override
+ * the ones they are interested in. Since fixpoints over different graphs can
+ * run in parallel, implementations must be thread-safe. Durations are always
+ * expressed in nanoseconds.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public interface FixpointListener {
+
+	/**
+	 * Invoked after the entry state of a node has been computed, that is,
+	 * after the post-states of its predecessors have been traversed and
+	 * joined.
+	 *
+	 * @param graph the graph where the fixpoint is being computed
+	 * @param node  the node
+	 * @param nanos the time spent computing the entry state
+	 */
+	default void entryStateComputed(FixpointGraph<?, ?, ?> graph, Node<?, ?, ?> node, long nanos) {
+	}
+
+	/**
+	 * Invoked after the semantics of a node has been computed. Each invocation
+	 * corresponds to a visit of the node by the fixpoint algorithm.
+	 *
+	 * @param graph the graph where the fixpoint is being computed
+	 * @param node  the node
+	 * @param nanos the time spent computing the semantics
+	 */
+	default void semanticsComputed(FixpointGraph<?, ?, ?> graph, Node<?, ?, ?> node, long nanos) {
+	}
+
+	/**
+	 * Invoked after the new result of a node has been compared with the
+	 * previous one through {@link Lattice#lessOrEqual(Lattice)}, to decide if
+	 * the fixpoint has been reached on it.
+	 *
+	 * @param graph the graph where the fixpoint is being computed
+	 * @param node  the node
+	 * @param nanos the time spent in the comparison
+	 */
+	default void resultsCompared(FixpointGraph<?, ?, ?> graph, Node<?, ?, ?> node, long nanos) {
+	}
+
+	/**
+	 * Invoked after {@link #resultsCompared(FixpointGraph, Node, long)} when
+	 * the new result of a node is the same object as the previous one, and
+	 * the comparison has thus been answered without inspecting them.
+	 *
+	 * @param graph the graph where the fixpoint is being computed
+	 * @param node  the node
+	 */
+	default void comparisonAvoided(FixpointGraph<?, ?, ?> graph, Node<?, ?, ?> node) {
+	}
+
+	/**
+	 * Invoked after the new result of a node has been joined with the previous
+	 * one through {@link Lattice#lub(Lattice)}.
+	 *
+	 * @param graph the graph where the fixpoint is being computed
+	 * @param node  the node
+	 */
+	default void lubApplied(FixpointGraph<?, ?, ?> graph, Node<?, ?, ?> node) {
+	}
+
+	/**
+	 * Invoked after the new result of a node has been joined with the previous
+	 * one through {@link Lattice#widening(Lattice)}.
+	 *
+	 * @param graph the graph where the fixpoint is being computed
+	 * @param node  the node
+	 */
+	default void wideningApplied(FixpointGraph<?, ?, ?> graph, Node<?, ?, ?> node) {
+	}
+
+	/**
+	 * Invoked when nodes are added to the working set of a fixpoint computed
+	 * with {@link IterationStrategy#WORKLIST}.
+	 *
+	 * @param graph the graph where the fixpoint is being computed
+	 * @param size  the size of the working set after the addition
+	 */
+	default void workingSetGrown(FixpointGraph<?, ?, ?> graph, int size) {
+	}
+
+	/**
+	 * Invoked when a fixpoint computation over a graph terminates
+	 * successfully.
+	 *
+	 * @param graph the graph where the fixpoint has been computed
+	 * @param nanos the duration of the whole computation
+	 */
+	default void fixpointCompleted(FixpointGraph<?, ?, ?> graph, long nanos) {
+	}
+
+	/**
+	 * Invoked by {@link InterproceduralAnalysis}es when the results of a graph
+	 * in a given context have been computed. Depending on the analysis, this
+	 * can include the time spent computing the entry state for the graph, or
+	 * reusing cached results.
+	 *
+	 * @param graph   the graph whose results have been computed
+	 * @param context the context (e.g., the context sensitivity token) of the
+	 *                    computation, or {@code null} if the analysis is not
+	 *                    context sensitive
+	 * @param nanos   the duration of the computation
+	 */
+	default void analysisCompleted(FixpointGraph<?, ?, ?> graph, Object context, long nanos) {
+	}
+}
@@ -0,0 +1,514 @@
+package it.unive.lisa.util.datastructures.graph;
+
+import it.unive.lisa.program.CodeElement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link FixpointListener} that collects metrics about fixpoint
+ * computations: how many times each node has been visited, how many lubs and
+ * widenings have been applied on it, and how much time has been spent
+ * computing its entry state, its semantics and comparing its results (and
+ * how many of these comparisons have been avoided since the results were the
+ * same objects). Per
+ * graph, it also tracks the number and the duration of fixpoint computations,
+ * the high-water mark of the working set and the duration of the analysis of
+ * the graph in each context. Graphs and nodes are tracked by identity.<br>
+ * <br>
+ * Callbacks do not acquire any lock: metrics are accumulated in concurrent
+ * counters owned by each graph and node, so that fixpoints running in
+ * parallel do not contend on this listener. The metrics returned by this
+ * object are snapshots of these counters.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public class FixpointMetrics implements FixpointListener {
+
+	private final Map<Identity, LiveGraph> graphs = new ConcurrentHashMap<>();
+
+	private final AtomicLong seen = new AtomicLong();
+
+	private LiveGraph of(FixpointGraph<?, ?, ?> graph) {
+		return graphs.computeIfAbsent(new Identity(graph), id -> new LiveGraph(graph, seen.getAndIncrement()));
+	}
+
+	private LiveNode of(FixpointGraph<?, ?, ?> graph, Node<?, ?, ?> node) {
+		return of(graph).nodes.computeIfAbsent(new Identity(node), id -> new LiveNode(node));
+	}
+
+	@Override
+	public void entryStateComputed(FixpointGraph<?, ?, ?> graph, Node<?, ?, ?> node, long nanos) {
+		of(graph, node).entryStateNanos.add(nanos);
+	}
+
+	@Override
+	public void semanticsComputed(FixpointGraph<?, ?, ?> graph, Node<?, ?, ?> node, long nanos) {
+		LiveNode metrics = of(graph, node);
+		metrics.visits.increment();
+		metrics.semanticsNanos.add(nanos);
+	}
+
+	@Override
+	public void resultsCompared(FixpointGraph<?, ?, ?> graph, Node<?, ?, ?> node, long nanos) {
+		of(graph, node).comparisonNanos.add(nanos);
+	}
+
+	@Override
+	public void comparisonAvoided(FixpointGraph<?, ?, ?> graph, Node<?, ?, ?> node) {
+		of(graph, node).avoidedComparisons.increment();
+	}
+
+	@Override
+	public void lubApplied(FixpointGraph<?, ?, ?> graph, Node<?, ?, ?> node) {
+		of(graph, node).lubs.increment();
+	}
+
+	@Override
+	public void wideningApplied(FixpointGraph<?, ?, ?> graph, Node<?, ?, ?> node) {
+		of(graph, node).widenings.increment();
+	}
+
+	@Override
+	public void workingSetGrown(FixpointGraph<?, ?, ?> graph, int size) {
+		AtomicInteger max = of(graph).maxWorkingSet;
+		// most growths do not exceed the current maximum: read before writing
+		if (size > max.get())
+			max.accumulateAndGet(size, Math::max);
+	}
+
+	@Override
+	public void fixpointCompleted(FixpointGraph<?, ?, ?> graph, long nanos) {
+		LiveGraph metrics = of(graph);
+		metrics.fixpoints.increment();
+		metrics.fixpointNanos.add(nanos);
+	}
+
+	@Override
+	public void analysisCompleted(FixpointGraph<?, ?, ?> graph, Object context, long nanos) {
+		of(graph).contexts.computeIfAbsent(String.valueOf(context), c -> new LongAdder()).add(nanos);
+	}
+
+	/**
+	 * Yields the metrics collected for each graph, in the order in which the
+	 * graphs have been first seen by this listener.
+	 *
+	 * @return the metrics of each graph
+	 */
+	public Collection<GraphMetrics> getGraphs() {
+		return graphs.values().stream()
+				.sorted(Comparator.comparingLong(graph -> graph.order))
+				.map(GraphMetrics::new)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Yields the metrics collected for the given graph.
+	 *
+	 * @param graph the graph
+	 *
+	 * @return the metrics of the graph, or {@code null} if no fixpoint over
+	 *             {@code graph} has been observed
+	 */
+	public GraphMetrics getMetrics(FixpointGraph<?, ?, ?> graph) {
+		LiveGraph metrics = graphs.get(new Identity(graph));
+		return metrics == null ? null : new GraphMetrics(metrics);
+	}
+
+	/**
+	 * Yields the {@code n} graphs whose fixpoints took the most time overall.
+	 *
+	 * @param n the maximum number of graphs to return
+	 *
+	 * @return the hottest graphs, from the hottest one
+	 */
+	public List<GraphMetrics> hottestGraphs(int n) {
+		return getGraphs().stream()
+				.sorted(Comparator.comparingLong(GraphMetrics::getFixpointNanos).reversed())
+				.limit(n)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Yields the {@code n} nodes, among all graphs, whose processing took the
+	 * most time overall (see {@link NodeMetrics#getTotalNanos()}).
+	 *
+	 * @param n the maximum number of nodes to return
+	 *
+	 * @return the hottest nodes, from the hottest one
+	 */
+	public List<NodeMetrics> hottestNodes(int n) {
+		return getGraphs().stream()
+				.flatMap(graph -> graph.getNodes().stream())
+				.sorted(Comparator.comparingLong(NodeMetrics::getTotalNanos).reversed())
+				.limit(n)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Yields a human-readable summary of the {@code n} hottest graphs and
+	 * nodes.
+	 *
+	 * @param n the number of graphs and nodes to include
+	 *
+	 * @return the summary
+	 */
+	public String summary(int n) {
+		StringBuilder builder = new StringBuilder("Top ").append(n).append(" graphs by fixpoint time:");
+		for (GraphMetrics graph : hottestGraphs(n))
+			builder.append("\n  ").append(millis(graph.getFixpointNanos())).append(" ms, ")
+					.append(graph.getFixpoints()).append(" fixpoint(s), ")
+					.append(graph.getTotals().getVisits()).append(" visit(s), max working set ")
+					.append(graph.getMaxWorkingSet()).append(": ").append(graph.getName());
+		builder.append("\nTop ").append(n).append(" nodes by processing time:");
+		for (NodeMetrics node : hottestNodes(n))
+			builder.append("\n  ").append(millis(node.getTotalNanos())).append(" ms, ")
+					.append(node.getVisits()).append(" visit(s), ")
+					.append(node.getLubs()).append(" lub(s), ")
+					.append(node.getWidenings()).append(" widening(s): ").append(node.getName());
+		return builder.toString();
+	}
+
+	private static String millis(long nanos) {
+		return String.format("%.3f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+	}
+
+	/**
+	 * The metrics collected for a single node.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	public static class NodeMetrics {
+
+		private final String name;
+
+		private long visits;
+
+		private long lubs;
+
+		private long widenings;
+
+		private long entryStateNanos;
+
+		private long semanticsNanos;
+
+		private long comparisonNanos;
+
+		private long avoidedComparisons;
+
+		private NodeMetrics(String name) {
+			this.name = name;
+		}
+
+		private NodeMetrics(LiveNode live) {
+			this(live.name);
+			visits = live.visits.sum();
+			lubs = live.lubs.sum();
+			widenings = live.widenings.sum();
+			entryStateNanos = live.entryStateNanos.sum();
+			semanticsNanos = live.semanticsNanos.sum();
+			comparisonNanos = live.comparisonNanos.sum();
+			avoidedComparisons = live.avoidedComparisons.sum();
+		}
+
+		private void add(NodeMetrics other) {
+			visits += other.visits;
+			lubs += other.lubs;
+			widenings += other.widenings;
+			entryStateNanos += other.entryStateNanos;
+			semanticsNanos += other.semanticsNanos;
+			comparisonNanos += other.comparisonNanos;
+			avoidedComparisons += other.avoidedComparisons;
+		}
+
+		/**
+		 * Yields a textual representation of the node, including its
+		 * location when it is a {@link CodeElement}.
+		 *
+		 * @return the name of the node
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Yields the number of times the semantics of the node has been
+		 * computed.
+		 *
+		 * @return the number of visits
+		 */
+		public long getVisits() {
+			return visits;
+		}
+
+		/**
+		 * Yields the number of times the results of the node have been joined
+		 * through a lub.
+		 *
+		 * @return the number of lubs
+		 */
+		public long getLubs() {
+			return lubs;
+		}
+
+		/**
+		 * Yields the number of times the results of the node have been joined
+		 * through a widening.
+		 *
+		 * @return the number of widenings
+		 */
+		public long getWidenings() {
+			return widenings;
+		}
+
+		/**
+		 * Yields the time spent computing the entry states of the node.
+		 *
+		 * @return the time, in nanoseconds
+		 */
+		public long getEntryStateNanos() {
+			return entryStateNanos;
+		}
+
+		/**
+		 * Yields the time spent computing the semantics of the node.
+		 *
+		 * @return the time, in nanoseconds
+		 */
+		public long getSemanticsNanos() {
+			return semanticsNanos;
+		}
+
+		/**
+		 * Yields the time spent comparing the results of the node with the
+		 * previous ones.
+		 *
+		 * @return the time, in nanoseconds
+		 */
+		public long getComparisonNanos() {
+			return comparisonNanos;
+		}
+
+		/**
+		 * Yields the number of comparisons of the results of the node with
+		 * the previous ones that have been answered without inspecting them,
+		 * since they were the same objects.
+		 *
+		 * @return the number of avoided comparisons
+		 */
+		public long getAvoidedComparisons() {
+			return avoidedComparisons;
+		}
+
+		/**
+		 * Yields the sum of {@link #getEntryStateNanos()},
+		 * {@link #getSemanticsNanos()} and {@link #getComparisonNanos()}.
+		 *
+		 * @return the time, in nanoseconds
+		 */
+		public long getTotalNanos() {
+			return entryStateNanos + semanticsNanos + comparisonNanos;
+		}
+
+		@Override
+		public String toString() {
+			return name + ": " + visits + " visits, " + lubs + " lubs, " + widenings + " widenings, "
+					+ entryStateNanos + "ns entry, " + semanticsNanos + "ns semantics, " + comparisonNanos
+					+ "ns comparison, " + avoidedComparisons + " avoided comparisons";
+		}
+	}
+
+	/**
+	 * The metrics collected for a single graph.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 */
+	public static class GraphMetrics {
+
+		private final String name;
+
+		private final List<NodeMetrics> nodes;
+
+		private final Map<String, Long> contexts;
+
+		private long fixpoints;
+
+		private long fixpointNanos;
+
+		private int maxWorkingSet;
+
+		private GraphMetrics(LiveGraph live) {
+			this.name = live.name;
+			this.nodes = live.nodes.values().stream().map(NodeMetrics::new).collect(Collectors.toList());
+			this.contexts = new LinkedHashMap<>();
+			new TreeMap<>(live.contexts).forEach((context, nanos) -> contexts.put(context, nanos.sum()));
+			this.fixpoints = live.fixpoints.sum();
+			this.fixpointNanos = live.fixpointNanos.sum();
+			this.maxWorkingSet = live.maxWorkingSet.get();
+		}
+
+		/**
+		 * Yields a textual representation of the graph.
+		 *
+		 * @return the name of the graph
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Yields the metrics of the nodes of the graph that have been
+		 * processed at least once.
+		 *
+		 * @return the metrics of the nodes
+		 */
+		public Collection<NodeMetrics> getNodes() {
+			return new ArrayList<>(nodes);
+		}
+
+		/**
+		 * Yields the metrics of all the nodes of the graph, summed together.
+		 *
+		 * @return the aggregated metrics
+		 */
+		public NodeMetrics getTotals() {
+			NodeMetrics totals = new NodeMetrics(name);
+			nodes.forEach(totals::add);
+			return totals;
+		}
+
+		/**
+		 * Yields the duration of the analysis of the graph in each context,
+		 * as reported by {@link FixpointListener#analysisCompleted(FixpointGraph, Object, long)}.
+		 * Contexts are represented through their textual representation,
+		 * with {@code "null"} used for context-insensitive analyses, sorted by
+		 * their textual representation. Durations of analyses in the same
+		 * context are summed together.
+		 *
+		 * @return the mapping from contexts to durations, in nanoseconds
+		 */
+		public Map<String, Long> getContexts() {
+			return contexts;
+		}
+
+		/**
+		 * Yields the number of fixpoints computed over the graph.
+		 *
+		 * @return the number of fixpoints
+		 */
+		public long getFixpoints() {
+			return fixpoints;
+		}
+
+		/**
+		 * Yields the overall duration of the fixpoints computed over the
+		 * graph.
+		 *
+		 * @return the time, in nanoseconds
+		 */
+		public long getFixpointNanos() {
+			return fixpointNanos;
+		}
+
+		/**
+		 * Yields the maximum size reached by the working set during the
+		 * fixpoints over the graph, or {@code 0} if the working set has never
+		 * been used.
+		 *
+		 * @return the high-water mark of the working set
+		 */
+		public int getMaxWorkingSet() {
+			return maxWorkingSet;
+		}
+
+		@Override
+		public String toString() {
+			return name + ": " + fixpoints + " fixpoints, " + fixpointNanos + "ns, max working set "
+					+ maxWorkingSet;
+		}
+	}
+
+	/**
+	 * The counters of a graph, updated while fixpoints are running.
+	 */
+	private static final class LiveGraph {
+
+		private final String name;
+
+		private final long order;
+
+		private final Map<Identity, LiveNode> nodes = new ConcurrentHashMap<>();
+
+		private final Map<String, LongAdder> contexts = new ConcurrentHashMap<>();
+
+		private final LongAdder fixpoints = new LongAdder();
+
+		private final LongAdder fixpointNanos = new LongAdder();
+
+		private final AtomicInteger maxWorkingSet = new AtomicInteger();
+
+		private LiveGraph(FixpointGraph<?, ?, ?> graph, long order) {
+			this.name = String.valueOf(graph);
+			this.order = order;
+		}
+	}
+
+	/**
+	 * The counters of a node, updated while fixpoints are running.
+	 */
+	private static final class LiveNode {
+
+		private final String name;
+
+		private final LongAdder visits = new LongAdder();
+
+		private final LongAdder lubs = new LongAdder();
+
+		private final LongAdder widenings = new LongAdder();
+
+		private final LongAdder entryStateNanos = new LongAdder();
+
+		private final LongAdder semanticsNanos = new LongAdder();
+
+		private final LongAdder comparisonNanos = new LongAdder();
+
+		private final LongAdder avoidedComparisons = new LongAdder();
+
+		private LiveNode(Node<?, ?, ?> node) {
+			this.name = node instanceof CodeElement ? node + " at " + ((CodeElement) node).getLocation()
+					: String.valueOf(node);
+		}
+	}
+
+	/**
+	 * A key comparing the wrapped object by identity.
+	 */
+	private static final class Identity {
+
+		private final Object object;
+
+		private Identity(Object object) {
+			this.object = object;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(object);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Identity && ((Identity) obj).object == object;
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package it.unive.lisa.util.datastructures.graph;
 
 import it.unive.lisa.outputs.DotGraph;
+import it.unive.lisa.util.collections.CollectionUtilities;
 import java.io.IOException;
 import java.io.Writer;
 import java.util.ArrayList;
@@ -305,37 +306,21 @@ public abstract class Graph<G extends Graph<G, N, E>, N extends Node<N, E, G>, E
 			return false;
 		if (getClass() != graph.getClass())
 			return false;
+		if (entrypoints != null && adjacencyMatrix != null && graph.entrypoints != null
+				&& graph.adjacencyMatrix != null && fingerprint() != graph.fingerprint())
+			// cheap rejection: effectively equal graphs have the same
+			// fingerprint
+			return false;
 		if (entrypoints == null) {
 			if (graph.entrypoints != null)
 				return false;
 		} else if (entrypoints.size() != graph.entrypoints.size())
 			return false;
-		else {
+		else if (!CollectionUtilities.equals(entrypoints, graph.entrypoints, N::fingerprint, N::isEqualTo))
 			// nodes use reference equality, thus
 			// entrypoint.equals(graph.entrypoints) won't
-			// achieve content comparison. Need to do this manually.
-
-			// the following keeps track of the unmatched nodes in
-			// graph.entrypoints
-			Collection<N> copy = new HashSet<>(graph.entrypoints);
-			boolean found;
-			for (N s : entrypoints) {
-				found = false;
-				for (N ss : graph.entrypoints)
-					if (copy.contains(ss) && s.isEqualTo(ss)) {
-						copy.remove(ss);
-						found = true;
-						break;
-					}
-				if (!found)
-					return false;
-			}
-
-			if (!copy.isEmpty())
-				// we also have to match all of the entrypoints in
-				// graph.entrypoints
-				return false;
-		}
+			// achieve content comparison
+			return false;
 		if (adjacencyMatrix == null) {
 			if (graph.adjacencyMatrix != null)
 				return false;
@@ -344,6 +329,31 @@ public abstract class Graph<G extends Graph<G, N, E>, N extends Node<N, E, G>, E
 		return true;
 	}
 
+	/**
+	 * Yields a structural fingerprint of this graph, that is, a hash code that
+	 * is consistent with {@link #isEqualTo(Graph)}: effectively equal graphs
+	 * have the same fingerprint, while graphs with different fingerprints are
+	 * guaranteed not to be effectively equal. The fingerprint combines the
+	 * {@link AdjacencyMatrix#fingerprint()} of the matrix backing this graph
+	 * with the {@link Node#fingerprint()} of its entrypoints. Since the former
+	 * is cached once the matrix has been compacted (that is, once the graph
+	 * has been finalized), the cost of this method is then proportional to the
+	 * number of entrypoints. This can be used to cheaply detect changes
+	 * between different versions of the same graph.
+	 * 
+	 * @return the fingerprint of this graph
+	 */
+	public int fingerprint() {
+		final int prime = 31;
+		int entries = 0;
+		for (N entry : entrypoints)
+			entries += AdjacencyMatrix.spread(entry.fingerprint());
+		int result = getClass().getName().hashCode();
+		result = prime * result + entries;
+		result = prime * result + adjacencyMatrix.fingerprint();
+		return result;
+	}
+
 	@Override
 	public String toString() {
 		return adjacencyMatrix.toString();
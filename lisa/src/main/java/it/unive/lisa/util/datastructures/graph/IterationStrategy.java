@@ -0,0 +1,32 @@
+package it.unive.lisa.util.datastructures.graph;
+
+import it.unive.lisa.analysis.Lattice;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder;
+import it.unive.lisa.util.workset.WorkingSet;
+
+/**
+ * The strategies that can be used to choose the order in which nodes are
+ * processed during a fixpoint computation over a {@link FixpointGraph}.
+ * 
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public enum IterationStrategy {
+
+	/**
+	 * Nodes are processed in the order given by a {@link WorkingSet}, and all
+	 * followers of a node are added to it each time the node's result changes.
+	 * {@link Lattice#widening(Lattice)} is applied on every node, after its
+	 * result has been updated {@code widenAfter * predecessors_number} times.
+	 */
+	WORKLIST,
+
+	/**
+	 * Nodes are processed following a {@link WeakTopologicalOrder} of the
+	 * graph, using Bourdoncle's recursive iteration strategy: each component
+	 * is iterated until its head stabilizes, recursively stabilizing the
+	 * components nested in it at each iteration.
+	 * {@link Lattice#widening(Lattice)} is applied only on component heads,
+	 * after {@code widenAfter} iterations of the component.
+	 */
+	WEAK_TOPOLOGICAL_ORDER;
+}
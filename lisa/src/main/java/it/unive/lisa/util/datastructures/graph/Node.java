@@ -33,6 +33,19 @@ public interface Node<N extends Node<N, E, G>, E extends Edge<N, E, G>, G extend
 	 */
 	boolean isEqualTo(N other);
 
+	/**
+	 * Yields a structural fingerprint of this node, that is, a hash code that
+	 * is consistent with {@link #isEqualTo(Node)}: nodes that are effectively
+	 * equal must have the same fingerprint, while nodes with different
+	 * fingerprints are guaranteed not to be effectively equal. Fingerprints are
+	 * used to index nodes when searching them through
+	 * {@link #isEqualTo(Node)}, and should thus be cheap to compute (e.g., by
+	 * caching them).
+	 * 
+	 * @return the fingerprint of this node
+	 */
+	int fingerprint();
+
 	/**
 	 * Accepts the given {@link GraphVisitor}. Implementors of this method are
 	 * responsible for invoking {@link GraphVisitor#visit(Object, Graph, Node)}
@@ -0,0 +1,32 @@
+package it.unive.lisa.util.datastructures.graph;
+
+import it.unive.lisa.analysis.Lattice;
+
+/**
+ * The nodes of a {@link FixpointGraph} where {@link Lattice#widening(Lattice)}
+ * can be applied during a fixpoint computation. All other nodes always use
+ * {@link Lattice#lub(Lattice)} to compose results obtained at different
+ * iterations. This only affects the {@link IterationStrategy#WORKLIST}
+ * strategy: {@link IterationStrategy#WEAK_TOPOLOGICAL_ORDER} already applies
+ * widening only on the heads of the components of the ordering.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ */
+public enum WideningPoints {
+
+	/**
+	 * Widening is applied on every node, after its result has been updated
+	 * {@code widenAfter * predecessors_number} times.
+	 */
+	ALL_NODES,
+
+	/**
+	 * Widening is applied only on the loop heads of the graph (see
+	 * {@link FixpointGraph#getLoopHeads()}), after their result has been
+	 * updated {@code widenAfter * predecessors_number} times. Since every
+	 * cycle of the graph contains a loop head, this is enough to ensure
+	 * termination, while avoiding the precision loss caused by widening on
+	 * nodes outside of loops or in the middle of their bodies.
+	 */
+	LOOP_HEADS;
+}
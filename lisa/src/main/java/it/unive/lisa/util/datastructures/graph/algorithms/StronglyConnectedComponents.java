@@ -0,0 +1,132 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import it.unive.lisa.util.datastructures.graph.Edge;
+import it.unive.lisa.util.datastructures.graph.Graph;
+import it.unive.lisa.util.datastructures.graph.Node;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An algorithm that computes the strongly connected components of a graph,
+ * following Tarjan's algorithm. A strongly connected component is a maximal
+ * set of nodes such that each node of the set can be reached from all the
+ * others. Components are returned in reverse topological order: if an edge
+ * goes from a node of component {@code c1} to a node of a different component
+ * {@code c2}, then {@code c2} comes before {@code c1}. The visit of the graph
+ * is iterative, and can thus be used on graphs with long paths.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <N> the type of {@link Node}s in the target graphs
+ * @param <E> the type of {@link Edge}s in the target graphs
+ * @param <G> the type of the target graphs
+ *
+ * @see <a href=
+ *          "https://en.wikipedia.org/wiki/Tarjan%27s_strongly_connected_components_algorithm">Tarjan's
+ *          strongly connected components algorithm</a>
+ */
+public class StronglyConnectedComponents<G extends Graph<G, N, E>, N extends Node<N, E, G>,
+		E extends Edge<N, E, G>> {
+
+	private final Map<N, Integer> index;
+
+	private final Map<N, Integer> lowlink;
+
+	private final Deque<N> stack;
+
+	private final Map<N, Boolean> onStack;
+
+	/**
+	 * Builds the algorithm. To run it, use {@link #build(Graph)}.
+	 */
+	public StronglyConnectedComponents() {
+		index = new HashMap<>();
+		lowlink = new HashMap<>();
+		stack = new ArrayDeque<>();
+		onStack = new HashMap<>();
+	}
+
+	/**
+	 * Computes the strongly connected components of the given graph.
+	 *
+	 * @param graph the graph whose components are to be computed
+	 *
+	 * @return the components, in reverse topological order
+	 */
+	public List<Collection<N>> build(G graph) {
+		index.clear();
+		lowlink.clear();
+		stack.clear();
+		onStack.clear();
+
+		List<Collection<N>> components = new ArrayList<>();
+		for (N node : graph.getNodes())
+			if (!index.containsKey(node))
+				visit(graph, node, components);
+		return components;
+	}
+
+	private void visit(G graph, N root, List<Collection<N>> components) {
+		// each frame holds a node and the iterator over its followers
+		Deque<Frame<N>> frames = new ArrayDeque<>();
+		open(root);
+		frames.push(new Frame<>(root, graph.followersOf(root).iterator()));
+
+		while (!frames.isEmpty()) {
+			Frame<N> frame = frames.peek();
+			if (frame.followers.hasNext()) {
+				N follower = frame.followers.next();
+				if (!index.containsKey(follower)) {
+					open(follower);
+					frames.push(new Frame<>(follower, graph.followersOf(follower).iterator()));
+				} else if (onStack.getOrDefault(follower, false))
+					lowlink.put(frame.node, Math.min(lowlink.get(frame.node), index.get(follower)));
+				continue;
+			}
+
+			frames.pop();
+			N node = frame.node;
+			if (!frames.isEmpty()) {
+				N parent = frames.peek().node;
+				lowlink.put(parent, Math.min(lowlink.get(parent), lowlink.get(node)));
+			}
+
+			if (lowlink.get(node).equals(index.get(node))) {
+				List<N> component = new ArrayList<>();
+				N element;
+				do {
+					element = stack.pop();
+					onStack.put(element, false);
+					component.add(element);
+				} while (!element.equals(node));
+				components.add(component);
+			}
+		}
+	}
+
+	private void open(N node) {
+		int i = index.size();
+		index.put(node, i);
+		lowlink.put(node, i);
+		stack.push(node);
+		onStack.put(node, true);
+	}
+
+	private static final class Frame<N> {
+
+		private final N node;
+
+		private final Iterator<N> followers;
+
+		private Frame(N node, Iterator<N> followers) {
+			this.node = node;
+			this.followers = followers;
+		}
+	}
+}
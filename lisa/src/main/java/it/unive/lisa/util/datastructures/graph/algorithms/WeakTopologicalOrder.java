@@ -0,0 +1,262 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import it.unive.lisa.util.datastructures.graph.Edge;
+import it.unive.lisa.util.datastructures.graph.Graph;
+import it.unive.lisa.util.datastructures.graph.Node;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An algorithm that computes a weak topological ordering of the nodes of a
+ * graph, following Bourdoncle's algorithm. A weak topological ordering is a
+ * well-parenthesized permutation of the nodes of the graph, where each
+ * parenthesized sequence (a <i>component</i>) corresponds to a strongly
+ * connected sub-graph, and starts with its <i>head</i>. For each edge
+ * {@code u -> v}, either {@code u} comes before {@code v} in the ordering, or
+ * {@code v} is the head of a component containing {@code u}. Heads of
+ * components are thus the only nodes that need to be widened during fixpoint
+ * computations.<br>
+ * <br>
+ * The depth-first visit of the algorithm is performed with an explicit stack,
+ * so that the depth of the graph is not bounded by the one of the call stack.
+ *
+ * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+ *
+ * @param <N> the type of {@link Node}s in the target graphs
+ * @param <E> the type of {@link Edge}s in the target graphs
+ * @param <G> the type of the target graphs
+ *
+ * @see <a href="https://doi.org/10.1007/BFb0039704">F. Bourdoncle, Efficient
+ *          chaotic iteration strategies with widenings</a>
+ */
+public class WeakTopologicalOrder<G extends Graph<G, N, E>, N extends Node<N, E, G>, E extends Edge<N, E, G>> {
+
+	private final Map<N, Integer> dfn;
+
+	private final Deque<N> stack;
+
+	private int num;
+
+	private G graph;
+
+	/**
+	 * Builds the ordering. To run the algorithm, use
+	 * {@link #build(Graph, Collection)}.
+	 */
+	public WeakTopologicalOrder() {
+		dfn = new IdentityHashMap<>();
+		stack = new LinkedList<>();
+	}
+
+	/**
+	 * Builds the weak topological ordering of the nodes of {@code graph} that
+	 * are reachable from {@code roots}. Nodes that cannot be reached from any
+	 * of the roots are not part of the returned ordering.
+	 *
+	 * @param graph the graph whose nodes are to be ordered
+	 * @param roots the nodes where the visit of the graph starts
+	 *
+	 * @return the ordering, as a list of elements, each one being either a
+	 *             single node or a component
+	 */
+	public List<Element<N>> build(G graph, Collection<N> roots) {
+		this.graph = graph;
+		this.dfn.clear();
+		this.stack.clear();
+		this.num = 0;
+
+		LinkedList<Element<N>> partition = new LinkedList<>();
+		for (N root : roots)
+			if (dfnOf(root) == 0)
+				visit(root, partition);
+
+		this.graph = null;
+		return partition;
+	}
+
+	private int dfnOf(N node) {
+		Integer res = dfn.get(node);
+		return res == null ? 0 : res;
+	}
+
+	private void visit(N root, LinkedList<Element<N>> partition) {
+		Deque<Frame> frames = new ArrayDeque<>();
+		frames.push(enter(root, partition, null));
+		while (!frames.isEmpty()) {
+			Frame frame = frames.peek();
+			if (frame.followers.hasNext()) {
+				N follower = frame.followers.next();
+				int min = dfnOf(follower);
+				if (min == 0)
+					// the nodes of a component are added to its body
+					frames.push(enter(follower, frame.body == null ? frame.partition : frame.body, frame));
+				else if (frame.body == null)
+					frame.update(min);
+				continue;
+			}
+
+			frames.pop();
+			if (frame.body != null)
+				// the body of the component is complete
+				frame.partition.addFirst(new Element<>(frame.node, frame.body));
+			else if (frame.head == dfnOf(frame.node)) {
+				dfn.put(frame.node, Integer.MAX_VALUE);
+				N element = stack.pop();
+				if (frame.loop) {
+					while (element != frame.node) {
+						dfn.put(element, 0);
+						element = stack.pop();
+					}
+
+					// the nodes of the component are visited again, starting
+					// from the followers of its head
+					frames.push(new Frame(frame.node, frame.partition, new LinkedList<>(), frame.parent,
+							frame.head));
+					continue;
+				} else
+					frame.partition.addFirst(new Element<>(frame.node, null));
+			}
+
+			// the head of the visit is returned to the one that started it,
+			// while it is not needed for building components
+			if (frame.parent != null && frame.parent.body == null)
+				frame.parent.update(frame.head);
+		}
+	}
+
+	private Frame enter(N node, LinkedList<Element<N>> partition, Frame parent) {
+		stack.push(node);
+		dfn.put(node, ++num);
+		return new Frame(node, partition, null, parent, num);
+	}
+
+	/**
+	 * A frame of the depth-first visit, corresponding either to the visit of
+	 * a node or to the construction of the body of a component.
+	 */
+	private final class Frame {
+
+		/**
+		 * The node being visited, or the head of the component
+		 */
+		private final N node;
+
+		/**
+		 * The followers of {@link #node} that still need to be processed
+		 */
+		private final Iterator<N> followers;
+
+		/**
+		 * The ordering where the element built by this frame is added
+		 */
+		private final LinkedList<Element<N>> partition;
+
+		/**
+		 * The body of the component, or {@code null} if this frame is the
+		 * visit of a node
+		 */
+		private final LinkedList<Element<N>> body;
+
+		/**
+		 * The frame that started this one
+		 */
+		private final Frame parent;
+
+		/**
+		 * The minimum depth-first number reachable from {@link #node}
+		 */
+		private int head;
+
+		/**
+		 * Whether or not {@link #node} is part of a cycle
+		 */
+		private boolean loop;
+
+		private Frame(N node, LinkedList<Element<N>> partition, LinkedList<Element<N>> body, Frame parent,
+				int head) {
+			this.node = node;
+			this.followers = graph.followersOf(node).iterator();
+			this.partition = partition;
+			this.body = body;
+			this.parent = parent;
+			this.head = head;
+		}
+
+		private void update(int min) {
+			if (min <= head) {
+				head = min;
+				loop = true;
+			}
+		}
+	}
+
+	/**
+	 * An element of a weak topological ordering, that is either a single node
+	 * or a component. Components are identified by their head, and contain the
+	 * ordering of all other nodes that are part of them.
+	 *
+	 * @author <a href="mailto:luca.negrini@unive.it">Luca Negrini</a>
+	 *
+	 * @param <N> the type of nodes in the ordering
+	 */
+	public static final class Element<N> {
+
+		private final N head;
+
+		private final List<Element<N>> body;
+
+		private Element(N head, List<Element<N>> body) {
+			this.head = head;
+			this.body = body;
+		}
+
+		/**
+		 * Yields the node of this element. If this element is a component,
+		 * this is the head of the component.
+		 *
+		 * @return the node
+		 */
+		public N getHead() {
+			return head;
+		}
+
+		/**
+		 * Yields {@code true} if and only if this element is a component. Note
+		 * that a component might have an empty body if its head is a node with
+		 * a self-loop.
+		 *
+		 * @return {@code true} if that condition holds
+		 */
+		public boolean isComponent() {
+			return body != null;
+		}
+
+		/**
+		 * Yields the ordering of the nodes inside this component, excluding
+		 * the head. If this element is not a component, the returned list is
+		 * empty.
+		 *
+		 * @return the body of the component
+		 */
+		public List<Element<N>> getBody() {
+			return body == null ? Collections.emptyList() : body;
+		}
+
+		@Override
+		public String toString() {
+			if (body == null)
+				return String.valueOf(head);
+			StringBuilder builder = new StringBuilder("(").append(head);
+			for (Element<N> e : body)
+				builder.append(" ").append(e);
+			return builder.append(")").toString();
+		}
+	}
+}
@@ -0,0 +1,174 @@
+package it.unive.lisa.analysis;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.analysis.impl.heap.MonolithicHeap;
+import it.unive.lisa.analysis.impl.numeric.Sign;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.lattices.SetLattice;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.caches.Caches;
+import it.unive.lisa.program.CompilationUnit;
+import it.unive.lisa.program.SourceCodeLocation;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CFGDescriptor;
+import it.unive.lisa.program.cfg.ProgramPoint;
+import it.unive.lisa.program.cfg.statement.NoOp;
+import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.type.Untyped;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+public class BaseLatticeTest {
+
+	// fails on every operation that is not answered by identity
+	private static class Probe extends BaseLattice<Probe> {
+
+		@Override
+		public Probe top() {
+			throw new AssertionError("top() invoked");
+		}
+
+		@Override
+		public Probe bottom() {
+			throw new AssertionError("bottom() invoked");
+		}
+
+		@Override
+		public boolean isTop() {
+			throw new AssertionError("isTop() invoked");
+		}
+
+		@Override
+		public boolean isBottom() {
+			throw new AssertionError("isBottom() invoked");
+		}
+
+		@Override
+		protected Probe lubAux(Probe other) {
+			throw new AssertionError("lubAux() invoked");
+		}
+
+		@Override
+		protected Probe wideningAux(Probe other) {
+			throw new AssertionError("wideningAux() invoked");
+		}
+
+		@Override
+		protected boolean lessOrEqualAux(Probe other) {
+			throw new AssertionError("lessOrEqualAux() invoked");
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			throw new AssertionError("equals() invoked");
+		}
+
+		@Override
+		public int hashCode() {
+			return 0;
+		}
+
+		@Override
+		public String toString() {
+			return "probe";
+		}
+	}
+
+	private static class Names extends SetLattice<Names, String> {
+
+		private Names(String... names) {
+			super(new HashSet<>(Arrays.asList(names)));
+		}
+
+		private Names(Set<String> names) {
+			super(names);
+		}
+
+		@Override
+		protected Names mk(Set<String> set) {
+			return new Names(set);
+		}
+
+		@Override
+		public Names top() {
+			return new Names("top");
+		}
+
+		@Override
+		public Names bottom() {
+			return new Names();
+		}
+
+		@Override
+		public boolean isTop() {
+			return elements.contains("top");
+		}
+
+		@Override
+		public boolean isBottom() {
+			return elements.isEmpty();
+		}
+	}
+
+	@Test
+	public void testIdenticalOperands() throws SemanticException {
+		Probe probe = new Probe();
+		assertSame(probe, probe.lub(probe));
+		assertSame(probe, probe.widening(probe));
+		assertSame(probe, probe.widening(probe, WideningThresholds.of(List.of(0, 10))));
+		assertTrue(probe.lessOrEqual(probe));
+	}
+
+	@Test
+	public void testSetJoinsReturnOperands() throws SemanticException {
+		Names small = new Names("a");
+		Names big = new Names("a", "b");
+
+		assertSame(big, small.lub(big));
+		assertSame(big, big.lub(small));
+		assertSame(big, small.widening(big));
+		assertSame(big, big.lub(new Names("b")));
+		assertNotSame(big, new Names("b").lub(small));
+	}
+
+	@Test
+	public void testStateJoinsReturnOperands() throws SemanticException {
+		SourceCodeLocation location = new SourceCodeLocation("fake", 0, 0);
+		CFG cfg = new CFG(new CFGDescriptor(location, new CompilationUnit(location, "unit", false), false, "cfg"));
+		ProgramPoint pp = new NoOp(cfg, location);
+		Variable x = new Variable(Caches.types().mkSingletonSet(Untyped.INSTANCE), "x");
+		Variable y = new Variable(Caches.types().mkSingletonSet(Untyped.INSTANCE), "y");
+
+		ValueEnvironment<Sign> small = new ValueEnvironment<>(new Sign())
+				.assign(x, new Constant(Untyped.INSTANCE, 1), pp);
+		// shares the entry of x with small
+		ValueEnvironment<Sign> big = small.assign(y, new Constant(Untyped.INSTANCE, -1), pp);
+		assertSame(big, small.lub(big));
+		assertSame(big, big.lub(small));
+
+		MonolithicHeap heap = new MonolithicHeap();
+		SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>> smallState = new SimpleAbstractState<>(heap,
+				small);
+		SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>> bigState = new SimpleAbstractState<>(heap, big);
+		assertSame(bigState, smallState.lub(bigState));
+		assertSame(bigState, bigState.lub(smallState));
+
+		ExpressionSet<SymbolicExpression> exprs = new ExpressionSet<>(x);
+		AnalysisState<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+				ValueEnvironment<Sign>> smallAnalysis = new AnalysisState<>(smallState, exprs);
+		AnalysisState<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+				ValueEnvironment<Sign>> bigAnalysis = new AnalysisState<>(bigState, exprs);
+		assertSame(bigAnalysis, smallAnalysis.lub(bigAnalysis));
+		assertSame(bigAnalysis, bigAnalysis.lub(smallAnalysis));
+		// comparisons with the joined state are answered by identity
+		assertTrue(bigAnalysis.lub(smallAnalysis).lessOrEqual(bigAnalysis));
+	}
+}
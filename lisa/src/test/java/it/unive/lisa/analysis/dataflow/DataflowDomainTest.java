@@ -0,0 +1,92 @@
+package it.unive.lisa.analysis.dataflow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.impl.dataflow.ConstantPropagation;
+import it.unive.lisa.analysis.impl.dataflow.ReachingDefinitions;
+import it.unive.lisa.caches.Caches;
+import it.unive.lisa.imp.types.IntType;
+import it.unive.lisa.program.CompilationUnit;
+import it.unive.lisa.program.SourceCodeLocation;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CFGDescriptor;
+import it.unive.lisa.program.cfg.statement.NoOp;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.type.Untyped;
+import org.junit.Test;
+
+public class DataflowDomainTest {
+
+	private static final SourceCodeLocation LOCATION = new SourceCodeLocation("fake", 1, 1);
+
+	private static final CFG CFG = new CFG(
+			new CFGDescriptor(LOCATION, new CompilationUnit(LOCATION, "foo", false), true, "foo"));
+
+	private static final NoOp PP1 = new NoOp(CFG, new SourceCodeLocation("fake", 1, 1));
+
+	private static final NoOp PP2 = new NoOp(CFG, new SourceCodeLocation("fake", 2, 1));
+
+	private static final Variable X = new Variable(Caches.types().mkSingletonSet(Untyped.INSTANCE), "x");
+
+	private static final Variable Y = new Variable(Caches.types().mkSingletonSet(Untyped.INSTANCE), "y");
+
+	private static final Constant ONE = new Constant(IntType.INSTANCE, 1);
+
+	private static final Constant TWO = new Constant(IntType.INSTANCE, 2);
+
+	@Test
+	public void testPossibleGenKill() throws SemanticException {
+		PossibleForwardDataflowDomain<ReachingDefinitions> top = new PossibleForwardDataflowDomain<>(
+				new ReachingDefinitions());
+		PossibleForwardDataflowDomain<ReachingDefinitions> x1 = top.assign(X, ONE, PP1);
+		PossibleForwardDataflowDomain<ReachingDefinitions> x2 = top.assign(X, ONE, PP2);
+		PossibleForwardDataflowDomain<ReachingDefinitions> lub = x1.lub(x2).assign(Y, ONE, PP1);
+		assertEquals(3, lub.size());
+		assertTrue(x1.lessOrEqual(lub));
+		assertFalse(lub.lessOrEqual(x1));
+
+		// both definitions of x are killed by the new one
+		PossibleForwardDataflowDomain<ReachingDefinitions> killed = lub.assign(X, ONE, PP1);
+		assertEquals(2, killed.size());
+		assertEquals(top.assign(Y, ONE, PP1).assign(X, ONE, PP1), killed);
+		assertSame(killed, killed.forgetIdentifier(new Variable(X.getTypes(), "z")));
+		assertEquals(1, killed.forgetIdentifier(X).size());
+	}
+
+	@Test
+	public void testDefiniteGenKill() throws SemanticException {
+		DefiniteForwardDataflowDomain<ConstantPropagation> top = new DefiniteForwardDataflowDomain<>(
+				new ConstantPropagation());
+		DefiniteForwardDataflowDomain<ConstantPropagation> xy = top.assign(X, ONE, PP1).assign(Y, ONE, PP1);
+		DefiniteForwardDataflowDomain<ConstantPropagation> x = top.assign(X, ONE, PP1).assign(Y, TWO, PP2);
+		DefiniteForwardDataflowDomain<ConstantPropagation> lub = xy.lub(x);
+		assertEquals(1, lub.size());
+		assertTrue(xy.lessOrEqual(lub));
+		assertEquals(3, xy.glb(x).size());
+		assertEquals(0, lub.forgetIdentifier(X).size());
+	}
+
+	@Test
+	public void testDifferentIndexes() throws SemanticException {
+		PossibleForwardDataflowDomain<ReachingDefinitions> first = new PossibleForwardDataflowDomain<>(
+				new ReachingDefinitions());
+		PossibleForwardDataflowDomain<ReachingDefinitions> second = new PossibleForwardDataflowDomain<>(
+				new ReachingDefinitions());
+		// enumerate the elements in different orders
+		PossibleForwardDataflowDomain<ReachingDefinitions> a = first.assign(X, ONE, PP1).assign(Y, ONE, PP2);
+		PossibleForwardDataflowDomain<ReachingDefinitions> b = second.assign(Y, ONE, PP2).assign(X, ONE, PP1);
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		assertNotEquals(a, first.assign(X, ONE, PP2).assign(Y, ONE, PP2));
+
+		PossibleForwardDataflowDomain<ReachingDefinitions> lub = a.lub(second.assign(X, ONE, PP2));
+		assertEquals(3, lub.size());
+		assertEquals(2, lub.forgetIdentifier(Y).size());
+	}
+}
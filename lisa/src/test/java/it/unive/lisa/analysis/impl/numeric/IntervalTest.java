@@ -0,0 +1,71 @@
+package it.unive.lisa.analysis.impl.numeric;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.imp.types.IntType;
+import it.unive.lisa.symbolic.value.BinaryOperator;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.symbolic.value.UnaryOperator;
+import org.junit.Test;
+
+public class IntervalTest {
+
+	private static final Interval TOP = new Interval();
+
+	private static Interval eval(BinaryOperator op, Interval left, Interval right) {
+		return TOP.evalBinaryExpression(op, left, right, null);
+	}
+
+	@Test
+	public void testArithmetic() {
+		Interval a = new Interval(-2, 3);
+		Interval b = new Interval(4, null);
+		assertEquals(new Interval(2, null), eval(BinaryOperator.NUMERIC_ADD, a, b));
+		assertEquals(new Interval(null, -1), eval(BinaryOperator.NUMERIC_SUB, a, b));
+		assertEquals(new Interval(-8, 12), eval(BinaryOperator.NUMERIC_MUL, a, new Interval(4, 4)));
+		assertEquals(new Interval(-1, 2), eval(BinaryOperator.NUMERIC_DIV, new Interval(-2, 4), new Interval(2, 2)));
+		assertEquals(new Interval(-3, 2), TOP.evalUnaryExpression(UnaryOperator.NUMERIC_NEG, a, null));
+		assertTrue(eval(BinaryOperator.NUMERIC_DIV, a, new Interval(0, 0)).isBottom());
+	}
+
+	@Test
+	public void testOverflow() {
+		Interval big = new Interval(Long.MAX_VALUE - 1, Long.MAX_VALUE - 1);
+		Interval sum = eval(BinaryOperator.NUMERIC_ADD, big, big);
+		assertTrue(sum.isTop());
+
+		Interval product = eval(BinaryOperator.NUMERIC_MUL, new Interval(1L << 40, 1L << 40),
+				new Interval(-(1L << 40), 1L << 40));
+		assertTrue(product.isTop());
+
+		// bounds beyond the int range are still precise
+		Interval max = new Interval(Integer.MAX_VALUE, Integer.MAX_VALUE);
+		assertEquals(new Interval(2L * Integer.MAX_VALUE, 2L * Integer.MAX_VALUE),
+				eval(BinaryOperator.NUMERIC_ADD, max, max));
+	}
+
+	@Test
+	public void testLattice() throws SemanticException {
+		Interval a = new Interval(0, 5);
+		Interval b = new Interval(3, 10);
+		assertEquals(new Interval(0, 10), a.lub(b));
+		assertEquals(new Interval(3, 5), a.glb(b));
+		assertTrue(new Interval(5, 6).glb(new Interval(7, 8)).isBottom());
+		assertEquals(new Interval(0, null), a.widening(new Interval(0, 10)));
+		assertTrue(a.glb(b).lessOrEqual(a));
+		assertFalse(a.lessOrEqual(b));
+		assertEquals("[-Inf, 3]", new Interval(null, 3).representation().toString());
+	}
+
+	@Test
+	public void testSharedConstants() {
+		Interval one = TOP.evalNonNullConstant(new Constant(IntType.INSTANCE, 1), null);
+		assertSame(one, TOP.evalNonNullConstant(new Constant(IntType.INSTANCE, 1), null));
+		assertEquals(new Interval(1, 1), one);
+		assertEquals(new Interval(100000, 100000), TOP.evalNonNullConstant(new Constant(IntType.INSTANCE, 100000), null));
+	}
+}
@@ -0,0 +1,152 @@
+package it.unive.lisa.analysis.impl.numeric.octagon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.analysis.ScopeToken;
+import it.unive.lisa.analysis.SemanticDomain.Satisfiability;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.impl.numeric.Interval;
+import it.unive.lisa.caches.Caches;
+import it.unive.lisa.imp.types.BoolType;
+import it.unive.lisa.imp.types.IntType;
+import it.unive.lisa.program.CompilationUnit;
+import it.unive.lisa.program.SourceCodeLocation;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CFGDescriptor;
+import it.unive.lisa.program.cfg.statement.NoOp;
+import it.unive.lisa.symbolic.value.BinaryExpression;
+import it.unive.lisa.symbolic.value.BinaryOperator;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.symbolic.value.UnaryExpression;
+import it.unive.lisa.symbolic.value.UnaryOperator;
+import it.unive.lisa.symbolic.value.ValueExpression;
+import it.unive.lisa.symbolic.value.Variable;
+import org.junit.Test;
+
+public class OctagonTest {
+
+	private static final SourceCodeLocation LOCATION = new SourceCodeLocation("fake", 1, 1);
+
+	private static final CFG CFG = new CFG(
+			new CFGDescriptor(LOCATION, new CompilationUnit(LOCATION, "foo", false), true, "foo"));
+
+	private static final NoOp PP = new NoOp(CFG, LOCATION);
+
+	private static final Variable X = new Variable(Caches.types().mkSingletonSet(IntType.INSTANCE), "x");
+
+	private static final Variable Y = new Variable(Caches.types().mkSingletonSet(IntType.INSTANCE), "y");
+
+	private static final Variable Z = new Variable(Caches.types().mkSingletonSet(IntType.INSTANCE), "z");
+
+	private static final Octagon TOP = new Octagon();
+
+	private static Constant constant(int value) {
+		return new Constant(IntType.INSTANCE, value);
+	}
+
+	private static ValueExpression binary(BinaryOperator op, ValueExpression left, ValueExpression right) {
+		boolean condition = op.name().startsWith("COMPARISON") || op.name().startsWith("LOGICAL");
+		return new BinaryExpression(
+				Caches.types().mkSingletonSet(condition ? BoolType.INSTANCE : IntType.INSTANCE), left, right, op);
+	}
+
+	@Test
+	public void testRelationalAssignment() throws SemanticException {
+		Octagon oct = TOP.assign(X, constant(5), PP)
+				.assign(Y, binary(BinaryOperator.NUMERIC_ADD, X, constant(2)), PP);
+		assertEquals(new Interval(7, 7), oct.getBounds(Y));
+		assertEquals(new Interval(2, 2), oct.getDifferenceBounds(Y, X));
+
+		// forgetting the bounds of x keeps the relation with y
+		Octagon forgotten = TOP.assign(Y, binary(BinaryOperator.NUMERIC_SUB, X, constant(3)), PP);
+		assertTrue(forgotten.getBounds(Y).isTop());
+		assertEquals(new Interval(-3, -3), forgotten.getDifferenceBounds(Y, X));
+
+		// x = -x + 1 mirrors the constraints on x
+		Octagon mirrored = oct.assign(X, binary(BinaryOperator.NUMERIC_SUB, constant(1), X), PP);
+		assertEquals(new Interval(-4, -4), mirrored.getBounds(X));
+		assertEquals(new Interval(11, 11), mirrored.getDifferenceBounds(Y, X));
+
+		// non linear expressions are evaluated with intervals
+		Octagon product = oct.assign(Z, binary(BinaryOperator.NUMERIC_MUL, X, Y), PP);
+		assertEquals(new Interval(35, 35), product.getBounds(Z));
+	}
+
+	@Test
+	public void testAssume() throws SemanticException {
+		Octagon oct = TOP.assume(binary(BinaryOperator.COMPARISON_LE, X, Y), PP)
+				.assume(binary(BinaryOperator.COMPARISON_LT, Y, constant(10)), PP)
+				.assume(binary(BinaryOperator.COMPARISON_GE, X, constant(0)), PP);
+		assertEquals(new Interval(0, 9), oct.getBounds(X));
+		assertEquals(new Interval(0, 9), oct.getBounds(Y));
+		assertEquals(Satisfiability.SATISFIED, oct.satisfies(binary(BinaryOperator.COMPARISON_GE, Y, X), PP));
+		assertEquals(Satisfiability.NOT_SATISFIED,
+				oct.satisfies(binary(BinaryOperator.COMPARISON_GT, X, constant(9)), PP));
+		assertEquals(Satisfiability.UNKNOWN, oct.satisfies(binary(BinaryOperator.COMPARISON_EQ, X, Y), PP));
+
+		ValueExpression contradiction = binary(BinaryOperator.LOGICAL_AND,
+				binary(BinaryOperator.COMPARISON_GT, X, Y),
+				binary(BinaryOperator.COMPARISON_LT, X, constant(0)));
+		assertTrue(oct.assume(contradiction, PP).isBottom());
+		UnaryExpression negated = new UnaryExpression(Caches.types().mkSingletonSet(BoolType.INSTANCE),
+				contradiction, UnaryOperator.LOGICAL_NOT);
+		assertEquals(oct, oct.assume(negated, PP));
+	}
+
+	@Test
+	public void testLattice() throws SemanticException {
+		Octagon first = TOP.assign(X, constant(0), PP).assign(Y, X, PP);
+		Octagon second = TOP.assign(X, constant(1), PP).assign(Y, X, PP);
+		Octagon lub = first.lub(second);
+		assertEquals(new Interval(0, 1), lub.getBounds(Y));
+		assertEquals(new Interval(0, 0), lub.getDifferenceBounds(Y, X));
+		assertTrue(first.lessOrEqual(lub));
+		assertTrue(second.lessOrEqual(lub));
+		assertFalse(lub.lessOrEqual(first));
+
+		Octagon widened = first.widening(lub);
+		assertEquals(0, widened.getBounds(X).getLow());
+		assertTrue(widened.getBounds(X).highIsPlusInfinity());
+		assertEquals(new Interval(0, 0), widened.getDifferenceBounds(Y, X));
+		assertSame(widened, widened.widening(widened.lub(lub)));
+
+		// identifiers related in different packs are compared through their
+		// bounds
+		Octagon separate = TOP.assume(binary(BinaryOperator.COMPARISON_LE, X, constant(1)), PP)
+				.assume(binary(BinaryOperator.COMPARISON_GE, X, constant(0)), PP)
+				.assign(Y, binary(BinaryOperator.NUMERIC_MUL, X, X), PP);
+		assertTrue(lub.lessOrEqual(separate));
+		assertFalse(separate.lessOrEqual(lub));
+	}
+
+	@Test
+	public void testPacking() throws SemanticException {
+		ValueExpression chain = binary(BinaryOperator.LOGICAL_AND,
+				binary(BinaryOperator.COMPARISON_LE, X, Y),
+				binary(BinaryOperator.LOGICAL_AND,
+						binary(BinaryOperator.COMPARISON_LE, Y, Z),
+						binary(BinaryOperator.COMPARISON_LE, Z, constant(0))));
+		assertEquals(new Interval(null, 0), TOP.assume(chain, PP).getBounds(X));
+
+		// x and y fill the only pack, so y <= z cannot be tracked
+		Octagon small = new Octagon(2).assume(chain, PP);
+		assertEquals(new Interval(null, 0), small.getBounds(Z));
+		assertTrue(small.getBounds(X).isTop());
+		assertTrue(small.getDifferenceBounds(Y, Z).isTop());
+		assertEquals(new Interval(null, 0), small.getDifferenceBounds(X, Y));
+	}
+
+	@Test
+	public void testScopes() throws SemanticException {
+		ScopeToken token = new ScopeToken(PP);
+		Octagon oct = TOP.assign(Y, binary(BinaryOperator.NUMERIC_ADD, X, constant(1)), PP);
+		Octagon pushed = oct.pushScope(token);
+		assertTrue(pushed.getDifferenceBounds(Y, X).isTop());
+		assertEquals(oct, pushed.popScope(token));
+		assertTrue(oct.popScope(token).isTop());
+		assertTrue(oct.forgetIdentifier(X).isTop());
+	}
+}
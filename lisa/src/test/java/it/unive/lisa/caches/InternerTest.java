@@ -0,0 +1,89 @@
+package it.unive.lisa.caches;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.analysis.ScopeToken;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.imp.types.IntType;
+import it.unive.lisa.program.CompilationUnit;
+import it.unive.lisa.program.SourceCodeLocation;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CFGDescriptor;
+import it.unive.lisa.program.cfg.statement.NoOp;
+import it.unive.lisa.program.cfg.statement.VariableRef;
+import it.unive.lisa.symbolic.value.HeapLocation;
+import it.unive.lisa.symbolic.value.OutOfScopeIdentifier;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.type.Untyped;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import java.util.List;
+import org.junit.Test;
+
+public class InternerTest {
+
+	private static ExternalSet<Type> untyped() {
+		return Caches.types().mkSingletonSet(Untyped.INSTANCE);
+	}
+
+	@Test
+	public void testEqualIdentifiersAreShared() {
+		Variable x = Caches.identifiers().intern(new Variable(untyped(), "x"));
+		assertSame(x, Caches.identifiers().intern(new Variable(untyped(), "x")));
+		assertNotSame(x, Caches.identifiers().intern(new Variable(untyped(), "y")));
+	}
+
+	@Test
+	public void testDistinguishableIdentifiersAreNotShared() {
+		Variable x = Caches.identifiers().intern(new Variable(untyped(), "x"));
+		// equal according to equals, but with different types
+		Variable typeless = Caches.identifiers().intern(new Variable(Caches.types().mkEmptySet(), "x"));
+		assertEquals(x, typeless);
+		assertNotSame(x, typeless);
+
+		HeapLocation strong = Caches.identifiers().intern(new HeapLocation(untyped(), "l", false));
+		assertNotSame(strong, Caches.identifiers().intern(new HeapLocation(untyped(), "l", true)));
+	}
+
+	@Test
+	public void testOutOfScopeIdentifiers() throws SemanticException {
+		Variable x = Caches.identifiers().intern(new Variable(untyped(), "x"));
+		SourceCodeLocation location = new SourceCodeLocation("fake", 1, 1);
+		CompilationUnit unit = new CompilationUnit(location, "foo", false);
+		CFG cfg = new CFG(new CFGDescriptor(location, unit, true, "foo"));
+		ScopeToken scope = new ScopeToken(new NoOp(cfg, location));
+		OutOfScopeIdentifier out = (OutOfScopeIdentifier) x.pushScope(scope);
+		assertSame(out, x.pushScope(scope));
+		assertSame(out, new Variable(untyped(), "x").pushScope(scope));
+		assertSame(x, out.popScope(scope));
+		assertEquals(out.hashCode(), new OutOfScopeIdentifier(x, scope).hashCode());
+	}
+
+	@Test
+	public void testTypesChangedAfterInterning() {
+		SourceCodeLocation location = new SourceCodeLocation("fake", 1, 1);
+		CompilationUnit unit = new CompilationUnit(location, "foo", false);
+		CFG cfg = new CFG(new CFGDescriptor(location, unit, true, "foo"));
+		VariableRef ref = new VariableRef(cfg, location, "x");
+		ExternalSet<Type> types = Caches.types().mkSet(List.of(Untyped.INSTANCE, IntType.INSTANCE));
+		ref.setRuntimeTypes(types);
+		Variable x = ref.getVariable();
+
+		// the runtime types of the expression are cleared in place
+		ExternalSet<Type> source = ref.getRuntimeTypes();
+		ref.setRuntimeTypes(Caches.types().mkEmptySet());
+		assertSame(source, ref.getRuntimeTypes());
+		assertTrue(source.isEmpty());
+
+		// the canonical variable is not affected
+		assertEquals(types, x.getTypes());
+		// and can still be found through its original types
+		assertSame(x, Caches.identifiers().intern(new Variable(types, "x")));
+		Variable typeless = ref.getVariable();
+		assertNotSame(x, typeless);
+		assertTrue(typeless.getTypes().isEmpty());
+	}
+}
@@ -0,0 +1,176 @@
+package it.unive.lisa.caches;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.SimpleAbstractState;
+import it.unive.lisa.analysis.impl.heap.MonolithicHeap;
+import it.unive.lisa.analysis.impl.numeric.Interval;
+import it.unive.lisa.analysis.impl.numeric.octagon.Octagon;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.interprocedural.InterproceduralAnalysisException;
+import it.unive.lisa.interprocedural.callgraph.CallGraphConstructionException;
+import it.unive.lisa.interprocedural.callgraph.impl.CHACallGraph;
+import it.unive.lisa.interprocedural.impl.ModularWorstCaseAnalysis;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.ProgramValidationException;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.datastructures.graph.FixpointConfiguration;
+import it.unive.lisa.util.datastructures.graph.FixpointException;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.net.URI;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ResultCacheTest {
+
+	private static final String PROGRAM = "class tests {"
+			+ " loop(n) { def i = 0; while (i < 10) { i = i + 1; } return i; }"
+			+ " branch(b) { def x = 0; if (b) { x = 1; } else { x = -1; } return x; }"
+			+ " call() { def y = this.loop(5); return y; }"
+			+ "}";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Program program;
+
+	private CHACallGraph callgraph;
+
+	@Before
+	public void setup() throws ParsingException, ProgramValidationException, CallGraphConstructionException {
+		program = IMPFrontend.processText(PROGRAM, true);
+		Caches.types().clear();
+		ExternalSet<Type> types = Caches.types().mkEmptySet();
+		program.getRegisteredTypes().forEach(types::add);
+		program.validateAndFinalize();
+		callgraph = new CHACallGraph();
+		callgraph.init(program);
+	}
+
+	private Map<CFG, CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>,
+			MonolithicHeap, ValueEnvironment<Interval>>> run(ResultCache cache)
+					throws InterproceduralAnalysisException, FixpointException {
+		ModularWorstCaseAnalysis<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>, MonolithicHeap,
+				ValueEnvironment<Interval>> analysis = new ModularWorstCaseAnalysis<>();
+		analysis.init(program, callgraph);
+		analysis.fixpoint(new AnalysisState<>(
+				new SimpleAbstractState<>(new MonolithicHeap(), new ValueEnvironment<>(new Interval())),
+				new ExpressionSet<>()), new FixpointConfiguration().setResultCache(cache));
+
+		Map<CFG, CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>,
+				MonolithicHeap, ValueEnvironment<Interval>>> results = new IdentityHashMap<>();
+		for (CFG cfg : program.getAllCFGs())
+			results.put(cfg, analysis.getAnalysisResultsOf(cfg).iterator().next());
+		return results;
+	}
+
+	@Test
+	public void testCachedResultsAreReused() throws IOException, InterproceduralAnalysisException,
+			FixpointException, SemanticException {
+		Path dir = folder.getRoot().toPath();
+		int cfgs = program.getAllCFGs().size();
+
+		ResultCache first = new ResultCache(dir, program);
+		Map<CFG, CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>,
+				MonolithicHeap, ValueEnvironment<Interval>>> expected = run(first);
+		assertEquals(0, first.getHits());
+		assertEquals(cfgs, first.getMisses());
+
+		// a new instance on the same directory sees the persisted results
+		ResultCache second = new ResultCache(dir, program);
+		Map<CFG, CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>,
+				MonolithicHeap, ValueEnvironment<Interval>>> actual = run(second);
+		assertEquals(cfgs, second.getHits());
+		assertEquals(0, second.getMisses());
+
+		for (CFG cfg : program.getAllCFGs()) {
+			CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>, MonolithicHeap,
+					ValueEnvironment<Interval>> exp = expected.get(cfg), act = actual.get(cfg);
+			assertNotSame(exp, act);
+			assertTrue("Cached results of " + cfg + " differ from the computed ones",
+					exp.lessOrEqual(act) && act.lessOrEqual(exp));
+		}
+	}
+
+	@Test
+	public void testCorruptedEntriesAreMisses() throws IOException, InterproceduralAnalysisException,
+			FixpointException {
+		Path dir = folder.getRoot().toPath();
+		int cfgs = program.getAllCFGs().size();
+		run(new ResultCache(dir, program));
+
+		try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+			for (Path entry : entries)
+				Files.write(entry, new byte[] { 1, 2, 3 });
+		}
+
+		ResultCache cache = new ResultCache(dir, program);
+		run(cache);
+		assertEquals(0, cache.getHits());
+		assertEquals(cfgs, cache.getMisses());
+	}
+
+	@Test
+	public void testForeignClassesAreMisses() throws IOException, InterproceduralAnalysisException,
+			FixpointException {
+		Path dir = folder.getRoot().toPath();
+		int cfgs = program.getAllCFGs().size();
+		run(new ResultCache(dir, program));
+
+		// well-formed entries containing classes that are not expected in
+		// analysis results are rejected while reading them
+		try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+			for (Path entry : entries)
+				try (ObjectOutputStream out = new ObjectOutputStream(
+						new GZIPOutputStream(Files.newOutputStream(entry)))) {
+					out.writeObject(URI.create("file:///tmp"));
+				}
+		}
+
+		ResultCache cache = new ResultCache(dir, program);
+		run(cache);
+		assertEquals(0, cache.getHits());
+		assertEquals(cfgs, cache.getMisses());
+	}
+
+	@Test
+	public void testNonSerializableDomainsAreNotCached() throws IOException, InterproceduralAnalysisException,
+			FixpointException {
+		Path dir = folder.getRoot().toPath();
+		ResultCache cache = new ResultCache(dir, program);
+
+		// octagons do not implement Serializable: their results are skipped
+		// without trying to write them
+		ModularWorstCaseAnalysis<SimpleAbstractState<MonolithicHeap, Octagon>, MonolithicHeap,
+				Octagon> analysis = new ModularWorstCaseAnalysis<>();
+		analysis.init(program, callgraph);
+		analysis.fixpoint(new AnalysisState<>(new SimpleAbstractState<>(new MonolithicHeap(), new Octagon()),
+				new ExpressionSet<>()), new FixpointConfiguration().setResultCache(cache));
+
+		assertEquals(0, cache.getHits());
+		assertEquals(0, cache.getMisses());
+		try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+			assertFalse(entries.iterator().hasNext());
+		}
+	}
+}
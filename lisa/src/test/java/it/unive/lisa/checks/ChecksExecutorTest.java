@@ -1,18 +1,31 @@
 package it.unive.lisa.checks;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 import it.unive.lisa.AnalysisTestExecutor;
 import it.unive.lisa.LiSAConfiguration;
 import it.unive.lisa.checks.syntactic.CheckTool;
 import it.unive.lisa.checks.syntactic.SyntacticCheck;
+import it.unive.lisa.checks.warnings.Warning;
+import it.unive.lisa.imp.IMPFrontend;
 import it.unive.lisa.imp.ParsingException;
 import it.unive.lisa.program.CompilationUnit;
 import it.unive.lisa.program.Global;
+import it.unive.lisa.program.Program;
 import it.unive.lisa.program.Unit;
 import it.unive.lisa.program.cfg.CFG;
 import it.unive.lisa.program.cfg.edge.Edge;
 import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.program.cfg.statement.VariableRef;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Test;
 
 public class ChecksExecutorTest extends AnalysisTestExecutor {
@@ -54,6 +67,105 @@ public class ChecksExecutorTest extends AnalysisTestExecutor {
 		}
 	}
 
+	private static class Counting extends VariableI {
+
+		private final boolean threadSafe;
+
+		private final AtomicInteger active = new AtomicInteger();
+
+		private volatile boolean overlapped;
+
+		private volatile boolean beforeCalled, afterCalled;
+
+		private Counting(boolean threadSafe) {
+			this.threadSafe = threadSafe;
+		}
+
+		@Override
+		public void beforeExecution(CheckTool tool) {
+			beforeCalled = true;
+		}
+
+		@Override
+		public void afterExecution(CheckTool tool) {
+			afterCalled = true;
+			tool.warn("Done " + threadSafe);
+		}
+
+		@Override
+		public boolean visit(CheckTool tool, CFG g) {
+			if (active.incrementAndGet() > 1)
+				overlapped = true;
+			try {
+				Thread.sleep(1);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			tool.warnOn(g, "Visiting " + threadSafe);
+			active.decrementAndGet();
+			return true;
+		}
+
+		@Override
+		public boolean isThreadSafe() {
+			return threadSafe;
+		}
+	}
+
+	private static List<Warning> execute(Program program, int parallelism, Counting... checks) {
+		CheckTool tool = new CheckTool();
+		ChecksExecutor.executeAll(tool, program, Arrays.asList(checks), parallelism);
+		for (Counting check : checks) {
+			assertTrue(check.beforeCalled);
+			assertTrue(check.afterCalled);
+			if (!check.isThreadSafe())
+				assertFalse(check.overlapped);
+		}
+		return new ArrayList<>(tool.getWarnings());
+	}
+
+	@Test
+	public void testParallelExecution() throws ParsingException {
+		StringBuilder code = new StringBuilder("class test {");
+		for (int i = 0; i < 50; i++)
+			code.append(" m").append(i).append("() { def i = ").append(i).append("; return i + 1; }");
+		Program program = IMPFrontend.processText(code.append(" }").toString(), false);
+
+		List<Warning> sequential = execute(program, 1, new Counting(false), new Counting(true));
+		// 50 cfgs with two references to i each: the warnings on them are
+		// equal between the two checks, while the ones on cfgs and the ones
+		// from afterExecution are not
+		assertEquals(100 + 2 * 50 + 2, sequential.size());
+		for (int i = 0; i < 5; i++)
+			assertEquals(sequential, execute(program, 4, new Counting(false), new Counting(true)));
+	}
+
+	@Test
+	public void testWarningSink() throws ParsingException {
+		StringBuilder code = new StringBuilder("class test {");
+		for (int i = 0; i < 20; i++)
+			code.append(" m").append(i).append("() { def i = ").append(i).append("; return i + 1; }");
+		Program program = IMPFrontend.processText(code.append(" }").toString(), false);
+		List<Warning> stored = execute(program, 1, new Counting(false), new Counting(true));
+
+		for (int parallelism : new int[] { 1, 4 }) {
+			List<Warning> forwarded = Collections.synchronizedList(new ArrayList<>());
+			CheckTool tool = new CheckTool(forwarded::add);
+			ChecksExecutor.executeAll(tool, program, Arrays.asList(new Counting(false), new Counting(true)),
+					parallelism);
+			assertTrue(tool.getWarnings().isEmpty());
+			// forwarded warnings are not deduplicated, but follow the order
+			// in which they would have been stored
+			assertEquals(stored, new ArrayList<>(new LinkedHashSet<>(forwarded)));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidParallelism() throws ParsingException {
+		ChecksExecutor.executeAll(new CheckTool(), IMPFrontend.processText("class test { }", false),
+				Arrays.asList(new VariableI()), 0);
+	}
+
 	@Test
 	public void testSyntacticChecks() throws IOException, ParsingException {
 		LiSAConfiguration conf = new LiSAConfiguration().addSyntacticCheck(new VariableI());
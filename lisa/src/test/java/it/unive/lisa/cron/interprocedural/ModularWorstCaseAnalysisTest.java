@@ -35,4 +35,14 @@ public class ModularWorstCaseAnalysisTest extends AnalysisTestExecutor {
 				.setCallGraph(new RTACallGraph());
 		perform("interprocedural", "RTA", "program.imp", conf);
 	}
+
+	@Test
+	public void testParallelCHACallGraph() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration().setInferTypes(true)
+				.setAbstractState(getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new Sign()))
+				.setDumpAnalysis(true)
+				.setInterproceduralAnalysis(new ModularWorstCaseAnalysis(4))
+				.setCallGraph(new CHACallGraph());
+		perform("interprocedural", "CHAParallel", "program.imp", conf);
+	}
 }
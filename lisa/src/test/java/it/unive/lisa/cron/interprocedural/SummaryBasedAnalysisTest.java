@@ -0,0 +1,37 @@
+package it.unive.lisa.cron.interprocedural;
+
+import static it.unive.lisa.LiSAFactory.getDefaultFor;
+
+import it.unive.lisa.AnalysisSetupException;
+import it.unive.lisa.AnalysisTestExecutor;
+import it.unive.lisa.LiSAConfiguration;
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.impl.numeric.Sign;
+import it.unive.lisa.interprocedural.callgraph.impl.RTACallGraph;
+import it.unive.lisa.interprocedural.impl.SummaryBasedAnalysis;
+import org.junit.Test;
+
+@SuppressWarnings("rawtypes")
+public class SummaryBasedAnalysisTest extends AnalysisTestExecutor {
+
+	@Test
+	public void testRTASummaries() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration().setInferTypes(true)
+				.setAbstractState(getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new Sign()))
+				.setDumpAnalysis(true)
+				.setInterproceduralAnalysis(new SummaryBasedAnalysis())
+				.setCallGraph(new RTACallGraph());
+		perform("interprocedural", "RTASummaries", "programContextSensitive2.imp", conf);
+	}
+
+	@Test
+	public void testParallelRTASummaries() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration().setInferTypes(true)
+				.setAbstractState(getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new Sign()))
+				.setDumpAnalysis(true)
+				.setInterproceduralAnalysis(new SummaryBasedAnalysis(4))
+				.setCallGraph(new RTACallGraph());
+		perform("interprocedural", "RTASummariesParallel", "programContextSensitive2.imp", conf);
+	}
+}
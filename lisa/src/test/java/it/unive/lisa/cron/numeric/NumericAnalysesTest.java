@@ -11,6 +11,9 @@ import it.unive.lisa.analysis.impl.numeric.IntegerConstantPropagation;
 import it.unive.lisa.analysis.impl.numeric.Interval;
 import it.unive.lisa.analysis.impl.numeric.Parity;
 import it.unive.lisa.analysis.impl.numeric.Sign;
+import it.unive.lisa.analysis.impl.numeric.octagon.Octagon;
+import it.unive.lisa.util.datastructures.graph.IterationStrategy;
+import it.unive.lisa.util.datastructures.graph.WideningPoints;
 import org.junit.Test;
 
 public class NumericAnalysesTest extends AnalysisTestExecutor {
@@ -36,6 +39,24 @@ public class NumericAnalysesTest extends AnalysisTestExecutor {
 		perform("interval", "program.imp", conf);
 	}
 
+	@Test
+	public void testIntervalWTO() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration().setDumpAnalysis(true)
+				.setIterationStrategy(IterationStrategy.WEAK_TOPOLOGICAL_ORDER)
+				.setAbstractState(getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new Interval()));
+		perform("interval", "wto", "program.imp", conf);
+	}
+
+	@Test
+	public void testIntervalWideningPolicy() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration().setDumpAnalysis(true)
+				.setWideningPoints(WideningPoints.LOOP_HEADS)
+				.setWideningWithThresholds(true)
+				.setNarrowingIterations(2)
+				.setAbstractState(getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new Interval()));
+		perform("interval", "widening-policy", "program.imp", conf);
+	}
+
 	@Test
 	public void testIntegerConstantPropagation() throws AnalysisSetupException {
 		LiSAConfiguration conf = new LiSAConfiguration().setDumpAnalysis(true)
@@ -43,4 +64,11 @@ public class NumericAnalysesTest extends AnalysisTestExecutor {
 						new IntegerConstantPropagation()));
 		perform("int-const", "program.imp", conf);
 	}
+
+	@Test
+	public void testOctagon() throws AnalysisSetupException {
+		LiSAConfiguration conf = new LiSAConfiguration().setDumpAnalysis(true)
+				.setAbstractState(getDefaultFor(AbstractState.class, getDefaultFor(HeapDomain.class), new Octagon()));
+		perform("octagon", "program.imp", conf);
+	}
 }
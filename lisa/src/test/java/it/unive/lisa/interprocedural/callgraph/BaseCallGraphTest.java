@@ -0,0 +1,152 @@
+package it.unive.lisa.interprocedural.callgraph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.caches.Caches;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.interprocedural.callgraph.impl.RTACallGraph;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.ProgramValidationException;
+import it.unive.lisa.program.SourceCodeLocation;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.statement.CFGCall;
+import it.unive.lisa.program.cfg.statement.Call;
+import it.unive.lisa.program.cfg.statement.Expression;
+import it.unive.lisa.program.cfg.statement.Literal;
+import it.unive.lisa.program.cfg.statement.OpenCall;
+import it.unive.lisa.program.cfg.statement.UnresolvedCall;
+import it.unive.lisa.program.cfg.statement.VariableRef;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.type.Untyped;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BaseCallGraphTest {
+
+	private static final String PROGRAM = "class shape {"
+			+ " area() { return 0; }"
+			+ " scale(f) { return f; }"
+			+ " scale(fx, fy) { return fx * fy; }"
+			+ "} class square extends shape {"
+			+ " area() { return 1; }"
+			+ "} class client {"
+			+ " main() { }"
+			+ "}";
+
+	private static final String SHAPE_AREA = "shape::area(shape this)";
+
+	private static final String SQUARE_AREA = "square::area(square this)";
+
+	private static final String SCALE = "shape::scale(shape this, untyped f)";
+
+	private static final String SCALE_BOTH = "shape::scale(shape this, untyped fx, untyped fy)";
+
+	private Program program;
+
+	private CFG main;
+
+	private Type shape;
+
+	private Type square;
+
+	private int line;
+
+	@Before
+	public void setup() throws ParsingException, ProgramValidationException {
+		program = IMPFrontend.processText(PROGRAM, true);
+		Caches.types().clear();
+		ExternalSet<Type> types = Caches.types().mkEmptySet();
+		program.getRegisteredTypes().forEach(types::add);
+		shape = type("shape");
+		square = type("square");
+		program.validateAndFinalize();
+		main = find("client::main");
+		line = 0;
+	}
+
+	private CFG find(String name) {
+		return program.getAllCFGs().stream().filter(cfg -> cfg.getDescriptor().getFullName().equals(name))
+				.findFirst().get();
+	}
+
+	private Type type(String name) {
+		return program.getRegisteredTypes().stream().filter(t -> t.toString().equals(name)).findFirst().get();
+	}
+
+	private UnresolvedCall call(String name, int args) {
+		SourceCodeLocation location = new SourceCodeLocation("fake", ++line, 0);
+		Expression[] params = new Expression[args + 1];
+		params[0] = new VariableRef(main, location, "this");
+		for (int i = 1; i <= args; i++)
+			params[i] = new Literal(main, location, i, Untyped.INSTANCE);
+		return new UnresolvedCall(main, location, IMPFrontend.CALL_STRATEGY, true, name, params);
+	}
+
+	private static Set<String> resolve(CallGraph cg, UnresolvedCall call, Type... receiver)
+			throws CallResolutionException {
+		ExternalSet<Type> types = Caches.types().mkEmptySet();
+		for (Type t : receiver)
+			types.add(t);
+		call.getParameters()[0].setRuntimeTypes(types);
+
+		Call resolved = cg.resolve(call);
+		if (resolved instanceof OpenCall)
+			return new HashSet<>();
+		assertTrue("Unexpected call " + resolved, resolved instanceof CFGCall);
+		Collection<CFG> targets = ((CFGCall) resolved).getTargets();
+		return targets.stream().map(cfg -> cfg.getDescriptor().getSignatureWithParNames()).collect(Collectors.toSet());
+	}
+
+	private static Set<String> targets(String... names) {
+		return Set.of(names);
+	}
+
+	@Test
+	public void testOverriddenAndInheritedMembers() throws CallGraphConstructionException, CallResolutionException {
+		CallGraph cg = new RTACallGraph();
+		cg.init(program);
+
+		assertEquals(targets(SHAPE_AREA), resolve(cg, call("area", 0), shape));
+		// the override hides the member of the superclass
+		assertEquals(targets(SQUARE_AREA), resolve(cg, call("area", 0), square));
+		assertEquals(targets(SHAPE_AREA, SQUARE_AREA), resolve(cg, call("area", 0), shape, square));
+		// members that are not overridden are inherited
+		assertEquals(targets(SCALE), resolve(cg, call("scale", 1), square));
+	}
+
+	@Test
+	public void testSameNameDifferentArities() throws CallGraphConstructionException, CallResolutionException {
+		CallGraph cg = new RTACallGraph();
+		cg.init(program);
+
+		assertEquals(targets(SCALE), resolve(cg, call("scale", 1), shape));
+		assertEquals(targets(SCALE_BOTH), resolve(cg, call("scale", 2), shape));
+		// no member with this arity
+		assertEquals(targets(), resolve(cg, call("scale", 3), shape));
+	}
+
+	@Test
+	public void testCachedResolutionsAcrossReceivers() throws CallGraphConstructionException, CallResolutionException {
+		CallGraph cg = new RTACallGraph();
+		cg.init(program);
+
+		UnresolvedCall first = call("area", 0);
+		UnresolvedCall second = call("area", 0);
+		assertEquals(targets(SHAPE_AREA), resolve(cg, first, shape));
+		// same signature at a different call site, but different receivers
+		assertEquals(targets(SQUARE_AREA), resolve(cg, second, square));
+		// the resolutions of both receivers are now known
+		assertEquals(targets(SHAPE_AREA), resolve(cg, second, shape));
+		assertEquals(targets(SQUARE_AREA), resolve(cg, first, square));
+		// a set of receivers containing both is resolved on its own
+		assertEquals(targets(SHAPE_AREA, SQUARE_AREA), resolve(cg, first, shape, square));
+		assertEquals(targets(SHAPE_AREA), resolve(cg, first, shape));
+	}
+}
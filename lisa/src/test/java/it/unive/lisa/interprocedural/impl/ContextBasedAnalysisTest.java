@@ -0,0 +1,301 @@
+package it.unive.lisa.interprocedural.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import it.unive.lisa.AnalysisException;
+import it.unive.lisa.LiSA;
+import it.unive.lisa.LiSAConfiguration;
+
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.SimpleAbstractState;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.impl.heap.MonolithicHeap;
+import it.unive.lisa.analysis.impl.numeric.Sign;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.caches.Caches;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.interprocedural.InterproceduralAnalysisException;
+import it.unive.lisa.interprocedural.callgraph.CallGraphConstructionException;
+import it.unive.lisa.interprocedural.callgraph.impl.CHACallGraph;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.ProgramValidationException;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.symbolic.value.Identifier;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.datastructures.graph.FixpointConfiguration;
+import it.unive.lisa.util.datastructures.graph.FixpointException;
+import java.util.Collection;
+import java.util.Collections;
+import org.junit.Test;
+
+public class ContextBasedAnalysisTest {
+
+	private static final String PROGRAM = "class first {"
+			+ " main() { def x = this.inc(1); }"
+			+ " inc(i) { return i + 1; }"
+			+ "} class second {"
+			+ " main() { def y = this.dec(1); }"
+			+ " dec(i) { return i - 1; }"
+			+ "}";
+
+	private static final String UTILITY = "class util {"
+			+ " main() { def x = this.abs(1); def y = this.abs(1); def z = this.abs(1); def w = this.abs(-1); }"
+			+ " abs(i) { def r = i; if (i < 0) r = -i; return r; }"
+			+ "}";
+
+	private static final String GROWING = "class grow {"
+			+ " main() { def x = this.id(1); def y = this.id(-1); }"
+			+ " id(i) { return i; }"
+			+ "}";
+
+	private static final String EXTENDED = "class grow {"
+			+ " main() { def x = this.id(1); }"
+			+ " other() { def y = this.id(-1); }"
+			+ " id(i) { return i; }"
+			+ "}";
+
+	private AnalysisState<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+			ValueEnvironment<Sign>> mkState() {
+		return new AnalysisState<>(new SimpleAbstractState<>(new MonolithicHeap(), new ValueEnvironment<>(new Sign())),
+				new ExpressionSet<>());
+	}
+
+	private static CFG find(Program p, String name) {
+		return p.getAllCFGs().stream().filter(cfg -> cfg.getDescriptor().getFullName().equals(name)).findFirst()
+				.get();
+	}
+
+	private static <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> CFGWithAnalysisResults<A, H, V> single(ContextBasedAnalysis<A, H, V> analysis,
+					CFG cfg) {
+		Collection<CFGWithAnalysisResults<A, H, V>> results = analysis.getAnalysisResultsOf(cfg);
+		assertEquals("Unexpected number of results for " + cfg, 1, results.size());
+		return results.iterator().next();
+	}
+
+	private static <A extends AbstractState<A, H, V>,
+			H extends HeapDomain<H>,
+			V extends ValueDomain<V>> void assertSameResults(CFGWithAnalysisResults<A, H, V> expected,
+					CFGWithAnalysisResults<A, H, V> actual) throws SemanticException {
+		assertNotSame("Results of " + expected + " have not been recomputed", expected, actual);
+		assertTrue("Results of " + expected + " differ after the incremental analysis",
+				expected.lessOrEqual(actual) && actual.lessOrEqual(expected));
+	}
+
+	private static Program mkProgram(String code) throws ParsingException, ProgramValidationException {
+		Program p = IMPFrontend.processText(code, true);
+		Caches.types().clear();
+		ExternalSet<Type> types = Caches.types().mkEmptySet();
+		p.getRegisteredTypes().forEach(types::add);
+		p.validateAndFinalize();
+		return p;
+	}
+
+	@Test
+	public void testCallSiteSummariesAreReused() throws ParsingException, InterproceduralAnalysisException,
+			CallGraphConstructionException, FixpointException, ProgramValidationException, SemanticException {
+		Program p = mkProgram(UTILITY);
+		CHACallGraph callgraph = new CHACallGraph();
+		callgraph.init(p);
+		ContextBasedAnalysis<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+				ValueEnvironment<Sign>> cached = new ContextBasedAnalysis<>(ContextInsensitiveToken.getSingleton());
+		cached.init(p, callgraph);
+		cached.fixpoint(mkState());
+
+		callgraph = new CHACallGraph();
+		callgraph.init(p);
+		ContextBasedAnalysis<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+				ValueEnvironment<Sign>> uncached = new ContextBasedAnalysis<>(ContextInsensitiveToken.getSingleton(),
+						0);
+		uncached.init(p, callgraph);
+		uncached.fixpoint(mkState());
+
+		// the repeated calls with the same argument hit the summaries
+		assertTrue("No call site summary has been reused", cached.getCallSiteSummaries().getHits() > 0);
+		assertEquals(0, uncached.getCallSiteSummaries().getHits());
+
+		for (CFG cfg : p.getAllCFGs()) {
+			CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+					ValueEnvironment<Sign>> expected = single(uncached, cfg), actual = single(cached, cfg);
+			assertTrue("Results of " + cfg + " differ when using call site summaries",
+					expected.lessOrEqual(actual) && actual.lessOrEqual(expected));
+		}
+	}
+
+	@Test
+	public void testGrowingResultsAreRecomputed() throws ParsingException, InterproceduralAnalysisException,
+			CallGraphConstructionException, FixpointException, ProgramValidationException, SemanticException {
+		Program p = mkProgram(GROWING);
+		CHACallGraph callgraph = new CHACallGraph();
+		callgraph.init(p);
+		ContextBasedAnalysis<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+				ValueEnvironment<Sign>> analysis = new ContextBasedAnalysis<>(ContextInsensitiveToken.getSingleton());
+		analysis.init(p, callgraph);
+		analysis.fixpoint(mkState());
+
+		// x is positive when the first call is evaluated, but the result
+		// of id grows when evaluating the second one: main has to be
+		// analyzed again to consume the updated result
+		ValueEnvironment<Sign> env = single(analysis, find(p, "grow::main")).getExitState().getState()
+				.getValueState();
+		Identifier x = env.getKeys().stream().filter(id -> id.getName().equals("x")).findFirst().get();
+		assertTrue("The updated result of id has not been consumed", env.getState(x).isTop());
+	}
+
+	@Test
+	public void testIncrementalReusesUnaffectedResults() throws ParsingException, InterproceduralAnalysisException,
+			CallGraphConstructionException, FixpointException, ProgramValidationException, SemanticException {
+		Program p = mkProgram(PROGRAM);
+		CHACallGraph callgraph = new CHACallGraph();
+		callgraph.init(p);
+		ContextBasedAnalysis<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+				ValueEnvironment<Sign>> analysis = new ContextBasedAnalysis<>();
+		analysis.init(p, callgraph);
+		analysis.fixpoint(mkState());
+
+		CFG firstMain = find(p, "first::main"), inc = find(p, "first::inc");
+		CFG secondMain = find(p, "second::main"), dec = find(p, "second::dec");
+		CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+				ValueEnvironment<Sign>> firstMainRes = single(analysis, firstMain), incRes = single(analysis, inc),
+						secondMainRes = single(analysis, secondMain), decRes = single(analysis, dec);
+
+		analysis.fixpoint(mkState(), new FixpointConfiguration(), analysis.getFixpointResults(),
+				Collections.singleton(firstMain));
+
+		// only the changed cfg is recomputed...
+		assertSameResults(firstMainRes, single(analysis, firstMain));
+
+		// ...while its callee is reached with the same entry state
+		assertSame(incRes, single(analysis, inc));
+		assertSame(secondMainRes, single(analysis, secondMain));
+		assertSame(decRes, single(analysis, dec));
+	}
+
+	@Test
+	public void testIncrementalSkipsCallersOfUnchangedResults() throws ParsingException,
+			InterproceduralAnalysisException, CallGraphConstructionException, FixpointException,
+			ProgramValidationException, SemanticException {
+		Program p = mkProgram(PROGRAM);
+		CHACallGraph callgraph = new CHACallGraph();
+		callgraph.init(p);
+		ContextBasedAnalysis<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+				ValueEnvironment<Sign>> analysis = new ContextBasedAnalysis<>();
+		analysis.init(p, callgraph);
+		analysis.fixpoint(mkState());
+
+		CFG firstMain = find(p, "first::main"), inc = find(p, "first::inc");
+		CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+				ValueEnvironment<Sign>> firstMainRes = single(analysis, firstMain), incRes = single(analysis, inc);
+
+		analysis.fixpoint(mkState(), new FixpointConfiguration(), analysis.getFixpointResults(),
+				Collections.singleton(inc));
+
+		// the exit state of inc did not change, so its caller is reused
+		assertSameResults(incRes, single(analysis, inc));
+		assertSame(firstMainRes, single(analysis, firstMain));
+	}
+
+	@Test
+	public void testIncrementalValidatesArguments() throws ParsingException, InterproceduralAnalysisException,
+			CallGraphConstructionException, FixpointException, ProgramValidationException {
+		Program p = mkProgram(PROGRAM);
+		CHACallGraph callgraph = new CHACallGraph();
+		callgraph.init(p);
+		ContextBasedAnalysis<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+				ValueEnvironment<Sign>> analysis = new ContextBasedAnalysis<>();
+		analysis.init(p, callgraph);
+		analysis.fixpoint(mkState());
+
+		try {
+			analysis.fixpoint(mkState(), new FixpointConfiguration(), null, Collections.emptySet());
+			fail("Missing previous results have been accepted");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+
+		try {
+			analysis.fixpoint(mkState(), new FixpointConfiguration(), analysis.getFixpointResults(), null);
+			fail("Missing changed cfgs have been accepted");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+
+		// same signature, but a different instance
+		CFG foreign = find(mkProgram(PROGRAM), "first::inc");
+		try {
+			analysis.fixpoint(mkState(), new FixpointConfiguration(), analysis.getFixpointResults(),
+					Collections.singleton(foreign));
+			fail("A cfg that is not part of the program has been accepted");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testIncrementalThroughConfiguration() throws ParsingException, ProgramValidationException,
+			AnalysisException, SemanticException {
+		Program p = mkProgram(PROGRAM);
+		ContextBasedAnalysis<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+				ValueEnvironment<Sign>> analysis = new ContextBasedAnalysis<>();
+		LiSAConfiguration conf = new LiSAConfiguration()
+				.setCallGraph(new CHACallGraph())
+				.setInterproceduralAnalysis(analysis)
+				.setAbstractState(mkState().getState());
+		new LiSA(conf).run(p);
+
+		CFG firstMain = find(p, "first::main"), secondMain = find(p, "second::main");
+		CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+				ValueEnvironment<Sign>> firstMainRes = single(analysis, firstMain),
+						secondMainRes = single(analysis, secondMain);
+
+		conf.setChangedCFGs(Collections.singleton(firstMain));
+		new LiSA(conf).run(p);
+
+		assertSameResults(firstMainRes, single(analysis, firstMain));
+		assertSame(secondMainRes, single(analysis, secondMain));
+	}
+
+	@Test
+	public void testIncrementalFollowsNewCalls() throws ParsingException, InterproceduralAnalysisException,
+			CallGraphConstructionException, FixpointException, ProgramValidationException, SemanticException {
+		Program p = mkProgram(EXTENDED);
+		CHACallGraph callgraph = new CHACallGraph();
+		callgraph.init(p);
+		ContextBasedAnalysis<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+				ValueEnvironment<Sign>> analysis = new ContextBasedAnalysis<>(ContextInsensitiveToken.getSingleton());
+		analysis.init(p, callgraph);
+		analysis.fixpoint(mkState());
+
+		CFG main = find(p, "grow::main"), other = find(p, "grow::other");
+		assertTrue(analysis.getAnalysisResultsOf(other).isEmpty());
+		FixpointResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+				ValueEnvironment<Sign>> previous = analysis.getFixpointResults();
+		CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+				ValueEnvironment<Sign>> idRes = single(analysis, find(p, "grow::id"));
+
+		// other becomes an entrypoint, introducing a new call to id that
+		// the call graph did not know about
+		p.addEntryPoint(other);
+		analysis.fixpoint(mkState(), new FixpointConfiguration(), previous, Collections.singleton(other));
+
+		// the result of id grows, and main has to consume it
+		ValueEnvironment<Sign> env = single(analysis, main).getExitState().getState().getValueState();
+		Identifier x = env.getKeys().stream().filter(id -> id.getName().equals("x")).findFirst().get();
+		assertTrue("The new call to id has not been considered", env.getState(x).isTop());
+
+		// the previous results are left untouched
+		assertSame(idRes, previous.getState(find(p, "grow::id")).getAll().iterator().next());
+	}
+}
@@ -0,0 +1,97 @@
+package it.unive.lisa.interprocedural.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.SimpleAbstractState;
+import it.unive.lisa.analysis.impl.heap.MonolithicHeap;
+import it.unive.lisa.analysis.impl.numeric.Sign;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.caches.Caches;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.interprocedural.InterproceduralAnalysisException;
+import it.unive.lisa.interprocedural.callgraph.CallGraphConstructionException;
+import it.unive.lisa.interprocedural.callgraph.impl.CHACallGraph;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.ProgramValidationException;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.datastructures.graph.FixpointException;
+import java.util.Collection;
+import org.junit.Test;
+
+public class SummaryBasedAnalysisTest {
+
+	private static final String PROGRAM = "class rec {"
+			+ " main() { def x = this.even(10); def y = this.fact(5); }"
+			+ " fact(n) { def r = 1; if (n > 0) { def m = n - 1; r = n * this.fact(m); } return r; }"
+			+ " even(n) { def r = true; if (n > 0) { def m = n - 1; r = this.odd(m); } return r; }"
+			+ " odd(n) { def r = false; if (n > 0) { def m = n - 1; r = this.even(m); } return r; }"
+			+ "}";
+
+	private static AnalysisState<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+			ValueEnvironment<Sign>> mkState() {
+		return new AnalysisState<>(new SimpleAbstractState<>(new MonolithicHeap(), new ValueEnvironment<>(new Sign())),
+				new ExpressionSet<>());
+	}
+
+	private static Program mkProgram() throws ParsingException, ProgramValidationException {
+		Program p = IMPFrontend.processText(PROGRAM, true);
+		Caches.types().clear();
+		ExternalSet<Type> types = Caches.types().mkEmptySet();
+		p.getRegisteredTypes().forEach(types::add);
+		p.validateAndFinalize();
+		return p;
+	}
+
+	private static SummaryBasedAnalysis<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+			ValueEnvironment<Sign>> run(Program p, int parallelism)
+					throws InterproceduralAnalysisException, CallGraphConstructionException, FixpointException {
+		CHACallGraph callgraph = new CHACallGraph();
+		callgraph.init(p);
+		SummaryBasedAnalysis<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+				ValueEnvironment<Sign>> analysis = new SummaryBasedAnalysis<>(parallelism);
+		analysis.init(p, callgraph);
+		analysis.fixpoint(mkState());
+		return analysis;
+	}
+
+	private static CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+			ValueEnvironment<Sign>> single(SummaryBasedAnalysis<SimpleAbstractState<MonolithicHeap,
+					ValueEnvironment<Sign>>, MonolithicHeap, ValueEnvironment<Sign>> analysis, CFG cfg) {
+		Collection<CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+				ValueEnvironment<Sign>>> results = analysis.getAnalysisResultsOf(cfg);
+		assertEquals("Unexpected number of results for " + cfg, 1, results.size());
+		return results.iterator().next();
+	}
+
+	@Test
+	public void testRecursiveComponentsConverge() throws ParsingException, ProgramValidationException,
+			InterproceduralAnalysisException, CallGraphConstructionException, FixpointException, SemanticException {
+		Program p = mkProgram();
+		SummaryBasedAnalysis<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+				ValueEnvironment<Sign>> sequential = run(p, 1);
+		SummaryBasedAnalysis<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+				ValueEnvironment<Sign>> parallel = run(p, 4);
+
+		for (CFG cfg : p.getAllCFGs()) {
+			CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+					ValueEnvironment<Sign>> seq = single(sequential, cfg), par = single(parallel, cfg);
+			assertTrue("Sequential and parallel results of " + cfg + " differ",
+					seq.lessOrEqual(par) && par.lessOrEqual(seq));
+			assertFalse("The summary of " + cfg + " does not return", seq.getExitState().isBottom());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidParallelism() {
+		new SummaryBasedAnalysis<>(0);
+	}
+}
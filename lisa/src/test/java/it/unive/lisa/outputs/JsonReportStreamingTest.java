@@ -0,0 +1,183 @@
+package it.unive.lisa.outputs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import it.unive.lisa.checks.warnings.Warning;
+import it.unive.lisa.outputs.JsonReport.JsonWarning;
+import it.unive.lisa.outputs.compare.JsonReportComparer;
+import it.unive.lisa.outputs.compare.JsonReportComparer.DiffReporter;
+import it.unive.lisa.outputs.compare.JsonReportComparer.REPORTED_COMPONENT;
+import it.unive.lisa.outputs.compare.JsonReportComparer.REPORT_TYPE;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JsonReportStreamingTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	private static List<Warning> warnings(int count, long seed) {
+		Random random = new Random(seed);
+		List<Warning> warnings = new ArrayList<>();
+		for (int i = 0; i < count; i++)
+			// duplicates and characters that need escaping included
+			warnings.add(new Warning("Warning \"" + random.nextInt(count) + "\"\nè"));
+		return warnings;
+	}
+
+	private String stream(Collection<Warning> warnings, Collection<String> files, int runSize) throws IOException {
+		StringWriter writer = new StringWriter();
+		Path dir = tmp.newFolder().toPath();
+		try (JsonReportWriter report = new JsonReportWriter(writer, dir, runSize)) {
+			for (Warning warning : warnings)
+				report.add(warning);
+			if (warnings.size() > runSize * 2)
+				assertTrue(report.getSpilledRuns() > 0);
+			report.finish(files);
+			assertEquals(new HashSet<>(warnings).size(), report.getWrittenWarnings());
+		}
+		try (Stream<Path> remaining = Files.list(dir)) {
+			assertEquals("Temporary files have not been deleted", 0, remaining.count());
+		}
+		return writer.toString();
+	}
+
+	private static String dump(Collection<Warning> warnings, Collection<String> files) throws IOException {
+		StringWriter writer = new StringWriter();
+		new JsonReport(warnings, files).dump(writer);
+		return writer.toString();
+	}
+
+	@Test
+	public void testSameOutputAsJsonReport() throws IOException {
+		List<String> files = Arrays.asList("b.dot", "a.dot");
+		assertEquals(dump(Collections.emptyList(), Collections.emptyList()),
+				stream(Collections.emptyList(), Collections.emptyList(), 10));
+		List<Warning> warnings = warnings(100, 42);
+		assertEquals(dump(warnings, files), stream(warnings, files, 1000));
+		assertEquals(dump(warnings, files), stream(warnings, files, 7));
+		// enough runs to require intermediate merges
+		warnings = warnings(2000, 7);
+		assertEquals(dump(warnings, files), stream(warnings, files, 3));
+	}
+
+	@Test
+	public void testReader() throws IOException {
+		List<Warning> warnings = warnings(500, 3);
+		List<String> files = Arrays.asList("b.dot", "a.dot");
+		JsonReport expected = new JsonReport(warnings, files);
+
+		List<JsonWarning> read = new ArrayList<>();
+		try (JsonReportReader reader = new JsonReportReader(new StringReader(stream(warnings, files, 10)))) {
+			JsonWarning warning;
+			while ((warning = reader.nextWarning()) != null)
+				read.add(warning);
+			assertNull(reader.nextWarning());
+			assertEquals(new ArrayList<>(expected.getFiles()), new ArrayList<>(reader.getFiles()));
+		}
+		assertEquals(new ArrayList<>(expected.getWarnings()), read);
+
+		// files can be read without reading the warnings, and can come first
+		String json = "{ \"files\" : [ \"x\" ], \"warnings\" : [ { \"message\" : \"a\" } ], \"other\" : { } }";
+		try (JsonReportReader reader = new JsonReportReader(new StringReader(json))) {
+			assertEquals(Collections.singletonList("x"), new ArrayList<>(reader.getFiles()));
+			assertNull(reader.nextWarning());
+		}
+	}
+
+	@Test
+	public void testReaderRejectsUnsortedReports() throws IOException {
+		String json = "{ \"warnings\" : [ { \"message\" : \"b\" }, { \"message\" : \"a\" } ], \"files\" : [ ] }";
+		try (JsonReportReader reader = new JsonReportReader(new StringReader(json))) {
+			reader.getFiles();
+			fail("Unsorted warnings have been accepted");
+		} catch (IOException e) {
+			assertTrue(e.getMessage().contains("not sorted"));
+		}
+	}
+
+	private static class CollectingReporter implements DiffReporter {
+
+		private final Map<REPORT_TYPE, List<Object>> warnings = new EnumMap<>(REPORT_TYPE.class);
+
+		private int calls;
+
+		private int maxChunk;
+
+		@Override
+		public void report(REPORTED_COMPONENT component, REPORT_TYPE type, Collection<?> reported) {
+			assertEquals(REPORTED_COMPONENT.WARNINGS, component);
+			maxChunk = Math.max(maxChunk, reported.size());
+			warnings.computeIfAbsent(type, t -> new ArrayList<>()).addAll(reported);
+			calls++;
+		}
+
+		@Override
+		public void fileDiff(String first, String second, String message) {
+			fail("No files should be compared");
+		}
+	}
+
+	private static boolean compare(String first, String second, CollectingReporter reporter) throws IOException {
+		try (JsonReportReader l = new JsonReportReader(new StringReader(first));
+				JsonReportReader r = new JsonReportReader(new StringReader(second))) {
+			return JsonReportComparer.compare(l, r, new File("."), new File("."), reporter);
+		}
+	}
+
+	@Test
+	public void testStreamingComparison() throws IOException {
+		List<Warning> first = new ArrayList<>();
+		List<Warning> second = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			String message = String.format("w%05d", i);
+			if (i % 3 != 0)
+				first.add(new Warning(message));
+			if (i % 5 != 0)
+				second.add(new Warning(message));
+		}
+		String firstJson = stream(first, Collections.emptyList(), 100);
+		String secondJson = stream(second, Collections.emptyList(), 100);
+
+		CollectingReporter reporter = new CollectingReporter();
+		assertTrue(compare(firstJson, firstJson, reporter));
+		assertEquals(first.size(), reporter.warnings.get(REPORT_TYPE.COMMON).size());
+		assertFalse(reporter.warnings.containsKey(REPORT_TYPE.ONLY_FIRST));
+		assertFalse(reporter.warnings.containsKey(REPORT_TYPE.ONLY_SECOND));
+
+		reporter = new CollectingReporter();
+		assertFalse(compare(firstJson, secondJson, reporter));
+		assertTrue(reporter.calls > 3);
+		assertEquals(JsonReportComparer.STREAMING_CHUNK_SIZE, reporter.maxChunk);
+
+		// the streaming comparison must agree with the in-memory one
+		CollectingReporter inMemory = new CollectingReporter();
+		assertFalse(JsonReportComparer.compare(JsonReport.read(new StringReader(firstJson)),
+				JsonReport.read(new StringReader(secondJson)), new File("."), new File("."), inMemory));
+		for (REPORT_TYPE type : REPORT_TYPE.values())
+			assertEquals(inMemory.warnings.get(type).toString(), reporter.warnings.get(type).toString());
+		// 0 mod 5 but not 0 mod 3
+		assertEquals(1000 - 334, reporter.warnings.get(REPORT_TYPE.ONLY_FIRST).size());
+	}
+}
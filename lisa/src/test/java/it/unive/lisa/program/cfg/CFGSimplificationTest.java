@@ -1,12 +1,20 @@
 package it.unive.lisa.program.cfg;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import it.unive.lisa.analysis.AbstractState;
 import it.unive.lisa.analysis.AnalysisState;
 import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.SimpleAbstractState;
 import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.impl.heap.MonolithicHeap;
+import it.unive.lisa.analysis.impl.numeric.Sign;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
 import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.caches.Caches;
 import it.unive.lisa.interprocedural.InterproceduralAnalysis;
 import it.unive.lisa.program.CompilationUnit;
 import it.unive.lisa.program.ProgramValidationException;
@@ -27,6 +35,8 @@ import it.unive.lisa.program.cfg.statement.Statement;
 import it.unive.lisa.program.cfg.statement.UnaryNativeCall;
 import it.unive.lisa.program.cfg.statement.VariableRef;
 import it.unive.lisa.symbolic.SymbolicExpression;
+import it.unive.lisa.symbolic.value.Constant;
+import it.unive.lisa.symbolic.value.Variable;
 import it.unive.lisa.type.Untyped;
 import it.unive.lisa.util.datastructures.graph.AdjacencyMatrix;
 import org.junit.Test;
@@ -355,4 +365,43 @@ public class CFGSimplificationTest {
 		ControlFlowStructure act = first.getControlFlowStructures().iterator().next();
 		assertTrue("Simplification did not update control flow structures", exp.isEqualTo(act));
 	}
+
+	@Test
+	public void testScopesFollowSimplificationAndUpdates() throws ProgramValidationException, SemanticException {
+		SourceCodeLocation unknownLocation = new SourceCodeLocation("fake", 0, 0);
+		CompilationUnit unit = new CompilationUnit(unknownLocation, "foo", false);
+		CFG cfg = new CFG(new CFGDescriptor(unknownLocation, unit, false, "foo"));
+		Assignment assign = new Assignment(cfg, unknownLocation, new VariableRef(cfg, unknownLocation, "x"),
+				new Literal(cfg, unknownLocation, 5, Untyped.INSTANCE));
+		NoOp noop = new NoOp(cfg, unknownLocation);
+		Return ret = new Return(cfg, unknownLocation, new VariableRef(cfg, unknownLocation, "y"));
+		cfg.addNode(assign, true);
+		cfg.addNode(noop);
+		cfg.addNode(ret);
+		cfg.addEdge(new SequentialEdge(assign, noop));
+		cfg.addEdge(new SequentialEdge(noop, ret));
+		VariableTableEntry x = new VariableTableEntry(unknownLocation, 0, null, noop, "x");
+		cfg.getDescriptor().addVariable(x);
+
+		Variable var = new Variable(Caches.types().mkSingletonSet(Untyped.INSTANCE), "x");
+		AnalysisState<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Sign>>, MonolithicHeap,
+				ValueEnvironment<Sign>> state = new AnalysisState<>(
+						new SimpleAbstractState<>(new MonolithicHeap(), new ValueEnvironment<>(new Sign())),
+						new ExpressionSet<>())
+						.assign(var, new Constant(Untyped.INSTANCE, 5), assign);
+		assertTrue(state.getState().getValueState().getKeys().contains(var));
+
+		// the scope of x is moved from the removed noop to the return
+		cfg.simplify();
+		assertSame(ret, x.getScopeEnd());
+		assertSame("x has been forgotten where its scope does not end", state, cfg.cleanUpPostState(assign, state));
+		assertFalse("x has not been forgotten after the end of its scope",
+				cfg.cleanUpPostState(ret, state).getState().getValueState().getKeys().contains(var));
+
+		// changes made outside of the simplification are visible as well
+		x.setScopeEnd(assign);
+		assertFalse("x has not been forgotten after the end of its scope",
+				cfg.cleanUpPostState(assign, state).getState().getValueState().getKeys().contains(var));
+		assertSame("x has been forgotten where its scope does not end", state, cfg.cleanUpPostState(ret, state));
+	}
 }
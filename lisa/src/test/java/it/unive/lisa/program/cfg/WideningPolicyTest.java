@@ -0,0 +1,119 @@
+package it.unive.lisa.program.cfg;
+
+import static org.junit.Assert.assertEquals;
+
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.SimpleAbstractState;
+import it.unive.lisa.analysis.impl.heap.MonolithicHeap;
+import it.unive.lisa.analysis.impl.numeric.Interval;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.caches.Caches;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.interprocedural.InterproceduralAnalysisException;
+import it.unive.lisa.interprocedural.callgraph.CallGraphConstructionException;
+import it.unive.lisa.interprocedural.callgraph.impl.RTACallGraph;
+import it.unive.lisa.interprocedural.impl.ModularWorstCaseAnalysis;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.cfg.controlFlow.ControlFlowStructure;
+import it.unive.lisa.program.cfg.controlFlow.Loop;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.symbolic.value.Variable;
+import it.unive.lisa.type.Untyped;
+import it.unive.lisa.util.datastructures.graph.FixpointConfiguration;
+import it.unive.lisa.util.datastructures.graph.FixpointException;
+import it.unive.lisa.util.datastructures.graph.IterationStrategy;
+import it.unive.lisa.util.datastructures.graph.WideningPoints;
+import org.junit.Test;
+
+public class WideningPolicyTest {
+
+	private static final String PROGRAM = "class tutorial { "
+			+ "loop() { def i = 0; while (i < 1000) i = i + 1; return i; } }";
+
+	private static final String LARGE_PROGRAM = "class tutorial { "
+			+ "loop() { def i = 0; while (i < 2147483647) i = i + 2; return i; } }";
+
+	private static Interval valueOfI(FixpointConfiguration conf, boolean atExit)
+			throws ParsingException, InterproceduralAnalysisException, CallGraphConstructionException,
+			FixpointException {
+		return valueOfI(PROGRAM, conf, atExit);
+	}
+
+	private static Interval valueOfI(String program, FixpointConfiguration conf, boolean atExit)
+			throws ParsingException, InterproceduralAnalysisException, CallGraphConstructionException,
+			FixpointException {
+		Program p = IMPFrontend.processText(program);
+		CFG cfg = p.getAllCFGs().iterator().next();
+
+		ModularWorstCaseAnalysis<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>, MonolithicHeap,
+				ValueEnvironment<Interval>> analysis = new ModularWorstCaseAnalysis<>();
+		RTACallGraph callgraph = new RTACallGraph();
+		callgraph.init(p);
+		analysis.init(p, callgraph);
+
+		AnalysisState<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>, MonolithicHeap,
+				ValueEnvironment<Interval>> entry = new AnalysisState<>(
+						new SimpleAbstractState<>(new MonolithicHeap(), new ValueEnvironment<>(new Interval())),
+						new ExpressionSet<>());
+		CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>, MonolithicHeap,
+				ValueEnvironment<Interval>> result = cfg.fixpoint(entry, analysis, conf);
+
+		Statement target = null;
+		if (atExit)
+			target = cfg.getNormalExitpoints().iterator().next();
+		else
+			for (ControlFlowStructure cfs : cfg.getControlFlowStructures())
+				if (cfs instanceof Loop)
+					target = cfs.getCondition();
+
+		Variable i = new Variable(Caches.types().mkSingletonSet(Untyped.INSTANCE), "i");
+		return result.getAnalysisStateAfter(target).getState().getValueState().getState(i);
+	}
+
+	private static FixpointConfiguration wto() {
+		return new FixpointConfiguration().setIterationStrategy(IterationStrategy.WEAK_TOPOLOGICAL_ORDER);
+	}
+
+	@Test
+	public void testDefaultPolicy() throws Exception {
+		assertEquals(new Interval(0, null), valueOfI(new FixpointConfiguration(), false));
+		assertEquals(new Interval(1000, null), valueOfI(new FixpointConfiguration(), true));
+	}
+
+	@Test
+	public void testLoopHeads() throws Exception {
+		// the body of the loop is not widened, so the loop head can recover
+		// its upper bound after being widened
+		assertEquals(new Interval(0, 1000),
+				valueOfI(new FixpointConfiguration().setWideningPoints(WideningPoints.LOOP_HEADS), false));
+	}
+
+	@Test
+	public void testThresholds() throws Exception {
+		assertEquals(new Interval(1000, 1000),
+				valueOfI(new FixpointConfiguration().setWideningWithThresholds(true), true));
+		assertEquals(new Interval(1000, 1000), valueOfI(new FixpointConfiguration()
+				.setWideningPoints(WideningPoints.LOOP_HEADS).setWideningWithThresholds(true), true));
+		assertEquals(new Interval(1000, 1000), valueOfI(wto().setWideningWithThresholds(true), true));
+	}
+
+	@Test
+	public void testThresholdsBeyondIntegers() throws Exception {
+		// the threshold following the largest int literal does not fit in
+		// an int, but it is still a valid bound
+		assertEquals(new Interval(2147483647L, 2147483648L),
+				valueOfI(LARGE_PROGRAM, new FixpointConfiguration().setWideningWithThresholds(true), true));
+	}
+
+	@Test
+	public void testNarrowing() throws Exception {
+		assertEquals(new Interval(1000, 1000),
+				valueOfI(new FixpointConfiguration().setNarrowingIterations(2), true));
+		assertEquals(new Interval(1000, 1000), valueOfI(new FixpointConfiguration()
+				.setWideningPoints(WideningPoints.LOOP_HEADS).setNarrowingIterations(2), true));
+		assertEquals(new Interval(1000, 1000), valueOfI(wto().setNarrowingIterations(2), true));
+	}
+}
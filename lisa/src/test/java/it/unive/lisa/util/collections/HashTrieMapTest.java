@@ -0,0 +1,160 @@
+package it.unive.lisa.util.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+public class HashTrieMapTest {
+
+	private static final class Colliding {
+
+		private final int id;
+
+		private Colliding(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public int hashCode() {
+			// few distinct hashes, to exercise collision nodes
+			return id % 7;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Colliding && ((Colliding) obj).id == id;
+		}
+
+		@Override
+		public String toString() {
+			return "c" + id;
+		}
+	}
+
+	private static Object key(Random random, boolean colliding) {
+		int id = random.nextInt(500);
+		return colliding ? new Colliding(id) : Integer.valueOf(id);
+	}
+
+	private static void randomOperations(boolean colliding) {
+		Random random = new Random(42);
+		Map<Object, Integer> expected = new HashMap<>();
+		HashTrieMap<Object, Integer> actual = new HashTrieMap<>();
+		Map<Object, Integer> expectedCopy = null;
+		HashTrieMap<Object, Integer> copy = null;
+
+		for (int i = 0; i < 20000; i++) {
+			Object key = key(random, colliding);
+			if (random.nextInt(3) == 0)
+				assertEquals(expected.remove(key), actual.remove(key));
+			else
+				assertEquals(expected.put(key, i), actual.put(key, i));
+			assertEquals(expected.size(), actual.size());
+
+			if (i % 1000 == 0) {
+				// copies must not be affected by later modifications
+				if (copy != null)
+					assertEquals(expectedCopy, copy);
+				expectedCopy = new HashMap<>(expected);
+				copy = new HashTrieMap<>(actual);
+			}
+		}
+
+		assertEquals(expected, actual);
+		assertEquals(actual, expected);
+		assertEquals(expected.hashCode(), actual.hashCode());
+		for (int i = 0; i < 500; i++) {
+			Object key = colliding ? new Colliding(i) : Integer.valueOf(i);
+			assertEquals(expected.containsKey(key), actual.containsKey(key));
+			assertEquals(expected.get(key), actual.get(key));
+		}
+	}
+
+	@Test
+	public void testRandomOperations() {
+		randomOperations(false);
+	}
+
+	@Test
+	public void testRandomOperationsWithCollisions() {
+		randomOperations(true);
+	}
+
+	@Test
+	public void testCopiesAreIndependent() {
+		HashTrieMap<String, Integer> map = new HashTrieMap<>();
+		for (int i = 0; i < 100; i++)
+			map.put("k" + i, i);
+
+		HashTrieMap<String, Integer> copy = new HashTrieMap<>(map);
+		copy.put("k0", -1);
+		copy.remove("k1");
+		map.put("k2", -2);
+
+		assertEquals(Integer.valueOf(0), map.get("k0"));
+		assertEquals(Integer.valueOf(1), map.get("k1"));
+		assertEquals(Integer.valueOf(-1), copy.get("k0"));
+		assertNull(copy.get("k1"));
+		assertEquals(Integer.valueOf(2), copy.get("k2"));
+		assertEquals(100, map.size());
+		assertEquals(99, copy.size());
+	}
+
+	@Test
+	public void testKeysNotShared() {
+		HashTrieMap<String, Integer> map = new HashTrieMap<>();
+		for (int i = 0; i < 1000; i++)
+			map.put("k" + i, i);
+
+		HashTrieMap<String, Integer> copy = new HashTrieMap<>(map);
+		assertTrue(copy.keysNotSharedWith(map).isEmpty());
+		assertEquals(copy, map);
+
+		copy.put("k5", -5);
+		copy.put("new", 0);
+		copy.remove("k7");
+		Set<String> mine = copy.keysNotSharedWith(map);
+		Set<String> theirs = map.keysNotSharedWith(copy);
+		assertTrue(mine.contains("k5"));
+		assertTrue(mine.contains("new"));
+		assertFalse(mine.contains("k7"));
+		assertTrue(theirs.contains("k5"));
+		assertTrue(theirs.contains("k7"));
+		assertTrue(mine.size() < 100);
+		assertTrue(theirs.size() < 100);
+		for (Entry<String, Integer> entry : copy.entrySet())
+			if (!mine.contains(entry.getKey()))
+				assertTrue(entry.getValue() == map.get(entry.getKey()));
+
+		copy.put("k5", 5);
+		copy.remove("new");
+		copy.put("k7", 7);
+		assertEquals(copy, map);
+	}
+
+	@Test
+	public void testIteratorRemove() {
+		HashTrieMap<Integer, Integer> map = new HashTrieMap<>();
+		for (int i = 0; i < 1000; i++)
+			map.put(i, i);
+
+		int visited = 0;
+		for (Iterator<Entry<Integer, Integer>> it = map.entrySet().iterator(); it.hasNext(); visited++)
+			if (it.next().getKey() % 2 == 0)
+				it.remove();
+
+		assertEquals(1000, visited);
+		assertEquals(500, map.size());
+		for (int i = 0; i < 1000; i++)
+			assertEquals(i % 2 == 1, map.containsKey(i));
+	}
+}
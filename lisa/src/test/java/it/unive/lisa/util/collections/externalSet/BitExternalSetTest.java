@@ -1,6 +1,10 @@
 package it.unive.lisa.util.collections.externalSet;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -316,4 +320,54 @@ public class BitExternalSetTest {
 		tmp.removeAll(set2);
 		verify(Set::equals, Pair.of(tmp, eset1.difference(eset2)));
 	}
+
+	@Test
+	public void testWordBoundaries() {
+		ExternalSetCache<Integer> cache = new ExternalSetCache<>();
+		for (int i = 0; i < 200; i++)
+			cache.mkSingletonSet(i);
+
+		ExternalSet<Integer> eset = cache.mkEmptySet();
+		List<Integer> elements = List.of(0, 63, 64, 127, 128, 199);
+		eset.addAll(elements);
+		assertEquals(elements.size(), eset.size());
+		assertEquals(elements, new ArrayList<>(eset));
+
+		eset.remove(199);
+		eset.remove(128);
+		assertEquals(4, eset.size());
+		assertEquals(List.of(0, 63, 64, 127), new ArrayList<>(eset));
+
+		for (int i : List.of(0, 63, 64, 127))
+			eset.remove(i);
+		assertTrue(eset.isEmpty());
+		assertEquals(0, eset.size());
+		assertFalse(eset.iterator().hasNext());
+		assertEquals(cache.mkEmptySet(), eset);
+	}
+
+	@Test
+	public void testImmutable() {
+		ExternalSetCache<String> cache = new ExternalSetCache<>();
+		ExternalSet<String> eset = cache.mkSet(List.of("a", "b", "c"));
+		ExternalSet<String> immutable = eset.immutable();
+		assertEquals(eset, immutable);
+		assertEquals(eset.hashCode(), immutable.hashCode());
+		assertSame(immutable, immutable.immutable());
+
+		// the immutable copy is not affected by changes to the original set
+		eset.add("d");
+		assertEquals(3, immutable.size());
+		assertEquals(4, immutable.union(cache.mkSingletonSet("d")).size());
+		try {
+			immutable.add("e");
+			fail("Immutable sets should not be modifiable");
+		} catch (UnsupportedOperationException e) {
+			assertEquals(3, immutable.size());
+		}
+
+		ExternalSet<String> copy = immutable.copy();
+		copy.add("e");
+		assertEquals(4, copy.size());
+	}
 }
@@ -4,7 +4,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import org.junit.Test;
 
@@ -78,4 +80,35 @@ public class ExternalSetTest {
 		assertTrue(universal.contains("foo"));
 		assertFalse(universal.contains(new Object()));
 	}
+
+	@Test
+	public void testConcurrentAdditions() throws InterruptedException {
+		ExternalSetCache<Object> cache = new ExternalSetCache<Object>();
+		int threads = 4, elements = 5000;
+		List<ExternalSet<Object>> sets = new ArrayList<>();
+		List<Thread> workers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			ExternalSet<Object> set = cache.mkEmptySet();
+			sets.add(set);
+			// each thread adds the same elements in a different order
+			int offset = t * elements / threads;
+			workers.add(new Thread(() -> {
+				for (int i = 0; i < elements; i++)
+					set.add((i + offset) % elements);
+				set.add(null);
+			}));
+		}
+		for (Thread worker : workers)
+			worker.start();
+		for (Thread worker : workers)
+			worker.join();
+
+		assertEquals(elements + 1, cache.size());
+		Set<Object> all = new HashSet<>(cache.getAllElements());
+		assertEquals(elements + 1, all.size());
+		for (ExternalSet<Object> set : sets) {
+			assertEquals(elements + 1, set.size());
+			assertEquals(all, new HashSet<>(set.collect()));
+		}
+	}
 }
@@ -0,0 +1,67 @@
+package it.unive.lisa.util.datastructures.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.ProgramValidationException;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.edge.SequentialEdge;
+import it.unive.lisa.program.cfg.statement.Statement;
+import java.util.ArrayList;
+import org.junit.Test;
+
+public class CompactAdjacencyMatrixTest {
+
+	private static final String PROGRAM = "class test {"
+			+ " main(x) {"
+			+ "  def y = 0;"
+			+ "  while (x > 0) { if (x > 10) y = y + 1; else y = y - 1; x = x - 1; }"
+			+ "  return y;"
+			+ " }"
+			+ "}";
+
+	private static CFG mkCfg() throws ParsingException, ProgramValidationException {
+		Program p = IMPFrontend.processText(PROGRAM, true);
+		p.validateAndFinalize();
+		return p.getAllCFGs().iterator().next();
+	}
+
+	@Test
+	public void testCompactedMatrixAnswersAsTheOriginal() throws ParsingException, ProgramValidationException {
+		CFG cfg = mkCfg();
+		AdjacencyMatrix<Statement, Edge, CFG> compacted = cfg.getAdjacencyMatrix();
+		assertNotNull("The matrix has not been compacted during finalization", compacted.getCompact());
+
+		AdjacencyMatrix<Statement, Edge, CFG> plain = new AdjacencyMatrix<>(compacted);
+		assertNull(plain.getCompact());
+
+		for (Statement st : plain.getNodes()) {
+			assertEquals("Different followers for " + st, new ArrayList<>(plain.followersOf(st)),
+					new ArrayList<>(compacted.followersOf(st)));
+			assertEquals("Different predecessors for " + st, new ArrayList<>(plain.predecessorsOf(st)),
+					new ArrayList<>(compacted.predecessorsOf(st)));
+			for (Statement other : plain.getNodes())
+				assertSame("Different edges from " + st + " to " + other, plain.getEdgeConnecting(st, other),
+						compacted.getEdgeConnecting(st, other));
+		}
+	}
+
+	@Test
+	public void testModificationsDiscardTheCompactedMatrix() throws ParsingException, ProgramValidationException {
+		CFG cfg = mkCfg();
+		AdjacencyMatrix<Statement, Edge, CFG> matrix = cfg.getAdjacencyMatrix();
+		Statement entry = cfg.getEntrypoints().iterator().next();
+		Statement exit = cfg.getNormalExitpoints().iterator().next();
+		assertNull(matrix.getEdgeConnecting(exit, entry));
+
+		matrix.addEdge(new SequentialEdge(exit, entry));
+		assertNull(matrix.getCompact());
+		assertNotNull(matrix.getEdgeConnecting(exit, entry));
+	}
+}
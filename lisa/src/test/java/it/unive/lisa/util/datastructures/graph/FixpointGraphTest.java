@@ -0,0 +1,209 @@
+package it.unive.lisa.util.datastructures.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.analysis.AbstractState;
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.CFGWithAnalysisResults;
+import it.unive.lisa.analysis.SemanticException;
+import it.unive.lisa.analysis.SimpleAbstractState;
+import it.unive.lisa.analysis.heap.HeapDomain;
+import it.unive.lisa.analysis.impl.heap.MonolithicHeap;
+import it.unive.lisa.analysis.impl.numeric.Interval;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.analysis.value.ValueDomain;
+import it.unive.lisa.caches.Caches;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.interprocedural.callgraph.impl.RTACallGraph;
+import it.unive.lisa.interprocedural.impl.ModularWorstCaseAnalysis;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.edge.TrueEdge;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class FixpointGraphTest {
+
+	private static final String PROGRAM = "class tutorial { "
+			+ "loop() { def i = 0; while (i < 1000) i = i + 1; return i; } }";
+
+	// delegates to the original edge, recording the post-states it traverses
+	private static class RecordingEdge extends Edge {
+
+		private final Edge delegate;
+
+		private final Map<String, List<AnalysisState<?, ?, ?>>> traversed;
+
+		private RecordingEdge(Edge delegate, Map<String, List<AnalysisState<?, ?, ?>>> traversed) {
+			super(delegate.getSource(), delegate.getDestination());
+			this.delegate = delegate;
+			this.traversed = traversed;
+		}
+
+		@Override
+		public String toString() {
+			return delegate.toString();
+		}
+
+		@Override
+		public <A extends AbstractState<A, H, V>,
+				H extends HeapDomain<H>,
+				V extends ValueDomain<V>> AnalysisState<A, H, V> traverse(
+						AnalysisState<A, H, V> sourceState) throws SemanticException {
+			traversed.computeIfAbsent(delegate.toString(), e -> new ArrayList<>()).add(sourceState);
+			return delegate.traverse(sourceState);
+		}
+
+		@Override
+		public boolean canBeSimplified() {
+			return false;
+		}
+
+		@Override
+		public Edge newInstance(Statement source, Statement destination) {
+			return new RecordingEdge(delegate.newInstance(source, destination), traversed);
+		}
+	}
+
+	private static class Run {
+
+		// keyed by string, since each run analyzes a different instance of
+		// the program
+		private final Map<String, List<AnalysisState<?, ?, ?>>> traversed = new HashMap<>();
+
+		private final Map<String, Integer> entries = new HashMap<>();
+
+		private CFGWithAnalysisResults<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>,
+				MonolithicHeap, ValueEnvironment<Interval>> results;
+
+		private List<AnalysisState<?, ?, ?>> posts(Edge edge) {
+			return traversed.getOrDefault(edge.toString(), List.of());
+		}
+	}
+
+	private static CFG loop;
+
+	private static Run analyze(IterationStrategy strategy, int narrowing) throws Exception {
+		Program program = IMPFrontend.processText(PROGRAM, true);
+		Caches.types().clear();
+		ExternalSet<Type> types = Caches.types().mkEmptySet();
+		program.getRegisteredTypes().forEach(types::add);
+		program.validateAndFinalize();
+		loop = program.getAllCFGs().iterator().next();
+
+		ModularWorstCaseAnalysis<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>, MonolithicHeap,
+				ValueEnvironment<Interval>> analysis = new ModularWorstCaseAnalysis<>();
+		RTACallGraph callgraph = new RTACallGraph();
+		callgraph.init(program);
+		analysis.init(program, callgraph);
+
+		Run run = new Run();
+		CFG copy = new CFG(loop.getDescriptor());
+		for (Statement node : loop.getNodes())
+			copy.addNode(node, loop.getEntrypoints().contains(node));
+		for (Edge edge : loop.getEdges())
+			copy.addEdge(new RecordingEdge(edge, run.traversed));
+
+		FixpointListener listener = new FixpointListener() {
+			@Override
+			public void entryStateComputed(FixpointGraph<?, ?, ?> graph, Node<?, ?, ?> node, long nanos) {
+				run.entries.merge(node.toString(), 1, Integer::sum);
+			}
+		};
+		run.results = copy.fixpoint(new AnalysisState<>(
+				new SimpleAbstractState<>(new MonolithicHeap(), new ValueEnvironment<>(new Interval())),
+				new ExpressionSet<>()), analysis, new FixpointConfiguration().setIterationStrategy(strategy)
+						.setNarrowingIterations(narrowing).setListener(listener));
+		return run;
+	}
+
+	private static Edge body() {
+		return loop.getEdges().stream().filter(TrueEdge.class::isInstance).findFirst().get();
+	}
+
+	private static Edge into(Statement guard, boolean fromEntry) {
+		return loop.getIngoingEdges(guard).stream()
+				.filter(e -> loop.getEntrypoints().contains(e.getSource()) == fromEntry)
+				.findFirst().get();
+	}
+
+	private static int check(IterationStrategy strategy) throws Exception {
+		Run ascending = analyze(strategy, 0);
+		Edge body = body();
+		Statement guard = body.getSource();
+		Edge init = into(guard, true), back = into(guard, false);
+
+		// the guard is visited many times, but the post-state of the
+		// initialization never changes: it is traversed only once
+		assertTrue(ascending.entries.get(guard.toString()) > 1);
+		assertEquals(1, ascending.posts(init).size());
+
+		// the post-states of the guard and of the loop body change at each
+		// iteration, and they are traversed again every time
+		assertTrue(ascending.posts(body).size() > 1);
+		assertTrue(ascending.posts(back).size() > 1);
+		Map<String, AnalysisState<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>, MonolithicHeap,
+				ValueEnvironment<Interval>>> widened = new HashMap<>();
+		for (Edge edge : loop.getEdges()) {
+			List<AnalysisState<?, ?, ?>> posts = ascending.posts(edge);
+			for (int i = 1; i < posts.size(); i++)
+				assertNotSame("An unchanged post-state traversed " + edge + " twice", posts.get(i - 1),
+						posts.get(i));
+			AnalysisState<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>, MonolithicHeap,
+					ValueEnvironment<Interval>> post = ascending.results.getAnalysisStateAfter(edge.getSource());
+			assertSame(post, posts.get(posts.size() - 1));
+			widened.put(edge.getSource().toString(), post);
+		}
+
+		Run descending = analyze(strategy, 1);
+		guard = body().getSource();
+		// all nodes are computed again while narrowing
+		assertTrue(descending.entries.get(guard.toString()) > ascending.entries.get(guard.toString()));
+
+		int refined = 0;
+		for (Edge edge : loop.getEdges()) {
+			AnalysisState<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>, MonolithicHeap,
+					ValueEnvironment<Interval>> before = widened.get(edge.getSource().toString()),
+							after = descending.results.getAnalysisStateAfter(edge.getSource());
+			List<AnalysisState<?, ?, ?>> posts = descending.posts(edge);
+			int extra = posts.size() - ascending.posts(edge).size();
+			if (before.lessOrEqual(after))
+				// the post-state of the source is not replaced, and the cached
+				// traversal is reused
+				assertEquals("The unchanged post-state of " + edge.getSource() + " has been traversed again", 0,
+						extra);
+			else {
+				// the narrowed post-state is traversed again
+				assertEquals("The narrowed post-state of " + edge.getSource() + " has not been traversed", 1,
+						extra);
+				assertSame(after, posts.get(posts.size() - 1));
+				refined++;
+			}
+		}
+
+		return refined;
+	}
+
+	@Test
+	public void testWorklist() throws Exception {
+		// widening overshoots the bound of the loop, that is recovered while
+		// narrowing
+		assertTrue(check(IterationStrategy.WORKLIST) > 0);
+	}
+
+	@Test
+	public void testWeakTopologicalOrder() throws Exception {
+		check(IterationStrategy.WEAK_TOPOLOGICAL_ORDER);
+	}
+}
@@ -0,0 +1,183 @@
+package it.unive.lisa.util.datastructures.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.analysis.AnalysisState;
+import it.unive.lisa.analysis.SimpleAbstractState;
+import it.unive.lisa.analysis.impl.heap.MonolithicHeap;
+import it.unive.lisa.analysis.impl.numeric.Interval;
+import it.unive.lisa.analysis.lattices.ExpressionSet;
+import it.unive.lisa.analysis.nonrelational.value.ValueEnvironment;
+import it.unive.lisa.caches.Caches;
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.interprocedural.callgraph.impl.RTACallGraph;
+import it.unive.lisa.interprocedural.impl.ModularWorstCaseAnalysis;
+import it.unive.lisa.outputs.JsonFixpointMetrics;
+import it.unive.lisa.outputs.JsonFixpointMetrics.JsonGraphMetrics;
+import it.unive.lisa.program.CompilationUnit;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.SourceCodeLocation;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CFGDescriptor;
+import it.unive.lisa.program.cfg.statement.NoOp;
+import it.unive.lisa.type.Type;
+import it.unive.lisa.util.collections.externalSet.ExternalSet;
+import it.unive.lisa.util.datastructures.graph.FixpointMetrics.GraphMetrics;
+import it.unive.lisa.util.datastructures.graph.FixpointMetrics.NodeMetrics;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class FixpointMetricsTest {
+
+	private static final String PROGRAM = "class tutorial { "
+			+ "loop() { def i = 0; while (i < 1000) i = i + 1; return i; } "
+			+ "straight() { def x = 1; def y = x + 2; return y; } }";
+
+	private static Program program;
+
+	private static FixpointMetrics analyze(IterationStrategy strategy) throws Exception {
+		program = IMPFrontend.processText(PROGRAM, true);
+		Caches.types().clear();
+		ExternalSet<Type> types = Caches.types().mkEmptySet();
+		program.getRegisteredTypes().forEach(types::add);
+		program.validateAndFinalize();
+
+		ModularWorstCaseAnalysis<SimpleAbstractState<MonolithicHeap, ValueEnvironment<Interval>>, MonolithicHeap,
+				ValueEnvironment<Interval>> analysis = new ModularWorstCaseAnalysis<>();
+		RTACallGraph callgraph = new RTACallGraph();
+		callgraph.init(program);
+		analysis.init(program, callgraph);
+
+		FixpointMetrics metrics = new FixpointMetrics();
+		analysis.fixpoint(new AnalysisState<>(
+				new SimpleAbstractState<>(new MonolithicHeap(), new ValueEnvironment<>(new Interval())),
+				new ExpressionSet<>()),
+				new FixpointConfiguration().setIterationStrategy(strategy).setListener(metrics));
+		return metrics;
+	}
+
+	private static CFG cfg(String name) {
+		return program.getAllCFGs().stream().filter(cfg -> cfg.getDescriptor().getName().equals(name))
+				.findFirst().get();
+	}
+
+	private static void checkCommon(FixpointMetrics metrics) {
+		assertEquals(2, metrics.getGraphs().size());
+
+		GraphMetrics straight = metrics.getMetrics(cfg("straight"));
+		assertEquals(1, straight.getFixpoints());
+		assertTrue(straight.getFixpointNanos() > 0);
+		assertEquals(1, straight.getContexts().size());
+		assertTrue(straight.getContexts().containsKey("null"));
+		// no loops: each node is visited exactly once and never joined
+		assertEquals(straight.getNodes().size(), straight.getTotals().getVisits());
+		assertEquals(0, straight.getTotals().getLubs());
+		assertEquals(0, straight.getTotals().getWidenings());
+		for (NodeMetrics node : straight.getNodes())
+			assertEquals(1, node.getVisits());
+
+		GraphMetrics loop = metrics.getMetrics(cfg("loop"));
+		assertEquals(1, loop.getFixpoints());
+		assertTrue(loop.getTotals().getVisits() > loop.getNodes().size());
+		assertTrue(loop.getTotals().getWidenings() > 0);
+		assertTrue(loop.getTotals().getSemanticsNanos() > 0);
+		assertTrue(loop.getTotals().getEntryStateNanos() > 0);
+		assertTrue(loop.getTotals().getComparisonNanos() > 0);
+
+		// the loop requires more visits than the straight-line code
+		assertTrue(loop.getTotals().getVisits() > straight.getTotals().getVisits());
+		assertEquals(1, metrics.hottestGraphs(1).size());
+		assertEquals(3, metrics.hottestNodes(3).size());
+		assertTrue(metrics.summary(3).contains(loop.getName()));
+	}
+
+	@Test
+	public void testWorklist() throws Exception {
+		FixpointMetrics metrics = analyze(IterationStrategy.WORKLIST);
+		checkCommon(metrics);
+		assertTrue(metrics.getMetrics(cfg("loop")).getMaxWorkingSet() > 0);
+	}
+
+	@Test
+	public void testWeakTopologicalOrder() throws Exception {
+		FixpointMetrics metrics = analyze(IterationStrategy.WEAK_TOPOLOGICAL_ORDER);
+		checkCommon(metrics);
+		// no working set is used
+		assertEquals(0, metrics.getMetrics(cfg("loop")).getMaxWorkingSet());
+	}
+
+	@Test
+	public void testUnknownGraph() throws Exception {
+		FixpointMetrics metrics = analyze(IterationStrategy.WORKLIST);
+		assertNull(metrics.getMetrics(new CFG(cfg("loop").getDescriptor())));
+	}
+
+	@Test
+	public void testJsonRoundTrip() throws Exception {
+		FixpointMetrics metrics = analyze(IterationStrategy.WORKLIST);
+		JsonFixpointMetrics json = new JsonFixpointMetrics(metrics, 5);
+		StringWriter writer = new StringWriter();
+		json.dump(writer);
+		JsonFixpointMetrics read = JsonFixpointMetrics.read(new StringReader(writer.toString()));
+
+		assertEquals(json.getHottestGraphs(), read.getHottestGraphs());
+		assertEquals(json.getHottestNodes(), read.getHottestNodes());
+		assertEquals(2, read.getGraphs().size());
+		for (int i = 0; i < 2; i++) {
+			JsonGraphMetrics expected = json.getGraphs().get(i);
+			JsonGraphMetrics actual = read.getGraphs().get(i);
+			assertEquals(expected.getName(), actual.getName());
+			assertEquals(expected.getFixpointNanos(), actual.getFixpointNanos());
+			assertEquals(expected.getMaxWorkingSet(), actual.getMaxWorkingSet());
+			assertEquals(expected.getContexts(), actual.getContexts());
+			assertEquals(expected.getTotals().getVisits(), actual.getTotals().getVisits());
+			assertEquals(expected.getTotals().getAvoidedComparisons(), actual.getTotals().getAvoidedComparisons());
+			assertEquals(expected.getNodes().size(), actual.getNodes().size());
+		}
+		// graphs are sorted from the hottest one
+		assertTrue(read.getGraphs().get(0).getFixpointNanos() >= read.getGraphs().get(1).getFixpointNanos());
+	}
+
+	@Test
+	public void testConcurrentCallbacks() throws InterruptedException {
+		SourceCodeLocation location = new SourceCodeLocation("fake", 0, 0);
+		CompilationUnit unit = new CompilationUnit(location, "unit", false);
+		CFG cfg = new CFG(new CFGDescriptor(location, unit, false, "concurrent"));
+		NoOp node = new NoOp(cfg, location);
+		cfg.addNode(node, true);
+
+		FixpointMetrics metrics = new FixpointMetrics();
+		int threads = 4, iterations = 10_000;
+		List<Thread> workers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			int id = t;
+			workers.add(new Thread(() -> {
+				for (int i = 0; i < iterations; i++) {
+					metrics.semanticsComputed(cfg, node, 1);
+					metrics.lubApplied(cfg, node);
+					metrics.workingSetGrown(cfg, id * iterations + i);
+				}
+				metrics.fixpointCompleted(cfg, 1);
+				metrics.analysisCompleted(cfg, id % 2, 1);
+			}));
+		}
+		workers.forEach(Thread::start);
+		for (Thread worker : workers)
+			worker.join();
+
+		GraphMetrics graph = metrics.getMetrics(cfg);
+		assertEquals(1, graph.getNodes().size());
+		assertEquals(threads * iterations, graph.getTotals().getVisits());
+		assertEquals(threads * iterations, graph.getTotals().getLubs());
+		assertEquals(threads * iterations, graph.getTotals().getSemanticsNanos());
+		assertEquals(threads, graph.getFixpoints());
+		assertEquals(threads * iterations - 1, graph.getMaxWorkingSet());
+		assertEquals(2, graph.getContexts().size());
+		assertEquals(threads / 2, graph.getContexts().get("0").longValue());
+	}
+}
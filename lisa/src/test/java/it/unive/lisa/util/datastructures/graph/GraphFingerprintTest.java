@@ -0,0 +1,111 @@
+package it.unive.lisa.util.datastructures.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.imp.IMPFrontend;
+import it.unive.lisa.imp.ParsingException;
+import it.unive.lisa.program.Program;
+import it.unive.lisa.program.ProgramValidationException;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.statement.Statement;
+import java.util.Collection;
+import java.util.List;
+import org.junit.Test;
+
+public class GraphFingerprintTest {
+
+	private static final String PROGRAM = "class test {"
+			+ " main(x) {"
+			+ "  def y = 0;"
+			+ "  while (x > 0) { if (x > 10) y = y + 1; else y = y - 1; x = x - 1; }"
+			+ "  return y;"
+			+ " }"
+			+ "}";
+
+	private static CFG mkCfg(String program) throws ParsingException, ProgramValidationException {
+		Program p = IMPFrontend.processText(program, true);
+		p.validateAndFinalize();
+		return p.getAllCFGs().iterator().next();
+	}
+
+	@Test
+	public void testEqualGraphsHaveEqualFingerprints() throws ParsingException, ProgramValidationException {
+		CFG first = mkCfg(PROGRAM);
+		CFG second = mkCfg(PROGRAM);
+		assertNotSame(first, second);
+		assertTrue(first.isEqualTo(second));
+		assertEquals(first.fingerprint(), second.fingerprint());
+
+		for (Statement st : first.getNodes()) {
+			Collection<Statement> matching = second.getAdjacencyMatrix().nodesEqualTo(st);
+			assertEquals("Wrong matches for " + st, 1, matching.size());
+			assertEquals(st.fingerprint(), matching.iterator().next().fingerprint());
+		}
+	}
+
+	@Test
+	public void testCompactionDoesNotChangeFingerprints() throws ParsingException, ProgramValidationException {
+		CFG cfg = mkCfg(PROGRAM);
+		AdjacencyMatrix<Statement, Edge, CFG> compacted = cfg.getAdjacencyMatrix();
+		AdjacencyMatrix<Statement, Edge, CFG> plain = new AdjacencyMatrix<>(compacted);
+		assertEquals(compacted.fingerprint(), plain.fingerprint());
+		assertTrue(compacted.isEqualTo(plain));
+		assertTrue(plain.isEqualTo(compacted));
+	}
+
+	@Test
+	public void testChangesAreDetected() throws ParsingException, ProgramValidationException {
+		CFG original = mkCfg(PROGRAM);
+		CFG changed = mkCfg(PROGRAM.replace("y + 1", "y + 2"));
+		assertNotEquals(original.fingerprint(), changed.fingerprint());
+		assertFalse(original.isEqualTo(changed));
+		assertFalse(changed.isEqualTo(original));
+	}
+
+	@Test
+	public void testWeakLookups() throws ParsingException, ProgramValidationException {
+		CFG first = mkCfg(PROGRAM);
+		CFG second = mkCfg(PROGRAM);
+		AdjacencyMatrix<Statement, Edge, CFG> compacted = second.getAdjacencyMatrix();
+		AdjacencyMatrix<Statement, Edge, CFG> plain = new AdjacencyMatrix<>(compacted);
+
+		for (AdjacencyMatrix<Statement, Edge, CFG> matrix : List.of(compacted, plain)) {
+			for (Statement st : first.getNodes()) {
+				assertFalse(matrix.containsNode(st, false));
+				assertTrue(matrix.containsNode(st, true));
+			}
+			for (Edge e : first.getEdges()) {
+				assertFalse(matrix.containsEdge(e, false));
+				assertTrue(matrix.containsEdge(e, true));
+			}
+			for (Edge e : second.getEdges())
+				assertTrue(matrix.containsEdge(e, false));
+		}
+	}
+
+	@Test
+	public void testRemoveFromEffectivelyEqualNode() throws ParsingException, ProgramValidationException {
+		// removal only supports sequential edges
+		String program = "class test { main(x) { def y = 0; y = y + x; return y; } }";
+		CFG first = mkCfg(program);
+		CFG second = mkCfg(program);
+		AdjacencyMatrix<Statement, Edge, CFG> matrix = new AdjacencyMatrix<>(second.getAdjacencyMatrix());
+
+		Statement exit = first.getNormalExitpoints().iterator().next();
+		int size = matrix.getNodes().size();
+		matrix.removeFrom(exit);
+		assertEquals(size - 1, matrix.getNodes().size());
+		assertFalse(matrix.containsNode(exit, true));
+
+		// nodes that are not effectively equal to any node are ignored
+		Statement other = mkCfg(program.replace("y + x", "y - x")).getNodes().stream()
+				.filter(st -> st.toString().contains("-")).findFirst().get();
+		matrix.removeFrom(other);
+		assertEquals(size - 1, matrix.getNodes().size());
+	}
+}
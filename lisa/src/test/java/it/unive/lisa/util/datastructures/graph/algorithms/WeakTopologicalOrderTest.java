@@ -0,0 +1,115 @@
+package it.unive.lisa.util.datastructures.graph.algorithms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import it.unive.lisa.program.CompilationUnit;
+import it.unive.lisa.program.SourceCodeLocation;
+import it.unive.lisa.program.cfg.CFG;
+import it.unive.lisa.program.cfg.CFGDescriptor;
+import it.unive.lisa.program.cfg.edge.Edge;
+import it.unive.lisa.program.cfg.edge.SequentialEdge;
+import it.unive.lisa.program.cfg.statement.NoOp;
+import it.unive.lisa.program.cfg.statement.Statement;
+import it.unive.lisa.util.datastructures.graph.algorithms.WeakTopologicalOrder.Element;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class WeakTopologicalOrderTest {
+
+	// deep enough to overflow the default call stack with a recursive visit
+	private static final int DEPTH = 100_000;
+
+	private static final SourceCodeLocation LOCATION = new SourceCodeLocation("fake", 0, 0);
+
+	private static CFG mkCfg() {
+		CompilationUnit unit = new CompilationUnit(LOCATION, "unit", false);
+		return new CFG(new CFGDescriptor(LOCATION, unit, false, "wto"));
+	}
+
+	private static Statement[] mkNodes(CFG cfg, int count) {
+		Statement[] nodes = new Statement[count];
+		for (int i = 0; i < count; i++) {
+			nodes[i] = new NoOp(cfg, new SourceCodeLocation("fake", i, 0));
+			cfg.addNode(nodes[i], i == 0);
+		}
+		return nodes;
+	}
+
+	private static List<Element<Statement>> wto(CFG cfg, Statement root) {
+		return new WeakTopologicalOrder<CFG, Statement, Edge>().build(cfg, Collections.singleton(root));
+	}
+
+	private static String render(List<Element<Statement>> elements, Map<Statement, String> names) {
+		StringBuilder builder = new StringBuilder();
+		for (Element<Statement> e : elements) {
+			if (builder.length() > 0)
+				builder.append(" ");
+			if (e.isComponent())
+				builder.append("(").append(names.get(e.getHead())).append(" ")
+						.append(render(e.getBody(), names)).append(")");
+			else
+				builder.append(names.get(e.getHead()));
+		}
+		return builder.toString();
+	}
+
+	@Test
+	public void testNestedLoops() {
+		CFG cfg = mkCfg();
+		Statement[] n = mkNodes(cfg, 5);
+		Map<Statement, String> names = new IdentityHashMap<>();
+		for (int i = 0; i < n.length; i++)
+			names.put(n[i], String.valueOf((char) ('a' + i)));
+
+		// a -> b -> c -> d, with d -> c (inner loop), d -> b (outer loop)
+		// and b -> e (exit)
+		cfg.addEdge(new SequentialEdge(n[0], n[1]));
+		cfg.addEdge(new SequentialEdge(n[1], n[2]));
+		cfg.addEdge(new SequentialEdge(n[2], n[3]));
+		cfg.addEdge(new SequentialEdge(n[3], n[2]));
+		cfg.addEdge(new SequentialEdge(n[3], n[1]));
+		cfg.addEdge(new SequentialEdge(n[1], n[4]));
+
+		assertEquals("a (b (c d)) e", render(wto(cfg, n[0]), names));
+	}
+
+	@Test
+	public void testDeepChain() {
+		CFG cfg = mkCfg();
+		Statement[] n = mkNodes(cfg, DEPTH);
+		for (int i = 1; i < DEPTH; i++)
+			cfg.addEdge(new SequentialEdge(n[i - 1], n[i]));
+
+		List<Element<Statement>> order = wto(cfg, n[0]);
+		assertEquals(DEPTH, order.size());
+		for (int i = 0; i < DEPTH; i++) {
+			assertSame(n[i], order.get(i).getHead());
+			assertFalse(order.get(i).isComponent());
+		}
+	}
+
+	@Test
+	public void testDeepLoop() {
+		CFG cfg = mkCfg();
+		Statement[] n = mkNodes(cfg, DEPTH);
+		for (int i = 1; i < DEPTH; i++)
+			cfg.addEdge(new SequentialEdge(n[i - 1], n[i]));
+		cfg.addEdge(new SequentialEdge(n[DEPTH - 1], n[1]));
+
+		List<Element<Statement>> order = wto(cfg, n[0]);
+		assertEquals(2, order.size());
+		assertSame(n[0], order.get(0).getHead());
+		Element<Statement> loop = order.get(1);
+		assertTrue(loop.isComponent());
+		assertSame(n[1], loop.getHead());
+		assertEquals(DEPTH - 2, loop.getBody().size());
+		for (int i = 2; i < DEPTH; i++)
+			assertSame(n[i], loop.getBody().get(i - 2).getHead());
+	}
+}